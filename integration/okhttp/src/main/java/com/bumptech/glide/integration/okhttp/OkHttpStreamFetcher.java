@@ -3,6 +3,7 @@ package com.bumptech.glide.integration.okhttp;
 import com.bumptech.glide.Priority;
 import com.bumptech.glide.load.data.DataFetcher;
 import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.resource.bitmap.ImageHeaderInputStream;
 import com.squareup.okhttp.OkHttpClient;
 import com.squareup.okhttp.Request;
 
@@ -33,7 +34,7 @@ public class OkHttpStreamFetcher implements DataFetcher<InputStream> {
                 .execute()
                 .body()
                 .byteStream();
-        return stream;
+        return ImageHeaderInputStream.wrap(stream, url.getImageHeader());
     }
 
     @Override
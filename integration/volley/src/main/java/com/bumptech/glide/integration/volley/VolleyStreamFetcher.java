@@ -8,6 +8,7 @@ import com.android.volley.toolbox.HttpHeaderParser;
 import com.bumptech.glide.Priority;
 import com.bumptech.glide.load.data.DataFetcher;
 import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.resource.bitmap.ImageHeaderInputStream;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
@@ -43,7 +44,7 @@ public class VolleyStreamFetcher implements DataFetcher<InputStream> {
 
         requestFuture.setRequest(requestQueue.add(request));
 
-        return requestFuture.get();
+        return ImageHeaderInputStream.wrap(requestFuture.get(), url.getImageHeader());
     }
 
     @Override
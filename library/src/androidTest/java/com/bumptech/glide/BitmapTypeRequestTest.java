@@ -10,6 +10,7 @@ import static org.mockito.Mockito.when;
 import android.graphics.Bitmap;
 
 import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.resource.bitmap.BitmapDecoderSelector;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 import com.bumptech.glide.provider.DataLoadProvider;
 import com.bumptech.glide.provider.LoadProvider;
@@ -37,6 +38,7 @@ public class BitmapTypeRequestTest {
         Glide glide = mock(Glide.class);
         when(glide.buildTranscoder(any(Class.class), any(Class.class))).thenReturn(mock(ResourceTranscoder.class));
         when(glide.buildDataProvider(any(Class.class), any(Class.class))).thenReturn(mock(DataLoadProvider.class));
+        when(glide.getBitmapDecoderSelector()).thenReturn(new BitmapDecoderSelector());
 
         GenericRequestBuilder original = new GenericRequestBuilder(Robolectric.application, Object.class,
                 mock(LoadProvider.class), null, glide, null, null);
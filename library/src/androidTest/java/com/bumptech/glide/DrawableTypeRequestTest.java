@@ -1,13 +1,19 @@
 package com.bumptech.glide;
 
 import static com.bumptech.glide.tests.Util.arg;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.Transformation;
 import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapperTransformation;
 import com.bumptech.glide.manager.Lifecycle;
 import com.bumptech.glide.manager.RequestTracker;
 import com.bumptech.glide.tests.GlideShadowLooper;
@@ -16,6 +22,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
@@ -52,4 +59,21 @@ public class DrawableTypeRequestTest {
         GifTypeRequest<String> builder = request.asGif();
         verify(optionsApplier).apply(eq(builder));
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testWrapsAllBitmapTransformationsInASingleGifBitmapWrapperTransformation() {
+        Transformation<Bitmap> first = mock(Transformation.class);
+        when(first.getId()).thenReturn("first");
+        Transformation<Bitmap> second = mock(Transformation.class);
+        when(second.getId()).thenReturn("second");
+        DrawableTypeRequest<String> builder = spy(request);
+
+        builder.bitmapTransform(first, second);
+
+        ArgumentCaptor<GifBitmapWrapperTransformation> captor =
+                ArgumentCaptor.forClass(GifBitmapWrapperTransformation.class);
+        verify(builder).transform(captor.capture());
+        assertEquals("firstsecond", captor.getValue().getId());
+    }
+}
@@ -2,6 +2,7 @@ package com.bumptech.glide.load.engine;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
@@ -10,34 +11,49 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.graphics.Bitmap;
+
 import com.bumptech.glide.Priority;
 import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.KeyedResourceDecoder;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
 import com.bumptech.glide.load.Transformation;
 import com.bumptech.glide.load.data.DataFetcher;
 import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.engine.cache.LruTransformedResourceCache;
+import com.bumptech.glide.load.engine.cache.SharedResource;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
+import com.bumptech.glide.load.engine.executor.Prioritized;
+import com.bumptech.glide.load.resource.bitmap.PreviewDecoder;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 import com.bumptech.glide.provider.DataLoadProvider;
+import com.bumptech.glide.request.PreviewCallback;
+import com.bumptech.glide.util.ByteArrayPool;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE, emulateSdk = 18)
@@ -188,6 +204,57 @@ public class DecodeJobTest {
         verify(harness.transcoder).transcode(any(Resource.class));
     }
 
+    @Test
+    public void testReturnsTranscodedResourceFromTransformedCacheForAllStrategies() throws Exception {
+        for (DiskCacheStrategy strategy : DiskCacheStrategy.values()) {
+            harness = new Harness(strategy);
+            harness.useConverter(false /*isComplete*/);
+            Resource<Object> memoized = mock(Resource.class);
+            Resource<Object> transcoded = mock(Resource.class);
+            Object data = new Object();
+            when(transcoded.get()).thenReturn(data);
+            when(harness.transformedResourceCache.get(eq(harness.transformedKey))).thenReturn(memoized);
+            when(harness.transcoder.transcode(eq(memoized))).thenReturn(transcoded);
+
+            assertEquals("diskCacheStrategy: " + strategy, data, harness.getJob().decodeResultFromCache().get());
+            verify(harness.diskCache, never()).get(any(Key.class));
+        }
+    }
+
+    @Test
+    public void testRecyclingResourceTranscodedFromTransformedCacheOnlyRecyclesReference() throws Exception {
+        harness.useConverter(false /*isComplete*/);
+        Resource<Object> memoized = mock(Resource.class);
+        Resource<Object> transcoded = mock(Resource.class);
+        when(harness.transformedResourceCache.get(eq(harness.transformedKey))).thenReturn(memoized);
+        when(harness.transcoder.transcode(eq(memoized))).thenReturn(transcoded);
+
+        harness.getJob().decodeResultFromCache().recycle();
+
+        verify(memoized).recycle();
+        verify(transcoded, never()).recycle();
+    }
+
+    @Test
+    public void testDoesNotUseTransformedCacheWithoutConverter() throws Exception {
+        mockCacheToReturnResultResource();
+
+        assertEquals(harness.resource, harness.getJob().decodeResultFromCache());
+
+        verify(harness.transformedResourceCache, never()).get(any(Key.class));
+        verify(harness.transformedResourceCache, never()).put(any(Key.class), any(SharedResource.class));
+    }
+
+    @Test
+    public void testResultDecodedFromCacheIsPutInTransformedCache() throws Exception {
+        harness.useConverter(false /*isComplete*/);
+        mockCacheToReturnResultResource();
+
+        harness.getJob().decodeResultFromCache();
+
+        verify(harness.transformedResourceCache).put(eq(harness.transformedKey), any(SharedResource.class));
+    }
+
     /** decodeSourceFromCache **/
 
     private void mockCacheToReturnSourceResource() throws IOException {
@@ -504,6 +571,91 @@ public class DecodeJobTest {
         }
     }
 
+    @Test
+    public void testPreviewsAreDecodedOnPreviewServiceRatherThanWhileReadingSource() throws Exception {
+        harness.previewDecoder = mock(PreviewDecoder.class);
+        harness.previewService = mock(ExecutorService.class);
+        harness.previewCallback = mock(PreviewCallback.class);
+        byte[] data = new byte[64 * 1024];
+        when(harness.dataFetcher.loadData(any(Priority.class))).thenReturn(new ByteArrayInputStream(data));
+        when(harness.sourceDecoder.decode(anyObject(), anyInt(), anyInt())).thenAnswer(new Answer<Resource<Object>>() {
+            @Override
+            public Resource<Object> answer(InvocationOnMock invocationOnMock) throws Throwable {
+                InputStream is = (InputStream) invocationOnMock.getArguments()[0];
+                byte[] buffer = new byte[1024];
+                while (is.read(buffer) != -1) {
+                    // Do nothing.
+                }
+                return harness.resource;
+            }
+        });
+        when(harness.previewDecoder.canDecode(any(byte[].class), anyInt())).thenReturn(true);
+        Resource<Bitmap> preview = mock(Resource.class);
+        when(harness.previewDecoder.decode(any(byte[].class), anyInt(), anyInt(), anyInt())).thenReturn(preview);
+
+        harness.getJob().decodeFromSource();
+
+        verify(harness.previewDecoder, never()).decode(any(byte[].class), anyInt(), anyInt(), anyInt());
+        // Prefixes that arrive while a preview is waiting to be decoded are skipped.
+        ArgumentCaptor<Runnable> runnable = ArgumentCaptor.forClass(Runnable.class);
+        verify(harness.previewService, times(1)).submit(runnable.capture());
+
+        runnable.getValue().run();
+
+        verify(harness.previewDecoder).decode(any(byte[].class), eq(16 * 1024), eq(harness.width),
+                eq(harness.height));
+        verify(harness.previewCallback).onPreviewReady(eq(preview));
+    }
+
+    @Test
+    public void testPreviewsHaveLowerPriorityThanAnyLoad() throws Exception {
+        harness.previewDecoder = mock(PreviewDecoder.class);
+        harness.previewService = mock(ExecutorService.class);
+        harness.previewCallback = mock(PreviewCallback.class);
+        harness.priority = Priority.IMMEDIATE;
+        when(harness.dataFetcher.loadData(any(Priority.class)))
+                .thenReturn(new ByteArrayInputStream(new byte[64 * 1024]));
+        when(harness.sourceDecoder.decode(anyObject(), anyInt(), anyInt())).thenAnswer(new Answer<Resource<Object>>() {
+            @Override
+            public Resource<Object> answer(InvocationOnMock invocationOnMock) throws Throwable {
+                InputStream is = (InputStream) invocationOnMock.getArguments()[0];
+                while (is.read(new byte[1024]) != -1) {
+                    // Do nothing.
+                }
+                return harness.resource;
+            }
+        });
+        when(harness.previewDecoder.canDecode(any(byte[].class), anyInt())).thenReturn(true);
+
+        harness.getJob().decodeFromSource();
+
+        ArgumentCaptor<Runnable> runnable = ArgumentCaptor.forClass(Runnable.class);
+        verify(harness.previewService).submit(runnable.capture());
+        for (Priority priority : Priority.values()) {
+            assertTrue(((Prioritized) runnable.getValue()).getPriority() > priority.ordinal());
+        }
+    }
+
+    @Test
+    public void testPreviewPrefixIsReturnedToPoolWhenSourceIsSmallerThanMaxPreviewBytes() throws Exception {
+        harness.previewDecoder = mock(PreviewDecoder.class);
+        harness.previewService = mock(ExecutorService.class);
+        harness.previewCallback = mock(PreviewCallback.class);
+        when(harness.dataFetcher.loadData(any(Priority.class))).thenReturn(new ByteArrayInputStream(new byte[1024]));
+        when(harness.sourceDecoder.decode(anyObject(), anyInt(), anyInt())).thenAnswer(new Answer<Resource<Object>>() {
+            @Override
+            public Resource<Object> answer(InvocationOnMock invocationOnMock) throws Throwable {
+                ((InputStream) invocationOnMock.getArguments()[0]).read(new byte[1024]);
+                return harness.resource;
+            }
+        });
+        ByteArrayPool.get().clear();
+
+        harness.getJob().decodeFromSource();
+
+        assertTrue(ByteArrayPool.get().getCurrentSize() > 0);
+    }
+
     @Test
     public void testFetcherIsCleanedUp() throws Exception {
         harness.getJob().decodeFromSource();
@@ -540,6 +692,19 @@ public class DecodeJobTest {
         verify(harness.dataFetcher).cleanup();
     }
 
+    @Test
+    public void testKeyedSourceDecoderIsGivenOriginalKey() throws Exception {
+        harness = new Harness(DiskCacheStrategy.NONE);
+        Object data = new Object();
+        when(harness.dataFetcher.loadData(eq(harness.priority))).thenReturn(data);
+        KeyedResourceDecoder<Object, Object> keyedDecoder = mock(KeyedResourceDecoder.class);
+        when(keyedDecoder.decode(eq(data), eq(harness.originalKey), eq(harness.width), eq(harness.height)))
+                .thenReturn(harness.resource);
+        when(harness.loadProvider.getSourceDecoder()).thenReturn(keyedDecoder);
+
+        assertEquals(harness.resource, harness.getJob().decodeFromSource());
+    }
+
     @Test
     public void testReturnsNullFromDecodeSourceIfDecoderReturnsNull() throws Exception {
         for (DiskCacheStrategy strategy : DiskCacheStrategy.values()) {
@@ -574,6 +739,85 @@ public class DecodeJobTest {
         }
     }
 
+    @Test
+    public void testTransformedResourceFromSourceIsPutInTransformedCache() throws Exception {
+        for (DiskCacheStrategy strategy : DiskCacheStrategy.values()) {
+            harness = new Harness(strategy);
+            harness.useConverter(false /*isComplete*/);
+            mockSourceToReturnResource();
+
+            harness.getJob().decodeFromSource();
+
+            verify(harness.transformedResourceCache).put(eq(harness.transformedKey), any(SharedResource.class));
+        }
+    }
+
+    @Test
+    public void testTranscodesTransformedResourceIfTransformedCacheDoesNotCacheIt() throws Exception {
+        harness.useConverter(false /*isComplete*/);
+        mockSourceToReturnResource();
+
+        assertEquals(harness.resource, harness.getJob().decodeFromSource());
+
+        verify(harness.transcoder).transcode(eq(harness.resource));
+    }
+
+    @Test
+    public void testTransformedResourceIsNotRecycledUntilEvictedFromTransformedCache() throws Exception {
+        harness.useConverter(false /*isComplete*/);
+        harness.transformedResourceCache = new LruTransformedResourceCache(100);
+        when(harness.resource.getSize()).thenReturn(10);
+        Resource<Object> transcoded = mock(Resource.class);
+        when(harness.transcoder.transcode(any(Resource.class))).thenReturn(transcoded);
+        mockSourceToReturnResource();
+
+        harness.getJob().decodeFromSource().recycle();
+        verify(harness.resource, never()).recycle();
+
+        harness.transformedResourceCache.clearMemory();
+        verify(harness.resource).recycle();
+        verify(transcoded, never()).recycle();
+    }
+
+    @Test
+    public void testCompleteResourceIsPutInTransformedCacheAsStill() throws Exception {
+        harness.useConverter(true /*isComplete*/);
+        mockSourceToReturnResource();
+
+        harness.getJob().decodeFromSource();
+
+        verify(harness.transformedResourceCache).putStill(eq(harness.transformedKey), any(SharedResource.class));
+        verify(harness.transformedResourceCache, never()).put(any(Key.class), any(SharedResource.class));
+    }
+
+    @Test
+    public void testResourceThatCannotBeSharedIsNotPutInTransformedCache() throws Exception {
+        harness.useConverter(true /*isComplete*/);
+        when(harness.converter.getShared(any(Resource.class))).thenReturn(null);
+        mockSourceToReturnResource();
+
+        harness.getJob().decodeFromSource();
+
+        verify(harness.transformedResourceCache, never()).putStill(any(Key.class), any(SharedResource.class));
+        verify(harness.transformedResourceCache, never()).put(any(Key.class), any(SharedResource.class));
+    }
+
+    @Test
+    public void testWrapsCompleteResourceFromTransformedCache() throws Exception {
+        harness.useConverter(true /*isComplete*/);
+        Resource<Object> still = mock(Resource.class);
+        Resource<Object> wrapped = mock(Resource.class);
+        Resource<Object> transcoded = mock(Resource.class);
+        Object data = new Object();
+        when(transcoded.get()).thenReturn(data);
+        when(harness.transformedResourceCache.getStill(eq(harness.transformedKey))).thenReturn(still);
+        when(harness.converter.wrapShared(eq(still))).thenReturn(wrapped);
+        when(harness.transcoder.transcode(eq(wrapped))).thenReturn(transcoded);
+
+        assertEquals(data, harness.getJob().decodeResultFromCache().get());
+        verify(harness.transformedResourceCache, never()).get(any(Key.class));
+    }
+
     private static <T> List<T> list(T... items) {
         return Arrays.asList(items);
     }
@@ -582,6 +826,9 @@ public class DecodeJobTest {
     private static class Harness {
         EngineKey key = mock(EngineKey.class);
         Key originalKey = mock(Key.class);
+        Key transformedKey = mock(Key.class);
+        TransformedResourceCache transformedResourceCache = mock(TransformedResourceCache.class);
+        TransformedResourceCache.Converter<Object> converter = mock(TransformedResourceCache.Converter.class);
         int width = 100;
         int height = 200;
         DataFetcher<Object> dataFetcher = mock(DataFetcher.class);
@@ -598,6 +845,9 @@ public class DecodeJobTest {
         ResourceDecoder<Object, Object> sourceDecoder = mock(ResourceDecoder.class);
         Encoder<Object> sourceEncoder = mock(Encoder.class);
         DecodeJob.FileOpener fileOpener = mock(DecodeJob.FileOpener.class);
+        PreviewDecoder previewDecoder;
+        ExecutorService previewService;
+        PreviewCallback previewCallback;
 
         DiskCacheStrategy diskCacheStrategy;
 
@@ -609,6 +859,7 @@ public class DecodeJobTest {
             this.diskCacheStrategy = diskCacheStrategy;
             when(fileOpener.open(any(File.class))).thenReturn(mock(OutputStream.class));
             when(key.getOriginalKey()).thenReturn(originalKey);
+            when(key.getTransformedKey()).thenReturn(transformedKey);
             when(transcoder.transcode(eq(resource))).thenReturn(resource);
             when(transformation.transform(eq(resource), eq(width), eq(height))).thenReturn(resource);
             when(loadProvider.getCacheDecoder()).thenReturn(cacheDecoder);
@@ -618,9 +869,25 @@ public class DecodeJobTest {
             when(diskCacheProvider.getDiskCache()).thenReturn(diskCache);
         }
 
+        public void useConverter(boolean isComplete) {
+            when(converter.isComplete()).thenReturn(isComplete);
+            when(converter.getShared(any(Resource.class))).thenAnswer(new ReturnFirstArgument());
+            when(converter.wrapShared(any(Resource.class))).thenAnswer(new ReturnFirstArgument());
+            when(loadProvider.getTransformedResourceConverter()).thenReturn(converter);
+        }
+
         public DecodeJob<Object, Object, Object> getJob() {
             return new DecodeJob<Object, Object, Object>(key, width, height, dataFetcher, loadProvider, transformation,
-                    transcoder, diskCacheProvider, diskCacheStrategy, priority, fileOpener);
+                    transcoder, diskCacheProvider, diskCacheStrategy, priority, fileOpener, previewDecoder,
+                    previewService, previewCallback, transformedResourceCache);
+        }
+    }
+
+    private static class ReturnFirstArgument implements Answer<Object> {
+
+        @Override
+        public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
+            return invocationOnMock.getArguments()[0];
         }
     }
 
@@ -0,0 +1,130 @@
+package com.bumptech.glide.load.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.tests.Util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, emulateSdk = 18)
+public class DiskCacheWarmerTest {
+    private DecodeJob.DiskCacheProvider diskCacheProvider;
+    private ExecutorService executorService;
+    private DiskCache diskCache;
+    private List<File> files;
+
+    @Before
+    public void setUp() {
+        diskCacheProvider = mock(DecodeJob.DiskCacheProvider.class);
+        executorService = mock(ExecutorService.class);
+        diskCache = mock(DiskCache.class, withSettings().extraInterfaces(DiskCache.HotSetProvider.class));
+        when(diskCacheProvider.getDiskCache()).thenReturn(diskCache);
+        files = new ArrayList<File>();
+        when(((DiskCache.HotSetProvider) diskCache).getHotFiles(anyLong())).thenReturn(files);
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testReadsAllHotFiles() throws IOException {
+        addFile(100);
+        addFile(200);
+        DiskCacheWarmer warmer = new DiskCacheWarmer(diskCacheProvider, executorService, 1000);
+
+        warmer.run();
+
+        assertEquals(300, warmer.getBytesRead());
+        verify(executorService, never()).submit(warmer);
+    }
+
+    @Test
+    public void testResubmitsItselfAfterEachChunk() throws IOException {
+        addFile(DiskCacheWarmer.CHUNK_BYTES);
+        addFile(DiskCacheWarmer.CHUNK_BYTES);
+        addFile(1);
+        DiskCacheWarmer warmer = new DiskCacheWarmer(diskCacheProvider, executorService,
+                3 * DiskCacheWarmer.CHUNK_BYTES);
+
+        warmer.run();
+        assertEquals(DiskCacheWarmer.CHUNK_BYTES, warmer.getBytesRead());
+        warmer.run();
+        warmer.run();
+
+        assertEquals(2 * DiskCacheWarmer.CHUNK_BYTES + 1, warmer.getBytesRead());
+        verify(executorService, times(2)).submit(warmer);
+    }
+
+    @Test
+    public void testDoesNotReadIfCancelled() throws IOException {
+        addFile(100);
+        DiskCacheWarmer warmer = new DiskCacheWarmer(diskCacheProvider, executorService, 1000);
+
+        warmer.cancel();
+        warmer.run();
+
+        assertEquals(0, warmer.getBytesRead());
+    }
+
+    @Test
+    public void testDoesNothingIfDiskCacheCannotProvideHotFiles() {
+        when(diskCacheProvider.getDiskCache()).thenReturn(mock(DiskCache.class));
+        DiskCacheWarmer warmer = new DiskCacheWarmer(diskCacheProvider, executorService, 1000);
+
+        warmer.run();
+
+        assertEquals(0, warmer.getBytesRead());
+        verify(executorService, never()).submit(warmer);
+    }
+
+    @Test
+    public void testSkipsMissingFiles() throws IOException {
+        files.add(new File("missing"));
+        addFile(100);
+        DiskCacheWarmer warmer = new DiskCacheWarmer(diskCacheProvider, executorService, 1000);
+
+        warmer.run();
+
+        assertEquals(100, warmer.getBytesRead());
+    }
+
+    @Test
+    public void testHasLowerPriorityThanAllLoads() {
+        DiskCacheWarmer warmer = new DiskCacheWarmer(diskCacheProvider, executorService, 1000);
+        for (Priority priority : Priority.values()) {
+            assertTrue(warmer.getPriority() > priority.ordinal());
+        }
+    }
+
+    private void addFile(int size) throws IOException {
+        File file = File.createTempFile("warm", "file");
+        Util.writeFile(file, new byte[size]);
+        files.add(file);
+    }
+}
@@ -12,10 +12,13 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
+import android.graphics.Bitmap;
 import android.os.Handler;
 
 import com.bumptech.glide.load.Key;
+import com.bumptech.glide.request.PreviewCallback;
 import com.bumptech.glide.request.ResourceCallback;
 
 import org.junit.Before;
@@ -445,6 +448,92 @@ public class EngineJobTest {
         verify(harness.diskCacheService).submit(eq(harness.engineRunnable));
     }
 
+    @Test
+    public void testPreviewsArePassedToPreviewCallbacks() {
+        ResourceCallback previewCb = mockPreviewCallback();
+        EngineJob job = harness.getJob();
+        job.addCallback(previewCb);
+        Resource<Bitmap> preview = mockPreview();
+
+        job.onPreviewReady(preview);
+        Robolectric.runUiThreadTasks();
+
+        verify((PreviewCallback) previewCb).onPreviewReady(eq(preview));
+    }
+
+    @Test
+    public void testCallbacksAddedAfterPreviewReceiveCurrentPreview() {
+        EngineJob job = harness.getJob();
+        Resource<Bitmap> preview = mockPreview();
+        job.onPreviewReady(preview);
+        Robolectric.runUiThreadTasks();
+
+        ResourceCallback previewCb = mockPreviewCallback();
+        job.addCallback(previewCb);
+
+        verify((PreviewCallback) previewCb).onPreviewReady(eq(preview));
+    }
+
+    @Test
+    public void testPreviousPreviewIsRecycledWhenReplaced() {
+        EngineJob job = harness.getJob();
+        Resource<Bitmap> first = mockPreview();
+        Resource<Bitmap> second = mockPreview();
+
+        job.onPreviewReady(first);
+        job.onPreviewReady(second);
+        Robolectric.runUiThreadTasks();
+
+        verify(first).recycle();
+        verify(second, never()).recycle();
+    }
+
+    @Test
+    public void testPreviewIsRecycledWhenJobIsCancelled() {
+        EngineJob job = harness.getJob();
+        job.start(harness.engineRunnable);
+        Resource<Bitmap> preview = mockPreview();
+        job.onPreviewReady(preview);
+        Robolectric.runUiThreadTasks();
+
+        job.cancel();
+
+        verify(preview).recycle();
+    }
+
+    @Test
+    public void testPreviewIsRecycledIfReceivedAfterResource() {
+        EngineJob job = harness.getJob();
+        job.onResourceReady(harness.resource);
+        Resource<Bitmap> preview = mockPreview();
+
+        job.onPreviewReady(preview);
+        Robolectric.runUiThreadTasks();
+
+        verify(preview).recycle();
+    }
+
+    @Test
+    public void testLastPreviewIsNotRecycledWhenResourceIsReady() {
+        EngineJob job = harness.getJob();
+        Resource<Bitmap> preview = mockPreview();
+        job.onPreviewReady(preview);
+
+        job.onResourceReady(harness.resource);
+        Robolectric.runUiThreadTasks();
+
+        verify(preview, never()).recycle();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Resource<Bitmap> mockPreview() {
+        return mock(Resource.class);
+    }
+
+    private static ResourceCallback mockPreviewCallback() {
+        return mock(ResourceCallback.class, withSettings().extraInterfaces(PreviewCallback.class));
+    }
+
     private static <T> List<T> list(T... items) {
         return Arrays.asList(items);
     }
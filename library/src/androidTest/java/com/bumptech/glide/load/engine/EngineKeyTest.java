@@ -11,6 +11,10 @@ import com.bumptech.glide.load.Key;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
 import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapperResourceDecoder;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapperTransformation;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 import com.bumptech.glide.tests.KeyAssertions;
 
@@ -49,6 +53,7 @@ public class EngineKeyTest {
         ResourceEncoder encoder = mock(ResourceEncoder.class);
         ResourceTranscoder transcoder = mock(ResourceTranscoder.class);
         Encoder sourceEncoder = mock(Encoder.class);
+        TransformedResourceCache.Converter converter;
         Key signature = mock(Key.class);
 
         public Harness() {
@@ -62,7 +67,7 @@ public class EngineKeyTest {
 
         public EngineKey build() {
             return new EngineKey(id, signature, width, height, cacheDecoder, decoder, transformation, encoder,
-                    transcoder, sourceEncoder);
+                    transcoder, sourceEncoder, converter);
         }
     }
 
@@ -245,4 +250,22 @@ public class EngineKeyTest {
 
         KeyAssertions.assertDifferent(first, second);
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testTransformedKeyOfGifBitmapWrapperDecoderMatchesWrappedBitmapDecoder() {
+        BitmapPool bitmapPool = mock(BitmapPool.class);
+        ResourceDecoder gifDecoder = mock(ResourceDecoder.class);
+        when(gifDecoder.getId()).thenReturn("gifDecoder");
+        EngineKey bitmapKey = harness.build();
+
+        GifBitmapWrapperResourceDecoder gifBitmapDecoder =
+                new GifBitmapWrapperResourceDecoder(harness.decoder, gifDecoder, bitmapPool);
+        harness.decoder = gifBitmapDecoder;
+        harness.converter = gifBitmapDecoder;
+        harness.transformation = new GifBitmapWrapperTransformation(bitmapPool, harness.transformation);
+        EngineKey drawableKey = harness.build();
+
+        assertEquals(bitmapKey.getTransformedKey(), drawableKey.getTransformedKey());
+    }
 }
@@ -25,6 +25,7 @@ import com.bumptech.glide.load.Transformation;
 import com.bumptech.glide.load.data.DataFetcher;
 import com.bumptech.glide.load.engine.cache.DiskCache;
 import com.bumptech.glide.load.engine.cache.MemoryCache;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 import com.bumptech.glide.provider.DataLoadProvider;
 import com.bumptech.glide.request.ResourceCallback;
@@ -411,7 +412,7 @@ public class EngineTest {
 
         verify(harness.keyFactory).buildKey(eq(ID), eq(harness.signature), eq(harness.width), eq(harness.height),
                 eq(harness.cacheDecoder), eq(harness.decoder), eq(harness.transformation), eq(harness.encoder),
-                eq(harness.transcoder), eq(harness.sourceEncoder));
+                eq(harness.transcoder), eq(harness.sourceEncoder), eq(harness.converter));
     }
 
     @Test
@@ -460,6 +461,7 @@ public class EngineTest {
         Map<Key, WeakReference<EngineResource<?>>> activeResources =
                 new HashMap<Key, WeakReference<EngineResource<?>>>();
         Encoder<Object> sourceEncoder = mock(Encoder.class);
+        TransformedResourceCache.Converter<Object> converter = mock(TransformedResourceCache.Converter.class);
         DiskCacheStrategy diskCacheStrategy = DiskCacheStrategy.RESULT;
         Key signature = mock(Key.class);
 
@@ -477,12 +479,14 @@ public class EngineTest {
         public EngineTestHarness() {
             when(loadProvider.getCacheDecoder()).thenReturn(cacheDecoder);
             when(loadProvider.getSourceEncoder()).thenReturn(sourceEncoder);
+            when(loadProvider.getTransformedResourceConverter()).thenReturn(converter);
             when(loadProvider.getEncoder()).thenReturn(encoder);
             when(loadProvider.getSourceDecoder()).thenReturn(decoder);
 
             when(keyFactory.buildKey(anyString(), any(Key.class), anyInt(), anyInt(), any(ResourceDecoder.class),
                     any(ResourceDecoder.class), any(Transformation.class), any(ResourceEncoder.class),
-                    any(ResourceTranscoder.class), any(Encoder.class))).thenReturn(cacheKey);
+                    any(ResourceTranscoder.class), any(Encoder.class), any(TransformedResourceCache.Converter.class)))
+                    .thenReturn(cacheKey);
             when(fetcher.getId()).thenReturn(ID);
 
             job = mock(EngineJob.class);
@@ -495,7 +499,7 @@ public class EngineTest {
         public Engine.LoadStatus doLoad() {
             when(engineJobFactory.build(eq(cacheKey), eq(isMemoryCacheable))).thenReturn(job);
             return engine.load(signature, width, height, fetcher, loadProvider, transformation, transcoder, priority,
-                    isMemoryCacheable, diskCacheStrategy, cb);
+                    isMemoryCacheable, diskCacheStrategy, null /*previewDecoder*/, cb);
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.bumptech.glide.load.engine.cache;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
@@ -15,9 +16,11 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
+import java.util.List;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE, emulateSdk = 18)
@@ -112,6 +115,60 @@ public class DiskLruCacheWrapperTest {
         assertArrayEquals(data, received);
     }
 
+    @Test
+    public void testReadsEntriesFromJournalLeastRecentlyUsedFirst() throws IOException {
+        File journal = new File(Robolectric.application.getCacheDir(), "test_journal");
+        FileOutputStream os = new FileOutputStream(journal);
+        try {
+            os.write(("libcore.io.DiskLruCache\n1\n1\n1\n\n"
+                    + "DIRTY first\nCLEAN first 100\n"
+                    + "DIRTY second\nCLEAN second 200\n"
+                    + "DIRTY removed\nCLEAN removed 300\n"
+                    + "READ first\nREAD first\nREMOVE removed\n"
+                    + "DIRTY second\nCLEAN second 250\n"
+                    + "DIRTY partial\nCLEAN par").getBytes("US-ASCII"));
+        } finally {
+            os.close();
+        }
+
+        List<DiskCache.EntryProvider.StoredEntry> entries = DiskLruCacheWrapper.readJournal(journal);
+
+        assertEquals(2, entries.size());
+        assertEquals("first", entries.get(0).id);
+        assertEquals(100, entries.get(0).size);
+        assertEquals(3, entries.get(0).hits);
+        assertEquals("second", entries.get(1).id);
+        assertEquals(250, entries.get(1).size);
+        assertEquals(2, entries.get(1).hits);
+    }
+
+    @Test
+    public void testListsEntriesWrittenByAnEarlierInstance() {
+        File dir = new File(Robolectric.application.getCacheDir(), "entries" + Math.random());
+        DiskLruCacheWrapper first = new DiskLruCacheWrapper(dir, 10 * 1024 * 1024);
+        first.put(key, new DiskCache.Writer() {
+            @Override
+            public boolean write(File file) {
+                try {
+                    Util.writeFile(file, data);
+                } catch (IOException e) {
+                    fail(e.toString());
+                }
+                return true;
+            }
+        });
+
+        DiskLruCacheWrapper second = new DiskLruCacheWrapper(dir, 10 * 1024 * 1024);
+        List<DiskCache.EntryProvider.StoredEntry> entries = second.getEntries();
+
+        assertEquals(1, entries.size());
+        assertEquals(second.getId(key), entries.get(0).id);
+        assertEquals(data.length, entries.get(0).size);
+
+        second.delete(entries.get(0).id);
+        assertNull(second.get(key));
+    }
+
     private static class StringKey implements Key {
         private final String key;
 
@@ -1,5 +1,7 @@
 package com.bumptech.glide.load.engine.cache;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import com.bumptech.glide.load.Key;
@@ -11,6 +13,12 @@ import org.junit.runners.JUnit4;
 
 import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,6 +43,61 @@ public class KeyGeneratorTest {
         }
     }
 
+    @Test
+    public void testReturnsSameKeyForEqualKeys() {
+        String first = keyGenerator.getSafeKey(new MockKey("id"));
+        String second = keyGenerator.getSafeKey(new MockKey("id"));
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testReturnsSameKeyAfterKeyIsEvicted() {
+        String first = keyGenerator.getSafeKey(new MockKey("id"));
+        for (int i = 0; i < 2000; i++) {
+            getRandomKeyFromGenerator();
+        }
+
+        assertEquals(first, keyGenerator.getSafeKey(new MockKey("id")));
+    }
+
+    @Test
+    public void testReturnsDifferentKeysForDifferentKeys() {
+        assertNotEquals(keyGenerator.getSafeKey(new MockKey("first")), keyGenerator.getSafeKey(new MockKey("second")));
+    }
+
+    @Test
+    public void testReturnsSameKeysWhenCalledConcurrently() throws Exception {
+        final int keyCount = 500;
+        final List<String> expected = new ArrayList<String>();
+        SafeKeyGenerator other = new SafeKeyGenerator();
+        for (int i = 0; i < keyCount; i++) {
+            expected.add(other.getSafeKey(new MockKey(String.valueOf(i))));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<Future<List<String>>>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(new Callable<List<String>>() {
+                    @Override
+                    public List<String> call() throws Exception {
+                        List<String> result = new ArrayList<String>();
+                        for (int i = 0; i < keyCount; i++) {
+                            result.add(keyGenerator.getSafeKey(new MockKey(String.valueOf(i))));
+                        }
+                        return result;
+                    }
+                }));
+            }
+            for (Future<List<String>> future : futures) {
+                assertEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private String getRandomKeyFromGenerator() {
         return keyGenerator.getSafeKey(new MockKey(getNextId()));
     }
@@ -50,6 +113,16 @@ public class KeyGeneratorTest {
             this.id = id;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MockKey && id.equals(((MockKey) o).id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+
         @Override
         public void updateDiskCacheKey(MessageDigest messageDigest) throws UnsupportedEncodingException {
             messageDigest.update(id.getBytes(STRING_CHARSET_NAME));
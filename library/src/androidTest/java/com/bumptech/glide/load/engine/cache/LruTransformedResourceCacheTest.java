@@ -0,0 +1,177 @@
+package com.bumptech.glide.load.engine.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.ComponentCallbacks2;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, emulateSdk = 18)
+public class LruTransformedResourceCacheTest {
+    private static final int RESOURCE_SIZE = 10 * 10 * 4;
+
+    private LruTransformedResourceCache cache;
+    private Key key;
+
+    @Before
+    public void setUp() {
+        cache = new LruTransformedResourceCache(RESOURCE_SIZE * 3);
+        key = mock(Key.class);
+    }
+
+    @Test
+    public void testReturnsNullForMissingKey() {
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testReturnsReferenceToCachedResource() {
+        Resource<Object> resource = mockResource();
+        assertTrue(cache.put(key, new SharedResource<Object>(resource, resource)));
+
+        Resource<?> result = cache.get(key);
+
+        assertEquals(resource.get(), result.get());
+    }
+
+    @Test
+    public void testDoesNotRecycleResourceThatIsPut() {
+        Resource<Object> resource = mockResource();
+
+        cache.put(key, new SharedResource<Object>(resource, resource));
+
+        verify(resource, never()).recycle();
+    }
+
+    @Test
+    public void testRecyclesEvictedResourceThatIsNotInUse() {
+        Resource<Object> resource = mockResource();
+        cache.put(key, new SharedResource<Object>(resource, resource));
+
+        cache.clearMemory();
+
+        verify(resource).recycle();
+    }
+
+    @Test
+    public void testDoesNotRecycleEvictedResourceUntilEveryReferenceIsRecycled() {
+        Resource<Object> resource = mockResource();
+        cache.put(key, new SharedResource<Object>(resource, resource));
+        Resource<?> first = cache.get(key);
+        Resource<?> second = cache.get(key);
+
+        cache.clearMemory();
+        first.recycle();
+        verify(resource, never()).recycle();
+
+        second.recycle();
+        verify(resource).recycle();
+    }
+
+    @Test
+    public void testRecyclesOwnerOfSharedResource() {
+        Resource<Object> shared = mockResource();
+        Resource<Object> owner = mockResource();
+        cache.put(key, new SharedResource<Object>(shared, owner));
+
+        cache.clearMemory();
+
+        verify(owner).recycle();
+        verify(shared, never()).recycle();
+    }
+
+    @Test
+    public void testIgnoresResourcesLargerThanCache() {
+        cache = new LruTransformedResourceCache(RESOURCE_SIZE);
+        Resource<Object> resource = mockResource();
+
+        assertFalse(cache.put(key, new SharedResource<Object>(resource, resource)));
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testDoesNotReplaceResourceForKeyThatIsCached() {
+        Resource<Object> first = mockResource();
+        Resource<Object> second = mockResource();
+        cache.put(key, new SharedResource<Object>(first, first));
+
+        assertFalse(cache.put(key, new SharedResource<Object>(second, second)));
+        assertEquals(first.get(), cache.get(key).get());
+        assertEquals(RESOURCE_SIZE, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testClearsOnBackgroundTrim() {
+        Resource<Object> resource = mockResource();
+        cache.put(key, new SharedResource<Object>(resource, resource));
+
+        cache.trimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+
+        assertEquals(0, cache.getCurrentSize());
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testHalvesOnUiHiddenTrim() {
+        for (int i = 0; i < 2; i++) {
+            Resource<Object> resource = mockResource();
+            cache.put(mock(Key.class), new SharedResource<Object>(resource, resource));
+        }
+
+        cache.trimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+
+        assertEquals(RESOURCE_SIZE, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testDoesNotReturnResourceThatIsNotStillFromGetStill() {
+        Resource<Object> resource = mockResource();
+        cache.put(key, new SharedResource<Object>(resource, resource));
+
+        assertNull(cache.getStill(key));
+    }
+
+    @Test
+    public void testReturnsStillResourceFromGetAndGetStill() {
+        Resource<Object> resource = mockResource();
+        cache.putStill(key, new SharedResource<Object>(resource, resource));
+
+        assertNotNull(cache.get(key));
+        assertNotNull(cache.getStill(key));
+    }
+
+    @Test
+    public void testMarksCachedResourceAsStillWhenPutAgainAsStill() {
+        Resource<Object> first = mockResource();
+        Resource<Object> second = mockResource();
+        cache.put(key, new SharedResource<Object>(first, first));
+
+        cache.putStill(key, new SharedResource<Object>(second, second));
+
+        assertEquals(first.get(), cache.getStill(key).get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Resource<Object> mockResource() {
+        Resource<Object> resource = mock(Resource.class);
+        when(resource.get()).thenReturn(new Object());
+        when(resource.getSize()).thenReturn(RESOURCE_SIZE);
+        return resource;
+    }
+}
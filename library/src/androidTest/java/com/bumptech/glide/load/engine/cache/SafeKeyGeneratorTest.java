@@ -0,0 +1,60 @@
+package com.bumptech.glide.load.engine.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.bumptech.glide.load.Key;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+
+@RunWith(JUnit4.class)
+public class SafeKeyGeneratorTest {
+
+    @Test
+    public void testResetsDigestIfKeyThrows() {
+        String expected = new SafeKeyGenerator().getSafeKey(new StringKey("key"));
+
+        try {
+            new SafeKeyGenerator().getSafeKey(new StringKey("partial") {
+                @Override
+                public void updateDiskCacheKey(MessageDigest messageDigest) throws UnsupportedEncodingException {
+                    super.updateDiskCacheKey(messageDigest);
+                    throw new IllegalStateException("Test");
+                }
+            });
+            fail("Failed to receive expected exception");
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+
+        assertEquals(expected, new SafeKeyGenerator().getSafeKey(new StringKey("key")));
+    }
+
+    private static class StringKey implements Key {
+        private final String value;
+
+        StringKey(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public void updateDiskCacheKey(MessageDigest messageDigest) throws UnsupportedEncodingException {
+            messageDigest.update(value.getBytes(STRING_CHARSET_NAME));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StringKey && value.equals(((StringKey) o).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.bumptech.glide.load.engine.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bumptech.glide.load.engine.Resource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SharedResourceTest {
+    private Resource<Object> resource;
+    private Resource<Object> owner;
+    private SharedResource<Object> shared;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        resource = mock(Resource.class);
+        owner = mock(Resource.class);
+        shared = new SharedResource<Object>(resource, owner);
+    }
+
+    @Test
+    public void testReferencesReturnSharedResource() {
+        Object data = new Object();
+        when(resource.get()).thenReturn(data);
+        when(resource.getSize()).thenReturn(100);
+
+        Resource<Object> reference = shared.acquire();
+
+        assertEquals(data, reference.get());
+        assertEquals(100, reference.getSize());
+        assertEquals(100, shared.getSize());
+    }
+
+    @Test
+    public void testRecyclesOwnerOnceEveryReferenceIsRecycled() {
+        Resource<Object> first = shared.acquire();
+        Resource<Object> second = shared.acquire();
+
+        first.recycle();
+        verify(owner, never()).recycle();
+
+        second.recycle();
+        verify(owner).recycle();
+        verify(resource, never()).recycle();
+    }
+
+    @Test
+    public void testRecyclingReferenceMoreThanOnceOnlyReleasesItOnce() {
+        Resource<Object> first = shared.acquire();
+        Resource<Object> second = shared.acquire();
+
+        first.recycle();
+        first.recycle();
+
+        verify(owner, never()).recycle();
+        second.recycle();
+        verify(owner, times(1)).recycle();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testThrowsIfAcquiredAfterEveryReferenceIsRecycled() {
+        shared.acquire().recycle();
+
+        shared.acquire();
+    }
+}
@@ -0,0 +1,257 @@
+package com.bumptech.glide.load.engine.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.bumptech.glide.load.Key;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(JUnit4.class)
+public class SizeAwareDiskCacheTest {
+    private FakeDiskCache wrapped;
+    private SizeAwareDiskCache cache;
+
+    @Before
+    public void setUp() {
+        wrapped = new FakeDiskCache();
+        cache = new SizeAwareDiskCache(wrapped, 1000);
+    }
+
+    @Test
+    public void testTracksSizeOfWrittenEntries() {
+        cache.put(mock(Key.class), new SizedWriter(100, true));
+        cache.put(mock(Key.class), new SizedWriter(200, true));
+
+        assertEquals(300, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testDoesNotTrackEntriesThatAreNotCommitted() {
+        cache.put(mock(Key.class), new SizedWriter(100, false));
+
+        assertEquals(0, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testTracksSizeOfEntriesFirstSeenOnGet() {
+        Key key = mock(Key.class);
+        wrapped.files.put(key, mockFile(400));
+
+        assertNotNull(cache.get(key));
+        assertEquals(400, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testEvictsLargeEntryBeforeSmallFrequentlyUsedEntries() {
+        List<Key> small = new ArrayList<Key>();
+        for (int i = 0; i < 5; i++) {
+            Key key = mock(Key.class);
+            small.add(key);
+            cache.put(key, new SizedWriter(50, true));
+            cache.get(key);
+        }
+        Key large = mock(Key.class);
+        cache.put(large, new SizedWriter(700, true));
+
+        Key next = mock(Key.class);
+        cache.put(next, new SizedWriter(100, true));
+
+        assertNull(wrapped.get(large));
+        for (Key key : small) {
+            assertNotNull(wrapped.get(key));
+        }
+        assertNotNull(wrapped.get(next));
+    }
+
+    @Test
+    public void testDoesNotEvictEntryThatWasJustWritten() {
+        Key first = mock(Key.class);
+        cache.put(first, new SizedWriter(100, true));
+
+        Key large = mock(Key.class);
+        cache.put(large, new SizedWriter(950, true));
+
+        assertNotNull(wrapped.get(large));
+        assertNotNull(wrapped.get(first));
+        assertEquals(1050, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testDoesNotEvictMoreValuableEntriesForLargeNewEntry() {
+        List<Key> small = new ArrayList<Key>();
+        for (int i = 0; i < 10; i++) {
+            Key key = mock(Key.class);
+            small.add(key);
+            cache.put(key, new SizedWriter(50, true));
+        }
+
+        Key large = mock(Key.class);
+        cache.put(large, new SizedWriter(900, true));
+
+        for (Key key : small) {
+            assertNotNull(wrapped.get(key));
+        }
+        assertNotNull(wrapped.get(large));
+
+        cache.put(mock(Key.class), new SizedWriter(50, true));
+
+        assertNull(wrapped.get(large));
+        for (Key key : small) {
+            assertNotNull(wrapped.get(key));
+        }
+    }
+
+    @Test
+    public void testStopsTrackingEntriesEvictedByWrappedCache() {
+        Key key = mock(Key.class);
+        cache.put(key, new SizedWriter(100, true));
+        wrapped.files.remove(key);
+
+        assertNull(cache.get(key));
+        assertEquals(0, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testEvictsOldPopularEntriesEventually() {
+        Key popular = mock(Key.class);
+        cache.put(popular, new SizedWriter(100, true));
+        for (int i = 0; i < 3; i++) {
+            cache.get(popular);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            cache.put(mock(Key.class), new SizedWriter(100, true));
+        }
+
+        assertNull(wrapped.get(popular));
+    }
+
+    @Test
+    public void testDeleteStopsTrackingEntry() {
+        Key key = mock(Key.class);
+        cache.put(key, new SizedWriter(100, true));
+
+        cache.delete(key);
+
+        assertEquals(0, cache.getCurrentSize());
+        assertNull(wrapped.get(key));
+    }
+
+    @Test
+    public void testTracksEntriesFromEarlierSessionsBeforeTheyAreUsed() {
+        FakeEntryProviderCache provider = new FakeEntryProviderCache();
+        provider.stored.add(new DiskCache.EntryProvider.StoredEntry("first", 300, 1));
+        provider.stored.add(new DiskCache.EntryProvider.StoredEntry("second", 400, 1));
+        cache = new SizeAwareDiskCache(provider, 1000);
+
+        cache.put(mock(Key.class), new SizedWriter(100, true));
+
+        assertEquals(800, cache.getCurrentSize());
+        assertTrue(provider.deleted.isEmpty());
+    }
+
+    @Test
+    public void testEvictsEntriesFromEarlierSessionsByTheirSizeAndUses() {
+        FakeEntryProviderCache provider = new FakeEntryProviderCache();
+        provider.stored.add(new DiskCache.EntryProvider.StoredEntry("popular", 400, 20));
+        provider.stored.add(new DiskCache.EntryProvider.StoredEntry("unpopular", 400, 1));
+        cache = new SizeAwareDiskCache(provider, 1000);
+
+        cache.put(mock(Key.class), new SizedWriter(300, true));
+
+        assertEquals(Collections.singletonList("unpopular"), provider.deleted);
+        assertEquals(700, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testEvictsEntriesFromEarlierSessionsAboveMaxSizeOnFirstAccess() {
+        FakeEntryProviderCache provider = new FakeEntryProviderCache();
+        provider.stored.add(new DiskCache.EntryProvider.StoredEntry("first", 600, 1));
+        provider.stored.add(new DiskCache.EntryProvider.StoredEntry("second", 600, 1));
+        cache = new SizeAwareDiskCache(provider, 1000);
+
+        cache.get(mock(Key.class));
+
+        assertEquals(Collections.singletonList("first"), provider.deleted);
+        assertEquals(600, cache.getCurrentSize());
+    }
+
+    private static File mockFile(long length) {
+        File file = mock(File.class);
+        when(file.length()).thenReturn(length);
+        return file;
+    }
+
+    private static class SizedWriter implements DiskCache.Writer {
+        private final long size;
+        private final boolean result;
+
+        public SizedWriter(long size, boolean result) {
+            this.size = size;
+            this.result = result;
+        }
+
+        @Override
+        public boolean write(File file) {
+            when(file.length()).thenReturn(size);
+            return result;
+        }
+    }
+
+    private static class FakeDiskCache implements DiskCache {
+        private final Map<Key, File> files = new HashMap<Key, File>();
+
+        @Override
+        public File get(Key key) {
+            return files.get(key);
+        }
+
+        @Override
+        public void put(Key key, Writer writer) {
+            File file = mock(File.class);
+            if (writer.write(file)) {
+                files.put(key, file);
+            }
+        }
+
+        @Override
+        public void delete(Key key) {
+            files.remove(key);
+        }
+    }
+
+    private static class FakeEntryProviderCache extends FakeDiskCache implements DiskCache.EntryProvider {
+        private final List<StoredEntry> stored = new ArrayList<StoredEntry>();
+        private final List<String> deleted = new ArrayList<String>();
+
+        @Override
+        public String getId(Key key) {
+            return String.valueOf(System.identityHashCode(key));
+        }
+
+        @Override
+        public List<StoredEntry> getEntries() {
+            return stored;
+        }
+
+        @Override
+        public void delete(String id) {
+            deleted.add(id);
+        }
+    }
+}
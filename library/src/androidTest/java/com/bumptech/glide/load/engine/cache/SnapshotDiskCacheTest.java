@@ -0,0 +1,429 @@
+package com.bumptech.glide.load.engine.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.tests.Util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+@RunWith(JUnit4.class)
+public class SnapshotDiskCacheTest {
+    private static final int CHECKPOINT_INTERVAL = 10;
+    private File dir;
+    private byte[] data;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = File.createTempFile("snapshot", "cache");
+        dir.delete();
+        data = new byte[] { 1, 2, 3, 4, 5, 6 };
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testCanInsertAndGet() throws IOException {
+        SnapshotDiskCache cache = newCache(1024);
+        StringKey key = new StringKey("test");
+        cache.put(key, new DataWriter(data));
+
+        assertArrayEquals(data, Util.readFile(cache.get(key), data.length));
+    }
+
+    @Test
+    public void testDoesNotCommitIfWriterReturnsFalse() {
+        SnapshotDiskCache cache = newCache(1024);
+        StringKey key = new StringKey("test");
+        cache.put(key, new DiskCache.Writer() {
+            @Override
+            public boolean write(File file) {
+                try {
+                    Util.writeFile(file, data);
+                } catch (IOException e) {
+                    fail(e.toString());
+                }
+                return false;
+            }
+        });
+
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testCanDelete() {
+        SnapshotDiskCache cache = newCache(1024);
+        StringKey key = new StringKey("test");
+        cache.put(key, new DataWriter(data));
+
+        cache.delete(key);
+
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedEntriesWhenFull() {
+        SnapshotDiskCache cache = newCache(3 * data.length);
+        StringKey first = new StringKey("first");
+        StringKey second = new StringKey("second");
+        StringKey third = new StringKey("third");
+        cache.put(first, new DataWriter(data));
+        cache.put(second, new DataWriter(data));
+        cache.put(third, new DataWriter(data));
+        cache.get(first);
+
+        cache.put(new StringKey("fourth"), new DataWriter(data));
+
+        assertNotNull(cache.get(first));
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(third));
+    }
+
+    @Test
+    public void testRestoresEntriesFromJournalWhenReopened() {
+        SnapshotDiskCache cache = newCache(1024);
+        StringKey kept = new StringKey("kept");
+        StringKey deleted = new StringKey("deleted");
+        cache.put(kept, new DataWriter(data));
+        cache.put(deleted, new DataWriter(data));
+        cache.delete(deleted);
+
+        SnapshotDiskCache reopened = newCache(1024);
+
+        assertNotNull(reopened.get(kept));
+        assertNull(reopened.get(deleted));
+        SnapshotDiskCache.OpenStats stats = reopened.getOpenStats();
+        assertEquals(0, stats.getSnapshotEntryCount());
+        assertEquals(3, stats.getJournalRecordCount());
+        assertFalse(stats.isRecovered());
+    }
+
+    @Test
+    public void testRestoresEntriesFromSnapshotAndJournalAfterCheckpoint() {
+        SnapshotDiskCache cache = newCache(1024);
+        for (int i = 0; i < CHECKPOINT_INTERVAL + 2; i++) {
+            cache.put(new StringKey("key" + i), new DataWriter(data));
+        }
+
+        SnapshotDiskCache reopened = newCache(1024);
+
+        for (int i = 0; i < CHECKPOINT_INTERVAL + 2; i++) {
+            assertNotNull(reopened.get(new StringKey("key" + i)));
+        }
+        SnapshotDiskCache.OpenStats stats = reopened.getOpenStats();
+        assertEquals(CHECKPOINT_INTERVAL, stats.getSnapshotEntryCount());
+        assertEquals(2, stats.getJournalRecordCount());
+    }
+
+    @Test
+    public void testPreservesLeastRecentlyUsedOrderWhenReopened() {
+        SnapshotDiskCache cache = newCache(3 * data.length);
+        StringKey first = new StringKey("first");
+        StringKey second = new StringKey("second");
+        cache.put(first, new DataWriter(data));
+        cache.put(second, new DataWriter(data));
+        cache.put(new StringKey("third"), new DataWriter(data));
+        cache.get(first);
+
+        SnapshotDiskCache reopened = newCache(3 * data.length);
+        reopened.put(new StringKey("fourth"), new DataWriter(data));
+
+        assertNotNull(reopened.get(first));
+        assertNull(reopened.get(second));
+    }
+
+    @Test
+    public void testIgnoresIncompleteJournalRecord() throws IOException {
+        SnapshotDiskCache cache = newCache(1024);
+        StringKey first = new StringKey("first");
+        StringKey second = new StringKey("second");
+        cache.put(first, new DataWriter(data));
+        cache.put(second, new DataWriter(data));
+        File journal = new File(dir, DiskCacheIndex.JOURNAL_FILE_NAME);
+        truncate(journal, 3);
+
+        SnapshotDiskCache reopened = newCache(1024);
+
+        assertNotNull(reopened.get(first));
+        assertNull(reopened.get(second));
+        assertTrue(reopened.getOpenStats().isRecovered());
+    }
+
+    @Test
+    public void testCanWriteAfterRecoveringFromIncompleteJournalRecord() throws IOException {
+        SnapshotDiskCache cache = newCache(1024);
+        cache.put(new StringKey("first"), new DataWriter(data));
+        cache.put(new StringKey("second"), new DataWriter(data));
+        truncate(new File(dir, DiskCacheIndex.JOURNAL_FILE_NAME), 3);
+        SnapshotDiskCache recovered = newCache(1024);
+        StringKey third = new StringKey("third");
+        recovered.put(third, new DataWriter(data));
+
+        SnapshotDiskCache reopened = newCache(1024);
+
+        assertNotNull(reopened.get(third));
+        assertNotNull(reopened.get(new StringKey("first")));
+    }
+
+    @Test
+    public void testDiscardsCorruptSnapshot() throws IOException {
+        SnapshotDiskCache cache = newCache(1024);
+        for (int i = 0; i < CHECKPOINT_INTERVAL; i++) {
+            cache.put(new StringKey("key" + i), new DataWriter(data));
+        }
+        File snapshot = new File(dir, DiskCacheIndex.SNAPSHOT_FILE_NAME);
+        RandomAccessFile file = new RandomAccessFile(snapshot, "rw");
+        try {
+            file.seek(30);
+            file.write(0xFF ^ file.read());
+        } finally {
+            file.close();
+        }
+
+        SnapshotDiskCache reopened = newCache(1024);
+
+        assertNull(reopened.get(new StringKey("key0")));
+        assertTrue(reopened.getOpenStats().isRecovered());
+    }
+
+    @Test
+    public void testDeletesUntrackedFilesWhenRecovering() throws IOException {
+        SnapshotDiskCache cache = newCache(1024);
+        cache.put(new StringKey("first"), new DataWriter(data));
+        cache.put(new StringKey("second"), new DataWriter(data));
+        truncate(new File(dir, DiskCacheIndex.JOURNAL_FILE_NAME), 3);
+        File untracked = new File(dir, "untracked.tmp");
+        Util.writeFile(untracked, data);
+
+        newCache(1024).get(new StringKey("first"));
+
+        assertFalse(untracked.exists());
+    }
+
+    @Test
+    public void testReturnsNullAndRemovesEntryIfFileIsMissing() {
+        SnapshotDiskCache cache = newCache(1024);
+        StringKey key = new StringKey("test");
+        cache.put(key, new DataWriter(data));
+        assertTrue(cache.get(key).delete());
+
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testHotFilesAreMostRecentlyUsedFromPreviousSession() {
+        SnapshotDiskCache cache = newCache(1024);
+        StringKey first = new StringKey("first");
+        StringKey second = new StringKey("second");
+        StringKey third = new StringKey("third");
+        cache.put(first, new DataWriter(data));
+        cache.put(second, new DataWriter(data));
+        cache.put(third, new DataWriter(data));
+        File secondFile = cache.get(second);
+        File thirdFile = cache.get(third);
+        File firstFile = cache.get(first);
+
+        List<File> hotFiles = newCache(1024).getHotFiles(1024);
+
+        assertEquals(Arrays.asList(firstFile, thirdFile, secondFile), hotFiles);
+    }
+
+    @Test
+    public void testHotFilesFitInByteBudget() {
+        SnapshotDiskCache cache = newCache(1024);
+        for (int i = 0; i < 5; i++) {
+            cache.put(new StringKey("key" + i), new DataWriter(data));
+        }
+
+        assertEquals(2, cache.getHotFiles(data.length * 2 + 1).size());
+        assertEquals(0, cache.getHotFiles(data.length - 1).size());
+    }
+
+    @Test
+    public void testGettingHotFilesDoesNotChangeOrder() {
+        SnapshotDiskCache cache = newCache(1024);
+        for (int i = 0; i < 5; i++) {
+            cache.put(new StringKey("key" + i), new DataWriter(data));
+        }
+
+        List<File> expected = cache.getHotFiles(1024);
+        cache.getHotFiles(data.length * 2);
+
+        assertEquals(expected, cache.getHotFiles(1024));
+    }
+
+    @Test
+    public void testOpensWhenCreated() {
+        QueuedExecutor executor = new QueuedExecutor();
+        SnapshotDiskCache cache = new SnapshotDiskCache(dir, 1024, CHECKPOINT_INTERVAL, executor);
+        assertNull(cache.getOpenStats());
+
+        executor.runAll();
+
+        assertNotNull(cache.getOpenStats());
+    }
+
+    @Test
+    public void testWritesCheckpointInBackgroundAndKeepsRecordsWrittenMeanwhile() {
+        QueuedExecutor executor = new QueuedExecutor();
+        SnapshotDiskCache cache = new SnapshotDiskCache(dir, 1024, CHECKPOINT_INTERVAL, executor);
+        executor.runAll();
+        for (int i = 0; i < CHECKPOINT_INTERVAL; i++) {
+            cache.put(new StringKey("key" + i), new DataWriter(data));
+        }
+        File snapshot = new File(dir, DiskCacheIndex.SNAPSHOT_FILE_NAME);
+        assertFalse(snapshot.exists());
+
+        StringKey late = new StringKey("late");
+        cache.put(late, new DataWriter(data));
+        executor.runAll();
+
+        assertTrue(snapshot.exists());
+        SnapshotDiskCache reopened = newCache(1024);
+        assertNotNull(reopened.get(late));
+        for (int i = 0; i < CHECKPOINT_INTERVAL; i++) {
+            assertNotNull(reopened.get(new StringKey("key" + i)));
+        }
+        SnapshotDiskCache.OpenStats stats = reopened.getOpenStats();
+        assertEquals(CHECKPOINT_INTERVAL, stats.getSnapshotEntryCount());
+        assertEquals(1, stats.getJournalRecordCount());
+    }
+
+    @Test
+    public void testFlushesReadsInBackground() {
+        QueuedExecutor executor = new QueuedExecutor();
+        SnapshotDiskCache cache = new SnapshotDiskCache(dir, 1024, CHECKPOINT_INTERVAL, executor);
+        executor.runAll();
+        StringKey key = new StringKey("test");
+        cache.put(key, new DataWriter(data));
+        File journal = new File(dir, DiskCacheIndex.JOURNAL_FILE_NAME);
+        long length = journal.length();
+
+        assertNotNull(cache.get(key));
+        assertEquals(length, journal.length());
+
+        executor.runAll();
+        assertTrue(journal.length() > length);
+    }
+
+    @Test
+    public void testDeletesUntrackedFilesInBackgroundWhenRecovering() throws IOException {
+        SnapshotDiskCache cache = newCache(1024);
+        cache.put(new StringKey("first"), new DataWriter(data));
+        cache.put(new StringKey("second"), new DataWriter(data));
+        truncate(new File(dir, DiskCacheIndex.JOURNAL_FILE_NAME), 3);
+        File untracked = new File(dir, "untracked.tmp");
+        Util.writeFile(untracked, data);
+        QueuedExecutor executor = new QueuedExecutor();
+        SnapshotDiskCache recovered = new SnapshotDiskCache(dir, 1024, CHECKPOINT_INTERVAL, executor);
+
+        assertNotNull(recovered.get(new StringKey("first")));
+        assertTrue(untracked.exists());
+
+        executor.runAll();
+        assertFalse(untracked.exists());
+    }
+
+    private SnapshotDiskCache newCache(int maxSize) {
+        return new SnapshotDiskCache(dir, maxSize, CHECKPOINT_INTERVAL, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+    }
+
+    private static void truncate(File file, int bytesToRemove) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(randomAccessFile.length() - bytesToRemove);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private static class QueuedExecutor implements Executor {
+        private final List<Runnable> queue = new ArrayList<Runnable>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        public void runAll() {
+            while (!queue.isEmpty()) {
+                queue.remove(0).run();
+            }
+        }
+    }
+
+    private static class DataWriter implements DiskCache.Writer {
+        private final byte[] data;
+
+        public DataWriter(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public boolean write(File file) {
+            try {
+                Util.writeFile(file, data);
+            } catch (IOException e) {
+                fail(e.toString());
+            }
+            return true;
+        }
+    }
+
+    private static class StringKey implements Key {
+        private final String key;
+
+        public StringKey(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StringKey && key.equals(((StringKey) o).key);
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+
+        @Override
+        public void updateDiskCacheKey(MessageDigest messageDigest) throws UnsupportedEncodingException {
+            messageDigest.update(key.getBytes(STRING_CHARSET_NAME));
+        }
+    }
+}
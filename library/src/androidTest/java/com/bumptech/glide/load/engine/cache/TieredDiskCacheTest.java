@@ -0,0 +1,123 @@
+package com.bumptech.glide.load.engine.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.bumptech.glide.load.Key;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+@RunWith(JUnit4.class)
+public class TieredDiskCacheTest {
+    private DiskCache sourceCache;
+    private DiskCache resultCache;
+    private TieredDiskCache cache;
+
+    @Before
+    public void setUp() {
+        sourceCache = mock(DiskCache.class);
+        resultCache = mock(DiskCache.class);
+        cache = new TieredDiskCache(sourceCache, resultCache);
+    }
+
+    @Test
+    public void testGetsSourceKeysFromSourceCache() {
+        Key key = mock(Key.class, withSettings().extraInterfaces(TieredDiskCache.SourceKey.class));
+        File expected = new File("source");
+        when(sourceCache.get(eq(key))).thenReturn(expected);
+
+        assertEquals(expected, cache.get(key));
+        verify(resultCache, never()).get(any(Key.class));
+    }
+
+    @Test
+    public void testGetsOtherKeysFromResultCache() {
+        Key key = mock(Key.class);
+        File expected = new File("result");
+        when(resultCache.get(eq(key))).thenReturn(expected);
+
+        assertEquals(expected, cache.get(key));
+        verify(sourceCache, never()).get(any(Key.class));
+    }
+
+    @Test
+    public void testPutsSourceKeysInSourceCache() {
+        Key key = mock(Key.class, withSettings().extraInterfaces(TieredDiskCache.SourceKey.class));
+        DiskCache.Writer writer = mock(DiskCache.Writer.class);
+
+        cache.put(key, writer);
+
+        verify(sourceCache).put(eq(key), eq(writer));
+        verify(resultCache, never()).put(any(Key.class), any(DiskCache.Writer.class));
+    }
+
+    @Test
+    public void testPutsOtherKeysInResultCache() {
+        Key key = mock(Key.class);
+        DiskCache.Writer writer = mock(DiskCache.Writer.class);
+
+        cache.put(key, writer);
+
+        verify(resultCache).put(eq(key), eq(writer));
+        verify(sourceCache, never()).put(any(Key.class), any(DiskCache.Writer.class));
+    }
+
+    @Test
+    public void testDeletesSourceKeysFromSourceCache() {
+        Key key = mock(Key.class, withSettings().extraInterfaces(TieredDiskCache.SourceKey.class));
+
+        cache.delete(key);
+
+        verify(sourceCache).delete(eq(key));
+        verify(resultCache, never()).delete(any(Key.class));
+    }
+
+    @Test
+    public void testDeletesOtherKeysFromResultCache() {
+        Key key = mock(Key.class);
+
+        cache.delete(key);
+
+        verify(resultCache).delete(eq(key));
+        verify(sourceCache, never()).delete(any(Key.class));
+    }
+
+    @Test
+    public void testReturnsHotResultFilesBeforeHotSourceFiles() {
+        DiskCache hotSourceCache = mockHotSetProvider();
+        DiskCache hotResultCache = mockHotSetProvider();
+        File sourceFile = new File("source");
+        File resultFile = new File("result");
+        when(((DiskCache.HotSetProvider) hotSourceCache).getHotFiles(anyLong()))
+                .thenReturn(Collections.singletonList(sourceFile));
+        when(((DiskCache.HotSetProvider) hotResultCache).getHotFiles(anyLong()))
+                .thenReturn(Collections.singletonList(resultFile));
+
+        TieredDiskCache tieredCache = new TieredDiskCache(hotSourceCache, hotResultCache);
+
+        assertEquals(Arrays.asList(resultFile, sourceFile), tieredCache.getHotFiles(100));
+    }
+
+    @Test
+    public void testReturnsNoHotFilesIfNeitherCacheProvidesThem() {
+        assertEquals(Collections.<File>emptyList(), cache.getHotFiles(100));
+    }
+
+    private static DiskCache mockHotSetProvider() {
+        return mock(DiskCache.class, withSettings().extraInterfaces(DiskCache.HotSetProvider.class));
+    }
+}
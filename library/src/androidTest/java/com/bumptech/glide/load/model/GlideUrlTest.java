@@ -1,6 +1,11 @@
 package com.bumptech.glide.load.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.bumptech.glide.load.resource.bitmap.ImageHeader;
+import com.bumptech.glide.load.resource.bitmap.ImageHeaderParser;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -45,6 +50,28 @@ public class GlideUrlTest {
         assertEquals(new GlideUrl(stringUrl).hashCode(), new GlideUrl(url).hashCode());
     }
 
+    @Test
+    public void testImageHeaderIsNullByDefault() {
+        assertNull(new GlideUrl("http://www.google.com").getImageHeader());
+    }
+
+    @Test
+    public void testReturnsGivenImageHeader() {
+        ImageHeader header = new ImageHeader(ImageHeaderParser.ImageType.JPEG, -1, 100, 200, true);
+
+        assertSame(header, new GlideUrl("http://www.google.com", header).getImageHeader());
+    }
+
+    @Test
+    public void testImageHeaderIsIgnoredByEquals() {
+        String stringUrl = "http://www.google.com";
+        GlideUrl withHeader =
+                new GlideUrl(stringUrl, new ImageHeader(ImageHeaderParser.ImageType.JPEG, -1, 100, 200, true));
+
+        assertEquals(new GlideUrl(stringUrl), withHeader);
+        assertEquals(new GlideUrl(stringUrl).hashCode(), withHeader.hashCode());
+    }
+
     @Test
     public void testProducesEquivalentUrlFromString() throws MalformedURLException {
         String stringUrl = "http://www.google.com";
@@ -0,0 +1,232 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, emulateSdk = 18)
+public class BitmapDecoderSelectorTest {
+    private static final byte[] JPEG_DATA = new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xD9 };
+
+    private BitmapDecoderBackend backend;
+    private BitmapDecoder<InputStream> defaultDecoder;
+    private BitmapPool pool;
+    private InputStream is;
+    private Bitmap result;
+    private BitmapDecoderSelector selector;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        backend = mock(BitmapDecoderBackend.class);
+        when(backend.getId()).thenReturn("backendId");
+        when(backend.canDecode(any(ImageHeader.class), anyInt(), anyInt())).thenReturn(true);
+        defaultDecoder = mock(BitmapDecoder.class);
+        when(defaultDecoder.getId()).thenReturn("defaultId");
+        pool = mock(BitmapPool.class);
+        is = new ByteArrayInputStream(JPEG_DATA);
+        result = Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888);
+        selector = new BitmapDecoderSelector(Collections.singletonList(backend));
+    }
+
+    @Test
+    public void testReturnsDefaultDecoderIfThereAreNoBackends() {
+        assertSame(defaultDecoder, new BitmapDecoderSelector().select(defaultDecoder));
+    }
+
+    @Test
+    public void testUsesBackendThatCanDecode() throws Exception {
+        when(backend.decode(any(InputStream.class), eq(pool), eq(100), eq(200), eq(DecodeFormat.DEFAULT)))
+                .thenReturn(result);
+
+        assertSame(result, decode());
+        verify(defaultDecoder, never()).decode(any(InputStream.class), any(BitmapPool.class), anyInt(), anyInt(),
+                any(DecodeFormat.class));
+    }
+
+    @Test
+    public void testUsesDefaultDecoderIfBackendCannotDecode() throws Exception {
+        when(backend.canDecode(any(ImageHeader.class), anyInt(), anyInt())).thenReturn(false);
+        when(defaultDecoder.decode(any(InputStream.class), eq(pool), eq(100), eq(200), eq(DecodeFormat.DEFAULT)))
+                .thenReturn(result);
+
+        assertSame(result, decode());
+        verify(backend, never()).decode(any(InputStream.class), any(BitmapPool.class), anyInt(), anyInt(),
+                any(DecodeFormat.class));
+    }
+
+    @Test
+    public void testPassesParsedHeaderAndSizeToBackend() throws Exception {
+        decode();
+
+        ArgumentCaptor<ImageHeader> captor = ArgumentCaptor.forClass(ImageHeader.class);
+        verify(backend).canDecode(captor.capture(), eq(100), eq(200));
+        assertEquals(ImageHeaderParser.ImageType.JPEG, captor.getValue().getType());
+    }
+
+    @Test
+    public void testFallsBackToDefaultDecoderFromStartOfStreamIfBackendThrows() throws Exception {
+        when(backend.decode(any(InputStream.class), any(BitmapPool.class), anyInt(), anyInt(),
+                any(DecodeFormat.class))).thenAnswer(new ReadAll(null, new RuntimeException("test")));
+        FirstByte firstByte = new FirstByte();
+        when(defaultDecoder.decode(any(InputStream.class), any(BitmapPool.class), anyInt(), anyInt(),
+                any(DecodeFormat.class))).thenAnswer(firstByte);
+
+        assertSame(result, decode());
+        assertEquals(0xFF, firstByte.value);
+    }
+
+    @Test
+    public void testFallsBackToDefaultDecoderIfBackendReturnsNull() throws Exception {
+        when(backend.decode(any(InputStream.class), any(BitmapPool.class), anyInt(), anyInt(),
+                any(DecodeFormat.class))).thenAnswer(new ReadAll(null, null));
+        FirstByte firstByte = new FirstByte();
+        when(defaultDecoder.decode(any(InputStream.class), any(BitmapPool.class), anyInt(), anyInt(),
+                any(DecodeFormat.class))).thenAnswer(firstByte);
+
+        assertSame(result, decode());
+        assertEquals(0xFF, firstByte.value);
+    }
+
+    @Test
+    public void testBuffersStreamsThatDoNotSupportMarkSoThatItCanFallBack() throws Exception {
+        is = new FilterInputStream(new ByteArrayInputStream(JPEG_DATA)) {
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+        };
+        when(backend.decode(any(InputStream.class), any(BitmapPool.class), anyInt(), anyInt(),
+                any(DecodeFormat.class))).thenAnswer(new ReadAll(null, null));
+        FirstByte firstByte = new FirstByte();
+        when(defaultDecoder.decode(any(InputStream.class), any(BitmapPool.class), anyInt(), anyInt(),
+                any(DecodeFormat.class))).thenAnswer(firstByte);
+
+        assertSame(result, decode());
+        assertEquals(0xFF, firstByte.value);
+    }
+
+    @Test
+    public void testDisablesBackendAfterConsecutiveFailures() throws Exception {
+        when(backend.decode(any(InputStream.class), any(BitmapPool.class), anyInt(), anyInt(),
+                any(DecodeFormat.class))).thenThrow(new RuntimeException("test"));
+
+        for (int i = 0; i < BitmapDecoderSelector.MAX_CONSECUTIVE_FAILURES + 2; i++) {
+            is = new ByteArrayInputStream(JPEG_DATA);
+            decode();
+        }
+
+        verify(backend, times(BitmapDecoderSelector.MAX_CONSECUTIVE_FAILURES)).decode(any(InputStream.class),
+                any(BitmapPool.class), anyInt(), anyInt(), any(DecodeFormat.class));
+        assertTrue(selector.getStats(backend).isDisabled());
+    }
+
+    @Test
+    public void testSuccessfulDecodeResetsConsecutiveFailures() throws Exception {
+        when(backend.decode(any(InputStream.class), any(BitmapPool.class), anyInt(), anyInt(),
+                any(DecodeFormat.class))).thenReturn(null, null, result, null, null);
+
+        for (int i = 0; i < 5; i++) {
+            is = new ByteArrayInputStream(JPEG_DATA);
+            decode();
+        }
+
+        assertFalse(selector.getStats(backend).isDisabled());
+    }
+
+    @Test
+    public void testRecordsDecodeAndFailureCounts() throws Exception {
+        when(backend.decode(any(InputStream.class), any(BitmapPool.class), anyInt(), anyInt(),
+                any(DecodeFormat.class))).thenReturn(result, null, result);
+
+        for (int i = 0; i < 3; i++) {
+            is = new ByteArrayInputStream(JPEG_DATA);
+            decode();
+        }
+
+        BitmapDecoderSelector.BackendStats stats = selector.getStats(backend);
+        assertEquals(2, stats.getDecodeCount());
+        assertEquals(1, stats.getFailureCount());
+        assertTrue(stats.getAverageDecodeMillis() >= 0);
+    }
+
+    @Test
+    public void testReturnsNullStatsForUnknownBackend() {
+        assertNull(selector.getStats(mock(BitmapDecoderBackend.class)));
+    }
+
+    @Test
+    public void testIdIncludesBackendAndDefaultDecoderIds() {
+        String id = selector.select(defaultDecoder).getId();
+
+        assertTrue(id.contains("backendId"));
+        assertTrue(id.contains("defaultId"));
+    }
+
+    private Bitmap decode() throws Exception {
+        return selector.select(defaultDecoder).decode(is, pool, 100, 200, DecodeFormat.DEFAULT);
+    }
+
+    private static class ReadAll implements Answer<Bitmap> {
+        private final Bitmap toReturn;
+        private final RuntimeException toThrow;
+
+        public ReadAll(Bitmap toReturn, RuntimeException toThrow) {
+            this.toReturn = toReturn;
+            this.toThrow = toThrow;
+        }
+
+        @Override
+        public Bitmap answer(InvocationOnMock invocation) throws IOException {
+            InputStream stream = (InputStream) invocation.getArguments()[0];
+            while (stream.read() != -1) {
+                // Consume the stream.
+            }
+            if (toThrow != null) {
+                throw toThrow;
+            }
+            return toReturn;
+        }
+    }
+
+    private class FirstByte implements Answer<Bitmap> {
+        private int value = -1;
+
+        @Override
+        public Bitmap answer(InvocationOnMock invocation) throws IOException {
+            value = ((InputStream) invocation.getArguments()[0]).read();
+            return result;
+        }
+    }
+}
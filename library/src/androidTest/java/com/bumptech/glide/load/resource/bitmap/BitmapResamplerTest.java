@@ -0,0 +1,163 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@RunWith(JUnit4.class)
+public class BitmapResamplerTest {
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testBoxFilterAveragesCoveredPixels() {
+        int[] pixels = new int[] {
+            0xFF000000, 0xFF0000FF, 0xFF00FF00, 0xFF00FF00,
+            0xFF0000FF, 0xFF000000, 0xFF00FF00, 0xFF00FF00,
+        };
+
+        int[] result = resample(pixels, 4, 2, 2, 1, false, BitmapResampler.Filter.BOX, 1);
+
+        assertArrayEquals(new int[] { 0xFF000080, 0xFF00FF00 }, result);
+    }
+
+    @Test
+    public void testKeepsFlatColorsExact() {
+        for (BitmapResampler.Filter filter : BitmapResampler.Filter.values()) {
+            int[] pixels = new int[100 * 80];
+            Arrays.fill(pixels, 0xFF336699);
+
+            int[] result = resample(pixels, 100, 80, 33, 17, false, filter, 1);
+
+            for (int color : result) {
+                assertEquals(filter.name(), 0xFF336699, color);
+            }
+        }
+    }
+
+    @Test
+    public void testDoesNotBleedColorOfTransparentPixels() {
+        int[] pixels = new int[] { 0xFFFF0000, 0x0000FF00 };
+
+        int[] result = resample(pixels, 2, 1, 1, 1, true, BitmapResampler.Filter.BOX, 1);
+
+        assertEquals(0x80FF0000, result[0]);
+    }
+
+    @Test
+    public void testBoxFilterRepeatsPixelsWhenScalingUp() {
+        int[] pixels = new int[] { 0xFF000000, 0xFFFFFFFF };
+
+        int[] result = resample(pixels, 2, 1, 4, 1, false, BitmapResampler.Filter.BOX, 1);
+
+        assertArrayEquals(new int[] { 0xFF000000, 0xFF000000, 0xFFFFFFFF, 0xFFFFFFFF }, result);
+    }
+
+    @Test
+    public void testParallelResultsAreIdenticalToSequentialResults() {
+        int[] pixels = randomPixels(1200, 1000);
+        for (BitmapResampler.Filter filter : BitmapResampler.Filter.values()) {
+            for (boolean hasAlpha : new boolean[] { false, true }) {
+                int[] sequential = resample(pixels, 1200, 1000, 301, 251, hasAlpha, filter, 1);
+
+                for (int bands = 2; bands <= 8; bands++) {
+                    assertArrayEquals(filter.name() + " " + bands,
+                            sequential, resample(pixels, 1200, 1000, 301, 251, hasAlpha, filter, bands));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelResultsAreIdenticalToSequentialResultsWhenScalingUp() {
+        int[] pixels = randomPixels(64, 48);
+
+        int[] sequential = resample(pixels, 64, 48, 200, 150, true, BitmapResampler.Filter.LANCZOS, 1);
+
+        assertArrayEquals(sequential, resample(pixels, 64, 48, 200, 150, true, BitmapResampler.Filter.LANCZOS, 5));
+    }
+
+    @Test
+    public void testReturnsNullAndRestoresInterruptIfInterruptedWhileWaitingForBands() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        ExecutorService blocked = Executors.newSingleThreadExecutor();
+        blocked.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    // Ignored.
+                }
+            }
+        });
+        int[] pixels = randomPixels(64, 48);
+
+        Thread.currentThread().interrupt();
+        int[] result = BitmapResampler.resample(pixels, 64, 48, 32, 24, false, BitmapResampler.Filter.BOX, blocked, 2);
+
+        assertTrue(Thread.interrupted());
+        assertNull(result);
+        latch.countDown();
+        blocked.shutdown();
+    }
+
+    @Test
+    public void testWeightsSumToOne() {
+        BitmapResampler.Weights weights = new BitmapResampler.Weights(1000, 77, BitmapResampler.Filter.LANCZOS);
+
+        for (int i = 0; i < weights.starts.length; i++) {
+            int total = 0;
+            for (int j = 0; j < weights.counts[i]; j++) {
+                total += weights.weights[i * weights.stride + j];
+            }
+            assertEquals(1 << 14, total);
+        }
+    }
+
+    @Test
+    public void testDoesNotSplitSmallImages() {
+        assertEquals(1, BitmapResampler.getBandCount(500, 500, 100, executor));
+    }
+
+    @Test
+    public void testDoesNotSplitWithoutExecutor() {
+        assertEquals(1, BitmapResampler.getBandCount(4000, 3000, 1000, null));
+    }
+
+    private int[] resample(int[] pixels, int inWidth, int inHeight, int width, int height, boolean hasAlpha,
+            BitmapResampler.Filter filter, int bands) {
+        return BitmapResampler.resample(pixels, inWidth, inHeight, width, height, hasAlpha, filter, executor, bands);
+    }
+
+    private static int[] randomPixels(int width, int height) {
+        Random random = new Random(42);
+        int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextInt();
+        }
+        return pixels;
+    }
+}
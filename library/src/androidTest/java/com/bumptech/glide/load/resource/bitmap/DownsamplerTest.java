@@ -1,12 +1,17 @@
 package com.bumptech.glide.load.resource.bitmap;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import android.graphics.Bitmap;
+import android.os.Build;
 
 import com.bumptech.glide.load.DecodeFormat;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.tests.Util;
 
 import org.junit.After;
 import org.junit.Before;
@@ -29,9 +34,11 @@ import java.io.OutputStream;
 @Config(manifest = Config.NONE, emulateSdk = 18)
 public class DownsamplerTest {
     private File tempFile;
+    private int initialSdkVersion;
 
     @Before
     public void setUp() throws Exception {
+        initialSdkVersion = Build.VERSION.SDK_INT;
         File cacheDir = Robolectric.application.getCacheDir();
         cacheDir.mkdir();
         tempFile = new File(cacheDir, "temp");
@@ -39,6 +46,7 @@ public class DownsamplerTest {
 
     @After
     public void tearDown() throws Exception {
+        Util.setSdkVersionInt(initialSdkVersion);
         tempFile.delete();
     }
 
@@ -78,6 +86,49 @@ public class DownsamplerTest {
         }
     }
 
+    @Test
+    public void testExactDownsamplerRequestsBitmapOfScaledSizeFromPoolOnKitKat() throws IOException {
+        Util.setSdkVersionInt(Build.VERSION_CODES.KITKAT);
+        compressBitmap(Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888), Bitmap.CompressFormat.JPEG);
+        BitmapPool pool = mock(BitmapPool.class);
+
+        decodeTempFile(Downsampler.AT_MOST_EXACT, pool, 30, 30);
+
+        // A sample size of 2 gives 50x50, the remaining 0.6 is applied by scaling.
+        verify(pool).getDirty(eq(30), eq(30), any(Bitmap.Config.class));
+    }
+
+    @Test
+    public void testApproximateDownsamplerOnlyUsesPowerOfTwoSampleSizeOnKitKat() throws IOException {
+        Util.setSdkVersionInt(Build.VERSION_CODES.KITKAT);
+        compressBitmap(Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888), Bitmap.CompressFormat.JPEG);
+        BitmapPool pool = mock(BitmapPool.class);
+
+        decodeTempFile(Downsampler.AT_MOST, pool, 30, 30);
+
+        verify(pool).getDirty(eq(50), eq(50), any(Bitmap.Config.class));
+    }
+
+    @Test
+    public void testExactDownsamplerNeverScalesUp() throws IOException {
+        Util.setSdkVersionInt(Build.VERSION_CODES.KITKAT);
+        compressBitmap(Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888), Bitmap.CompressFormat.JPEG);
+        BitmapPool pool = mock(BitmapPool.class);
+
+        decodeTempFile(Downsampler.AT_LEAST_EXACT, pool, 200, 200);
+
+        verify(pool).getDirty(eq(100), eq(100), any(Bitmap.Config.class));
+    }
+
+    private void decodeTempFile(Downsampler downsampler, BitmapPool pool, int width, int height) throws IOException {
+        InputStream is = new FileInputStream(tempFile);
+        try {
+            downsampler.decode(is, pool, width, height, DecodeFormat.PREFER_RGB_565);
+        } finally {
+            is.close();
+        }
+    }
+
     private void compressBitmap(Bitmap bitmap, Bitmap.CompressFormat compressFormat) throws FileNotFoundException {
         OutputStream os = null;
         try {
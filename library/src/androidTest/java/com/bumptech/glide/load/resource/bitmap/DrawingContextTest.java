@@ -0,0 +1,98 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.ColorMatrix;
+import android.graphics.ColorMatrixColorFilter;
+import android.graphics.Matrix;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.Shader;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, emulateSdk = 18)
+public class DrawingContextTest {
+
+    @Test
+    public void testReusesContextOnTheSameThread() {
+        assertSame(DrawingContext.get(), DrawingContext.get());
+    }
+
+    @Test
+    public void testUsesDifferentContextsOnDifferentThreads() throws InterruptedException {
+        final AtomicReference<DrawingContext> other = new AtomicReference<DrawingContext>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                other.set(DrawingContext.get());
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertNotSame(DrawingContext.get(), other.get());
+    }
+
+    @Test
+    public void testReusesDrawingObjectsForEachDraw() {
+        DrawingContext context = DrawingContext.get();
+        Bitmap first = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        Bitmap second = Bitmap.createBitmap(20, 20, Bitmap.Config.ARGB_8888);
+
+        Matrix matrix = context.getMatrix();
+        Canvas canvas = context.getCanvas(first);
+        context.finishDrawing();
+
+        assertSame(matrix, context.getMatrix());
+        assertSame(canvas, context.getCanvas(second));
+        context.finishDrawing();
+    }
+
+    @Test
+    public void testResetsMatrix() {
+        DrawingContext context = DrawingContext.get();
+        context.getMatrix().setScale(2f, 2f);
+
+        assertTrue(context.getMatrix().isIdentity());
+    }
+
+    @Test
+    public void testFinishDrawingClearsShaderAndColorFilter() {
+        DrawingContext context = DrawingContext.get();
+        Bitmap bitmap = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        context.getPaint().setShader(new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+        context.getPaint().setColorFilter(new ColorMatrixColorFilter(new ColorMatrix()));
+        context.getPaint().setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC_IN));
+
+        context.finishDrawing();
+
+        assertNull(context.getPaint().getShader());
+        assertNull(context.getPaint().getColorFilter());
+        assertNull(context.getPaint().getXfermode());
+    }
+
+    @Test
+    public void testReusesColorFilterForSameColorMatrix() {
+        DrawingContext context = DrawingContext.get();
+        ColorMatrix grayscale = new ColorMatrix();
+        grayscale.setSaturation(0f);
+
+        ColorMatrixColorFilter first = context.getColorFilter(grayscale);
+
+        assertSame(first, context.getColorFilter(new ColorMatrix(grayscale)));
+        assertNotSame(first, context.getColorFilter(new ColorMatrix()));
+    }
+}
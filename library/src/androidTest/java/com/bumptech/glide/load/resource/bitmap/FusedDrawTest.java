@@ -0,0 +1,210 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.graphics.Bitmap;
+import android.graphics.ColorMatrix;
+
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.request.target.Target;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, emulateSdk = 18)
+public class FusedDrawTest {
+    private BitmapPool pool;
+    private Bitmap bitmap;
+    private Resource<Bitmap> resource;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        pool = mock(BitmapPool.class);
+        bitmap = Bitmap.createBitmap(200, 100, Bitmap.Config.ARGB_8888);
+        resource = mock(Resource.class);
+        when(resource.get()).thenReturn(bitmap);
+    }
+
+    @Test
+    public void testFusesCenterCropAndRoundedCornersInToOneBitmap() {
+        Resource<Bitmap> result = transform(50, 50, new CenterCrop(pool), new RoundedCorners(pool, 5));
+
+        verify(pool, times(1)).get(anyInt(), anyInt(), any(Bitmap.Config.class));
+        assertEquals(50, result.get().getWidth());
+        assertEquals(50, result.get().getHeight());
+    }
+
+    @Test
+    public void testFusesFourTransformationsInToOneBitmap() {
+        ColorMatrix grayscale = new ColorMatrix();
+        grayscale.setSaturation(0);
+
+        Resource<Bitmap> result = transform(60, 40, new CenterCrop(pool), new Rotate(pool, 90),
+                new RoundedCorners(pool, 5), new ColorMatrixTransformation(pool, grayscale));
+
+        verify(pool, times(1)).get(eq(40), eq(60), eq(Bitmap.Config.ARGB_8888));
+        assertEquals(40, result.get().getWidth());
+        assertEquals(60, result.get().getHeight());
+    }
+
+    @Test
+    public void testUsesBitmapFromPool() {
+        Bitmap fromPool = Bitmap.createBitmap(50, 50, Bitmap.Config.ARGB_8888);
+        when(pool.get(eq(50), eq(50), any(Bitmap.Config.class))).thenReturn(fromPool);
+
+        Resource<Bitmap> result = transform(50, 50, new CenterCrop(pool), new RoundedCorners(pool, 5));
+
+        assertTrue(fromPool == result.get());
+    }
+
+    @Test
+    public void testReturnsGivenResourceIfNoTransformationChangesIt() {
+        Resource<Bitmap> result = transform(200, 100, new CenterCrop(pool), new FitCenter(pool));
+
+        assertSame(resource, result);
+        verify(pool, never()).get(anyInt(), anyInt(), any(Bitmap.Config.class));
+    }
+
+    @Test
+    public void testDoesNotRecycleGivenResource() {
+        transform(50, 50, new CenterCrop(pool), new RoundedCorners(pool, 5));
+
+        verify(resource, never()).recycle();
+    }
+
+    @Test
+    public void testConvertsSizeOriginalToCurrentSize() {
+        Resource<Bitmap> result = transform(Target.SIZE_ORIGINAL, Target.SIZE_ORIGINAL, new Rotate(pool, 90),
+                new CenterCrop(pool));
+
+        assertEquals(100, result.get().getWidth());
+        assertEquals(200, result.get().getHeight());
+    }
+
+    @Test
+    public void testDrawsBeforeAndAfterTransformationsThatCannotBeFused() {
+        Transformation<Bitmap> other = new BitmapTransformation(pool) {
+            @Override
+            protected Bitmap transform(BitmapPool pool, Bitmap toTransform, int outWidth, int outHeight) {
+                return Bitmap.createBitmap(outWidth, outHeight, Bitmap.Config.ARGB_8888);
+            }
+
+            @Override
+            public String getId() {
+                return "other";
+            }
+        };
+
+        transform(50, 50, new CenterCrop(pool), new RoundedCorners(pool, 5), other, new Rotate(pool, 90),
+                new RoundedCorners(pool, 5));
+
+        verify(pool, times(2)).get(anyInt(), anyInt(), any(Bitmap.Config.class));
+    }
+
+    @Test
+    public void testRecyclesIntermediateResources() {
+        Resource<Bitmap> intermediate = mockResource(Bitmap.createBitmap(50, 50, Bitmap.Config.ARGB_8888));
+        Transformation<Bitmap> other = mockTransformation(intermediate);
+
+        transform(50, 50, other, new CenterCrop(pool), new RoundedCorners(pool, 5));
+
+        verify(intermediate).recycle();
+    }
+
+    @Test
+    public void testDrawsAgainIfCornersAreRoundedTwice() {
+        transform(50, 50, new CenterCrop(pool), new RoundedCorners(pool, 5), new RoundedCorners(pool, 10));
+
+        verify(pool, times(2)).get(anyInt(), anyInt(), any(Bitmap.Config.class));
+    }
+
+    @Test
+    public void testCannotFuseAlphaOffsetAfterRoundedCorners() {
+        FusedDraw draw = new FusedDraw(bitmap);
+        assertTrue(draw.roundCorners(5));
+        ColorMatrix opaque = new ColorMatrix();
+        opaque.getArray()[19] = 255;
+
+        assertFalse(draw.postColorMatrix(opaque));
+    }
+
+    @Test
+    public void testCanFuseAlphaOffsetWithoutAddedTransparency() {
+        FusedDraw draw = new FusedDraw(bitmap);
+        ColorMatrix opaque = new ColorMatrix();
+        opaque.getArray()[19] = 255;
+
+        assertTrue(draw.postColorMatrix(opaque));
+        assertFalse(draw.isIdentity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsIfGivenInvalidSize() {
+        transform(0, 50, new CenterCrop(pool), new RoundedCorners(pool, 5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRotateThrowsIfDegreesAreNotMultipleOfNinety() {
+        new Rotate(pool, 45);
+    }
+
+    @Test
+    public void testRotateIdsIncludeNormalizedDegrees() {
+        assertEquals(new Rotate(pool, -90).getId(), new Rotate(pool, 270).getId());
+        assertFalse(new Rotate(pool, 90).getId().equals(new Rotate(pool, 180).getId()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRoundedCornersThrowsIfRadiusIsNotPositive() {
+        new RoundedCorners(pool, 0);
+    }
+
+    @Test
+    public void testColorMatrixTransformationIdsDependOnMatrix() {
+        ColorMatrix grayscale = new ColorMatrix();
+        grayscale.setSaturation(0);
+
+        assertFalse(new ColorMatrixTransformation(pool, grayscale).getId()
+                .equals(new ColorMatrixTransformation(pool, new ColorMatrix()).getId()));
+    }
+
+    private Resource<Bitmap> transform(int outWidth, int outHeight, Transformation<Bitmap>... transformations) {
+        List<Transformation<Bitmap>> list = Arrays.asList(transformations);
+        return FusedDraw.transform(list, resource, outWidth, outHeight);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Resource<Bitmap> mockResource(Bitmap bitmap) {
+        Resource<Bitmap> result = mock(Resource.class);
+        when(result.get()).thenReturn(bitmap);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Transformation<Bitmap> mockTransformation(Resource<Bitmap> result) {
+        Transformation<Bitmap> transformation = mock(Transformation.class);
+        when(transformation.transform(any(Resource.class), anyInt(), anyInt())).thenReturn(result);
+        return transformation;
+    }
+}
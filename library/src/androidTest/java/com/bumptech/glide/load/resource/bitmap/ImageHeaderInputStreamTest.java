@@ -0,0 +1,133 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+@RunWith(JUnit4.class)
+public class ImageHeaderInputStreamTest {
+    private static final ImageHeader HINT = new ImageHeader(ImageHeaderParser.ImageType.JPEG, 6, 100, 200, true);
+
+    @Test
+    public void testWrapReturnsGivenStreamIfHintIsNull() {
+        InputStream is = new ByteArrayInputStream(new byte[0]);
+
+        assertSame(is, ImageHeaderInputStream.wrap(is, null));
+    }
+
+    @Test
+    public void testWrapReturnsNullIfStreamIsNull() {
+        assertNull(ImageHeaderInputStream.wrap(null, HINT));
+    }
+
+    @Test
+    public void testWrappedStreamCarriesHintAndReadsGivenStream() throws IOException {
+        InputStream wrapped = ImageHeaderInputStream.wrap(new ByteArrayInputStream(new byte[] { 5 }), HINT);
+
+        assertSame(HINT, ImageHeaderInputStream.getHint(wrapped));
+        assertEquals(5, wrapped.read());
+    }
+
+    @Test
+    public void testGetHintReturnsNullForOtherStreams() {
+        assertNull(ImageHeaderInputStream.getHint(new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    public void testCanSkipParsingWithTypeAndDimensions() {
+        assertTrue(ImageHeaderInputStream.canSkipParsing(HINT));
+    }
+
+    @Test
+    public void testCannotSkipParsingWithoutHint() {
+        assertFalse(ImageHeaderInputStream.canSkipParsing(null));
+    }
+
+    @Test
+    public void testCannotSkipParsingWithoutType() {
+        assertFalse(ImageHeaderInputStream.canSkipParsing(
+                new ImageHeader(ImageHeaderParser.ImageType.UNKNOWN, -1, 100, 200, true)));
+    }
+
+    @Test
+    public void testCannotSkipParsingWithoutDimensions() {
+        assertFalse(ImageHeaderInputStream.canSkipParsing(
+                new ImageHeader(ImageHeaderParser.ImageType.JPEG, -1, -1, -1, true)));
+    }
+
+    @Test
+    public void testCannotSkipParsingIncompleteHeader() {
+        assertFalse(ImageHeaderInputStream.canSkipParsing(
+                new ImageHeader(ImageHeaderParser.ImageType.JPEG, -1, 100, 200, false)));
+    }
+
+    @Test
+    public void testCannotSkipParsingJpegWithUnknownOrientation() {
+        assertFalse(ImageHeaderInputStream.canSkipParsing(
+                new ImageHeader(ImageHeaderParser.ImageType.JPEG, 100, 200)));
+    }
+
+    @Test
+    public void testCanSkipParsingJpegWithoutOrientation() {
+        assertTrue(ImageHeaderInputStream.canSkipParsing(
+                new ImageHeader(ImageHeaderParser.ImageType.JPEG, -1, 100, 200, true)));
+    }
+
+    @Test
+    public void testCanSkipParsingPngWithUnknownOrientation() {
+        assertTrue(ImageHeaderInputStream.canSkipParsing(
+                new ImageHeader(ImageHeaderParser.ImageType.PNG, 100, 200)));
+    }
+
+    @Test
+    public void testMergeDoesNotTakeUnknownOrientationFromHint() {
+        ImageHeader parsed = new ImageHeader(ImageHeaderParser.ImageType.JPEG, -1, 100, 200, true);
+
+        ImageHeader merged = ImageHeaderInputStream.merge(parsed,
+                new ImageHeader(ImageHeaderParser.ImageType.JPEG, 100, 200));
+
+        assertEquals(-1, merged.getOrientation());
+    }
+
+    @Test
+    public void testMergeReturnsParsedHeaderWithoutHint() {
+        ImageHeader parsed = new ImageHeader(ImageHeaderParser.ImageType.PNG, -1, -1, -1, true);
+
+        assertSame(parsed, ImageHeaderInputStream.merge(parsed, null));
+    }
+
+    @Test
+    public void testMergePrefersParsedValues() {
+        ImageHeader parsed = new ImageHeader(ImageHeaderParser.ImageType.PNG_A, 3, 10, 20, true);
+
+        ImageHeader merged = ImageHeaderInputStream.merge(parsed, HINT);
+
+        assertEquals(ImageHeaderParser.ImageType.PNG_A, merged.getType());
+        assertEquals(3, merged.getOrientation());
+        assertEquals(10, merged.getWidth());
+        assertEquals(20, merged.getHeight());
+    }
+
+    @Test
+    public void testMergeTakesMissingValuesFromHint() {
+        ImageHeader parsed = new ImageHeader(ImageHeaderParser.ImageType.UNKNOWN, -1, -1, -1, false);
+
+        ImageHeader merged = ImageHeaderInputStream.merge(parsed, HINT);
+
+        assertEquals(ImageHeaderParser.ImageType.JPEG, merged.getType());
+        assertEquals(6, merged.getOrientation());
+        assertEquals(100, merged.getWidth());
+        assertEquals(200, merged.getHeight());
+        assertFalse(merged.isComplete());
+    }
+}
@@ -2,6 +2,8 @@ package com.bumptech.glide.load.resource.bitmap;
 
 import static com.bumptech.glide.load.resource.bitmap.ImageHeaderParser.ImageType;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import com.bumptech.glide.testutil.TestResourceUtil;
 
@@ -10,6 +12,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -77,6 +80,241 @@ public class ImageHeaderParserTest {
         assertEquals(-1, parser.getOrientation());
     }
 
+    @Test
+    public void testParsesPngHeaderInSinglePass() throws IOException {
+        ImageHeader header = new ImageHeaderParser(new ByteArrayInputStream(generatePngHeaderWithIhdr(6)))
+                .parseHeader(1024);
+
+        assertEquals(ImageType.PNG_A, header.getType());
+        assertEquals(400, header.getWidth());
+        assertEquals(300, header.getHeight());
+        assertEquals(-1, header.getOrientation());
+        assertTrue(header.isComplete());
+    }
+
+    @Test
+    public void testParsesPngTypeWithoutDimensionsFromTruncatedHeader() throws IOException {
+        InputStream is = new ByteArrayInputStream(new byte[] { (byte) 0x89, 0x50, 0x4e, 0x47, 0x0d, 0x0a, 0x1a, 0x0a });
+        ImageHeader header = new ImageHeaderParser(is).parseHeader(1024);
+
+        assertEquals(ImageType.PNG, header.getType());
+        assertFalse(header.hasDimensions());
+    }
+
+    @Test
+    public void testParsesJpegHeaderInSinglePass() throws IOException {
+        InputStream is = TestResourceUtil.openResource(getClass(), "short_exif_sample.jpg");
+        ImageHeader header = new ImageHeaderParser(is).parseHeader(64 * 1024);
+
+        assertEquals(ImageType.JPEG, header.getType());
+        assertEquals(280, header.getWidth());
+        assertEquals(140, header.getHeight());
+        assertEquals(-1, header.getOrientation());
+        assertTrue(header.isComplete());
+    }
+
+    @Test
+    public void testParsesJpegOrientationAndDimensions() throws IOException {
+        ImageHeader header = new ImageHeaderParser(new ByteArrayInputStream(generateJpegHeader(6, 640, 480)))
+                .parseHeader(1024);
+
+        assertEquals(ImageType.JPEG, header.getType());
+        assertEquals(6, header.getOrientation());
+        assertEquals(640, header.getWidth());
+        assertEquals(480, header.getHeight());
+    }
+
+    @Test
+    public void testParsesSameOrientationAsGetOrientation() throws IOException {
+        byte[] jpeg = generateJpegHeader(8, 10, 10);
+        assertEquals(new ImageHeaderParser(new ByteArrayInputStream(jpeg)).getOrientation(),
+                new ImageHeaderParser(new ByteArrayInputStream(jpeg)).parseHeader(1024).getOrientation());
+    }
+
+    @Test
+    public void testReturnsIncompleteHeaderIfJpegHeaderIsPastByteLimit() throws IOException {
+        InputStream is = TestResourceUtil.openResource(getClass(), "short_exif_sample.jpg");
+        ImageHeader header = new ImageHeaderParser(is).parseHeader(100);
+
+        assertEquals(ImageType.JPEG, header.getType());
+        assertFalse(header.hasDimensions());
+        assertFalse(header.isComplete());
+    }
+
+    @Test
+    public void testParsesGifTypeWithoutDimensions() throws IOException {
+        InputStream is = new ByteArrayInputStream(new byte[] { 'G', 'I', 'F', '8', '9', 'a', 0x1, 0x0, 0x1, 0x0 });
+        ImageHeader header = new ImageHeaderParser(is).parseHeader(1024);
+
+        assertEquals(ImageType.GIF, header.getType());
+        assertFalse(header.hasDimensions());
+        assertTrue(header.isComplete());
+    }
+
+    @Test
+    public void testParsesLossyWebpTypeAndDimensions() throws IOException {
+        // Frame tag, start code, then the width and height with a scale in the top two bits.
+        byte[] webp = generateWebpHeader('V', 'P', '8', ' ', 0, 0, 0, 0x9D, 0x01, 0x2A, 0x90, 0x41, 0x2C, 0x01);
+
+        assertEquals(ImageType.WEBP, new ImageHeaderParser(new ByteArrayInputStream(webp)).getType());
+        ImageHeader header = new ImageHeaderParser(new ByteArrayInputStream(webp)).parseHeader(1024);
+        assertEquals(ImageType.WEBP, header.getType());
+        assertEquals(400, header.getWidth());
+        assertEquals(300, header.getHeight());
+        assertFalse(header.hasAlpha());
+    }
+
+    @Test
+    public void testParsesLosslessWebpWithAlpha() throws IOException {
+        byte[] webp = generateLosslessWebpHeader(400, 300, true /*hasAlpha*/);
+
+        assertEquals(ImageType.WEBP_A, new ImageHeaderParser(new ByteArrayInputStream(webp)).getType());
+        ImageHeader header = new ImageHeaderParser(new ByteArrayInputStream(webp)).parseHeader(1024);
+        assertEquals(ImageType.WEBP_A, header.getType());
+        assertEquals(400, header.getWidth());
+        assertEquals(300, header.getHeight());
+        assertTrue(header.hasAlpha());
+    }
+
+    @Test
+    public void testParsesLosslessWebpWithoutAlpha() throws IOException {
+        byte[] webp = generateLosslessWebpHeader(16383, 1, false /*hasAlpha*/);
+
+        ImageHeader header = new ImageHeaderParser(new ByteArrayInputStream(webp)).parseHeader(1024);
+        assertEquals(ImageType.WEBP, header.getType());
+        assertEquals(16383, header.getWidth());
+        assertEquals(1, header.getHeight());
+    }
+
+    @Test
+    public void testParsesExtendedWebpWithAlpha() throws IOException {
+        byte[] webp = generateExtendedWebpHeader(0x10, 1000, 70000);
+
+        assertEquals(ImageType.WEBP_A, new ImageHeaderParser(new ByteArrayInputStream(webp)).getType());
+        ImageHeader header = new ImageHeaderParser(new ByteArrayInputStream(webp)).parseHeader(1024);
+        assertEquals(ImageType.WEBP_A, header.getType());
+        assertEquals(1000, header.getWidth());
+        assertEquals(70000, header.getHeight());
+    }
+
+    @Test
+    public void testParsesExtendedWebpWithoutAlpha() throws IOException {
+        byte[] webp = generateExtendedWebpHeader(0x08, 10, 20);
+
+        assertEquals(ImageType.WEBP, new ImageHeaderParser(new ByteArrayInputStream(webp)).getType());
+    }
+
+    @Test
+    public void testParsesAnimatedWebp() throws IOException {
+        byte[] webp = generateExtendedWebpHeader(0x02, 10, 20);
+
+        assertEquals(ImageType.ANIMATED_WEBP, new ImageHeaderParser(new ByteArrayInputStream(webp)).getType());
+        ImageHeader header = new ImageHeaderParser(new ByteArrayInputStream(webp)).parseHeader(1024);
+        assertEquals(ImageType.ANIMATED_WEBP, header.getType());
+        assertTrue(header.hasAlpha());
+        assertEquals(10, header.getWidth());
+        assertEquals(20, header.getHeight());
+    }
+
+    @Test
+    public void testParsesTruncatedExtendedWebpAsWebpWithAlpha() throws IOException {
+        byte[] webp = generateWebpHeader('V', 'P', '8', 'X');
+
+        ImageHeader header = new ImageHeaderParser(new ByteArrayInputStream(webp)).parseHeader(1024);
+        assertEquals(ImageType.WEBP_A, header.getType());
+        assertFalse(header.hasDimensions());
+    }
+
+    @Test
+    public void testParsesRiffThatIsNotWebpAsUnknown() throws IOException {
+        InputStream is = new ByteArrayInputStream(new byte[] { 'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'A', 'V', 'E',
+                'f', 'm', 't', ' ' });
+
+        assertEquals(ImageType.UNKNOWN, new ImageHeaderParser(is).getType());
+    }
+
+    @Test
+    public void testParsesHeifFromMajorBrand() throws IOException {
+        byte[] heif = generateFtyp('h', 'e', 'i', 'c', 'm', 'i', 'f', '1', 'h', 'e', 'i', 'c');
+
+        assertEquals(ImageType.HEIF, new ImageHeaderParser(new ByteArrayInputStream(heif)).getType());
+        ImageHeader header = new ImageHeaderParser(new ByteArrayInputStream(heif)).parseHeader(1024);
+        assertEquals(ImageType.HEIF, header.getType());
+        assertFalse(header.hasAlpha());
+    }
+
+    @Test
+    public void testParsesHeifFromCompatibleBrand() throws IOException {
+        byte[] heif = generateFtyp('m', 'i', 'f', '1', 'm', 'i', 'f', '1', 'h', 'e', 'v', 'c');
+
+        assertEquals(ImageType.HEIF, new ImageHeaderParser(new ByteArrayInputStream(heif)).getType());
+    }
+
+    @Test
+    public void testParsesAvifAsUnknown() throws IOException {
+        byte[] avif = generateFtyp('a', 'v', 'i', 'f', 'm', 'i', 'f', '1', 'm', 'i', 'a', 'f');
+
+        assertEquals(ImageType.UNKNOWN, new ImageHeaderParser(new ByteArrayInputStream(avif)).getType());
+    }
+
+    private static byte[] generateLosslessWebpHeader(int width, int height, boolean hasAlpha) {
+        final int bits = (width - 1) | (height - 1) << 14 | (hasAlpha ? 1 << 28 : 0);
+        return generateWebpHeader('V', 'P', '8', 'L', 0x2F, bits & 0xFF, bits >> 8 & 0xFF, bits >> 16 & 0xFF,
+                bits >>> 24, 0, 0, 0, 0, 0);
+    }
+
+    private static byte[] generateExtendedWebpHeader(int flags, int width, int height) {
+        final int widthMinusOne = width - 1;
+        final int heightMinusOne = height - 1;
+        return generateWebpHeader('V', 'P', '8', 'X', flags, 0, 0, 0, widthMinusOne & 0xFF,
+                widthMinusOne >> 8 & 0xFF, widthMinusOne >> 16, heightMinusOne & 0xFF, heightMinusOne >> 8 & 0xFF,
+                heightMinusOne >> 16);
+    }
+
+    private static byte[] generateWebpHeader(int... chunk) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        // The RIFF size isn't used.
+        writeBytes(os, 'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P');
+        // The chunk type, followed by a chunk size that isn't used.
+        writeBytes(os, chunk[0], chunk[1], chunk[2], chunk[3], 0, 0, 0, 0);
+        for (int i = 4; i < chunk.length; i++) {
+            os.write(chunk[i]);
+        }
+        return os.toByteArray();
+    }
+
+    private static byte[] generateFtyp(int... brands) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        // The box size, type, major brand and minor version followed by the compatible brands.
+        writeBytes(os, 0, 0, 0, 12 + brands.length, 'f', 't', 'y', 'p');
+        writeBytes(os, brands[0], brands[1], brands[2], brands[3], 0, 0, 0, 0);
+        for (int i = 4; i < brands.length; i++) {
+            os.write(brands[i]);
+        }
+        return os.toByteArray();
+    }
+
+    private static byte[] generateJpegHeader(int orientation, int width, int height) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        // SOI.
+        writeBytes(os, 0xFF, 0xD8);
+        // APP1 with a big endian exif segment containing only an orientation tag.
+        writeBytes(os, 0xFF, 0xE1, 0, 34);
+        writeBytes(os, 'E', 'x', 'i', 'f', 0, 0, 'M', 'M', 0, 0x2A, 0, 0, 0, 8);
+        writeBytes(os, 0, 1, 0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, orientation, 0, 0, 0, 0, 0, 0);
+        // SOF0 with 8 bit precision, height, width and one component.
+        writeBytes(os, 0xFF, 0xC0, 0, 11, 8, height >> 8, height & 0xFF, width >> 8, width & 0xFF, 1, 1, 0x11, 0);
+        // SOS.
+        writeBytes(os, 0xFF, 0xDA);
+        return os.toByteArray();
+    }
+
+    private static void writeBytes(ByteArrayOutputStream os, int... bytes) {
+        for (int b : bytes) {
+            os.write(b);
+        }
+    }
+
     private static byte[] generatePngHeaderWithIhdr(int bitDepth) {
         byte[] result = new byte[PNG_HEADER_WITH_IHDR_CHUNK.length];
         System.arraycopy(PNG_HEADER_WITH_IHDR_CHUNK, 0, result, 0, PNG_HEADER_WITH_IHDR_CHUNK.length);
@@ -0,0 +1,78 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+@RunWith(JUnit4.class)
+public class Lz4BlockCodecTest {
+
+    @Test
+    public void testRoundTripsEmptyInput() throws IOException {
+        assertRoundTrips(new byte[0]);
+    }
+
+    @Test
+    public void testRoundTripsShortInput() throws IOException {
+        assertRoundTrips(new byte[] { 1, 2, 3, 4, 5, 6, 7 });
+    }
+
+    @Test
+    public void testRoundTripsRandomInput() throws IOException {
+        byte[] data = new byte[100000];
+        new Random(0).nextBytes(data);
+        assertRoundTrips(data);
+    }
+
+    @Test
+    public void testRoundTripsAndCompressesRepetitiveInput() throws IOException {
+        byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i / 100);
+        }
+        int compressedLength = assertRoundTrips(data);
+        assertTrue(compressedLength < data.length / 10);
+    }
+
+    @Test
+    public void testRoundTripsLongRunsOfTheSameByte() throws IOException {
+        byte[] data = new byte[70000];
+        Arrays.fill(data, (byte) 7);
+        assertRoundTrips(data);
+    }
+
+    @Test(expected = IOException.class)
+    public void testThrowsIfDecompressedLengthDoesNotMatch() throws IOException {
+        byte[] data = new byte[1000];
+        byte[] compressed = new byte[Lz4BlockCodec.maxCompressedLength(data.length)];
+        int compressedLength = Lz4BlockCodec.compress(data, data.length, compressed);
+
+        Lz4BlockCodec.decompress(compressed, compressedLength, new byte[2000], 2000);
+    }
+
+    @Test(expected = IOException.class)
+    public void testThrowsIfCompressedDataIsTruncated() throws IOException {
+        byte[] data = new byte[1000];
+        byte[] compressed = new byte[Lz4BlockCodec.maxCompressedLength(data.length)];
+        int compressedLength = Lz4BlockCodec.compress(data, data.length, compressed);
+
+        Lz4BlockCodec.decompress(compressed, compressedLength - 3, new byte[data.length], data.length);
+    }
+
+    private static int assertRoundTrips(byte[] data) throws IOException {
+        byte[] compressed = new byte[Lz4BlockCodec.maxCompressedLength(data.length)];
+        int compressedLength = Lz4BlockCodec.compress(data, data.length, compressed);
+        byte[] decompressed = new byte[data.length];
+        Lz4BlockCodec.decompress(compressed, compressedLength, decompressed, data.length);
+
+        assertArrayEquals(data, decompressed);
+        return compressedLength;
+    }
+}
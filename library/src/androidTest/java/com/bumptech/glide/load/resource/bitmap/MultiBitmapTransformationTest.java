@@ -0,0 +1,70 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.MultiTransformation;
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, emulateSdk = 18)
+public class MultiBitmapTransformationTest {
+    private BitmapPool pool;
+    private Resource<Bitmap> resource;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        pool = mock(BitmapPool.class);
+        resource = mock(Resource.class);
+        when(resource.get()).thenReturn(Bitmap.createBitmap(200, 100, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void testAppliesBitmapTransformationsInOneDraw() {
+        Resource<Bitmap> result = new MultiBitmapTransformation(new CenterCrop(pool), new RoundedCorners(pool, 5))
+                .transform(resource, 50, 50);
+
+        verify(pool, times(1)).get(anyInt(), anyInt(), any(Bitmap.Config.class));
+        assertEquals(50, result.get().getWidth());
+        assertEquals(50, result.get().getHeight());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAppliesOtherTransformationsInOrder() {
+        Transformation<Bitmap> first = mock(Transformation.class);
+        Resource<Bitmap> transformed = mock(Resource.class);
+        when(first.transform(eq(resource), anyInt(), anyInt())).thenReturn(transformed);
+        Transformation<Bitmap> second = mock(Transformation.class);
+
+        new MultiBitmapTransformation(first, second).transform(resource, 50, 50);
+
+        verify(second).transform(eq(transformed), eq(50), eq(50));
+    }
+
+    @Test
+    public void testHasSameIdAsMultiTransformation() {
+        CenterCrop centerCrop = new CenterCrop(pool);
+        RoundedCorners roundedCorners = new RoundedCorners(pool, 5);
+
+        assertEquals(new MultiTransformation<Bitmap>(centerCrop, roundedCorners).getId(),
+                new MultiBitmapTransformation(centerCrop, roundedCorners).getId());
+    }
+}
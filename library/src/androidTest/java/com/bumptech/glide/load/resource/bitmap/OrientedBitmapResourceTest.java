@@ -0,0 +1,150 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.graphics.Bitmap;
+import android.media.ExifInterface;
+
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, emulateSdk = 18)
+public class OrientedBitmapResourceTest {
+    private BitmapPool pool;
+    private Bitmap bitmap;
+
+    @Before
+    public void setUp() {
+        pool = mock(BitmapPool.class);
+        bitmap = Bitmap.createBitmap(200, 100, Bitmap.Config.ARGB_8888);
+    }
+
+    @Test
+    public void testObtainReturnsBitmapResourceIfNoRotationIsRequired() {
+        Resource<Bitmap> resource = OrientedBitmapResource.obtain(bitmap, pool, ExifInterface.ORIENTATION_NORMAL);
+
+        assertFalse(resource instanceof OrientedBitmapResource);
+        assertSame(bitmap, resource.get());
+    }
+
+    @Test
+    public void testGetRotatesBitmapOnce() {
+        Resource<Bitmap> resource = OrientedBitmapResource.obtain(bitmap, pool, ExifInterface.ORIENTATION_ROTATE_90);
+
+        Bitmap first = resource.get();
+        Bitmap second = resource.get();
+
+        assertNotSame(bitmap, first);
+        assertSame(first, second);
+        assertEquals(100, first.getWidth());
+        assertEquals(200, first.getHeight());
+        verify(pool).put(eq(bitmap));
+        assertFalse(OrientedBitmapResource.hasPendingOrientation(resource));
+    }
+
+    @Test
+    public void testSizeIsUnchangedByRotation() {
+        Resource<Bitmap> resource = OrientedBitmapResource.obtain(bitmap, pool, ExifInterface.ORIENTATION_ROTATE_90);
+        int size = resource.getSize();
+
+        resource.get();
+
+        assertEquals(size, resource.getSize());
+    }
+
+    @Test
+    public void testCenterCropAppliesRotationInItsDraw() {
+        Resource<Bitmap> resource = OrientedBitmapResource.obtain(bitmap, pool, ExifInterface.ORIENTATION_ROTATE_90);
+
+        Resource<Bitmap> result = new CenterCrop(pool).transform(resource, 50, 80);
+
+        verify(pool, times(1)).get(anyInt(), anyInt(), any(Bitmap.Config.class));
+        assertEquals(50, result.get().getWidth());
+        assertEquals(80, result.get().getHeight());
+        assertTrue(OrientedBitmapResource.hasPendingOrientation(resource));
+    }
+
+    @Test
+    public void testFitCenterAppliesRotationInItsDraw() {
+        Resource<Bitmap> resource = OrientedBitmapResource.obtain(bitmap, pool, ExifInterface.ORIENTATION_ROTATE_270);
+
+        Resource<Bitmap> result = new FitCenter(pool).transform(resource, 100, 100);
+
+        verify(pool, times(1)).get(anyInt(), anyInt(), any(Bitmap.Config.class));
+        assertEquals(50, result.get().getWidth());
+        assertEquals(100, result.get().getHeight());
+    }
+
+    @Test
+    public void testFitCenterRotatesImagesThatAlreadyFit() {
+        Resource<Bitmap> resource = OrientedBitmapResource.obtain(bitmap, pool, ExifInterface.ORIENTATION_ROTATE_90);
+
+        Resource<Bitmap> result = new FitCenter(pool).transform(resource, 100, 200);
+
+        assertEquals(100, result.get().getWidth());
+        assertEquals(200, result.get().getHeight());
+    }
+
+    @Test
+    public void testMultiBitmapTransformationAppliesRotationInItsDraw() {
+        Resource<Bitmap> resource = OrientedBitmapResource.obtain(bitmap, pool, ExifInterface.ORIENTATION_ROTATE_90);
+
+        Resource<Bitmap> result = new MultiBitmapTransformation(new CenterCrop(pool), new RoundedCorners(pool, 5))
+                .transform(resource, 50, 50);
+
+        verify(pool, times(1)).get(anyInt(), anyInt(), any(Bitmap.Config.class));
+        assertEquals(50, result.get().getWidth());
+        assertEquals(50, result.get().getHeight());
+    }
+
+    @Test
+    public void testRotatesBeforeTransformationsThatCannotBeFused() {
+        final Bitmap[] transformed = new Bitmap[1];
+        BitmapTransformation other = new BitmapTransformation(pool) {
+            @Override
+            protected Bitmap transform(BitmapPool pool, Bitmap toTransform, int outWidth, int outHeight) {
+                transformed[0] = toTransform;
+                return toTransform;
+            }
+
+            @Override
+            public String getId() {
+                return "other";
+            }
+        };
+        Resource<Bitmap> resource = OrientedBitmapResource.obtain(bitmap, pool, ExifInterface.ORIENTATION_ROTATE_90);
+
+        other.transform(resource, 100, 100);
+
+        assertEquals(100, transformed[0].getWidth());
+        assertEquals(200, transformed[0].getHeight());
+    }
+
+    @Test
+    public void testRecycleReturnsUnrotatedBitmapToPool() {
+        Resource<Bitmap> resource = OrientedBitmapResource.obtain(bitmap, pool, ExifInterface.ORIENTATION_ROTATE_90);
+
+        resource.recycle();
+
+        verify(pool).put(eq(bitmap));
+        verify(pool, never()).get(anyInt(), anyInt(), any(Bitmap.Config.class));
+    }
+}
@@ -0,0 +1,164 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.bumptech.glide.util.ByteArrayPool;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class PreviewInputStreamTest {
+    private RecordingListener listener;
+    private byte[] data;
+
+    @Before
+    public void setUp() {
+        listener = new RecordingListener();
+        data = new byte[PreviewInputStream.FIRST_PREVIEW_BYTES * 5];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+    }
+
+    @Test
+    public void testNotifiesEachTimeBytesReadDoubles() throws IOException {
+        PreviewInputStream is = new PreviewInputStream(new ByteArrayInputStream(data), listener);
+
+        readFully(is, 1024);
+
+        assertEquals(Arrays.asList(PreviewInputStream.FIRST_PREVIEW_BYTES,
+                2 * PreviewInputStream.FIRST_PREVIEW_BYTES, 4 * PreviewInputStream.FIRST_PREVIEW_BYTES),
+                listener.lengths);
+    }
+
+    @Test
+    public void testPrefixMatchesDataRead() throws IOException {
+        PreviewInputStream is = new PreviewInputStream(new ByteArrayInputStream(data), listener);
+
+        for (int i = 0; i < PreviewInputStream.FIRST_PREVIEW_BYTES; i++) {
+            is.read();
+        }
+
+        assertArrayEquals(Arrays.copyOf(data, PreviewInputStream.FIRST_PREVIEW_BYTES), listener.prefixes.get(0));
+    }
+
+    @Test
+    public void testNotifiesOnceForReadsSpanningSeveralThresholds() throws IOException {
+        PreviewInputStream is = new PreviewInputStream(new ByteArrayInputStream(data), listener);
+
+        readFully(is, data.length);
+
+        assertEquals(Arrays.asList(data.length), listener.lengths);
+    }
+
+    @Test
+    public void testStopsNotifyingIfListenerReturnsFalse() throws IOException {
+        listener.shouldContinue = false;
+        PreviewInputStream is = new PreviewInputStream(new ByteArrayInputStream(data), listener);
+
+        readFully(is, 1024);
+
+        assertEquals(Arrays.asList(PreviewInputStream.FIRST_PREVIEW_BYTES), listener.lengths);
+    }
+
+    @Test
+    public void testStopsNotifyingAfterSkip() throws IOException {
+        PreviewInputStream is = new PreviewInputStream(new ByteArrayInputStream(data), listener);
+
+        is.skip(10);
+        readFully(is, 1024);
+
+        assertEquals(0, listener.lengths.size());
+    }
+
+    @Test
+    public void testStopsNotifyingAfterMaxPreviewBytes() throws IOException {
+        data = new byte[PreviewInputStream.MAX_PREVIEW_BYTES * 2];
+        PreviewInputStream is = new PreviewInputStream(new ByteArrayInputStream(data), listener);
+
+        readFully(is, 64 * 1024);
+
+        assertEquals(PreviewInputStream.MAX_PREVIEW_BYTES,
+                (int) listener.lengths.get(listener.lengths.size() - 1));
+    }
+
+    @Test
+    public void testReturnsPrefixToPoolWhenClosed() throws IOException {
+        ByteArrayPool.get().clear();
+        PreviewInputStream is = new PreviewInputStream(new ByteArrayInputStream(data), listener);
+        is.read();
+
+        is.close();
+
+        assertTrue(ByteArrayPool.get().getCurrentSize() > 0);
+    }
+
+    @Test
+    public void testReturnsPrefixToPoolWhenReleasedWithoutClosingWrappedStream() throws IOException {
+        ByteArrayPool.get().clear();
+        final boolean[] closed = new boolean[1];
+        PreviewInputStream is = new PreviewInputStream(new ByteArrayInputStream(data) {
+            @Override
+            public void close() throws IOException {
+                closed[0] = true;
+                super.close();
+            }
+        }, listener);
+        is.read();
+
+        is.releasePrefix();
+
+        assertTrue(ByteArrayPool.get().getCurrentSize() > 0);
+        assertFalse(closed[0]);
+    }
+
+    @Test
+    public void testReturnsPrefixToPoolAfterMaxPreviewBytes() throws IOException {
+        data = new byte[PreviewInputStream.MAX_PREVIEW_BYTES * 2];
+        ByteArrayPool.get().clear();
+        PreviewInputStream is = new PreviewInputStream(new ByteArrayInputStream(data), listener);
+
+        readFully(is, 64 * 1024);
+
+        assertTrue(ByteArrayPool.get().getCurrentSize() >= PreviewInputStream.MAX_PREVIEW_BYTES);
+    }
+
+    @Test
+    public void testDoesNotSupportMark() {
+        PreviewInputStream is = new PreviewInputStream(new ByteArrayInputStream(data), listener);
+
+        assertFalse(is.markSupported());
+    }
+
+    private static void readFully(PreviewInputStream is, int bufferSize) throws IOException {
+        byte[] buffer = new byte[bufferSize];
+        while (is.read(buffer, 0, buffer.length) != -1) {
+            // Do nothing.
+        }
+    }
+
+    private static class RecordingListener implements PreviewInputStream.PrefixListener {
+        final List<Integer> lengths = new ArrayList<Integer>();
+        final List<byte[]> prefixes = new ArrayList<byte[]>();
+        boolean shouldContinue = true;
+
+        @Override
+        public boolean onPrefixAvailable(byte[] data, int length) {
+            lengths.add(length);
+            prefixes.add(Arrays.copyOf(data, length));
+            return shouldContinue;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.ResourceDecoder;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, emulateSdk = 18)
+public class RawBitmapCacheDecoderTest {
+    private ResourceDecoder<File, Bitmap> fallbackDecoder;
+    private RawBitmapCacheDecoder decoder;
+    private File file;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws IOException {
+        fallbackDecoder = mock(ResourceDecoder.class);
+        decoder = new RawBitmapCacheDecoder(mock(BitmapPool.class), fallbackDecoder);
+        file = File.createTempFile("raw", "bitmap");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testUsesFallbackDecoderForFilesWithoutRawHeader() throws IOException {
+        writeFile(new byte[] { (byte) 0xFF, (byte) 0xD8, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17,
+                18, 19, 20, 21, 22, 23, 24 });
+        Resource<Bitmap> expected = mock(Resource.class);
+        when(fallbackDecoder.decode(eq(file), eq(100), eq(200))).thenReturn(expected);
+
+        assertEquals(expected, decoder.decode(file, 100, 200));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testUsesFallbackDecoderForFilesShorterThanHeader() throws IOException {
+        writeFile(new byte[] { 1, 2, 3 });
+        Resource<Bitmap> expected = mock(Resource.class);
+        when(fallbackDecoder.decode(eq(file), eq(100), eq(200))).thenReturn(expected);
+
+        assertEquals(expected, decoder.decode(file, 100, 200));
+    }
+
+    @Test(expected = IOException.class)
+    public void testThrowsIfStoredDataIsTruncated() throws IOException {
+        byte[] header = new byte[RawBitmapFormat.HEADER_SIZE];
+        RawBitmapFormat.writeHeader(header, RawBitmapFormat.COMPRESSION_NONE,
+                RawBitmapFormat.getConfigId(Bitmap.Config.ARGB_8888), true /*hasAlpha*/, 10, 10, 400, 400);
+        writeFile(header);
+
+        decoder.decode(file, 10, 10);
+    }
+
+    @Test(expected = IOException.class)
+    public void testThrowsIfFileIsLongerThanStoredData() throws IOException {
+        byte[] data = new byte[RawBitmapFormat.HEADER_SIZE + 800];
+        RawBitmapFormat.writeHeader(data, RawBitmapFormat.COMPRESSION_NONE,
+                RawBitmapFormat.getConfigId(Bitmap.Config.ARGB_8888), true /*hasAlpha*/, 10, 10, 400, 400);
+        writeFile(data);
+
+        decoder.decode(file, 10, 10);
+    }
+
+    @Test(expected = IOException.class)
+    public void testThrowsIfPixelLengthDoesNotMatchDimensions() throws IOException {
+        byte[] data = new byte[RawBitmapFormat.HEADER_SIZE + 4000];
+        RawBitmapFormat.writeHeader(data, RawBitmapFormat.COMPRESSION_NONE,
+                RawBitmapFormat.getConfigId(Bitmap.Config.ARGB_8888), true /*hasAlpha*/, 10, 10, 4000, 4000);
+        writeFile(data);
+
+        decoder.decode(file, 10, 10);
+    }
+
+    @Test(expected = IOException.class)
+    public void testThrowsIfConfigIsUnknown() throws IOException {
+        byte[] data = new byte[RawBitmapFormat.HEADER_SIZE + 400];
+        RawBitmapFormat.writeHeader(data, RawBitmapFormat.COMPRESSION_NONE, 99 /*configId*/, true /*hasAlpha*/, 10,
+                10, 400, 400);
+        writeFile(data);
+
+        decoder.decode(file, 10, 10);
+    }
+
+    @Test
+    public void testIdIncludesFallbackDecoderId() {
+        when(fallbackDecoder.getId()).thenReturn("fallback");
+
+        assertTrue(decoder.getId().contains("fallback"));
+    }
+
+    private void writeFile(byte[] data) throws IOException {
+        FileOutputStream os = new FileOutputStream(file);
+        try {
+            os.write(data);
+        } finally {
+            os.close();
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.bumptech.glide.load.resource.bitmap;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.bumptech.glide.util.ByteArrayPool;
+
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,6 +41,11 @@ public class RecyclableBufferedInputStreamTest {
         stream = new RecyclableBufferedInputStream(wrapped, new byte[BUFFER_SIZE]);
     }
 
+    @After
+    public void tearDown() {
+        ByteArrayPool.get().clear();
+    }
+
     @Test
     public void testReturnsTrueForMarkSupported() {
         assertTrue(stream.markSupported());
@@ -290,4 +300,41 @@ public class RecyclableBufferedInputStreamTest {
         stream.read();
         stream.reset();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGrowsBufferWithBytesFromPoolAndReturnsThemOnRelease() throws IOException {
+        ByteArrayPool pool = ByteArrayPool.get();
+        pool.clear();
+        byte[] growth = new byte[128 * 1024];
+        pool.releaseBytes(growth);
+        byte[] largeData = new byte[100 * 1024];
+        stream = new RecyclableBufferedInputStream(new ByteArrayInputStream(largeData), new byte[64 * 1024]);
+
+        stream.mark(largeData.length);
+        byte[] buffer = new byte[largeData.length];
+        assertEquals(largeData.length, stream.read(buffer, 0, buffer.length));
+        stream.reset();
+        assertNotSame(growth, pool.getBytes(128 * 1024));
+
+        stream.release();
+        assertSame(growth, pool.getBytes(128 * 1024));
+    }
+
+    @Test
+    public void testDoesNotReturnGivenBufferToPoolOnRelease() {
+        ByteArrayPool pool = ByteArrayPool.get();
+        pool.clear();
+        byte[] given = pool.getBytes();
+        stream = new RecyclableBufferedInputStream(new ByteArrayInputStream(data), given);
+
+        stream.release();
+
+        assertNotSame(given, pool.getBytes());
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadThrowsIfStreamIsReleased() throws IOException {
+        stream.release();
+        stream.read();
+    }
+}
@@ -1,13 +1,17 @@
 package com.bumptech.glide.load.resource.bitmap;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import android.graphics.Bitmap;
+import android.media.ExifInterface;
 
 import com.bumptech.glide.load.DecodeFormat;
 import com.bumptech.glide.load.engine.Resource;
@@ -21,6 +25,7 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 
 @RunWith(RobolectricTestRunner.class)
@@ -34,19 +39,44 @@ public class StreamBitmapDecoderTest {
     }
 
     @Test
-    public void testNonNullResourceIsReturned() {
-        when(harness.downsampler.decode(eq(harness.source), eq(harness.bitmapPool), eq(harness.width),
-                eq(harness.height), eq(harness.decodeFormat))).thenReturn(harness.result);
+    public void testNonNullResourceIsReturned() throws IOException {
+        when(harness.downsampler.decodeResource(eq(harness.source), eq(harness.bitmapPool), eq(harness.width),
+                eq(harness.height), eq(harness.decodeFormat)))
+                .thenReturn(BitmapResource.obtain(harness.result, harness.bitmapPool));
         assertNotNull(harness.decode());
     }
 
     @Test
-    public void testNullResourceIsReturnedForNullBitmap() {
-        when(harness.downsampler.decode(eq(harness.source), eq(harness.bitmapPool), eq(harness.width),
+    public void testNullResourceIsReturnedForNullBitmap() throws IOException {
+        when(harness.downsampler.decodeResource(eq(harness.source), eq(harness.bitmapPool), eq(harness.width),
                 eq(harness.height), eq(harness.decodeFormat))).thenReturn(null);
         assertNull(harness.decode());
     }
 
+    @Test
+    public void testReturnsDownsamplerResourceWithoutRotatingIt() throws IOException {
+        Resource<Bitmap> oriented = OrientedBitmapResource.obtain(harness.result, harness.bitmapPool,
+                ExifInterface.ORIENTATION_ROTATE_90);
+        when(harness.downsampler.decodeResource(eq(harness.source), eq(harness.bitmapPool), eq(harness.width),
+                eq(harness.height), eq(harness.decodeFormat))).thenReturn(oriented);
+
+        Resource result = harness.decode();
+
+        assertSame(oriented, result);
+        assertTrue(OrientedBitmapResource.hasPendingOrientation(oriented));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testDecodesWithOtherBitmapDecoders() throws Exception {
+        BitmapDecoder<InputStream> other = mock(BitmapDecoder.class);
+        when(other.decode(eq(harness.source), eq(harness.bitmapPool), eq(harness.width), eq(harness.height),
+                eq(harness.decodeFormat))).thenReturn(harness.result);
+        StreamBitmapDecoder decoder = new StreamBitmapDecoder(other, harness.bitmapPool, harness.decodeFormat);
+
+        assertEquals(harness.result, decoder.decode(harness.source, harness.width, harness.height).get());
+    }
+
     @Test
     public void testHasValidId() {
         String downsamplerId = "downsamplerId";
@@ -71,7 +101,7 @@ public class StreamBitmapDecoderTest {
         public DecoderHarness() {
         }
 
-        public Resource decode() {
+        public Resource decode() throws IOException {
             return decoder.decode(source, width, height);
         }
 
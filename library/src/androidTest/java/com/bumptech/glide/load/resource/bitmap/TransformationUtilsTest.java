@@ -326,6 +326,47 @@ public class TransformationUtilsTest {
         assertEquals(toRotate.getWidth(), toRotate.getHeight());
     }
 
+    @Test
+    public void testRotateImageWithPoolReturnsGivenBitmapIfRotationIsMultipleOf360() {
+        BitmapPool bitmapPool = mock(BitmapPool.class);
+        Bitmap toRotate = Bitmap.createBitmap(100, 50, Bitmap.Config.ARGB_8888);
+
+        assertTrue(toRotate == TransformationUtils.rotateImage(toRotate, bitmapPool, 0));
+        assertTrue(toRotate == TransformationUtils.rotateImage(toRotate, bitmapPool, 360));
+    }
+
+    @Test
+    public void testRotateImageWithPoolDrawsInToBitmapFromPool() {
+        BitmapPool bitmapPool = mock(BitmapPool.class);
+        Bitmap toRotate = Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888);
+        Bitmap fromPool = Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888);
+        when(bitmapPool.get(eq(100), eq(100), eq(Bitmap.Config.ARGB_8888))).thenReturn(fromPool);
+
+        assertTrue(fromPool == TransformationUtils.rotateImage(toRotate, bitmapPool, 180));
+    }
+
+    @Test
+    public void testCopyDrawsInToBitmapFromPool() {
+        BitmapPool bitmapPool = mock(BitmapPool.class);
+        Bitmap toCopy = Bitmap.createBitmap(100, 50, Bitmap.Config.RGB_565);
+        Bitmap fromPool = Bitmap.createBitmap(100, 50, Bitmap.Config.RGB_565);
+        when(bitmapPool.get(eq(100), eq(50), eq(Bitmap.Config.RGB_565))).thenReturn(fromPool);
+
+        assertTrue(fromPool == TransformationUtils.copy(toCopy, bitmapPool));
+    }
+
+    @Test
+    public void testCopyCreatesBitmapWithSameDimensionsAndConfigIfPoolIsEmpty() {
+        Bitmap toCopy = Bitmap.createBitmap(100, 50, Bitmap.Config.RGB_565);
+
+        Bitmap copy = TransformationUtils.copy(toCopy, mock(BitmapPool.class));
+
+        assertTrue(toCopy != copy);
+        assertEquals(100, copy.getWidth());
+        assertEquals(50, copy.getHeight());
+        assertEquals(Bitmap.Config.RGB_565, copy.getConfig());
+    }
+
     @Test
     public void testRotateImageExifReturnsGivenBitmapIfRotationIsNormal() {
         BitmapPool bitmapPool = mock(BitmapPool.class);
@@ -1,10 +1,15 @@
 package com.bumptech.glide.load.resource.bitmap;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -19,11 +24,13 @@ import com.bumptech.glide.tests.Util;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
 import java.io.FileDescriptor;
 import java.io.IOException;
+import java.util.List;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE, emulateSdk = 18)
@@ -119,4 +126,116 @@ public class VideoBitmapDecoderTest {
       verify(retriever).getFrameAtTime();
       verify(retriever, never()).getFrameAtTime(anyLong());
     }
+
+    @Test
+    public void testScalesLargeFramesToSmallestSizeLargerThanTarget() throws IOException {
+        Bitmap frame = Bitmap.createBitmap(400, 200, Bitmap.Config.ARGB_8888);
+        when(retriever.getFrameAtTime()).thenReturn(frame);
+
+        Bitmap result = decoder.decode(resource, bitmapPool, 100, 100, decodeFormat);
+
+        assertEquals(200, result.getWidth());
+        assertEquals(100, result.getHeight());
+    }
+
+    @Test
+    public void testScalesLargeFramesInToPooledBitmap() throws IOException {
+        Bitmap frame = Bitmap.createBitmap(400, 200, Bitmap.Config.ARGB_8888);
+        when(retriever.getFrameAtTime()).thenReturn(frame);
+        Bitmap pooled = Bitmap.createBitmap(200, 100, Bitmap.Config.ARGB_8888);
+        when(bitmapPool.get(eq(200), eq(100), eq(Bitmap.Config.ARGB_8888))).thenReturn(pooled);
+
+        assertSame(pooled, decoder.decode(resource, bitmapPool, 100, 100, decodeFormat));
+    }
+
+    @Test
+    public void testReturnsFullSizeFrameToPoolAfterScaling() throws IOException {
+        Bitmap frame = Bitmap.createBitmap(400, 200, Bitmap.Config.ARGB_8888);
+        when(retriever.getFrameAtTime()).thenReturn(frame);
+
+        decoder.decode(resource, bitmapPool, 100, 100, decodeFormat);
+
+        verify(bitmapPool).put(eq(frame));
+    }
+
+    @Test
+    public void testDoesNotScaleUpSmallFrames() throws IOException {
+        Bitmap frame = Bitmap.createBitmap(50, 50, Bitmap.Config.ARGB_8888);
+        when(retriever.getFrameAtTime()).thenReturn(frame);
+
+        assertSame(frame, decoder.decode(resource, bitmapPool, 100, 100, decodeFormat));
+        verify(bitmapPool, never()).put(any(Bitmap.class));
+    }
+
+    @Test
+    public void testDoesNotScaleFramesForOriginalSize() throws IOException {
+        Bitmap frame = Bitmap.createBitmap(400, 200, Bitmap.Config.ARGB_8888);
+        when(retriever.getFrameAtTime()).thenReturn(frame);
+
+        assertSame(frame, decoder.decode(resource, bitmapPool, Integer.MIN_VALUE, Integer.MIN_VALUE, decodeFormat));
+    }
+
+    @Test
+    public void testReleasesRetrieverAndClosesResourceIfRetrievingFrameThrows() throws IOException {
+        when(retriever.getFrameAtTime()).thenThrow(new RuntimeException("test"));
+
+        try {
+            decoder.decode(resource, bitmapPool, 100, 100, decodeFormat);
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+
+        verify(retriever).release();
+        verify(resource).close();
+    }
+
+    @Test
+    public void testDecodesAllFramesWithOneRetriever() throws IOException {
+        FileDescriptor toSet = FileDescriptor.in;
+        when(resource.getFileDescriptor()).thenReturn(toSet);
+
+        decoder.decodeFrames(resource, new long[] { 1, 2, 3 }, bitmapPool, 100, 100, decodeFormat);
+
+        verify(factory, times(1)).build();
+        verify(retriever, times(1)).setDataSource(eq(toSet));
+        verify(retriever, times(3)).getFrameAtTime(anyLong());
+        verify(retriever).release();
+        verify(resource).close();
+    }
+
+    @Test
+    public void testRetrievesFramesInIncreasingOrderOfTime() throws IOException {
+        decoder.decodeFrames(resource, new long[] { 30, 10, 20 }, bitmapPool, 100, 100, decodeFormat);
+
+        InOrder order = inOrder(retriever);
+        order.verify(retriever).getFrameAtTime(eq(10L));
+        order.verify(retriever).getFrameAtTime(eq(20L));
+        order.verify(retriever).getFrameAtTime(eq(30L));
+    }
+
+    @Test
+    public void testReturnsFramesInOrderOfGivenTimes() throws IOException {
+        Bitmap first = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        Bitmap second = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        when(retriever.getFrameAtTime(eq(30L))).thenReturn(first);
+        when(retriever.getFrameAtTime(eq(10L))).thenReturn(second);
+
+        List<Bitmap> frames =
+                decoder.decodeFrames(resource, new long[] { 30, 10, 20 }, bitmapPool, 100, 100, decodeFormat);
+
+        assertEquals(3, frames.size());
+        assertSame(first, frames.get(0));
+        assertSame(second, frames.get(1));
+        assertNull(frames.get(2));
+    }
+
+    @Test
+    public void testScalesFramesFromBatch() throws IOException {
+        when(retriever.getFrameAtTime(anyLong())).thenReturn(Bitmap.createBitmap(400, 200, Bitmap.Config.ARGB_8888));
+
+        List<Bitmap> frames = decoder.decodeFrames(resource, new long[] { 1 }, bitmapPool, 100, 100, decodeFormat);
+
+        assertEquals(200, frames.get(0).getWidth());
+        verify(bitmapPool).get(eq(200), eq(100), any(Bitmap.Config.class));
+    }
 }
@@ -16,6 +16,8 @@ import org.mockito.InOrder;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.nio.ByteBuffer;
+
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE, emulateSdk = 18)
 public class GifDrawableResourceTest {
@@ -33,11 +35,20 @@ public class GifDrawableResourceTest {
         final int size = 2134;
         Bitmap firstFrame = Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888);
         when(drawable.getFirstFrame()).thenReturn(firstFrame);
-        when(drawable.getData()).thenReturn(new byte[size]);
+        when(drawable.getBuffer()).thenReturn(ByteBuffer.allocate(size));
 
         assertEquals(size + Util.getBitmapByteSize(firstFrame), resource.getSize());
     }
 
+    @Test
+    public void testDoesNotCountDataOutsideOfHeapInSize() {
+        Bitmap firstFrame = Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888);
+        when(drawable.getFirstFrame()).thenReturn(firstFrame);
+        when(drawable.getBuffer()).thenReturn(ByteBuffer.allocateDirect(2134));
+
+        assertEquals(Util.getBitmapByteSize(firstFrame), resource.getSize());
+    }
+
     @Test
     public void testStopsAndThenRecyclesDrawableWhenRecycled() {
         resource.recycle();
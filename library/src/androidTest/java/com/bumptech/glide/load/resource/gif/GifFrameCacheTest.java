@@ -0,0 +1,126 @@
+package com.bumptech.glide.load.resource.gif;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, emulateSdk = 18)
+public class GifFrameCacheTest {
+    private static final int FRAME_SIZE = 10 * 10 * 4;
+
+    private BitmapPool bitmapPool;
+    private GifFrameCache cache;
+
+    @Before
+    public void setUp() {
+        bitmapPool = mock(BitmapPool.class);
+        cache = new GifFrameCache(bitmapPool, 3, FRAME_SIZE * 3);
+    }
+
+    @Test
+    public void testIsNotCompleteUntilEveryFrameIsCached() {
+        cache.put(0, createFrame());
+        cache.put(1, createFrame());
+
+        assertFalse(cache.isComplete());
+        assertNull(cache.get(0));
+
+        cache.put(2, createFrame());
+
+        assertTrue(cache.isComplete());
+    }
+
+    @Test
+    public void testReturnsCopiesOfFrames() {
+        Bitmap first = createFrame();
+        cache.put(0, first);
+        cache.put(1, createFrame());
+        cache.put(2, createFrame());
+
+        Bitmap cached = cache.get(0);
+
+        assertNotNull(cached);
+        assertNotSame(first, cached);
+        assertEquals(first.getWidth(), cached.getWidth());
+        assertEquals(first.getHeight(), cached.getHeight());
+    }
+
+    @Test
+    public void testIgnoresFramesThatAreAlreadyCached() {
+        cache.put(0, createFrame());
+        cache.put(0, createFrame());
+
+        assertEquals(FRAME_SIZE, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testDisablesAndReturnsFramesToPoolIfFramesDoNotFit() {
+        cache = new GifFrameCache(bitmapPool, 3, FRAME_SIZE * 2);
+        cache.put(0, createFrame());
+        cache.put(1, createFrame());
+
+        cache.put(2, createFrame());
+
+        verify(bitmapPool, times(2)).put(any(Bitmap.class));
+        assertEquals(0, cache.getCurrentSize());
+
+        cache.put(0, createFrame());
+
+        assertEquals(0, cache.getCurrentSize());
+        assertFalse(cache.isComplete());
+    }
+
+    @Test
+    public void testClearReturnsFramesToPool() {
+        cache.put(0, createFrame());
+        cache.put(1, createFrame());
+
+        cache.clear();
+
+        verify(bitmapPool, times(2)).put(any(Bitmap.class));
+        assertEquals(0, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testClearDoesNotReturnDetachedFramesToPool() {
+        cache.put(0, createFrame());
+        cache.put(1, createFrame());
+        cache.put(2, createFrame());
+        Bitmap detached = cache.get(1);
+
+        assertTrue(cache.detach(detached));
+        cache.clear();
+
+        verify(bitmapPool, times(2)).put(any(Bitmap.class));
+        verify(bitmapPool, never()).put(eq(detached));
+        assertFalse(cache.detach(detached));
+
+        cache.release(detached);
+
+        verify(bitmapPool).put(eq(detached));
+    }
+
+    private static Bitmap createFrame() {
+        return Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+    }
+}
@@ -2,8 +2,10 @@ package com.bumptech.glide.load.resource.gif;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.inOrder;
@@ -23,6 +25,7 @@ import com.bumptech.glide.GenericRequestBuilder;
 import com.bumptech.glide.gifdecoder.GifDecoder;
 import com.bumptech.glide.load.Key;
 import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 import com.bumptech.glide.request.Request;
 import com.bumptech.glide.request.target.Target;
 
@@ -213,4 +216,122 @@ public class GifFrameLoaderTest {
                 .addEqualityGroup(new GifFrameLoader.FrameSignature())
                 .testEquals();
     }
+
+    @Test
+    public void testStoresLoadedFramesInFrameCache() {
+        GifFrameCache frameCache = mock(GifFrameCache.class);
+        loader.setFrameCache(frameCache);
+        Bitmap frame = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        GifFrameLoader.DelayTarget delayTarget = new GifFrameLoader.DelayTarget(handler, 3, 100);
+        delayTarget.onResourceReady(frame, null);
+
+        loader.onFrameReady(delayTarget);
+
+        verify(frameCache).put(eq(3), eq(frame));
+    }
+
+    @Test
+    public void testObtainsFramesFromCompleteFrameCacheWithoutLoading() {
+        GifFrameCache frameCache = mock(GifFrameCache.class);
+        Bitmap frame = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        when(frameCache.isComplete()).thenReturn(true);
+        when(gifDecoder.getCurrentFrameIndex()).thenReturn(2);
+        when(frameCache.get(eq(2))).thenReturn(frame);
+        loader.setFrameCache(frameCache);
+
+        loader.start();
+
+        verify(requestBuilder, never()).into(any(Target.class));
+        verify(handler).sendMessageAtTime(any(Message.class), anyLong());
+    }
+
+    @Test
+    public void testDoesNotStoreFramesObtainedFromFrameCache() {
+        GifFrameCache frameCache = mock(GifFrameCache.class);
+        loader.setFrameCache(frameCache);
+        GifFrameLoader.DelayTarget delayTarget = new GifFrameLoader.DelayTarget(handler, 3, 100, true /*isCached*/);
+        delayTarget.onResourceReady(Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888), null);
+
+        loader.onFrameReady(delayTarget);
+
+        verify(frameCache, never()).put(anyInt(), any(Bitmap.class));
+    }
+
+    @Test
+    public void testClearsFrameCacheWhenFrameTransformationChanges() {
+        GifFrameCache frameCache = mock(GifFrameCache.class);
+        loader.setFrameCache(frameCache);
+
+        loader.setFrameTransformation(mock(Transformation.class));
+
+        verify(frameCache).clear();
+    }
+
+    @Test
+    public void testKeepsObtainingFramesFromClearedFrameCacheUntilDecoderCanResume() {
+        when(requestBuilder.transform(any(Transformation.class))).thenReturn(requestBuilder);
+        when(gifDecoder.getFrameCount()).thenReturn(3);
+        GifFrameCache frameCache = new GifFrameCache(mock(BitmapPool.class), 3, Integer.MAX_VALUE);
+        for (int i = 0; i < 3; i++) {
+            frameCache.put(i, Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+        }
+        loader.setFrameCache(frameCache);
+        loader.setFrameTransformation(mock(Transformation.class));
+
+        // The decoder hasn't decoded any frames, so it can only resume with the first frame.
+        when(gifDecoder.getCurrentFrameIndex()).thenReturn(1);
+        loader.start();
+
+        verify(requestBuilder, never()).into(any(Target.class));
+        assertTrue(frameCache.isComplete());
+
+        when(gifDecoder.getCurrentFrameIndex()).thenReturn(0);
+        loader.onFrameReady(new GifFrameLoader.DelayTarget(handler, 1, 100, true /*isCached*/));
+
+        assertEquals(0, frameCache.getCurrentSize());
+        verify(requestBuilder).into(any(Target.class));
+    }
+
+    @Test
+    public void testClearsFrameCacheWhoseFramesAreShownWhenFrameCacheIsRemoved() {
+        when(requestBuilder.transform(any(Transformation.class))).thenReturn(requestBuilder);
+        GifFrameCache frameCache = mock(GifFrameCache.class);
+        when(frameCache.isComplete()).thenReturn(true);
+        loader.setFrameCache(frameCache);
+        loader.setFrameTransformation(mock(Transformation.class));
+        verify(frameCache, never()).clear();
+
+        loader.setFrameCache(null);
+
+        verify(frameCache).clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testDoesNotReleaseCurrentCachedFrameUntilReplacedWhenFrameCacheIsCleared() {
+        // Force the loader to create a real Handler.
+        loader = new GifFrameLoader(callback, gifDecoder, null /*handler*/, requestBuilder);
+        when(requestBuilder.transform(any(Transformation.class))).thenReturn(requestBuilder);
+        when(gifDecoder.getFrameCount()).thenReturn(1);
+        BitmapPool bitmapPool = mock(BitmapPool.class);
+        GifFrameCache frameCache = new GifFrameCache(bitmapPool, 1, Integer.MAX_VALUE);
+        frameCache.put(0, Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+        Bitmap cached = frameCache.get(0);
+        loader.setFrameCache(frameCache);
+        GifFrameLoader.DelayTarget delayTarget = new GifFrameLoader.DelayTarget(handler, 0, 100, true /*isCached*/);
+        delayTarget.onResourceReady(cached, null /*glideAnimation*/);
+        loader.onFrameReady(delayTarget);
+        loader.setFrameTransformation(mock(Transformation.class));
+
+        // The decoder can resume with the next frame, so the cache is cleared.
+        loader.start();
+
+        verify(bitmapPool, never()).put(eq(cached));
+        assertEquals(cached, loader.getCurrentFrame());
+        assertEquals(0, frameCache.getCurrentSize());
+
+        loader.onFrameReady(mock(GifFrameLoader.DelayTarget.class));
+
+        verify(bitmapPool).put(eq(cached));
+    }
 }
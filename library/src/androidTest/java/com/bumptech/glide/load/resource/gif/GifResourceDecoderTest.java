@@ -1,8 +1,10 @@
 package com.bumptech.glide.load.resource.gif;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
@@ -17,11 +19,14 @@ import com.bumptech.glide.gifdecoder.GifDecoder;
 import com.bumptech.glide.gifdecoder.GifHeader;
 import com.bumptech.glide.gifdecoder.GifHeaderParser;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.resource.file.CacheFileInputStream;
+import com.bumptech.glide.request.target.Target;
 import com.bumptech.glide.tests.GlideShadowLooper;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.robolectric.Robolectric;
@@ -29,7 +34,12 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE, emulateSdk = 18, shadows = GlideShadowLooper.class)
@@ -49,7 +59,7 @@ public class GifResourceDecoderTest {
         parser = mock(GifHeaderParser.class);
         when(parser.parseHeader()).thenReturn(gifHeader);
         parserPool = mock(GifResourceDecoder.GifHeaderParserPool.class);
-        when(parserPool.obtain(any(byte[].class))).thenReturn(parser);
+        when(parserPool.obtain(any(ByteBuffer.class))).thenReturn(parser);
 
         gifDecoder = mock(GifDecoder.class);
         decoderPool = mock(GifResourceDecoder.GifDecoderPool.class);
@@ -79,6 +89,26 @@ public class GifResourceDecoderTest {
         assertNull(decoder.decode(new ByteArrayInputStream(new byte[0]), 100, 100));
     }
 
+    @Test
+    public void testMapsStreamsForDiskCacheFiles() throws IOException {
+        File file = createFile();
+        try {
+            assertTrue(getDecodedBuffer(new CacheFileInputStream(file)).isDirect());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testDoesNotMapStreamsForOtherFiles() throws IOException {
+        File file = createFile();
+        try {
+            assertFalse(getDecodedBuffer(new FileInputStream(file)).isDirect());
+        } finally {
+            file.delete();
+        }
+    }
+
     @Test
     public void testReturnsParserToPool() throws IOException {
         decoder.decode(new ByteArrayInputStream(new byte[0]), 100, 100);
@@ -109,12 +139,48 @@ public class GifResourceDecoderTest {
 
         InOrder order = inOrder(decoderPool, gifDecoder);
         order.verify(decoderPool).obtain(any(GifDecoder.BitmapProvider.class));
-        order.verify(gifDecoder).setData(eq(gifHeader), eq(data));
+        order.verify(gifDecoder).setData(eq(gifHeader), eq(ByteBuffer.wrap(data)), eq(1));
         order.verify(gifDecoder).advance();
         order.verify(gifDecoder).getNextFrame();
         order.verify(decoderPool).release(eq(gifDecoder));
     }
 
+    @Test
+    public void testDecodesFirstFrameWithSampleSizeForTargetSize() {
+        when(gifHeader.getNumFrames()).thenReturn(1);
+        when(gifHeader.getStatus()).thenReturn(GifDecoder.STATUS_OK);
+        when(gifHeader.getWidth()).thenReturn(640);
+        when(gifHeader.getHeight()).thenReturn(480);
+        when(gifDecoder.getNextFrame()).thenReturn(Bitmap.createBitmap(160, 120, Bitmap.Config.ARGB_8888));
+
+        decoder.decode(new ByteArrayInputStream(new byte[100]), 150, 100);
+
+        verify(gifDecoder).setData(eq(gifHeader), any(ByteBuffer.class), eq(4));
+    }
+
+    @Test
+    public void testSampleSizeIsLargestPowerOfTwoThatKeepsFramesAtLeastTargetSize() {
+        GifHeader header = mock(GifHeader.class);
+        when(header.getWidth()).thenReturn(640);
+        when(header.getHeight()).thenReturn(480);
+
+        assertEquals(1, GifResourceDecoder.getSampleSize(header, 640, 480));
+        assertEquals(1, GifResourceDecoder.getSampleSize(header, 1000, 1000));
+        assertEquals(2, GifResourceDecoder.getSampleSize(header, 300, 200));
+        assertEquals(4, GifResourceDecoder.getSampleSize(header, 120, 120));
+        assertEquals(2, GifResourceDecoder.getSampleSize(header, 100, 150));
+    }
+
+    @Test
+    public void testSampleSizeIsOneIfTargetSizeIsUnknown() {
+        GifHeader header = mock(GifHeader.class);
+        when(header.getWidth()).thenReturn(640);
+        when(header.getHeight()).thenReturn(480);
+
+        assertEquals(1, GifResourceDecoder.getSampleSize(header, Target.SIZE_ORIGINAL, Target.SIZE_ORIGINAL));
+        assertEquals(1, GifResourceDecoder.getSampleSize(header, 0, 0));
+    }
+
     @Test
     public void testReturnsGifDecoderToPoolWhenDecoderThrows() {
         when(gifHeader.getNumFrames()).thenReturn(1);
@@ -176,4 +242,26 @@ public class GifResourceDecoderTest {
     public void testHasValidId() {
         assertEquals("", decoder.getId());
     }
+
+    private ByteBuffer getDecodedBuffer(InputStream is) throws IOException {
+        try {
+            decoder.decode(is, 100, 100);
+        } finally {
+            is.close();
+        }
+        ArgumentCaptor<ByteBuffer> captor = ArgumentCaptor.forClass(ByteBuffer.class);
+        verify(parserPool).obtain(captor.capture());
+        return captor.getValue();
+    }
+
+    private static File createFile() throws IOException {
+        File file = File.createTempFile("GifResourceDecoderTest", null);
+        FileOutputStream os = new FileOutputStream(file);
+        try {
+            os.write(new byte[100]);
+        } finally {
+            os.close();
+        }
+        return file;
+    }
 }
@@ -32,6 +32,7 @@ import org.robolectric.annotation.Config;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE, emulateSdk = 18)
@@ -65,7 +66,7 @@ public class GifResourceEncoderTest {
 
         gifDrawable = mock(GifDrawable.class);
         when(gifDrawable.getFrameTransformation()).thenReturn(frameTransformation);
-        when(gifDrawable.getData()).thenReturn(new byte[0]);
+        when(gifDrawable.getBuffer()).thenReturn(ByteBuffer.allocate(0));
 
         when(resource.get()).thenReturn(gifDrawable);
 
@@ -81,8 +82,8 @@ public class GifResourceEncoderTest {
 
     @Test
     public void testSetsDataOnParserBeforeParsingHeader() {
-        byte[] data = new byte[1];
-        when(gifDrawable.getData()).thenReturn(data);
+        ByteBuffer data = ByteBuffer.allocate(1);
+        when(gifDrawable.getBuffer()).thenReturn(data);
 
         GifHeader header = mock(GifHeader.class);
         when(parser.parseHeader()).thenReturn(header);
@@ -248,16 +249,16 @@ public class GifResourceEncoderTest {
     public void testWritesBytesDirectlyToDiskIfTransformationIsUnitTransformation() throws IOException {
         when(gifDrawable.getFrameTransformation()).thenReturn(UnitTransformation.<Bitmap>get());
         byte[] expected = "expected".getBytes();
-        when(gifDrawable.getData()).thenReturn(expected);
+        when(gifDrawable.getBuffer()).thenReturn(ByteBuffer.wrap(expected));
 
         OutputStream os = mock(OutputStream.class);
 
         encoder.encode(resource, os);
 
-        verify(os).write(eq(expected));
+        verify(os).write(eq(expected), eq(0), eq(expected.length));
 
         verify(gifEncoder, never()).start(any(OutputStream.class));
-        verify(parser, never()).setData(any(byte[].class));
+        verify(parser, never()).setData(any(ByteBuffer.class));
         verify(parser, never()).parseHeader();
     }
 
@@ -19,12 +19,16 @@ import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.engine.Resource;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 import com.bumptech.glide.load.model.ImageVideoWrapper;
+import com.bumptech.glide.load.resource.bitmap.ImageHeader;
+import com.bumptech.glide.load.resource.bitmap.ImageHeaderInputStream;
 import com.bumptech.glide.load.resource.bitmap.ImageHeaderParser;
+import com.bumptech.glide.load.resource.bitmap.RecyclableBufferedInputStream;
 import com.bumptech.glide.load.resource.gif.GifDrawable;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -44,7 +48,7 @@ public class GifBitmapWrapperResourceDecoderTest {
     private GifBitmapWrapperResourceDecoder.ImageTypeParser parser;
     private ImageVideoWrapper source;
     private GifBitmapWrapperResourceDecoder.BufferedStreamFactory streamFactory;
-    private InputStream bis;
+    private RecyclableBufferedInputStream bis;
 
     @SuppressWarnings("unchecked")
     @Before
@@ -59,13 +63,14 @@ public class GifBitmapWrapperResourceDecoderTest {
         source = mock(ImageVideoWrapper.class);
         InputStream is = new ByteArrayInputStream(new byte[0]);
         when(source.getStream()).thenReturn(is);
-        bis = mock(InputStream.class);
+        bis = mock(RecyclableBufferedInputStream.class);
         when(streamFactory.build(eq(is), any(byte[].class))).thenReturn(bis);
+        when(parser.parse(eq(bis))).thenReturn(ImageHeader.UNKNOWN);
     }
 
     @Test
     public void testDecodesGifTypeWithGifDecoder() throws IOException {
-        when(parser.parse(eq(bis))).thenReturn(ImageHeaderParser.ImageType.GIF);
+        when(parser.parse(eq(bis))).thenReturn(header(ImageHeaderParser.ImageType.GIF));
         int width = 100;
         int height = 200;
         Resource<GifDrawable> expected = mockGifResource();
@@ -79,7 +84,7 @@ public class GifBitmapWrapperResourceDecoderTest {
 
     @Test
     public void testDecodesBitmapTypeWithBitmapDecoder() throws IOException {
-        when(parser.parse(eq(bis))).thenReturn(ImageHeaderParser.ImageType.JPEG);
+        when(parser.parse(eq(bis))).thenReturn(header(ImageHeaderParser.ImageType.JPEG));
         int width = 150;
         int height = 101;
         Resource<Bitmap> expected = mock(Resource.class);
@@ -93,7 +98,7 @@ public class GifBitmapWrapperResourceDecoderTest {
 
     @Test
     public void testReturnsGifResourceIfBothGifAndBitmapDecodersCanDecode() throws IOException {
-        when(parser.parse(eq(bis))).thenReturn(ImageHeaderParser.ImageType.GIF);
+        when(parser.parse(eq(bis))).thenReturn(header(ImageHeaderParser.ImageType.GIF));
         int width = 101;
         int height = 102;
         Resource<GifDrawable> expected = mockGifResource();
@@ -108,7 +113,7 @@ public class GifBitmapWrapperResourceDecoderTest {
 
     @Test
     public void testBitmapDecoderIsGivenImageVideoWrapperWithBufferedStreamIfStreamIsNotNull() throws IOException {
-        when(parser.parse(eq(bis))).thenReturn(ImageHeaderParser.ImageType.PNG);
+        when(parser.parse(eq(bis))).thenReturn(header(ImageHeaderParser.ImageType.PNG));
 
         when(bitmapDecoder.decode(any(ImageVideoWrapper.class), anyInt(), anyInt())).thenAnswer(
                 new Answer<Resource<Bitmap>>() {
@@ -127,7 +132,7 @@ public class GifBitmapWrapperResourceDecoderTest {
 
     @Test
     public void testDecodesBitmapTypeWhenGifTypeButGifDecoderFails() throws IOException {
-        when(parser.parse(eq(bis))).thenReturn(ImageHeaderParser.ImageType.GIF);
+        when(parser.parse(eq(bis))).thenReturn(header(ImageHeaderParser.ImageType.GIF));
         when(gifDecoder.decode(any(InputStream.class), anyInt(), anyInt())).thenReturn(null);
 
         Resource<Bitmap> expected = mock(Resource.class);
@@ -145,7 +150,7 @@ public class GifBitmapWrapperResourceDecoderTest {
         when(gifResource.get().getFrameCount()).thenReturn(1);
         when(gifResource.get().getFirstFrame()).thenReturn(firstFrame);
 
-        when(parser.parse(eq(bis))).thenReturn(ImageHeaderParser.ImageType.GIF);
+        when(parser.parse(eq(bis))).thenReturn(header(ImageHeaderParser.ImageType.GIF));
         when(gifDecoder.decode(any(InputStream.class), anyInt(), anyInt())).thenReturn(gifResource);
 
         Resource<GifBitmapWrapper> result = decoder.decode(source, 100, 100);
@@ -160,7 +165,7 @@ public class GifBitmapWrapperResourceDecoderTest {
         when(gifResource.get().getFrameCount()).thenReturn(1);
         when(gifResource.get().getFirstFrame()).thenReturn(firstFrame);
 
-        when(parser.parse(eq(bis))).thenReturn(ImageHeaderParser.ImageType.GIF);
+        when(parser.parse(eq(bis))).thenReturn(header(ImageHeaderParser.ImageType.GIF));
         when(gifDecoder.decode(any(InputStream.class), anyInt(), anyInt())).thenReturn(gifResource);
 
         decoder.decode(source, 100, 100);
@@ -173,7 +178,7 @@ public class GifBitmapWrapperResourceDecoderTest {
         Resource<GifDrawable> gifResource = mockGifResource();
         when(gifResource.get().getFrameCount()).thenReturn(1);
 
-        when(parser.parse(eq(bis))).thenReturn(ImageHeaderParser.ImageType.GIF);
+        when(parser.parse(eq(bis))).thenReturn(header(ImageHeaderParser.ImageType.GIF));
         when(gifDecoder.decode(any(InputStream.class), anyInt(), anyInt())).thenReturn(gifResource);
         when(gifResource.get().getFirstFrame()).thenReturn(Bitmap.createBitmap(50, 50, Bitmap.Config.RGB_565));
 
@@ -210,6 +215,59 @@ public class GifBitmapWrapperResourceDecoderTest {
         order.verify(bis).reset();
     }
 
+    @Test
+    public void testAttachesParsedHeaderToStreamBeforeDecodingBitmap() throws IOException {
+        final ImageHeader header = header(ImageHeaderParser.ImageType.JPEG);
+        when(parser.parse(eq(bis))).thenReturn(header);
+
+        decoder.decode(source, 100, 100);
+
+        InOrder order = inOrder(bis, bitmapDecoder);
+        order.verify(bis).setImageHeader(eq(header));
+        order.verify(bitmapDecoder).decode(any(ImageVideoWrapper.class), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testUsesSufficientHintInsteadOfParsingHeader() throws IOException {
+        ImageHeader hint = new ImageHeader(ImageHeaderParser.ImageType.JPEG, -1, 100, 200, true);
+        InputStream is = new ImageHeaderInputStream(new ByteArrayInputStream(new byte[0]), hint);
+        when(source.getStream()).thenReturn(is);
+        when(streamFactory.build(eq(is), any(byte[].class))).thenReturn(bis);
+
+        decoder.decode(source, 100, 100);
+
+        verify(parser, never()).parse(any(InputStream.class));
+        verify(bis).setImageHeader(eq(hint));
+    }
+
+    @Test
+    public void testFillsInParsedHeaderFromHintWithoutType() throws IOException {
+        ImageHeader hint = new ImageHeader(ImageHeaderParser.ImageType.UNKNOWN, -1, 100, 200, true);
+        InputStream is = new ImageHeaderInputStream(new ByteArrayInputStream(new byte[0]), hint);
+        when(source.getStream()).thenReturn(is);
+        when(streamFactory.build(eq(is), any(byte[].class))).thenReturn(bis);
+        when(parser.parse(eq(bis))).thenReturn(header(ImageHeaderParser.ImageType.PNG));
+
+        decoder.decode(source, 100, 100);
+
+        ArgumentCaptor<ImageHeader> captor = ArgumentCaptor.forClass(ImageHeader.class);
+        verify(bis).setImageHeader(captor.capture());
+        assertEquals(ImageHeaderParser.ImageType.PNG, captor.getValue().getType());
+        assertEquals(100, captor.getValue().getWidth());
+        assertEquals(200, captor.getValue().getHeight());
+    }
+
+    @Test
+    public void testReleasesBufferedStreamAfterDecoding() throws IOException {
+        when(parser.parse(eq(bis))).thenReturn(header(ImageHeaderParser.ImageType.JPEG));
+
+        decoder.decode(source, 100, 100);
+
+        InOrder order = inOrder(bis, bitmapDecoder);
+        order.verify(bitmapDecoder).decode(any(ImageVideoWrapper.class), anyInt(), anyInt());
+        order.verify(bis).release();
+    }
+
     @Test
     public void testHasValidId() {
         String bitmapId = "bitmapId";
@@ -231,4 +289,8 @@ public class GifBitmapWrapperResourceDecoderTest {
         when(resource.get()).thenReturn(drawable);
         return resource;
     }
+
+    private static ImageHeader header(ImageHeaderParser.ImageType type) {
+        return new ImageHeader(type, -1, -1, -1, true);
+    }
 }
@@ -0,0 +1,262 @@
+package com.bumptech.glide.load.resource.tile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Rect;
+import android.os.Build;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.engine.cache.MemoryCache;
+import com.bumptech.glide.load.resource.bitmap.BitmapResource;
+import com.bumptech.glide.signature.StringSignature;
+import com.bumptech.glide.tests.Util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, emulateSdk = 18)
+public class TiledImageTest {
+    private static final int TILE_SIZE = 100;
+
+    private TiledImage.RegionDecoder regionDecoder;
+    private BitmapPool bitmapPool;
+    private MemoryCache memoryCache;
+    private Key imageKey;
+    private TiledImage tiledImage;
+    private int initialSdkVersion;
+
+    @Before
+    public void setUp() {
+        initialSdkVersion = Build.VERSION.SDK_INT;
+        regionDecoder = mock(TiledImage.RegionDecoder.class);
+        when(regionDecoder.getWidth()).thenReturn(1050);
+        when(regionDecoder.getHeight()).thenReturn(420);
+        bitmapPool = mock(BitmapPool.class);
+        memoryCache = mock(MemoryCache.class);
+        imageKey = new StringSignature("image");
+        tiledImage = new TiledImage(regionDecoder, bitmapPool, memoryCache, imageKey, Bitmap.Config.RGB_565,
+                TILE_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        Util.setSdkVersionInt(initialSdkVersion);
+    }
+
+    @Test
+    public void testReturnsSampleSizeForScale() {
+        assertEquals(1, TiledImage.getSampleSize(1f));
+        assertEquals(1, TiledImage.getSampleSize(2f));
+        assertEquals(1, TiledImage.getSampleSize(0.6f));
+        assertEquals(2, TiledImage.getSampleSize(0.5f));
+        assertEquals(2, TiledImage.getSampleSize(0.3f));
+        assertEquals(8, TiledImage.getSampleSize(0.1f));
+    }
+
+    @Test
+    public void testCountsPartialTilesAtEdges() {
+        assertEquals(11, tiledImage.getColumnCount(1));
+        assertEquals(5, tiledImage.getRowCount(1));
+        assertEquals(3, tiledImage.getColumnCount(4));
+        assertEquals(2, tiledImage.getRowCount(4));
+    }
+
+    @Test
+    public void testTileRegionIsClippedToImage() {
+        Rect region = new Rect();
+        tiledImage.getTileRegion(10, 4, 1, region);
+        assertEquals(new Rect(1000, 400, 1050, 420), region);
+
+        tiledImage.getTileRegion(1, 0, 2, region);
+        assertEquals(new Rect(200, 0, 400, 200), region);
+    }
+
+    @Test
+    public void testReturnsRangeOfVisibleTiles() {
+        Rect tiles = new Rect();
+        tiledImage.getVisibleTiles(new Rect(150, 50, 420, 210), 1, tiles);
+        assertEquals(new Rect(1, 0, 5, 3), tiles);
+
+        tiledImage.getVisibleTiles(new Rect(-100, -100, 5000, 5000), 2, tiles);
+        assertEquals(new Rect(0, 0, 6, 3), tiles);
+    }
+
+    @Test
+    public void testVisibleTilesAreEmptyIfRegionIsOutsideImage() {
+        Rect tiles = new Rect();
+        tiledImage.getVisibleTiles(new Rect(2000, 0, 3000, 100), 1, tiles);
+        assertTrue(tiles.isEmpty());
+    }
+
+    @Test
+    public void testDecodesTileRegionAtSampleSize() {
+        Bitmap decoded = Bitmap.createBitmap(50, 50, Bitmap.Config.RGB_565);
+        ArgumentCaptor<BitmapFactory.Options> options = ArgumentCaptor.forClass(BitmapFactory.Options.class);
+        when(regionDecoder.decodeRegion(eq(new Rect(200, 0, 400, 200)), options.capture())).thenReturn(decoded);
+
+        TiledImage.Tile tile = tiledImage.decodeTile(1, 0, 2);
+
+        assertEquals(decoded, tile.getBitmap());
+        assertEquals(1, tile.getColumn());
+        assertEquals(0, tile.getRow());
+        assertEquals(2, tile.getSampleSize());
+        assertEquals(2, options.getValue().inSampleSize);
+        assertEquals(Bitmap.Config.RGB_565, options.getValue().inPreferredConfig);
+    }
+
+    @Test
+    public void testDecodesEdgeTilesIntoPooledBitmapsOfExactSizeOnJellyBean() {
+        Util.setSdkVersionInt(Build.VERSION_CODES.JELLY_BEAN);
+        Bitmap full = Bitmap.createBitmap(50, 20, Bitmap.Config.RGB_565);
+        Bitmap sampled = Bitmap.createBitmap(25, 10, Bitmap.Config.RGB_565);
+        when(bitmapPool.getDirty(50, 20, Bitmap.Config.RGB_565)).thenReturn(full);
+        when(bitmapPool.getDirty(25, 10, Bitmap.Config.RGB_565)).thenReturn(sampled);
+        // The options are reused, so inBitmap is recorded during each decode.
+        final List<Bitmap> inBitmaps = new ArrayList<Bitmap>();
+        when(regionDecoder.decodeRegion(any(Rect.class), any(BitmapFactory.Options.class)))
+                .thenAnswer(new Answer<Bitmap>() {
+                    @Override
+                    public Bitmap answer(InvocationOnMock invocation) throws Throwable {
+                        Bitmap inBitmap = ((BitmapFactory.Options) invocation.getArguments()[1]).inBitmap;
+                        inBitmaps.add(inBitmap);
+                        return inBitmap;
+                    }
+                });
+
+        tiledImage.decodeTile(10, 4, 1);
+        tiledImage.decodeTile(5, 2, 2);
+
+        assertEquals(Arrays.asList(full, sampled), inBitmaps);
+    }
+
+    @Test
+    public void testDoesNotUsePoolBeforeJellyBean() {
+        Util.setSdkVersionInt(Build.VERSION_CODES.ICE_CREAM_SANDWICH_MR1);
+
+        tiledImage.decodeTile(0, 0, 1);
+
+        verify(bitmapPool, never()).getDirty(anyInt(), anyInt(), any(Bitmap.Config.class));
+    }
+
+    @Test
+    public void testReturnsPooledBitmapIfDecodeFails() {
+        Util.setSdkVersionInt(Build.VERSION_CODES.JELLY_BEAN);
+        Bitmap pooled = Bitmap.createBitmap(TILE_SIZE, TILE_SIZE, Bitmap.Config.RGB_565);
+        when(bitmapPool.getDirty(TILE_SIZE, TILE_SIZE, Bitmap.Config.RGB_565)).thenReturn(pooled);
+        when(regionDecoder.decodeRegion(any(Rect.class), any(BitmapFactory.Options.class)))
+                .thenThrow(new IllegalArgumentException("Test"));
+        when(bitmapPool.put(pooled)).thenReturn(true);
+
+        assertNull(tiledImage.decodeTile(0, 0, 1));
+        verify(bitmapPool).put(pooled);
+    }
+
+    @Test
+    public void testDoesNotRecycleDecoderUntilDecodeFinishes() {
+        final Bitmap decoded = Bitmap.createBitmap(TILE_SIZE, TILE_SIZE, Bitmap.Config.RGB_565);
+        when(regionDecoder.decodeRegion(any(Rect.class), any(BitmapFactory.Options.class)))
+                .thenAnswer(new Answer<Bitmap>() {
+                    @Override
+                    public Bitmap answer(InvocationOnMock invocation) throws Throwable {
+                        tiledImage.recycle();
+                        verify(regionDecoder, never()).recycle();
+                        return decoded;
+                    }
+                });
+
+        assertEquals(decoded, tiledImage.decodeTile(0, 0, 1).getBitmap());
+        verify(regionDecoder).recycle();
+    }
+
+    @Test
+    public void testDoesNotDecodeTilesOnceRecycled() {
+        tiledImage.recycle();
+
+        assertNull(tiledImage.decodeTile(0, 0, 1));
+        verify(regionDecoder, never()).decodeRegion(any(Rect.class), any(BitmapFactory.Options.class));
+    }
+
+    @Test
+    public void testReturnsNullForTilesOutsideImage() {
+        assertNull(tiledImage.decodeTile(20, 0, 1));
+        verify(regionDecoder, never()).decodeRegion(any(Rect.class), any(BitmapFactory.Options.class));
+    }
+
+    @Test
+    public void testReleasedTilesArePutInMemoryCacheAndCanBeRetrieved() {
+        Bitmap decoded = Bitmap.createBitmap(TILE_SIZE, TILE_SIZE, Bitmap.Config.RGB_565);
+        when(regionDecoder.decodeRegion(any(Rect.class), any(BitmapFactory.Options.class))).thenReturn(decoded);
+        TiledImage.Tile tile = tiledImage.decodeTile(3, 1, 1);
+
+        tiledImage.releaseTile(tile);
+
+        ArgumentCaptor<Key> key = ArgumentCaptor.forClass(Key.class);
+        ArgumentCaptor<Resource> resource = ArgumentCaptor.forClass(Resource.class);
+        verify(memoryCache).put(key.capture(), resource.capture());
+        assertEquals(new TileKey(imageKey, TILE_SIZE, 1, 3, 1), key.getValue());
+        assertEquals(decoded, resource.getValue().get());
+
+        when(memoryCache.remove(eq(key.getValue()))).thenReturn(new BitmapResource(decoded, bitmapPool));
+        TiledImage.Tile cached = tiledImage.getCachedTile(3, 1, 1);
+        assertEquals(decoded, cached.getBitmap());
+        assertNull(tiledImage.getCachedTile(3, 1, 2));
+    }
+
+    @Test
+    public void testReleasedTilesWithoutImageKeyAreReturnedToPool() {
+        tiledImage = new TiledImage(regionDecoder, bitmapPool, memoryCache, null /*imageKey*/, Bitmap.Config.RGB_565,
+                TILE_SIZE);
+        Bitmap decoded = Bitmap.createBitmap(TILE_SIZE, TILE_SIZE, Bitmap.Config.RGB_565);
+        when(regionDecoder.decodeRegion(any(Rect.class), any(BitmapFactory.Options.class))).thenReturn(decoded);
+        when(bitmapPool.put(decoded)).thenReturn(true);
+
+        tiledImage.releaseTile(tiledImage.decodeTile(0, 0, 1));
+
+        verify(bitmapPool).put(decoded);
+        verify(memoryCache, never()).put(any(Key.class), any(Resource.class));
+        assertNull(tiledImage.getCachedTile(0, 0, 1));
+    }
+
+    @Test
+    public void testTileKeysDifferBySampleSizeAndPosition() {
+        TileKey key = new TileKey(imageKey, TILE_SIZE, 1, 2, 3);
+        assertEquals(key, new TileKey(new StringSignature("image"), TILE_SIZE, 1, 2, 3));
+        assertEquals(key.hashCode(), new TileKey(new StringSignature("image"), TILE_SIZE, 1, 2, 3).hashCode());
+        assertFalse(key.equals(new TileKey(imageKey, TILE_SIZE, 2, 2, 3)));
+        assertFalse(key.equals(new TileKey(imageKey, TILE_SIZE, 1, 3, 2)));
+        assertFalse(key.equals(new TileKey(new StringSignature("other"), TILE_SIZE, 1, 2, 3)));
+    }
+
+    @Test
+    public void testRecyclingResourceRecyclesRegionDecoder() {
+        new TiledImageResource(tiledImage, 1).recycle();
+
+        verify(regionDecoder).recycle();
+    }
+}
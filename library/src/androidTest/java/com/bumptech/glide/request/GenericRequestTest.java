@@ -9,15 +9,18 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 import android.content.Context;
 import android.content.res.Resources;
+import android.graphics.Bitmap;
 import android.graphics.Color;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
@@ -33,11 +36,13 @@ import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.bumptech.glide.load.engine.Engine;
 import com.bumptech.glide.load.engine.Resource;
 import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.resource.bitmap.PreviewDecoder;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 import com.bumptech.glide.provider.DataLoadProvider;
 import com.bumptech.glide.provider.LoadProvider;
 import com.bumptech.glide.request.animation.GlideAnimation;
 import com.bumptech.glide.request.animation.GlideAnimationFactory;
+import com.bumptech.glide.request.target.PreviewTarget;
 import com.bumptech.glide.request.target.SizeReadyCallback;
 import com.bumptech.glide.request.target.Target;
 
@@ -93,6 +98,7 @@ public class GenericRequestTest {
         List result = new ArrayList();
         DiskCacheStrategy diskCacheStrategy = DiskCacheStrategy.RESULT;
         Key signature = mock(Key.class);
+        PreviewDecoder previewDecoder = null;
 
         public RequestHarness() {
             modelLoader = mock(ModelLoader.class);
@@ -131,7 +137,8 @@ public class GenericRequestTest {
                     factory,
                     overrideWidth,
                     overrideHeight,
-                    diskCacheStrategy);
+                    diskCacheStrategy,
+                    previewDecoder);
         }
     }
 
@@ -485,7 +492,8 @@ public class GenericRequestTest {
 
         verify(harness.engine, times(1)).load(eq(harness.signature), eq(100), eq(100), any(DataFetcher.class),
                 any(DataLoadProvider.class), any(Transformation.class), any(ResourceTranscoder.class),
-                any(Priority.class), anyBoolean(), any(DiskCacheStrategy.class), any(ResourceCallback.class));
+                any(Priority.class), anyBoolean(), any(DiskCacheStrategy.class),
+                any(PreviewDecoder.class), any(ResourceCallback.class));
     }
 
     @Test
@@ -507,7 +515,8 @@ public class GenericRequestTest {
 
         verify(harness.engine).load(any(Key.class), anyInt(), anyInt(), any(DataFetcher.class),
                 any(DataLoadProvider.class), any(Transformation.class), any(ResourceTranscoder.class),
-                eq(expected), anyBoolean(), any(DiskCacheStrategy.class), any(ResourceCallback.class));
+                eq(expected), anyBoolean(), any(DiskCacheStrategy.class),
+                any(PreviewDecoder.class), any(ResourceCallback.class));
     }
 
     @Test
@@ -515,7 +524,8 @@ public class GenericRequestTest {
         Engine.LoadStatus loadStatus = mock(Engine.LoadStatus.class);
         when(harness.engine.load(any(Key.class), anyInt(), anyInt(), any(DataFetcher.class),
                 any(DataLoadProvider.class), any(Transformation.class), any(ResourceTranscoder.class),
-                any(Priority.class), anyBoolean(), any(DiskCacheStrategy.class), any(ResourceCallback.class)))
+                any(Priority.class), anyBoolean(), any(DiskCacheStrategy.class),
+                any(PreviewDecoder.class), any(ResourceCallback.class)))
                 .thenReturn(loadStatus);
 
         GenericRequest request = harness.getRequest();
@@ -770,7 +780,7 @@ public class GenericRequestTest {
         when(harness.engine.load(any(Key.class), anyInt(), anyInt(), any(DataFetcher.class),
                 any(DataLoadProvider.class), any(Transformation.class), any(ResourceTranscoder.class),
                 any(Priority.class), anyBoolean(),  any(DiskCacheStrategy.class),
-                any(ResourceCallback.class))).thenAnswer(new Answer<Object>() {
+                any(PreviewDecoder.class), any(ResourceCallback.class))).thenAnswer(new Answer<Object>() {
                     @Override
                     public Object answer(InvocationOnMock invocation) throws Throwable {
                         request.onResourceReady(harness.resource);
@@ -875,7 +885,7 @@ public class GenericRequestTest {
         verify(harness.engine).load(any(Key.class), eq(harness.overrideWidth), eq(harness.overrideHeight),
                 any(DataFetcher.class), any(DataLoadProvider.class), any(Transformation.class),
                 any(ResourceTranscoder.class), any(Priority.class), anyBoolean(), any(DiskCacheStrategy.class),
-                any(ResourceCallback.class));
+                any(PreviewDecoder.class), any(ResourceCallback.class));
     }
 
     @Test
@@ -894,7 +904,8 @@ public class GenericRequestTest {
                 .getSize(any(SizeReadyCallback.class));
         when(harness.engine.load(any(Key.class), anyInt(), anyInt(), any(DataFetcher.class),
                 any(DataLoadProvider.class), any(Transformation.class), any(ResourceTranscoder.class),
-                any(Priority.class), anyBoolean(), any(DiskCacheStrategy.class), any(ResourceCallback.class)))
+                any(Priority.class), anyBoolean(), any(DiskCacheStrategy.class),
+                any(PreviewDecoder.class), any(ResourceCallback.class)))
                 .thenAnswer(new CallResourceCallback(harness.resource));
         GenericRequest request = harness.getRequest();
 
@@ -932,7 +943,81 @@ public class GenericRequestTest {
 
         verify(harness.engine, never()).load(any(Key.class), anyInt(), anyInt(), any(DataFetcher.class),
                 any(DataLoadProvider.class), any(Transformation.class), any(ResourceTranscoder.class),
-                any(Priority.class), anyBoolean(), any(DiskCacheStrategy.class), any(ResourceCallback.class));
+                any(Priority.class), anyBoolean(), any(DiskCacheStrategy.class),
+                any(PreviewDecoder.class), any(ResourceCallback.class));
+    }
+
+    @Test
+    public void testPassesPreviewDecoderToEngineIfTargetCanDisplayPreviews() {
+        harness.previewDecoder = mock(PreviewDecoder.class);
+        harness.target = mock(Target.class, withSettings().extraInterfaces(PreviewTarget.class));
+        GenericRequest request = harness.getRequest();
+        request.begin();
+        request.onSizeReady(100, 100);
+
+        verify(harness.engine).load(any(Key.class), anyInt(), anyInt(), any(DataFetcher.class),
+                any(DataLoadProvider.class), any(Transformation.class), any(ResourceTranscoder.class),
+                any(Priority.class), anyBoolean(), any(DiskCacheStrategy.class), eq(harness.previewDecoder),
+                any(ResourceCallback.class));
+    }
+
+    @Test
+    public void testDoesNotPassPreviewDecoderToEngineIfTargetCannotDisplayPreviews() {
+        harness.previewDecoder = mock(PreviewDecoder.class);
+        GenericRequest request = harness.getRequest();
+        request.begin();
+        request.onSizeReady(100, 100);
+
+        verify(harness.engine).load(any(Key.class), anyInt(), anyInt(), any(DataFetcher.class),
+                any(DataLoadProvider.class), any(Transformation.class), any(ResourceTranscoder.class),
+                any(Priority.class), anyBoolean(), any(DiskCacheStrategy.class), (PreviewDecoder) isNull(),
+                any(ResourceCallback.class));
+    }
+
+    @Test
+    public void testPassesPreviewsToTargetWhileRunning() {
+        harness.target = mock(Target.class, withSettings().extraInterfaces(PreviewTarget.class));
+        GenericRequest request = harness.getRequest();
+        request.begin();
+        request.onSizeReady(100, 100);
+
+        Bitmap preview = Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565);
+        request.onPreviewReady(mockPreview(preview));
+
+        verify((PreviewTarget) harness.target).onPreviewReady(eq(preview));
+    }
+
+    @Test
+    public void testIgnoresPreviewsOnceResourceIsReady() {
+        harness.target = mock(Target.class, withSettings().extraInterfaces(PreviewTarget.class));
+        GenericRequest request = harness.getRequest();
+        request.begin();
+        request.onSizeReady(100, 100);
+        request.onResourceReady(harness.resource);
+
+        request.onPreviewReady(mockPreview(Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565)));
+
+        verify((PreviewTarget) harness.target, never()).onPreviewReady(any(Bitmap.class));
+    }
+
+    @Test
+    public void testIgnoresPreviewsIfThumbnailIsAlreadySet() {
+        harness.target = mock(Target.class, withSettings().extraInterfaces(PreviewTarget.class));
+        when(harness.requestCoordinator.isAnyResourceSet()).thenReturn(true);
+        GenericRequest request = harness.getRequest();
+        request.begin();
+        request.onSizeReady(100, 100);
+
+        request.onPreviewReady(mockPreview(Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565)));
+
+        verify((PreviewTarget) harness.target, never()).onPreviewReady(any(Bitmap.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Resource<Bitmap> mockPreview(Bitmap preview) {
+        Resource<Bitmap> resource = mock(Resource.class);
+        when(resource.get()).thenReturn(preview);
+        return resource;
     }
 
     private static class CallResourceCallback implements Answer {
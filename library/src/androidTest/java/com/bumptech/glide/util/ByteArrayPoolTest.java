@@ -3,14 +3,20 @@ package com.bumptech.glide.util;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import android.content.ComponentCallbacks2;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE, emulateSdk = 18)
 public class ByteArrayPoolTest {
@@ -56,4 +62,215 @@ public class ByteArrayPoolTest {
 
         assertFalse(pool.releaseBytes(toPut));
     }
+
+    @Test
+    public void testReturnsFixedSizeBytesForSmallLengths() {
+        ByteArrayPool pool = ByteArrayPool.get();
+        byte[] available = pool.getBytes();
+        pool.releaseBytes(available);
+
+        assertSame(available, pool.getBytes(10));
+    }
+
+    @Test
+    public void testRoundsLargeLengthsUpToPowerOfTwo() {
+        assertEquals(256 * 1024, ByteArrayPool.get().getBytes(200 * 1024).length);
+        assertEquals(256 * 1024, ByteArrayPool.get().getBytes(256 * 1024).length);
+    }
+
+    @Test
+    public void testReturnsReleasedLargeBytesOfSameSize() {
+        ByteArrayPool pool = ByteArrayPool.get();
+        byte[] large = pool.getBytes(500 * 1024);
+        assertTrue(pool.releaseBytes(large));
+
+        assertNotSame(large, pool.getBytes(1024 * 1024));
+        assertSame(large, pool.getBytes(300 * 1024));
+    }
+
+    @Test
+    public void testIgnoresLargeBytesThatAreNotPowersOfTwo() {
+        assertFalse(ByteArrayPool.get().releaseBytes(new byte[100 * 1024]));
+    }
+
+    @Test
+    public void testLargeBytesAreSizeBounded() {
+        ByteArrayPool pool = ByteArrayPool.get();
+
+        boolean rejected = false;
+        for (int i = 0; i < 100 && !rejected; i++) {
+            rejected = !pool.releaseBytes(new byte[1024 * 1024]);
+        }
+
+        assertTrue(rejected);
+    }
+
+    @Test
+    public void testLargeBytesDoNotReduceFixedSizeCapacity() {
+        ByteArrayPool pool = ByteArrayPool.get();
+        for (int i = 0; i < 4; i++) {
+            pool.releaseBytes(new byte[1024 * 1024]);
+        }
+
+        assertTrue(pool.releaseBytes(pool.getBytes()));
+    }
+
+    @Test
+    public void testDoesNotRoundUpLengthsTooLargeToPool() {
+        int length = 5 * 1024 * 1024;
+        assertEquals(length, ByteArrayPool.get().getBytes(length).length);
+    }
+
+    @Test
+    public void testPoolsLargestGrowthBuffers() {
+        ByteArrayPool pool = ByteArrayPool.get();
+        byte[] largest = pool.getBytes(3 * 1024 * 1024);
+        assertEquals(4 * 1024 * 1024, largest.length);
+
+        assertTrue(pool.releaseBytes(largest));
+        assertSame(largest, pool.getBytes(4 * 1024 * 1024));
+    }
+
+    @Test
+    public void testClearRemovesLargeBytes() {
+        ByteArrayPool pool = ByteArrayPool.get();
+        byte[] large = pool.getBytes(200 * 1024);
+        pool.releaseBytes(large);
+
+        pool.clear();
+
+        assertNotSame(large, pool.getBytes(200 * 1024));
+    }
+
+    @Test
+    public void testReturnsBytesReleasedOnAnotherThread() throws InterruptedException {
+        final ByteArrayPool pool = ByteArrayPool.get();
+        final byte[] first = new byte[64 * 1024];
+        final byte[] second = new byte[64 * 1024];
+        final byte[] third = new byte[64 * 1024];
+        runOnOtherThread(new Runnable() {
+            @Override
+            public void run() {
+                pool.releaseBytes(first);
+                pool.releaseBytes(second);
+                pool.releaseBytes(third);
+            }
+        });
+
+        assertSame(third, pool.getBytes());
+    }
+
+    @Test
+    public void testClearRemovesBytesCachedByOtherThreads() throws InterruptedException {
+        final ByteArrayPool pool = ByteArrayPool.get();
+        final AtomicReference<byte[]> released = new AtomicReference<byte[]>();
+        runOnOtherThread(new Runnable() {
+            @Override
+            public void run() {
+                released.set(pool.getBytes());
+                pool.releaseBytes(released.get());
+            }
+        });
+
+        pool.clear();
+
+        assertEquals(0, pool.getCurrentSize());
+        final AtomicReference<byte[]> obtained = new AtomicReference<byte[]>();
+        runOnOtherThread(new Runnable() {
+            @Override
+            public void run() {
+                obtained.set(pool.getBytes());
+            }
+        });
+        assertNotSame(released.get(), obtained.get());
+    }
+
+    @Test
+    public void testReturnsBytesCachedByThreadsThatHaveFinished() throws InterruptedException {
+        final ByteArrayPool pool = ByteArrayPool.get();
+        final byte[] released = new byte[64 * 1024];
+        runOnOtherThread(new Runnable() {
+            @Override
+            public void run() {
+                pool.releaseBytes(released);
+            }
+        });
+        assertEquals(64 * 1024, pool.getCurrentSize());
+
+        assertSame(released, pool.getBytes());
+        assertEquals(0, pool.getCurrentSize());
+    }
+
+    @Test
+    public void testTracksCurrentSize() {
+        ByteArrayPool pool = ByteArrayPool.get();
+        pool.releaseBytes(new byte[64 * 1024]);
+        pool.releaseBytes(new byte[256 * 1024]);
+
+        assertEquals(320 * 1024, pool.getCurrentSize());
+
+        pool.getBytes(200 * 1024);
+
+        assertEquals(64 * 1024, pool.getCurrentSize());
+    }
+
+    @Test
+    public void testCountsHitsAndMisses() {
+        ByteArrayPool pool = ByteArrayPool.get();
+        int hits = pool.getHitCount();
+        int misses = pool.getMissCount();
+
+        byte[] bytes = pool.getBytes();
+        pool.releaseBytes(bytes);
+        pool.getBytes();
+
+        assertEquals(hits + 1, pool.getHitCount());
+        assertEquals(misses + 1, pool.getMissCount());
+    }
+
+    @Test
+    public void testTrimMemoryModerateRemovesAllBytes() {
+        ByteArrayPool pool = ByteArrayPool.get();
+        int evictions = pool.getEvictionCount();
+        byte[] bytes = pool.getBytes();
+        pool.releaseBytes(bytes);
+        pool.releaseBytes(new byte[256 * 1024]);
+
+        pool.trimMemory(ComponentCallbacks2.TRIM_MEMORY_MODERATE);
+
+        assertEquals(0, pool.getCurrentSize());
+        assertEquals(evictions + 2, pool.getEvictionCount());
+        assertNotSame(bytes, pool.getBytes());
+    }
+
+    @Test
+    public void testTrimMemoryBackgroundRemovesHalfOfMaxSize() {
+        ByteArrayPool pool = ByteArrayPool.get();
+        pool.releaseBytes(new byte[2 * 1024 * 1024]);
+        pool.releaseBytes(new byte[2 * 1024 * 1024]);
+        pool.releaseBytes(new byte[1024 * 1024]);
+        pool.releaseBytes(new byte[1024 * 1024]);
+        pool.releaseBytes(new byte[1024 * 1024]);
+        assertEquals(pool.getMaxSize() - 1024 * 1024, pool.getCurrentSize());
+
+        pool.trimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+
+        assertTrue(pool.getCurrentSize() <= pool.getMaxSize() / 2);
+    }
+
+    @Test
+    public void testTrimMemoryUiHiddenDoesNotRemoveBytes() {
+        ByteArrayPool pool = ByteArrayPool.get();
+        pool.releaseBytes(new byte[1024 * 1024]);
+
+        pool.trimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+
+        assertEquals(1024 * 1024, pool.getCurrentSize());
+    }
+
+    private static void runOnOtherThread(Runnable runnable) throws InterruptedException {
+        Thread thread = new Thread(runnable);
+        thread.start();
+        thread.join();
+    }
 }
@@ -0,0 +1,151 @@
+package com.bumptech.glide.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, emulateSdk = 18)
+public class ByteBufferUtilTest {
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("ByteBufferUtilTest", null);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testMapsFileFromGivenPosition() throws IOException {
+        writeFile(new byte[] { 1, 2, 3, 4, 5 });
+        FileInputStream is = new FileInputStream(file);
+        try {
+            assertEquals(2, is.skip(2));
+
+            ByteBuffer mapped = ByteBufferUtil.map(is, ByteBufferUtil.getPosition(is));
+
+            assertNotNull(mapped);
+            assertArrayEquals(new byte[] { 3, 4, 5 }, ByteBufferUtil.toBytes(mapped));
+            assertEquals(2, ByteBufferUtil.getPosition(is));
+        } finally {
+            is.close();
+        }
+    }
+
+    @Test
+    public void testReturnsNullWhenMappingEmptyFile() throws IOException {
+        FileInputStream is = new FileInputStream(file);
+        try {
+            assertNull(ByteBufferUtil.map(is, 0));
+        } finally {
+            is.close();
+        }
+    }
+
+    @Test
+    public void testReturnsNullWhenMappingFromInvalidPosition() throws IOException {
+        writeFile(new byte[] { 1 });
+        FileInputStream is = new FileInputStream(file);
+        try {
+            assertNull(ByteBufferUtil.map(is, -1));
+        } finally {
+            is.close();
+        }
+    }
+
+    @Test
+    public void testReadsEntireStream() throws IOException {
+        byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        ByteBuffer result = ByteBufferUtil.fromStream(new ByteArrayInputStream(data));
+
+        assertEquals(0, result.position());
+        assertArrayEquals(data, ByteBufferUtil.toBytes(result));
+    }
+
+    @Test
+    public void testReadsStreamOfUnknownLengthInToArrayOfExactLength() throws IOException {
+        byte[] data = new byte[100000];
+        InputStream is = new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int available() {
+                return 0;
+            }
+        };
+
+        ByteBuffer result = ByteBufferUtil.fromStream(is);
+
+        assertEquals(data.length, result.array().length);
+        assertEquals(data.length, result.remaining());
+    }
+
+    @Test
+    public void testWritesRemainingBytesOfHeapBuffer() throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 });
+        data.position(1);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        ByteBufferUtil.write(data, os);
+
+        assertArrayEquals(new byte[] { 2, 3, 4 }, os.toByteArray());
+        assertEquals(1, data.position());
+    }
+
+    @Test
+    public void testWritesRemainingBytesOfDirectBuffer() throws IOException {
+        byte[] expected = new byte[100000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) i;
+        }
+        ByteBuffer data = ByteBuffer.allocateDirect(expected.length);
+        data.put(expected);
+        data.rewind();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        ByteBufferUtil.write(data, os);
+
+        assertArrayEquals(expected, os.toByteArray());
+        assertEquals(0, data.position());
+    }
+
+    @Test
+    public void testReturnsBackingArrayIfBufferWrapsWholeArray() {
+        byte[] data = new byte[10];
+
+        assertSame(data, ByteBufferUtil.toBytes(ByteBuffer.wrap(data)));
+    }
+
+    private void writeFile(byte[] data) throws IOException {
+        FileOutputStream os = new FileOutputStream(file);
+        try {
+            os.write(data);
+        } finally {
+            os.close();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.bumptech.glide.util;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import android.graphics.Bitmap;
@@ -9,6 +10,9 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE, emulateSdk = 18)
 public class UtilTest {
@@ -71,4 +75,58 @@ public class UtilTest {
         int size = Util.getBitmapByteSize(width, height, null);
         assertEquals(width * height * 4, size);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUpdateDigestWithUtf8MatchesStringBytesForAscii() throws Exception {
+        assertUtf8DigestMatchesGetBytes("http://www.google.com/images/some_image.jpg?w=100&h=200");
+    }
+
+    @Test
+    public void testUpdateDigestWithUtf8MatchesStringBytesForEmptyString() throws Exception {
+        assertUtf8DigestMatchesGetBytes("");
+    }
+
+    @Test
+    public void testUpdateDigestWithUtf8MatchesStringBytesForMultiByteCharacters() throws Exception {
+        assertUtf8DigestMatchesGetBytes("caf\u00e9 \u4e2d\u6587 \ud83d\ude00 \u0800\u07ff\uffff");
+    }
+
+    @Test
+    public void testUpdateDigestWithUtf8MatchesStringBytesForUnpairedSurrogates() throws Exception {
+        assertUtf8DigestMatchesGetBytes("a\ud83db\ude00c\ud83d");
+    }
+
+    @Test
+    public void testUpdateDigestWithUtf8MatchesStringBytesForStringsLongerThanScratchBuffer() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append(i % 3 == 0 ? '\u4e2d' : (char) ('a' + (i % 26)));
+            if (i % 7 == 0) {
+                builder.append("\ud83d\ude00");
+            }
+        }
+        assertUtf8DigestMatchesGetBytes(builder.toString());
+    }
+
+    @Test
+    public void testUpdateDigestWithIntMatchesByteBuffer() throws Exception {
+        int[] values = new int[] { 0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE, 0x12345678 };
+        for (int value : values) {
+            MessageDigest expected = MessageDigest.getInstance("SHA-256");
+            expected.update(ByteBuffer.allocate(4).putInt(value).array());
+            MessageDigest actual = MessageDigest.getInstance("SHA-256");
+            Util.updateDigestWithInt(actual, value);
+
+            assertArrayEquals(expected.digest(), actual.digest());
+        }
+    }
+
+    private static void assertUtf8DigestMatchesGetBytes(String value) throws Exception {
+        MessageDigest expected = MessageDigest.getInstance("SHA-256");
+        expected.update(value.getBytes("UTF-8"));
+        MessageDigest actual = MessageDigest.getInstance("SHA-256");
+        Util.updateDigestWithUtf8(actual, value);
+
+        assertArrayEquals(expected.digest(), actual.digest());
+    }
+}
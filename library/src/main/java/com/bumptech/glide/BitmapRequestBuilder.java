@@ -15,10 +15,12 @@ import com.bumptech.glide.load.Transformation;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 import com.bumptech.glide.load.model.ImageVideoWrapper;
+import com.bumptech.glide.load.resource.bitmap.BitmapDecoder;
 import com.bumptech.glide.load.resource.bitmap.BitmapTransformation;
 import com.bumptech.glide.load.resource.bitmap.Downsampler;
 import com.bumptech.glide.load.resource.bitmap.FileDescriptorBitmapDecoder;
 import com.bumptech.glide.load.resource.bitmap.ImageVideoBitmapDecoder;
+import com.bumptech.glide.load.resource.bitmap.MultiBitmapTransformation;
 import com.bumptech.glide.load.resource.bitmap.StreamBitmapDecoder;
 import com.bumptech.glide.load.resource.bitmap.VideoBitmapDecoder;
 import com.bumptech.glide.load.resource.file.FileToStreamDecoder;
@@ -58,7 +60,8 @@ public class BitmapRequestBuilder<ModelType, TranscodeType>
         this.bitmapPool = other.glide.getBitmapPool();
         this.decodeFormat =  other.glide.getDecodeFormat();
 
-        imageDecoder = new StreamBitmapDecoder(bitmapPool, decodeFormat);
+        imageDecoder = new StreamBitmapDecoder(glide.getBitmapDecoderSelector().select(downsampler), bitmapPool,
+                decodeFormat);
         videoDecoder = new FileDescriptorBitmapDecoder(bitmapPool, decodeFormat);
     }
 
@@ -96,6 +99,30 @@ public class BitmapRequestBuilder<ModelType, TranscodeType>
         return downsample(Downsampler.AT_MOST);
     }
 
+    /**
+     * Load images at a size as close as possible to, but no smaller than, the size of the target using
+     * {@link Downsampler#AT_LEAST_EXACT}.
+     *
+     * @see #downsample(Downsampler)
+     *
+     * @return This request builder.
+     */
+    public BitmapRequestBuilder<ModelType, TranscodeType> approximateExact() {
+        return downsample(Downsampler.AT_LEAST_EXACT);
+    }
+
+    /**
+     * Load images at a size as close as possible to, but no larger than, the size of the target using
+     * {@link Downsampler#AT_MOST_EXACT}.
+     *
+     * @see #downsample(Downsampler)
+     *
+     * @return This request builder.
+     */
+    public BitmapRequestBuilder<ModelType, TranscodeType> atMostExact() {
+        return downsample(Downsampler.AT_MOST_EXACT);
+    }
+
     /**
      * Load images using the given {@link Downsampler}. Replaces any existing image decoder. Defaults to
      * {@link Downsampler#AT_LEAST}. Will be ignored if the data represented by the model is a video. This replaces any
@@ -109,7 +136,8 @@ public class BitmapRequestBuilder<ModelType, TranscodeType>
      */
     private BitmapRequestBuilder<ModelType, TranscodeType> downsample(Downsampler downsampler) {
         this.downsampler = downsampler;
-        imageDecoder = new StreamBitmapDecoder(downsampler, bitmapPool, decodeFormat);
+        imageDecoder = new StreamBitmapDecoder(glide.getBitmapDecoderSelector().select(downsampler), bitmapPool,
+                decodeFormat);
         super.decoder(new ImageVideoBitmapDecoder(imageDecoder, videoDecoder));
         return this;
     }
@@ -237,9 +265,10 @@ public class BitmapRequestBuilder<ModelType, TranscodeType>
      */
     public BitmapRequestBuilder<ModelType, TranscodeType> format(DecodeFormat format) {
         this.decodeFormat = format;
-        imageDecoder = new StreamBitmapDecoder(downsampler, bitmapPool, format);
+        BitmapDecoder<InputStream> streamDecoder = glide.getBitmapDecoderSelector().select(downsampler);
+        imageDecoder = new StreamBitmapDecoder(streamDecoder, bitmapPool, format);
         videoDecoder = new FileDescriptorBitmapDecoder(new VideoBitmapDecoder(), bitmapPool, format);
-        super.cacheDecoder(new FileToStreamDecoder<Bitmap>(new StreamBitmapDecoder(downsampler, bitmapPool, format)));
+        super.cacheDecoder(new FileToStreamDecoder<Bitmap>(new StreamBitmapDecoder(streamDecoder, bitmapPool, format)));
         super.decoder(new ImageVideoBitmapDecoder(imageDecoder, videoDecoder));
         return this;
     }
@@ -261,8 +290,7 @@ public class BitmapRequestBuilder<ModelType, TranscodeType>
      * @return This request builder.
      */
     public BitmapRequestBuilder<ModelType, TranscodeType> transform(BitmapTransformation... transformations) {
-        super.transform(transformations);
-        return this;
+        return transform((Transformation<Bitmap>[]) transformations);
     }
 
     /**
@@ -299,7 +327,12 @@ public class BitmapRequestBuilder<ModelType, TranscodeType>
      */
     @Override
     public BitmapRequestBuilder<ModelType, TranscodeType> transform(Transformation<Bitmap>... transformations) {
-        super.transform(transformations);
+        if (transformations.length > 1) {
+            // Applies adjacent BitmapTransformations with a single draw where possible.
+            super.transform(new MultiBitmapTransformation(transformations));
+        } else {
+            super.transform(transformations);
+        }
         return this;
     }
 
@@ -397,6 +430,15 @@ public class BitmapRequestBuilder<ModelType, TranscodeType>
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BitmapRequestBuilder<ModelType, TranscodeType> progressive() {
+        super.progressive();
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
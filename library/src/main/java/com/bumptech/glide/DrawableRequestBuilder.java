@@ -14,6 +14,7 @@ import com.bumptech.glide.load.Transformation;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.bumptech.glide.load.model.ImageVideoWrapper;
 import com.bumptech.glide.load.resource.bitmap.BitmapTransformation;
+import com.bumptech.glide.load.resource.bitmap.MultiBitmapTransformation;
 import com.bumptech.glide.load.resource.drawable.GlideDrawable;
 import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapper;
 import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapperTransformation;
@@ -206,12 +207,15 @@ public class DrawableRequestBuilder<ModelType>
      * @return This request builder.
      */
     public DrawableRequestBuilder<ModelType> bitmapTransform(Transformation<Bitmap>... bitmapTransformations) {
-        GifBitmapWrapperTransformation[] transformations =
-                new GifBitmapWrapperTransformation[bitmapTransformations.length];
-        for (int i = 0; i < bitmapTransformations.length; i++) {
-            transformations[i] = new GifBitmapWrapperTransformation(glide.getBitmapPool(), bitmapTransformations[i]);
+        // Wrap all of the transformations at once so that they can be fused and so that the id matches the id of the
+        // same transformations applied with BitmapRequestBuilder.
+        final Transformation<Bitmap> bitmapTransformation;
+        if (bitmapTransformations.length == 1) {
+            bitmapTransformation = bitmapTransformations[0];
+        } else {
+            bitmapTransformation = new MultiBitmapTransformation(bitmapTransformations);
         }
-        return transform(transformations);
+        return transform(new GifBitmapWrapperTransformation(glide.getBitmapPool(), bitmapTransformation));
     }
 
 
@@ -366,6 +370,15 @@ public class DrawableRequestBuilder<ModelType>
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DrawableRequestBuilder<ModelType> progressive() {
+        super.progressive();
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -13,6 +13,7 @@ import com.bumptech.glide.load.ResourceEncoder;
 import com.bumptech.glide.load.Transformation;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.bumptech.glide.load.resource.UnitTransformation;
+import com.bumptech.glide.load.resource.bitmap.PreviewDecoder;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 import com.bumptech.glide.manager.Lifecycle;
 import com.bumptech.glide.manager.RequestTracker;
@@ -76,6 +77,7 @@ public class GenericRequestBuilder<ModelType, DataType, ResourceType, TranscodeT
     private DiskCacheStrategy diskCacheStrategy = DiskCacheStrategy.RESULT;
     private Transformation<ResourceType> transformation = UnitTransformation.get();
     private boolean isTransformationSet;
+    private boolean isProgressive;
 
     GenericRequestBuilder(LoadProvider<ModelType, DataType, ResourceType, TranscodeType> loadProvider,
             Class<TranscodeType> transcodeClass, GenericRequestBuilder<ModelType, ?, ?, ?> other) {
@@ -483,6 +485,25 @@ public class GenericRequestBuilder<ModelType, DataType, ResourceType, TranscodeT
         return this;
     }
 
+    /**
+     * Decodes low quality previews of JPEG images as their data arrives and displays them in
+     * {@link com.bumptech.glide.request.target.PreviewTarget}s, such as
+     * {@link com.bumptech.glide.request.target.ImageViewTarget}s, until the full image has loaded.
+     *
+     * <p>
+     *     Previews are only decoded for loads from {@link java.io.InputStream}s that aren't in the disk cache, so this
+     *     is most useful for large progressive JPEGs loaded over slow networks. Decoding previews takes time on the
+     *     thread that loads the image, so the full image will load somewhat more slowly.
+     * </p>
+     *
+     * @return This request builder.
+     */
+    public GenericRequestBuilder<ModelType, DataType, ResourceType, TranscodeType> progressive() {
+        this.isProgressive = true;
+
+        return this;
+    }
+
     /**
      * Allows the loaded resource to skip the memory cache.
      *
@@ -799,6 +820,7 @@ public class GenericRequestBuilder<ModelType, DataType, ResourceType, TranscodeT
                 animationFactory,
                 overrideWidth,
                 overrideHeight,
-                diskCacheStrategy);
+                diskCacheStrategy,
+                isProgressive ? new PreviewDecoder(glide.getBitmapPool(), glide.getDecodeFormat()) : null);
     }
 }
@@ -20,6 +20,7 @@ import com.bumptech.glide.load.DecodeFormat;
 import com.bumptech.glide.load.engine.Engine;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 import com.bumptech.glide.load.engine.cache.MemoryCache;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.engine.prefill.BitmapPreFiller;
 import com.bumptech.glide.load.engine.prefill.PreFillType;
 import com.bumptech.glide.load.model.GenericLoaderFactory;
@@ -38,6 +39,7 @@ import com.bumptech.glide.load.model.stream.StreamResourceLoader;
 import com.bumptech.glide.load.model.stream.StreamStringLoader;
 import com.bumptech.glide.load.model.stream.StreamUriLoader;
 import com.bumptech.glide.load.model.stream.StreamUrlLoader;
+import com.bumptech.glide.load.resource.bitmap.BitmapDecoderSelector;
 import com.bumptech.glide.load.resource.bitmap.CenterCrop;
 import com.bumptech.glide.load.resource.bitmap.FileDescriptorBitmapDataLoadProvider;
 import com.bumptech.glide.load.resource.bitmap.FitCenter;
@@ -51,6 +53,8 @@ import com.bumptech.glide.load.resource.gif.GifDrawableLoadProvider;
 import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapper;
 import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapperTransformation;
 import com.bumptech.glide.load.resource.gifbitmap.ImageVideoGifDrawableLoadProvider;
+import com.bumptech.glide.load.resource.tile.TiledImage;
+import com.bumptech.glide.load.resource.tile.TiledImageLoadProvider;
 import com.bumptech.glide.load.resource.transcode.GifBitmapWrapperDrawableTranscoder;
 import com.bumptech.glide.load.resource.transcode.GlideBitmapDrawableTranscoder;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
@@ -66,6 +70,7 @@ import com.bumptech.glide.request.animation.GlideAnimation;
 import com.bumptech.glide.request.target.ImageViewTargetFactory;
 import com.bumptech.glide.request.target.Target;
 import com.bumptech.glide.request.target.ViewTarget;
+import com.bumptech.glide.util.ByteArrayPool;
 import com.bumptech.glide.util.Util;
 
 import java.io.File;
@@ -90,7 +95,9 @@ public class Glide {
     private final Engine engine;
     private final BitmapPool bitmapPool;
     private final MemoryCache memoryCache;
+    private final TransformedResourceCache transformedResourceCache;
     private final DecodeFormat decodeFormat;
+    private final BitmapDecoderSelector bitmapDecoderSelector;
     private final ImageViewTargetFactory imageViewTargetFactory = new ImageViewTargetFactory();
     private final TranscoderRegistry transcoderRegistry = new TranscoderRegistry();
     private final DataLoadProviderRegistry dataLoadProviderRegistry;
@@ -202,11 +209,15 @@ public class Glide {
         glide = null;
     }
 
-    Glide(Engine engine, MemoryCache memoryCache, BitmapPool bitmapPool, Context context, DecodeFormat decodeFormat) {
+    Glide(Engine engine, MemoryCache memoryCache, TransformedResourceCache transformedResourceCache,
+            BitmapPool bitmapPool, Context context, DecodeFormat decodeFormat,
+            BitmapDecoderSelector bitmapDecoderSelector) {
         this.engine = engine;
         this.bitmapPool = bitmapPool;
         this.memoryCache = memoryCache;
+        this.transformedResourceCache = transformedResourceCache;
         this.decodeFormat = decodeFormat;
+        this.bitmapDecoderSelector = bitmapDecoderSelector;
         loaderFactory = new GenericLoaderFactory(context);
         mainHandler = new Handler(Looper.getMainLooper());
         bitmapPreFiller = new BitmapPreFiller(memoryCache, bitmapPool, decodeFormat);
@@ -214,7 +225,7 @@ public class Glide {
         dataLoadProviderRegistry = new DataLoadProviderRegistry();
 
         StreamBitmapDataLoadProvider streamBitmapLoadProvider =
-                new StreamBitmapDataLoadProvider(bitmapPool, decodeFormat);
+                new StreamBitmapDataLoadProvider(bitmapPool, decodeFormat, bitmapDecoderSelector);
         dataLoadProviderRegistry.register(InputStream.class, Bitmap.class, streamBitmapLoadProvider);
 
         FileDescriptorBitmapDataLoadProvider fileDescriptorLoadProvider =
@@ -234,6 +245,9 @@ public class Glide {
 
         dataLoadProviderRegistry.register(InputStream.class, File.class, new StreamFileDataLoadProvider());
 
+        dataLoadProviderRegistry.register(InputStream.class, TiledImage.class,
+                new TiledImageLoadProvider(bitmapPool, memoryCache, decodeFormat));
+
         register(File.class, ParcelFileDescriptor.class, new FileDescriptorFileLoader.Factory());
         register(File.class, InputStream.class, new StreamFileLoader.Factory());
         register(int.class, ParcelFileDescriptor.class, new FileDescriptorResourceLoader.Factory());
@@ -323,6 +337,16 @@ public class Glide {
         return mainHandler;
     }
 
+    /**
+     * Returns the {@link com.bumptech.glide.load.resource.bitmap.BitmapDecoderSelector} that chooses between the
+     * {@link com.bumptech.glide.load.resource.bitmap.BitmapDecoderBackend}s added with
+     * {@link GlideBuilder#addBitmapDecoderBackend(com.bumptech.glide.load.resource.bitmap.BitmapDecoderBackend)}, and
+     * that records their decode statistics.
+     */
+    public BitmapDecoderSelector getBitmapDecoderSelector() {
+        return bitmapDecoderSelector;
+    }
+
     DecodeFormat getDecodeFormat() {
         return decodeFormat;
     }
@@ -361,6 +385,35 @@ public class Glide {
         bitmapPreFiller.preFill(bitmapAttributeBuilders);
     }
 
+    /**
+     * Reads the disk cache entries most likely to be requested soon, up to the given number of bytes, so that they are
+     * already in the operating system's page cache when the first loads start.
+     *
+     * <p>
+     *     Note - Warming is done asynchronously, starting the next time the main thread is idle, and only ever runs
+     *     when no load is waiting for the disk cache thread. Any currently running warm up will be cancelled and
+     *     replaced by a call to this method. Only disk caches that implement
+     *     {@link com.bumptech.glide.load.engine.cache.DiskCache.HotSetProvider}, like
+     *     {@link com.bumptech.glide.load.engine.cache.SnapshotDiskCache}, can be warmed. For
+     *     {@link com.bumptech.glide.load.engine.cache.SnapshotDiskCache} the hot entries are those used most recently
+     *     in the previous session.
+     * </p>
+     *
+     * <p>
+     *     To also have specific images decoded in to the memory cache before they are displayed, start requests for
+     *     them using {@link com.bumptech.glide.GenericRequestBuilder#preload(int, int)}.
+     * </p>
+     *
+     * <p>
+     *     This method should typically be called once, in onCreate of the first Activity or in Application#onCreate.
+     * </p>
+     *
+     * @param maxBytes The maximum number of bytes to read from the disk cache.
+     */
+    public void warmUpDiskCache(long maxBytes) {
+        engine.warmUpDiskCache(maxBytes);
+    }
+
     /**
      * Clears as much memory as possible.
      *
@@ -370,6 +423,8 @@ public class Glide {
     public void clearMemory() {
         bitmapPool.clearMemory();
         memoryCache.clearMemory();
+        transformedResourceCache.clearMemory();
+        ByteArrayPool.get().clear();
     }
 
     /**
@@ -380,6 +435,8 @@ public class Glide {
     public void trimMemory(int level) {
         bitmapPool.trimMemory(level);
         memoryCache.trimMemory(level);
+        transformedResourceCache.trimMemory(level);
+        ByteArrayPool.get().trimMemory(level);
     }
 
     /**
@@ -395,6 +452,7 @@ public class Glide {
      */
     public void setMemoryCategory(MemoryCategory memoryCategory) {
         memoryCache.setSizeMultiplier(memoryCategory.getMultiplier());
+        transformedResourceCache.setSizeMultiplier(memoryCategory.getMultiplier());
         bitmapPool.setSizeMultiplier(memoryCategory.getMultiplier());
     }
 
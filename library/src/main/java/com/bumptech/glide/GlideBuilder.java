@@ -13,11 +13,17 @@ import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
 import com.bumptech.glide.load.engine.cache.DiskCache;
 import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
 import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.LruTransformedResourceCache;
 import com.bumptech.glide.load.engine.cache.MemoryCache;
 import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.engine.executor.FifoPriorityThreadPoolExecutor;
+import com.bumptech.glide.load.resource.bitmap.BitmapDecoderBackend;
+import com.bumptech.glide.load.resource.bitmap.BitmapDecoderSelector;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -30,10 +36,12 @@ public class GlideBuilder {
     private Engine engine;
     private BitmapPool bitmapPool;
     private MemoryCache memoryCache;
+    private TransformedResourceCache transformedResourceCache;
     private ExecutorService sourceService;
     private ExecutorService diskCacheService;
     private DecodeFormat decodeFormat;
     private DiskCache.Factory diskCacheFactory;
+    private final List<BitmapDecoderBackend> bitmapDecoderBackends = new ArrayList<BitmapDecoderBackend>();
 
     public GlideBuilder(Context context) {
         this.context = context.getApplicationContext();
@@ -63,6 +71,27 @@ public class GlideBuilder {
         return this;
     }
 
+    /**
+     * Sets the {@link com.bumptech.glide.load.engine.cache.TransformedResourceCache} implementation to store decoded
+     * and transformed {@link com.bumptech.glide.load.engine.Resource}s so that loads that differ only in their
+     * transcoder or encoders can share a single decode and transform.
+     *
+     * <p>
+     *     Defaults to an {@link com.bumptech.glide.load.engine.cache.LruTransformedResourceCache} sized by
+     *     {@link com.bumptech.glide.load.engine.cache.MemorySizeCalculator#getTransformedResourceCacheSize()}. Cached
+     *     resources are shared with the loads that use them rather than copied, so resources that are also in use
+     *     don't take up any more memory. The cache can be disabled with a
+     *     {@link com.bumptech.glide.load.engine.cache.TransformedResourceCacheAdapter}.
+     * </p>
+     *
+     * @param transformedResourceCache The cache to use.
+     * @return This builder.
+     */
+    public GlideBuilder setTransformedResourceCache(TransformedResourceCache transformedResourceCache) {
+        this.transformedResourceCache = transformedResourceCache;
+        return this;
+    }
+
     /**
      * Sets the {@link com.bumptech.glide.load.engine.cache.DiskCache} implementation to use to store
      * {@link com.bumptech.glide.load.engine.Resource} data and thumbnails.
@@ -170,6 +199,24 @@ public class GlideBuilder {
         return this;
     }
 
+    /**
+     * Adds a {@link com.bumptech.glide.load.resource.bitmap.BitmapDecoderBackend} that will be used instead of the
+     * default {@link com.bumptech.glide.load.resource.bitmap.Downsampler} to decode the images from
+     * {@link java.io.InputStream}s that it can decode.
+     *
+     * <p>
+     *     Backends are tried in the order they are added. If a backend fails, the next backend or the default
+     *     decoder is used instead, see {@link com.bumptech.glide.load.resource.bitmap.BitmapDecoderSelector}.
+     * </p>
+     *
+     * @param backend The backend to add.
+     * @return This builder.
+     */
+    public GlideBuilder addBitmapDecoderBackend(BitmapDecoderBackend backend) {
+        bitmapDecoderBackends.add(backend);
+        return this;
+    }
+
     // For testing.
     GlideBuilder setEngine(Engine engine) {
         this.engine = engine;
@@ -203,18 +250,24 @@ public class GlideBuilder {
             memoryCache = new LruResourceCache(calculator.getMemoryCacheSize());
         }
 
+        if (transformedResourceCache == null) {
+            transformedResourceCache = new LruTransformedResourceCache(calculator.getTransformedResourceCacheSize());
+        }
+
         if (diskCacheFactory == null) {
             diskCacheFactory = new InternalCacheDiskCacheFactory(context, Glide.DEFAULT_DISK_CACHE_SIZE);
         }
 
         if (engine == null) {
-            engine = new Engine(memoryCache, diskCacheFactory, diskCacheService, sourceService);
+            engine = new Engine(memoryCache, transformedResourceCache, diskCacheFactory, diskCacheService,
+                    sourceService);
         }
 
         if (decodeFormat == null) {
             decodeFormat = DecodeFormat.DEFAULT;
         }
 
-        return new Glide(engine, memoryCache, bitmapPool, context, decodeFormat);
+        return new Glide(engine, memoryCache, transformedResourceCache, bitmapPool, context, decodeFormat,
+                new BitmapDecoderSelector(bitmapDecoderBackends));
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.bumptech.glide.load;
+
+import com.bumptech.glide.load.engine.Resource;
+
+import java.io.IOException;
+
+/**
+ * A {@link com.bumptech.glide.load.ResourceDecoder} that also uses a key that identifies the data it decodes, for
+ * example to cache the parts of a resource it decodes lazily, like the tiles of a
+ * {@link com.bumptech.glide.load.resource.tile.TiledImage}, in the memory cache.
+ *
+ * @param <T> The type the resource will be decoded from (File, InputStream etc).
+ * @param <Z> The type of the decoded resource (Bitmap, Drawable etc).
+ */
+public interface KeyedResourceDecoder<T, Z> extends ResourceDecoder<T, Z> {
+
+    /**
+     * Returns a decoded resource from the given data or null if no resource could be decoded, see
+     * {@link #decode(Object, int, int)}.
+     *
+     * @param source The data the resource should be decoded from.
+     * @param key A key that uniquely identifies the given data, derived from the model and signature of the load.
+     * @param width The ideal width in pixels of the decoded resource.
+     * @param height The ideal height in pixels of the decoded resource.
+     * @throws IOException
+     */
+    Resource<Z> decode(T source, Key key, int width, int height) throws IOException;
+}
@@ -4,6 +4,7 @@ import android.text.TextUtils;
 
 import com.bumptech.glide.Priority;
 import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.resource.bitmap.ImageHeaderInputStream;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -37,7 +38,8 @@ public class HttpUrlFetcher implements DataFetcher<InputStream> {
 
     @Override
     public InputStream loadData(Priority priority) throws Exception {
-        return loadDataWithRedirects(glideUrl.toURL(), 0 /*redirects*/, null /*lastUrl*/);
+        InputStream result = loadDataWithRedirects(glideUrl.toURL(), 0 /*redirects*/, null /*lastUrl*/);
+        return ImageHeaderInputStream.wrap(result, glideUrl.getImageHeader());
     }
 
     private InputStream loadDataWithRedirects(URL url, int redirects, URL lastUrl) throws IOException {
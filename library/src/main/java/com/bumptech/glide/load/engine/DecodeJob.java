@@ -1,15 +1,27 @@
 package com.bumptech.glide.load.engine;
 
+import android.graphics.Bitmap;
 import android.util.Log;
 
 import com.bumptech.glide.Priority;
 import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.KeyedResourceDecoder;
+import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.Transformation;
 import com.bumptech.glide.load.data.DataFetcher;
 import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.engine.cache.SharedResource;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCacheAdapter;
+import com.bumptech.glide.load.engine.executor.Prioritized;
+import com.bumptech.glide.load.model.ImageVideoWrapper;
+import com.bumptech.glide.load.resource.bitmap.PreviewDecoder;
+import com.bumptech.glide.load.resource.bitmap.PreviewInputStream;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 import com.bumptech.glide.provider.DataLoadProvider;
+import com.bumptech.glide.request.PreviewCallback;
+import com.bumptech.glide.util.ByteArrayPool;
 import com.bumptech.glide.util.LogTime;
 
 import java.io.BufferedOutputStream;
@@ -17,7 +29,10 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A class responsible for decoding resources either from cached data or from the original source and applying
@@ -30,6 +45,7 @@ import java.io.OutputStream;
 class DecodeJob<A, T, Z> {
     private static final String TAG = "DecodeJob";
     private static final FileOpener DEFAULT_FILE_OPENER = new FileOpener();
+    private static final TransformedResourceCache NO_TRANSFORMED_CACHE = new TransformedResourceCacheAdapter();
 
     private final EngineKey resultKey;
     private final int width;
@@ -42,6 +58,10 @@ class DecodeJob<A, T, Z> {
     private final DiskCacheStrategy diskCacheStrategy;
     private final Priority priority;
     private final FileOpener fileOpener;
+    private final PreviewDecoder previewDecoder;
+    private final ExecutorService previewService;
+    private final PreviewCallback previewCallback;
+    private final TransformedResourceCache transformedResourceCache;
 
     private volatile boolean isCancelled;
 
@@ -49,7 +69,26 @@ class DecodeJob<A, T, Z> {
             DataLoadProvider<A, T> loadProvider, Transformation<T> transformation, ResourceTranscoder<T, Z> transcoder,
             DiskCacheProvider diskCacheProvider, DiskCacheStrategy diskCacheStrategy, Priority priority) {
         this(resultKey, width, height, fetcher, loadProvider, transformation, transcoder, diskCacheProvider,
-                diskCacheStrategy, priority, DEFAULT_FILE_OPENER);
+                diskCacheStrategy, priority, null /*previewDecoder*/, null /*previewService*/,
+                null /*previewCallback*/);
+    }
+
+    public DecodeJob(EngineKey resultKey, int width, int height, DataFetcher<A> fetcher,
+            DataLoadProvider<A, T> loadProvider, Transformation<T> transformation, ResourceTranscoder<T, Z> transcoder,
+            DiskCacheProvider diskCacheProvider, DiskCacheStrategy diskCacheStrategy, Priority priority,
+            PreviewDecoder previewDecoder, ExecutorService previewService, PreviewCallback previewCallback) {
+        this(resultKey, width, height, fetcher, loadProvider, transformation, transcoder, diskCacheProvider,
+                diskCacheStrategy, priority, previewDecoder, previewService, previewCallback, NO_TRANSFORMED_CACHE);
+    }
+
+    public DecodeJob(EngineKey resultKey, int width, int height, DataFetcher<A> fetcher,
+            DataLoadProvider<A, T> loadProvider, Transformation<T> transformation, ResourceTranscoder<T, Z> transcoder,
+            DiskCacheProvider diskCacheProvider, DiskCacheStrategy diskCacheStrategy, Priority priority,
+            PreviewDecoder previewDecoder, ExecutorService previewService, PreviewCallback previewCallback,
+            TransformedResourceCache transformedResourceCache) {
+        this(resultKey, width, height, fetcher, loadProvider, transformation, transcoder, diskCacheProvider,
+                diskCacheStrategy, priority, DEFAULT_FILE_OPENER, previewDecoder, previewService, previewCallback,
+                transformedResourceCache);
     }
 
     // Visible for testing.
@@ -57,6 +96,17 @@ class DecodeJob<A, T, Z> {
             DataLoadProvider<A, T> loadProvider, Transformation<T> transformation, ResourceTranscoder<T, Z> transcoder,
             DiskCacheProvider diskCacheProvider, DiskCacheStrategy diskCacheStrategy, Priority priority, FileOpener
             fileOpener) {
+        this(resultKey, width, height, fetcher, loadProvider, transformation, transcoder, diskCacheProvider,
+                diskCacheStrategy, priority, fileOpener, null /*previewDecoder*/, null /*previewService*/,
+                null /*previewCallback*/, NO_TRANSFORMED_CACHE);
+    }
+
+    // Visible for testing.
+    DecodeJob(EngineKey resultKey, int width, int height, DataFetcher<A> fetcher,
+            DataLoadProvider<A, T> loadProvider, Transformation<T> transformation, ResourceTranscoder<T, Z> transcoder,
+            DiskCacheProvider diskCacheProvider, DiskCacheStrategy diskCacheStrategy, Priority priority, FileOpener
+            fileOpener, PreviewDecoder previewDecoder, ExecutorService previewService, PreviewCallback previewCallback,
+            TransformedResourceCache transformedResourceCache) {
         this.resultKey = resultKey;
         this.width = width;
         this.height = height;
@@ -68,17 +118,22 @@ class DecodeJob<A, T, Z> {
         this.diskCacheStrategy = diskCacheStrategy;
         this.priority = priority;
         this.fileOpener = fileOpener;
+        this.previewDecoder = previewDecoder;
+        this.previewService = previewService;
+        this.previewCallback = previewCallback;
+        this.transformedResourceCache = transformedResourceCache;
     }
 
     /**
-     * Returns a transcoded resource decoded from transformed resource data in the disk cache, or null if no such
-     * resource exists.
+     * Returns a transcoded resource obtained from the in memory cache of transformed resources or decoded from
+     * transformed resource data in the disk cache, or null if no such resource exists.
      *
      * @throws Exception
      */
     public Resource<Z> decodeResultFromCache() throws Exception {
-        if (!diskCacheStrategy.cacheResult()) {
-            return null;
+        Resource<Z> memoized = transcodeFromTransformedCache();
+        if (memoized != null || !diskCacheStrategy.cacheResult()) {
+            return memoized;
         }
 
         long startTime = LogTime.getLogTime();
@@ -86,8 +141,9 @@ class DecodeJob<A, T, Z> {
         if (Log.isLoggable(TAG, Log.VERBOSE)) {
             logWithTimeAndKey("Decoded transformed from cache", startTime);
         }
+        Resource<T> toTranscode = writeTransformedToMemory(transformed);
         startTime = LogTime.getLogTime();
-        Resource<Z> result = transcode(transformed);
+        Resource<Z> result = transcode(toTranscode, toTranscode != transformed);
         if (Log.isLoggable(TAG, Log.VERBOSE)) {
             logWithTimeAndKey("Transcoded transformed from cache", startTime);
         }
@@ -142,9 +198,10 @@ class DecodeJob<A, T, Z> {
         }
 
         writeTransformedToCache(transformed);
+        Resource<T> toTranscode = writeTransformedToMemory(transformed);
 
         startTime = LogTime.getLogTime();
-        Resource<Z> result = transcode(transformed);
+        Resource<Z> result = transcode(toTranscode, toTranscode != transformed);
         if (Log.isLoggable(TAG, Log.VERBOSE)) {
             logWithTimeAndKey("Transcoded transformed from source", startTime);
         }
@@ -163,8 +220,73 @@ class DecodeJob<A, T, Z> {
         }
     }
 
+    private Resource<Z> transcodeFromTransformedCache() {
+        long startTime = LogTime.getLogTime();
+        Resource<T> transformed = getTransformedFromMemory();
+        if (transformed == null) {
+            return null;
+        }
+        if (Log.isLoggable(TAG, Log.VERBOSE)) {
+            logWithTimeAndKey("Obtained transformed from memory", startTime);
+        }
+        return transcode(transformed, true /*isShared*/);
+    }
+
+    /**
+     * Caches the given resource in memory if possible and returns the resource to transcode, which is either the given
+     * resource, if it wasn't cached, or a reference to the cached resource that owns the given resource.
+     */
+    private Resource<T> writeTransformedToMemory(Resource<T> transformed) {
+        final TransformedResourceCache.Converter<T> converter = loadProvider.getTransformedResourceConverter();
+        if (transformed == null || converter == null) {
+            return transformed;
+        }
+        final Resource<?> toShare = converter.getShared(transformed);
+        if (toShare == null) {
+            return transformed;
+        }
+        long startTime = LogTime.getLogTime();
+        final SharedResource<?> shared = share(toShare, transformed);
+        // Acquired first so that the resource can't be recycled if it's evicted as soon as it's cached.
+        final Resource<?> reference = shared.acquire();
+        final boolean isCached;
+        if (converter.isComplete()) {
+            isCached = transformedResourceCache.putStill(resultKey.getTransformedKey(), shared);
+        } else {
+            isCached = transformedResourceCache.put(resultKey.getTransformedKey(), shared);
+        }
+        if (!isCached) {
+            return transformed;
+        }
+        if (Log.isLoggable(TAG, Log.VERBOSE)) {
+            logWithTimeAndKey("Wrote transformed to memory", startTime);
+        }
+        return converter.wrapShared(reference);
+    }
+
+    private static <R> SharedResource<R> share(Resource<R> resource, Resource<?> owner) {
+        return new SharedResource<R>(resource, owner);
+    }
+
+    private Resource<T> getTransformedFromMemory() {
+        final TransformedResourceCache.Converter<T> converter = loadProvider.getTransformedResourceConverter();
+        if (converter == null) {
+            return null;
+        }
+        final Resource<?> reference;
+        if (converter.isComplete()) {
+            // Resources cached by other loads may be the first frame of an animation that this load would decode as an
+            // animation, so only complete resources are used.
+            reference = transformedResourceCache.getStill(resultKey.getTransformedKey());
+        } else {
+            reference = transformedResourceCache.get(resultKey.getTransformedKey());
+        }
+        return reference != null ? converter.wrapShared(reference) : null;
+    }
+
     private Resource<T> decodeSource() throws Exception {
         Resource<T> decoded = null;
+        PreviewInputStream previewStream = null;
         try {
             long startTime = LogTime.getLogTime();
             final A data = fetcher.loadData(priority);
@@ -174,20 +296,45 @@ class DecodeJob<A, T, Z> {
             if (isCancelled) {
                 return null;
             }
-            decoded = decodeFromSourceData(data);
+            previewStream = getPreviewStream(data);
+            decoded = decodeFromSourceData(previewStream != null ? wrapForPreviews(data, previewStream) : data);
         } finally {
+            if (previewStream != null) {
+                // The fetcher closes the stream it opened, but only the preview stream holds the pooled prefix.
+                previewStream.releasePrefix();
+            }
             fetcher.cleanup();
         }
         return decoded;
     }
 
+    private PreviewInputStream getPreviewStream(A data) {
+        if (previewDecoder == null || previewService == null || previewCallback == null) {
+            return null;
+        }
+        if (data instanceof InputStream) {
+            return new PreviewInputStream((InputStream) data, new PreviewListener());
+        } else if (data instanceof ImageVideoWrapper && ((ImageVideoWrapper) data).getStream() != null) {
+            return new PreviewInputStream(((ImageVideoWrapper) data).getStream(), new PreviewListener());
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private A wrapForPreviews(A data, PreviewInputStream previewStream) {
+        if (data instanceof ImageVideoWrapper) {
+            return (A) new ImageVideoWrapper(previewStream, ((ImageVideoWrapper) data).getFileDescriptor());
+        }
+        return (A) previewStream;
+    }
+
     private Resource<T> decodeFromSourceData(A data) throws IOException {
         final Resource<T> decoded;
         if (diskCacheStrategy.cacheSource()) {
             decoded = cacheAndDecodeSourceData(data);
         } else {
             long startTime = LogTime.getLogTime();
-            decoded = loadProvider.getSourceDecoder().decode(data, width, height);
+            decoded = decodeWithSourceDecoder(data);
             if (Log.isLoggable(TAG, Log.VERBOSE)) {
                 logWithTimeAndKey("Decoded from source", startTime);
             }
@@ -195,6 +342,16 @@ class DecodeJob<A, T, Z> {
         return decoded;
     }
 
+    @SuppressWarnings("unchecked")
+    private Resource<T> decodeWithSourceDecoder(A data) throws IOException {
+        final ResourceDecoder<A, T> decoder = loadProvider.getSourceDecoder();
+        if (decoder instanceof KeyedResourceDecoder) {
+            // Source data isn't in the disk cache, so only the key of the load identifies it.
+            return ((KeyedResourceDecoder<A, T>) decoder).decode(data, resultKey.getOriginalKey(), width, height);
+        }
+        return decoder.decode(data, width, height);
+    }
+
     private Resource<T> cacheAndDecodeSourceData(A data) throws IOException {
         long startTime = LogTime.getLogTime();
         SourceWriter<A> writer = new SourceWriter<A>(loadProvider.getSourceEncoder(), data);
@@ -240,17 +397,119 @@ class DecodeJob<A, T, Z> {
         return transformed;
     }
 
-    private Resource<Z> transcode(Resource<T> transformed) {
+    private Resource<Z> transcode(Resource<T> transformed, boolean isShared) {
         if (transformed == null) {
             return null;
         }
-        return transcoder.transcode(transformed);
+        final Resource<Z> transcoded = transcoder.transcode(transformed);
+        if (!isShared || transcoded == null) {
+            return transcoded;
+        }
+        return new SharedTranscodedResource<Z>(transcoded, transformed);
     }
 
     private void logWithTimeAndKey(String message, long startTime) {
         Log.v(TAG, message + " in " + LogTime.getElapsedMillis(startTime) + resultKey);
     }
 
+    /**
+     * Wraps a resource transcoded from a reference to a shared resource so that recycling it only releases the
+     * reference, rather than, for example, returning the shared {@link android.graphics.Bitmap} to the pool.
+     */
+    private static class SharedTranscodedResource<Z> implements Resource<Z> {
+        private final Resource<Z> transcoded;
+        private final Resource<?> reference;
+
+        public SharedTranscodedResource(Resource<Z> transcoded, Resource<?> reference) {
+            this.transcoded = transcoded;
+            this.reference = reference;
+        }
+
+        @Override
+        public Z get() {
+            return transcoded.get();
+        }
+
+        @Override
+        public int getSize() {
+            return transcoded.getSize();
+        }
+
+        @Override
+        public void recycle() {
+            reference.recycle();
+        }
+    }
+
+    private class PreviewListener implements PreviewInputStream.PrefixListener {
+        // Only one preview is decoded at a time, prefixes that arrive while a preview is decoding are skipped.
+        private final AtomicBoolean isDecoding = new AtomicBoolean();
+        private boolean isTypeChecked;
+
+        @Override
+        public boolean onPrefixAvailable(byte[] data, int length) {
+            if (isCancelled) {
+                return false;
+            }
+            if (!isTypeChecked) {
+                if (!previewDecoder.canDecode(data, length)) {
+                    return false;
+                }
+                isTypeChecked = true;
+            }
+            if (isDecoding.compareAndSet(false, true)) {
+                // Decode from a copy so that the thread reading the source isn't blocked while the preview decodes.
+                byte[] copy = ByteArrayPool.get().getBytes(length);
+                System.arraycopy(data, 0, copy, 0, length);
+                previewService.submit(new PreviewRunnable(this, copy, length));
+            }
+            return true;
+        }
+
+        private void decode(byte[] data, int length) {
+            try {
+                if (isCancelled) {
+                    return;
+                }
+                long startTime = LogTime.getLogTime();
+                Resource<Bitmap> preview = previewDecoder.decode(data, length, width, height);
+                if (preview != null) {
+                    if (Log.isLoggable(TAG, Log.VERBOSE)) {
+                        logWithTimeAndKey("Decoded preview from " + length + " bytes", startTime);
+                    }
+                    previewCallback.onPreviewReady(preview);
+                }
+            } finally {
+                ByteArrayPool.get().releaseBytes(data);
+                isDecoding.set(false);
+            }
+        }
+    }
+
+    private class PreviewRunnable implements Runnable, Prioritized {
+        private final PreviewListener listener;
+        private final byte[] data;
+        private final int length;
+
+        public PreviewRunnable(PreviewListener listener, byte[] data, int length) {
+            this.listener = listener;
+            this.data = data;
+            this.length = length;
+        }
+
+        @Override
+        public void run() {
+            listener.decode(data, length);
+        }
+
+        @Override
+        public int getPriority() {
+            // Previews share the disk cache executor, so they run after any load waiting on it, but before the disk
+            // cache is warmed, with previews for higher priority loads first.
+            return Priority.values().length + priority.ordinal();
+        }
+    }
+
     class SourceWriter<DataType> implements DiskCache.Writer {
 
         private final Encoder<DataType> encoder;
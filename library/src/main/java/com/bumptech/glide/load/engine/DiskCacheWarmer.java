@@ -0,0 +1,134 @@
+package com.bumptech.glide.load.engine;
+
+import android.util.Log;
+
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.engine.executor.Prioritized;
+import com.bumptech.glide.util.ByteArrayPool;
+import com.bumptech.glide.util.LogTime;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A runnable that reads the hot files from a {@link com.bumptech.glide.load.engine.cache.DiskCache.HotSetProvider} so
+ * that their metadata and contents are in the operating system's page cache before they are first requested.
+ *
+ * <p>
+ *     Files are read in chunks of a limited number of bytes. After each chunk this class submits itself to the
+ *     executor again with a priority lower than any load so that warming the cache never delays loads queued on the
+ *     same thread.
+ * </p>
+ */
+class DiskCacheWarmer implements Runnable, Prioritized {
+    private static final String TAG = "DiskCacheWarmer";
+    // 512 KB.
+    static final int CHUNK_BYTES = 512 * 1024;
+    // Lower priority than any load, see Priority.
+    private static final int PRIORITY = Integer.MAX_VALUE;
+
+    private final DecodeJob.DiskCacheProvider diskCacheProvider;
+    private final ExecutorService executorService;
+    private final long maxBytes;
+
+    private List<File> files;
+    private int fileIndex;
+    private long bytesRead;
+    private long startTime;
+    private volatile boolean isCancelled;
+
+    public DiskCacheWarmer(DecodeJob.DiskCacheProvider diskCacheProvider, ExecutorService executorService,
+            long maxBytes) {
+        this.diskCacheProvider = diskCacheProvider;
+        this.executorService = executorService;
+        this.maxBytes = maxBytes;
+    }
+
+    public void start() {
+        executorService.submit(this);
+    }
+
+    public void cancel() {
+        isCancelled = true;
+    }
+
+    @Override
+    public void run() {
+        if (isCancelled) {
+            return;
+        }
+        if (files == null) {
+            startTime = LogTime.getLogTime();
+            DiskCache diskCache = diskCacheProvider.getDiskCache();
+            if (!(diskCache instanceof DiskCache.HotSetProvider)) {
+                if (Log.isLoggable(TAG, Log.DEBUG)) {
+                    Log.d(TAG, "Disk cache can't provide hot files, not warming: " + diskCache);
+                }
+                return;
+            }
+            files = ((DiskCache.HotSetProvider) diskCache).getHotFiles(maxBytes);
+        }
+
+        long chunkRead = 0;
+        byte[] buffer = ByteArrayPool.get().getBytes();
+        try {
+            while (!isCancelled && fileIndex < files.size() && chunkRead < CHUNK_BYTES) {
+                chunkRead += readFully(files.get(fileIndex), buffer);
+                fileIndex++;
+            }
+        } finally {
+            ByteArrayPool.get().releaseBytes(buffer);
+        }
+        bytesRead += chunkRead;
+
+        if (isCancelled) {
+            return;
+        }
+        if (fileIndex < files.size()) {
+            executorService.submit(this);
+        } else if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, "Warmed " + files.size() + " files, " + bytesRead + " bytes in "
+                    + LogTime.getElapsedMillis(startTime) + "ms");
+        }
+    }
+
+    @Override
+    public int getPriority() {
+        return PRIORITY;
+    }
+
+    // Visible for testing.
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    private static long readFully(File file, byte[] buffer) {
+        long read = 0;
+        InputStream is = null;
+        try {
+            is = new FileInputStream(file);
+            int count;
+            while ((count = is.read(buffer)) != -1) {
+                read += count;
+            }
+        } catch (IOException e) {
+            // The file may have been evicted or deleted since the hot files were listed.
+            if (Log.isLoggable(TAG, Log.VERBOSE)) {
+                Log.v(TAG, "Unable to warm file: " + file, e);
+            }
+        } finally {
+            if (is != null) {
+                try {
+                    is.close();
+                } catch (IOException e) {
+                    // Ignored.
+                }
+            }
+        }
+        return read;
+    }
+}
@@ -10,6 +10,9 @@ import com.bumptech.glide.load.Transformation;
 import com.bumptech.glide.load.data.DataFetcher;
 import com.bumptech.glide.load.engine.cache.DiskCache;
 import com.bumptech.glide.load.engine.cache.MemoryCache;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCacheAdapter;
+import com.bumptech.glide.load.resource.bitmap.PreviewDecoder;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 import com.bumptech.glide.provider.DataLoadProvider;
 import com.bumptech.glide.request.ResourceCallback;
@@ -36,6 +39,9 @@ public class Engine implements EngineJobListener,
     private final Map<Key, WeakReference<EngineResource<?>>> activeResources;
     private final ResourceRecycler resourceRecycler;
     private final LazyDiskCacheProvider diskCacheProvider;
+    private final ExecutorService diskCacheService;
+    private final TransformedResourceCache transformedResourceCache;
+    private DiskCacheWarmer diskCacheWarmer;
 
     // Lazily instantiate to avoid exceptions if Glide is initialized on a background thread. See #295.
     private ReferenceQueue<EngineResource<?>> resourceReferenceQueue;
@@ -59,7 +65,23 @@ public class Engine implements EngineJobListener,
 
     public Engine(MemoryCache memoryCache, DiskCache.Factory diskCacheFactory, ExecutorService diskCacheService,
             ExecutorService sourceService) {
-        this(memoryCache, diskCacheFactory, diskCacheService, sourceService, null, null, null, null, null);
+        this(memoryCache, new TransformedResourceCacheAdapter(), diskCacheFactory, diskCacheService, sourceService);
+    }
+
+    /**
+     * Constructor for Engine.
+     *
+     * @param memoryCache The cache for transcoded resources that are not currently in use.
+     * @param transformedResourceCache The cache for transformed resources that loads differing only in their
+     *                                 transcoder or encoders can share.
+     * @param diskCacheFactory The factory for the disk cache.
+     * @param diskCacheService The service to use to load resources from the disk cache.
+     * @param sourceService The service to use to load resources from their source.
+     */
+    public Engine(MemoryCache memoryCache, TransformedResourceCache transformedResourceCache,
+            DiskCache.Factory diskCacheFactory, ExecutorService diskCacheService, ExecutorService sourceService) {
+        this(memoryCache, diskCacheFactory, diskCacheService, sourceService, null, null, null, null, null,
+                transformedResourceCache);
     }
 
     // Visible for testing.
@@ -67,8 +89,18 @@ public class Engine implements EngineJobListener,
             ExecutorService sourceService, Map<Key, EngineJob> jobs, EngineKeyFactory keyFactory,
             Map<Key, WeakReference<EngineResource<?>>> activeResources, EngineJobFactory engineJobFactory,
             ResourceRecycler resourceRecycler) {
+        this(cache, diskCacheFactory, diskCacheService, sourceService, jobs, keyFactory, activeResources,
+                engineJobFactory, resourceRecycler, new TransformedResourceCacheAdapter());
+    }
+
+    private Engine(MemoryCache cache, DiskCache.Factory diskCacheFactory, ExecutorService diskCacheService,
+            ExecutorService sourceService, Map<Key, EngineJob> jobs, EngineKeyFactory keyFactory,
+            Map<Key, WeakReference<EngineResource<?>>> activeResources, EngineJobFactory engineJobFactory,
+            ResourceRecycler resourceRecycler, TransformedResourceCache transformedResourceCache) {
         this.cache = cache;
+        this.transformedResourceCache = transformedResourceCache;
         this.diskCacheProvider = new LazyDiskCacheProvider(diskCacheFactory);
+        this.diskCacheService = diskCacheService;
 
         if (activeResources == null) {
             activeResources = new HashMap<Key, WeakReference<EngineResource<?>>>();
@@ -98,6 +130,19 @@ public class Engine implements EngineJobListener,
         cache.setResourceRemovedListener(this);
     }
 
+    /**
+     * Starts a load for the given arguments without decoding previews. Must be called on the main thread.
+     *
+     * @see #load(Key, int, int, DataFetcher, DataLoadProvider, Transformation, ResourceTranscoder, Priority,
+     * boolean, DiskCacheStrategy, PreviewDecoder, ResourceCallback)
+     */
+    public <T, Z, R> LoadStatus load(Key signature, int width, int height, DataFetcher<T> fetcher,
+            DataLoadProvider<T, Z> loadProvider, Transformation<Z> transformation, ResourceTranscoder<Z, R> transcoder,
+            Priority priority, boolean isMemoryCacheable, DiskCacheStrategy diskCacheStrategy, ResourceCallback cb) {
+        return load(signature, width, height, fetcher, loadProvider, transformation, transcoder, priority,
+                isMemoryCacheable, diskCacheStrategy, null /*previewDecoder*/, cb);
+    }
+
     /**
      * Starts a load for the given arguments. Must be called on the main thread.
      *
@@ -132,6 +177,9 @@ public class Engine implements EngineJobListener,
      * @param isMemoryCacheable True if the transcoded resource can be cached in memory.
      * @param diskCacheStrategy The strategy to use that determines what type of data, if any,
      *                          will be cached in the local disk cache.
+     * @param previewDecoder The decoder to use to decode previews from source data as it arrives, or null if no
+     *                       previews should be decoded. Previews are decoded on the disk cache service, which is
+     *                       otherwise idle while source data is fetched.
      * @param cb The callback that will be called when the load completes.
      *
      * @param <T> The type of data the resource will be decoded from.
@@ -140,14 +188,15 @@ public class Engine implements EngineJobListener,
      */
     public <T, Z, R> LoadStatus load(Key signature, int width, int height, DataFetcher<T> fetcher,
             DataLoadProvider<T, Z> loadProvider, Transformation<Z> transformation, ResourceTranscoder<Z, R> transcoder,
-            Priority priority, boolean isMemoryCacheable, DiskCacheStrategy diskCacheStrategy, ResourceCallback cb) {
+            Priority priority, boolean isMemoryCacheable, DiskCacheStrategy diskCacheStrategy,
+            PreviewDecoder previewDecoder, ResourceCallback cb) {
         Util.assertMainThread();
         long startTime = LogTime.getLogTime();
 
         final String id = fetcher.getId();
         EngineKey key = keyFactory.buildKey(id, signature, width, height, loadProvider.getCacheDecoder(),
                 loadProvider.getSourceDecoder(), transformation, loadProvider.getEncoder(),
-                transcoder, loadProvider.getSourceEncoder());
+                transcoder, loadProvider.getSourceEncoder(), loadProvider.getTransformedResourceConverter());
 
         EngineResource<?> cached = loadFromCache(key, isMemoryCacheable);
         if (cached != null) {
@@ -178,7 +227,8 @@ public class Engine implements EngineJobListener,
 
         EngineJob engineJob = engineJobFactory.build(key, isMemoryCacheable);
         DecodeJob<T, Z, R> decodeJob = new DecodeJob<T, Z, R>(key, width, height, fetcher, loadProvider, transformation,
-                transcoder, diskCacheProvider, diskCacheStrategy, priority);
+                transcoder, diskCacheProvider, diskCacheStrategy, priority, previewDecoder, diskCacheService, engineJob,
+                transformedResourceCache);
         EngineRunnable runnable = new EngineRunnable(engineJob, decodeJob, priority);
         jobs.put(key, engineJob);
         engineJob.addCallback(cb);
@@ -190,6 +240,35 @@ public class Engine implements EngineJobListener,
         return new LoadStatus(cb, engineJob);
     }
 
+    /**
+     * Reads up to the given number of bytes of the entries in the disk cache that are most likely to be requested
+     * soon so that they are in the operating system's page cache when they are requested. Must be called on the main
+     * thread.
+     *
+     * <p>
+     *     Warming starts the next time the main thread is idle and runs on the disk cache thread at a lower priority
+     *     than any load. Any warm up that is still running is cancelled. Disk caches that don't implement
+     *     {@link com.bumptech.glide.load.engine.cache.DiskCache.HotSetProvider} are not warmed.
+     * </p>
+     *
+     * @param maxBytes The maximum number of bytes to read.
+     */
+    public void warmUpDiskCache(long maxBytes) {
+        Util.assertMainThread();
+        if (diskCacheWarmer != null) {
+            diskCacheWarmer.cancel();
+        }
+        final DiskCacheWarmer warmer = new DiskCacheWarmer(diskCacheProvider, diskCacheService, maxBytes);
+        diskCacheWarmer = warmer;
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                warmer.start();
+                return false;
+            }
+        });
+    }
+
     private static void logWithTimeAndKey(String log, long startTime, Key key) {
         Log.v(TAG, log + " in " + LogTime.getElapsedMillis(startTime) + "ms, key: " + key);
     }
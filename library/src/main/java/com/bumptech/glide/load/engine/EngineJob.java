@@ -1,10 +1,12 @@
 package com.bumptech.glide.load.engine;
 
+import android.graphics.Bitmap;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
 
 import com.bumptech.glide.load.Key;
+import com.bumptech.glide.request.PreviewCallback;
 import com.bumptech.glide.request.ResourceCallback;
 import com.bumptech.glide.util.Util;
 
@@ -19,12 +21,13 @@ import java.util.concurrent.Future;
  * A class that manages a load by adding and removing callbacks for for the load and notifying callbacks when the
  * load completes.
  */
-class EngineJob implements EngineRunnable.EngineRunnableManager {
+class EngineJob implements EngineRunnable.EngineRunnableManager, PreviewCallback {
     private static final EngineResourceFactory DEFAULT_FACTORY = new EngineResourceFactory();
     private static final Handler MAIN_THREAD_HANDLER = new Handler(Looper.getMainLooper(), new MainThreadCallback());
 
     private static final int MSG_COMPLETE = 1;
     private static final int MSG_EXCEPTION = 2;
+    private static final int MSG_PREVIEW = 3;
 
     private final List<ResourceCallback> cbs = new ArrayList<ResourceCallback>();
     private final EngineResourceFactory engineResourceFactory;
@@ -45,6 +48,8 @@ class EngineJob implements EngineRunnable.EngineRunnableManager {
     private Set<ResourceCallback> ignoredCallbacks;
     private EngineRunnable engineRunnable;
     private EngineResource<?> engineResource;
+    // The most recent preview passed to callbacks, only accessed on the main thread.
+    private Resource<Bitmap> preview;
 
     private volatile Future<?> future;
 
@@ -81,6 +86,9 @@ class EngineJob implements EngineRunnable.EngineRunnableManager {
             cb.onException(exception);
         } else {
             cbs.add(cb);
+            if (preview != null && cb instanceof PreviewCallback) {
+                ((PreviewCallback) cb).onPreviewReady(preview);
+            }
         }
     }
 
@@ -123,6 +131,11 @@ class EngineJob implements EngineRunnable.EngineRunnableManager {
             currentFuture.cancel(true);
         }
         isCancelled = true;
+        // Jobs are only cancelled once all requests are cleared and their targets show placeholders instead.
+        if (preview != null) {
+            preview.recycle();
+            preview = null;
+        }
         listener.onEngineJobCancelled(this, key);
     }
 
@@ -160,6 +173,9 @@ class EngineJob implements EngineRunnable.EngineRunnableManager {
         }
         // Our request is complete, so we can release the resource.
         engineResource.release();
+        // Targets may still be animating from the last preview, so leave it to be garbage collected rather than
+        // returning it to the pool.
+        preview = null;
     }
 
     @Override
@@ -183,6 +199,36 @@ class EngineJob implements EngineRunnable.EngineRunnableManager {
                 cb.onException(exception);
             }
         }
+        // Targets may still display the last preview if they don't set an error drawable.
+        preview = null;
+    }
+
+    @Override
+    public void onPreviewReady(Resource<Bitmap> preview) {
+        MAIN_THREAD_HANDLER.obtainMessage(MSG_PREVIEW, new PreviewMessage(this, preview)).sendToTarget();
+    }
+
+    private void handlePreviewOnMainThread(Resource<Bitmap> newPreview) {
+        if (isCancelled || hasResource || hasException) {
+            newPreview.recycle();
+            return;
+        }
+
+        // Callbacks may remove themselves or other callbacks when notified.
+        for (ResourceCallback cb : new ArrayList<ResourceCallback>(cbs)) {
+            if (cb instanceof PreviewCallback && cbs.contains(cb)) {
+                ((PreviewCallback) cb).onPreviewReady(newPreview);
+            }
+        }
+        if (isCancelled) {
+            newPreview.recycle();
+            return;
+        }
+        // Every remaining callback has replaced the previous preview with the new one, so it's safe to reuse it.
+        if (preview != null) {
+            preview.recycle();
+        }
+        preview = newPreview;
     }
 
     // Visible for testing.
@@ -192,10 +238,25 @@ class EngineJob implements EngineRunnable.EngineRunnableManager {
         }
     }
 
+    private static class PreviewMessage {
+        final EngineJob job;
+        final Resource<Bitmap> preview;
+
+        PreviewMessage(EngineJob job, Resource<Bitmap> preview) {
+            this.job = job;
+            this.preview = preview;
+        }
+    }
+
     private static class MainThreadCallback implements Handler.Callback {
 
         @Override
         public boolean handleMessage(Message message) {
+            if (MSG_PREVIEW == message.what) {
+                PreviewMessage previewMessage = (PreviewMessage) message.obj;
+                previewMessage.job.handlePreviewOnMainThread(previewMessage.preview);
+                return true;
+            }
             if (MSG_COMPLETE == message.what || MSG_EXCEPTION == message.what) {
                 EngineJob job = (EngineJob) message.obj;
                 if (MSG_COMPLETE == message.what) {
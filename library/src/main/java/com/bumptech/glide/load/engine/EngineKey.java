@@ -5,10 +5,11 @@ import com.bumptech.glide.load.Key;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
 import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
+import com.bumptech.glide.util.Util;
 
 import java.io.UnsupportedEncodingException;
-import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 
 @SuppressWarnings("rawtypes")
@@ -22,14 +23,16 @@ class EngineKey implements Key {
     private final ResourceEncoder encoder;
     private final ResourceTranscoder transcoder;
     private final Encoder sourceEncoder;
+    private final TransformedResourceCache.Converter converter;
     private final Key signature;
     private String stringKey;
     private int hashCode;
     private Key originalKey;
+    private Key transformedKey;
 
     public EngineKey(String id, Key signature, int width, int height, ResourceDecoder cacheDecoder,
             ResourceDecoder decoder, Transformation transformation, ResourceEncoder encoder,
-            ResourceTranscoder transcoder, Encoder sourceEncoder) {
+            ResourceTranscoder transcoder, Encoder sourceEncoder, TransformedResourceCache.Converter converter) {
         this.id = id;
         this.signature = signature;
         this.width = width;
@@ -40,6 +43,7 @@ class EngineKey implements Key {
         this.encoder = encoder;
         this.transcoder = transcoder;
         this.sourceEncoder = sourceEncoder;
+        this.converter = converter;
     }
 
     public Key getOriginalKey() {
@@ -49,6 +53,29 @@ class EngineKey implements Key {
         return originalKey;
     }
 
+    /**
+     * Returns a key for the decoded and transformed resource that ignores the transcoder, encoders and cache decoder,
+     * which don't change the transformed resource.
+     *
+     * <p>
+     *     Loads with a {@link com.bumptech.glide.load.engine.cache.TransformedResourceCache.Converter} are keyed by the
+     *     id of the decoder it names so that they share keys with loads that use that decoder directly.
+     * </p>
+     */
+    public Key getTransformedKey() {
+        if (transformedKey == null) {
+            final String decoderId;
+            if (converter != null) {
+                decoderId = converter.getSharedDecoderId();
+            } else {
+                decoderId = decoder != null ? decoder.getId() : "";
+            }
+            transformedKey = new TransformedKey(id, signature, width, height, decoderId,
+                    transformation != null ? transformation.getId() : "");
+        }
+        return transformedKey;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -134,18 +161,15 @@ class EngineKey implements Key {
 
     @Override
     public void updateDiskCacheKey(MessageDigest messageDigest) throws UnsupportedEncodingException {
-        byte[] dimensions = ByteBuffer.allocate(8)
-                .putInt(width)
-                .putInt(height)
-                .array();
         signature.updateDiskCacheKey(messageDigest);
-        messageDigest.update(id.getBytes(STRING_CHARSET_NAME));
-        messageDigest.update(dimensions);
-        messageDigest.update((cacheDecoder   != null ? cacheDecoder  .getId() : "").getBytes(STRING_CHARSET_NAME));
-        messageDigest.update((decoder        != null ? decoder       .getId() : "").getBytes(STRING_CHARSET_NAME));
-        messageDigest.update((transformation != null ? transformation.getId() : "").getBytes(STRING_CHARSET_NAME));
-        messageDigest.update((encoder        != null ? encoder       .getId() : "").getBytes(STRING_CHARSET_NAME));
+        Util.updateDigestWithUtf8(messageDigest, id);
+        Util.updateDigestWithInt(messageDigest, width);
+        Util.updateDigestWithInt(messageDigest, height);
+        Util.updateDigestWithUtf8(messageDigest, cacheDecoder   != null ? cacheDecoder  .getId() : "");
+        Util.updateDigestWithUtf8(messageDigest, decoder        != null ? decoder       .getId() : "");
+        Util.updateDigestWithUtf8(messageDigest, transformation != null ? transformation.getId() : "");
+        Util.updateDigestWithUtf8(messageDigest, encoder        != null ? encoder       .getId() : "");
         // The Transcoder is not included in the disk cache key because its result is not cached.
-        messageDigest.update((sourceEncoder  != null ? sourceEncoder .getId() : "").getBytes(STRING_CHARSET_NAME));
+        Util.updateDigestWithUtf8(messageDigest, sourceEncoder  != null ? sourceEncoder .getId() : "");
     }
 }
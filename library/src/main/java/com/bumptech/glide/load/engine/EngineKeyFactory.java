@@ -5,6 +5,7 @@ import com.bumptech.glide.load.Key;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
 import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 
 class EngineKeyFactory {
@@ -12,9 +13,9 @@ class EngineKeyFactory {
     @SuppressWarnings("rawtypes")
     public EngineKey buildKey(String id, Key signature, int width, int height, ResourceDecoder cacheDecoder,
             ResourceDecoder sourceDecoder, Transformation transformation, ResourceEncoder encoder,
-            ResourceTranscoder transcoder, Encoder sourceEncoder) {
+            ResourceTranscoder transcoder, Encoder sourceEncoder, TransformedResourceCache.Converter converter) {
         return new EngineKey(id, signature, width, height, cacheDecoder, sourceDecoder, transformation, encoder,
-                transcoder, sourceEncoder);
+                transcoder, sourceEncoder, converter);
     }
 
 }
@@ -1,6 +1,8 @@
 package com.bumptech.glide.load.engine;
 
 import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.cache.TieredDiskCache;
+import com.bumptech.glide.util.Util;
 
 import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
@@ -8,7 +10,7 @@ import java.security.MessageDigest;
 /**
  * A class for keeping track of the cache key of the original data + any requested signature.
  */
-class OriginalKey implements Key {
+class OriginalKey implements Key, TieredDiskCache.SourceKey {
 
     private final String id;
     private final Key signature;
@@ -48,7 +50,7 @@ class OriginalKey implements Key {
 
     @Override
     public void updateDiskCacheKey(MessageDigest messageDigest) throws UnsupportedEncodingException {
-        messageDigest.update(id.getBytes(STRING_CHARSET_NAME));
+        Util.updateDigestWithUtf8(messageDigest, id);
         signature.updateDiskCacheKey(messageDigest);
     }
 }
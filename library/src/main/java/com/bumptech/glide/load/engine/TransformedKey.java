@@ -0,0 +1,76 @@
+package com.bumptech.glide.load.engine;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.util.Util;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+
+/**
+ * A class for keeping track of the cache key of a decoded and transformed, but not yet transcoded or encoded,
+ * resource, which is shared by all {@link com.bumptech.glide.load.engine.EngineKey}s that differ only in their
+ * transcoder, encoders or cache decoder.
+ */
+class TransformedKey implements Key {
+    private final String id;
+    private final Key signature;
+    private final int width;
+    private final int height;
+    private final String decoderId;
+    private final String transformationId;
+
+    public TransformedKey(String id, Key signature, int width, int height, String decoderId,
+            String transformationId) {
+        this.id = id;
+        this.signature = signature;
+        this.width = width;
+        this.height = height;
+        this.decoderId = decoderId;
+        this.transformationId = transformationId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        TransformedKey that = (TransformedKey) o;
+
+        return id.equals(that.id)
+                && signature.equals(that.signature)
+                && width == that.width
+                && height == that.height
+                && decoderId.equals(that.decoderId)
+                && transformationId.equals(that.transformationId);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id.hashCode();
+        result = 31 * result + signature.hashCode();
+        result = 31 * result + width;
+        result = 31 * result + height;
+        result = 31 * result + decoderId.hashCode();
+        result = 31 * result + transformationId.hashCode();
+        return result;
+    }
+
+    @Override
+    public void updateDiskCacheKey(MessageDigest messageDigest) throws UnsupportedEncodingException {
+        signature.updateDiskCacheKey(messageDigest);
+        Util.updateDigestWithUtf8(messageDigest, id);
+        Util.updateDigestWithInt(messageDigest, width);
+        Util.updateDigestWithInt(messageDigest, height);
+        Util.updateDigestWithUtf8(messageDigest, decoderId);
+        Util.updateDigestWithUtf8(messageDigest, transformationId);
+    }
+
+    @Override
+    public String toString() {
+        return "TransformedKey{" + id + signature + width + height + decoderId + transformationId + "}";
+    }
+}
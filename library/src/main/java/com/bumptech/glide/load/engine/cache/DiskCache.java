@@ -3,6 +3,7 @@ package com.bumptech.glide.load.engine.cache;
 import com.bumptech.glide.load.Key;
 
 import java.io.File;
+import java.util.List;
 
 /**
  * An interface for writing to and reading from a disk cache.
@@ -32,6 +33,64 @@ public interface DiskCache {
         boolean write(File file);
     }
 
+    /**
+     * An optional interface for disk caches that can tell which of their entries are likely to be requested soon,
+     * typically because they were used most recently in the previous session.
+     *
+     * @see com.bumptech.glide.Glide#warmUpDiskCache(long)
+     */
+    interface HotSetProvider {
+        /**
+         * Returns the files for the entries most likely to be requested soon, most likely first, whose sizes add up to
+         * no more than the given number of bytes.
+         *
+         * @param maxBytes The maximum total size in bytes of the returned files.
+         */
+        List<File> getHotFiles(long maxBytes);
+    }
+
+    /**
+     * An optional interface for disk caches that can list the entries they already contain, including those written
+     * in previous sessions, and remove them without the {@link com.bumptech.glide.load.Key}s they were written with.
+     *
+     * @see com.bumptech.glide.load.engine.cache.SizeAwareDiskCache
+     */
+    interface EntryProvider {
+        /**
+         * Returns the id of the entry for the given key, matching the ids returned by {@link #getEntries()}.
+         *
+         * @param key The key in the cache.
+         */
+        String getId(Key key);
+
+        /**
+         * Returns the entries currently in the cache, least recently used first.
+         */
+        List<StoredEntry> getEntries();
+
+        /**
+         * Removes the entry with the given id from the cache.
+         *
+         * @param id An id returned by {@link #getId(com.bumptech.glide.load.Key)} or {@link #getEntries()}.
+         */
+        void delete(String id);
+
+        /**
+         * The id, size and number of uses of an entry in a disk cache.
+         */
+        final class StoredEntry {
+            public final String id;
+            public final long size;
+            public final int hits;
+
+            public StoredEntry(String id, long size, int hits) {
+                this.id = id;
+                this.size = size;
+                this.hits = hits;
+            }
+        }
+    }
+
     /**
      * Get the cache for the value at the given key.
      *
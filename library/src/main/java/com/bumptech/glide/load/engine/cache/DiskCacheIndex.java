@@ -0,0 +1,579 @@
+package com.bumptech.glide.load.engine.cache;
+
+import com.bumptech.glide.util.LogTime;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Tracks the names and sizes of the files in a {@link com.bumptech.glide.load.engine.cache.SnapshotDiskCache} in least
+ * recently used order, and persists them as a binary snapshot plus a journal of the changes made since the snapshot
+ * was written.
+ *
+ * <p>
+ *     Opening the index reads the snapshot and replays the journal, so the time it takes is proportional to the number
+ *     of entries plus the number of changes since the last {@link #checkpoint(java.util.Collection)}, rather than to
+ *     the number of changes since the cache was created.
+ * </p>
+ *
+ * <p>
+ *     The snapshot and each journal record carry a CRC32. A corrupt snapshot is discarded and a journal is replayed up
+ *     to its first incomplete or corrupt record, which is where a write would have been interrupted by a crash. The
+ *     snapshot and journal both carry a generation number so that a journal that was already folded in to a snapshot
+ *     is never replayed on top of it.
+ * </p>
+ *
+ * <p>
+ *     Not thread safe, callers must synchronize access. Only writing the snapshot of a
+ *     {@link com.bumptech.glide.load.engine.cache.DiskCacheIndex.Checkpoint} may happen without synchronization.
+ * </p>
+ */
+class DiskCacheIndex {
+    static final String SNAPSHOT_FILE_NAME = "index.snapshot";
+    static final String JOURNAL_FILE_NAME = "index.journal";
+    private static final String TEMP_SUFFIX = ".tmp";
+    // "GSNP"
+    private static final int SNAPSHOT_MAGIC = 0x47534e50;
+    // "GJRN"
+    private static final int JOURNAL_MAGIC = 0x474a524e;
+    private static final int VERSION = 1;
+    private static final int JOURNAL_HEADER_SIZE = 16;
+
+    private static final int OP_PUT = 1;
+    private static final int OP_REMOVE = 2;
+    private static final int OP_READ = 3;
+
+    private final File directory;
+    private final File snapshotFile;
+    private final File journalFile;
+    private final int checkpointInterval;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<String, Long>(100, 0.75f, true);
+    private final RecordBytes recordBytes = new RecordBytes();
+    private final DataOutputStream recordOutput = new DataOutputStream(recordBytes);
+    private final CRC32 crc = new CRC32();
+
+    private DataOutputStream journal;
+    // The records written since a checkpoint was started, or null if no checkpoint is in progress.
+    private RecordBytes pendingRecords;
+    private int pendingRecordCount;
+    private long generation;
+    private long totalSize;
+    private int journalRecordCount;
+
+    /**
+     * Constructor for a DiskCacheIndex.
+     *
+     * @param directory The directory containing the cache files, the snapshot and the journal.
+     * @param checkpointInterval The number of journal records after which {@link #needsCheckpoint()} returns true.
+     */
+    public DiskCacheIndex(File directory, int checkpointInterval) {
+        this.directory = directory;
+        this.checkpointInterval = checkpointInterval;
+        this.snapshotFile = new File(directory, SNAPSHOT_FILE_NAME);
+        this.journalFile = new File(directory, JOURNAL_FILE_NAME);
+    }
+
+    /**
+     * Loads the index from the snapshot and journal, if present, and opens the journal for writing.
+     */
+    public SnapshotDiskCache.OpenStats open() throws IOException {
+        final long startTime = LogTime.getLogTime();
+        boolean recovered = false;
+
+        final boolean hasSnapshot = snapshotFile.exists();
+        if (hasSnapshot && !readSnapshot()) {
+            clear();
+            generation = 0;
+            recovered = true;
+        }
+        final int snapshotEntries = entries.size();
+
+        int journalRecords = 0;
+        long validJournalLength = -1;
+        if (journalFile.exists()) {
+            JournalReadResult result = readJournal();
+            journalRecords = result.recordCount;
+            validJournalLength = result.validLength;
+            recovered |= result.truncated;
+        }
+
+        if (validJournalLength < 0) {
+            startJournal();
+        } else {
+            openJournal(validJournalLength);
+            journalRecordCount = journalRecords;
+        }
+
+        final double elapsed = LogTime.getElapsedMillis(startTime);
+        return new SnapshotDiskCache.OpenStats(elapsed, snapshotEntries, journalRecords, recovered);
+    }
+
+    /**
+     * Returns true if there is an entry with the given name.
+     */
+    public boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * Marks the entry with the given name as the most recently used entry.
+     *
+     * <p>
+     *     Unlike other records, the record is buffered until the next put, remove or {@link #flush()}. Losing it only
+     *     changes the order in which entries are evicted.
+     * </p>
+     */
+    public void recordRead(String name) throws IOException {
+        if (entries.get(name) != null) {
+            writeRecord(OP_READ, name, 0);
+        }
+    }
+
+    /**
+     * Adds or replaces the entry with the given name and marks it as the most recently used entry.
+     */
+    public void recordPut(String name, long size) throws IOException {
+        applyPut(name, size);
+        writeRecord(OP_PUT, name, size);
+    }
+
+    /**
+     * Removes the entry with the given name, if present.
+     */
+    public void recordRemove(String name) throws IOException {
+        if (applyRemove(name)) {
+            writeRecord(OP_REMOVE, name, 0);
+        }
+    }
+
+    /**
+     * Returns the name of the least recently used entry or null if the index is empty.
+     */
+    public String getEldestName() {
+        Iterator<String> iterator = entries.keySet().iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Returns the names of the most recently used entries, most recent first, whose sizes add up to no more than the
+     * given number of bytes. Entries too large to fit in the remaining budget are skipped.
+     */
+    public List<String> getMostRecentNames(long maxBytes) {
+        // Iterate rather than calling get() so that the access order isn't changed.
+        @SuppressWarnings("unchecked")
+        Map.Entry<String, Long>[] ordered = entries.entrySet().toArray(new Map.Entry[entries.size()]);
+        List<String> result = new ArrayList<String>();
+        long remaining = maxBytes;
+        for (int i = ordered.length - 1; i >= 0 && remaining > 0; i--) {
+            long size = ordered[i].getValue();
+            if (size <= remaining) {
+                result.add(ordered[i].getKey());
+                remaining -= size;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sum of the sizes of all entries in bytes.
+     */
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * Returns the number of entries in the index.
+     */
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Returns true if enough records have been written to the journal since the last checkpoint that a new
+     * checkpoint should be written.
+     */
+    public boolean needsCheckpoint() {
+        return journalRecordCount >= checkpointInterval;
+    }
+
+    /**
+     * Atomically replaces the snapshot with the current contents of the index, starts a new empty journal and
+     * deletes any files in the directory that aren't in the index.
+     *
+     * @param namesToKeep The names of files that aren't in the index yet but that must not be deleted, for example
+     *                    because they are currently being written.
+     */
+    public void checkpoint(Collection<String> namesToKeep) throws IOException {
+        Checkpoint checkpoint = startCheckpoint();
+        try {
+            checkpoint.writeSnapshot();
+        } catch (IOException e) {
+            abortCheckpoint(checkpoint);
+            throw e;
+        }
+        finishCheckpoint(checkpoint);
+        deleteUntrackedFiles(directory.listFiles(), namesToKeep);
+    }
+
+    /**
+     * Starts a checkpoint that can be written without holding the lock that guards this index.
+     *
+     * <p>
+     *     The returned checkpoint holds a copy of the current contents of the index. Its snapshot can be written by
+     *     {@link Checkpoint#writeSnapshot()} on any thread while this index continues to be used, after which
+     *     {@link #finishCheckpoint(Checkpoint)} must be called. Records written in the meantime go to the current
+     *     journal and are also kept in memory so that they can be copied to the journal that follows the new snapshot.
+     * </p>
+     */
+    public Checkpoint startCheckpoint() {
+        if (pendingRecords != null) {
+            throw new IllegalStateException("A checkpoint is already in progress");
+        }
+        pendingRecords = new RecordBytes();
+        pendingRecordCount = 0;
+        return new Checkpoint(new File(directory, SNAPSHOT_FILE_NAME + TEMP_SUFFIX), generation + 1, entries);
+    }
+
+    /**
+     * Replaces the snapshot with the one written by the given checkpoint and starts a new journal containing the
+     * records written since the checkpoint was started.
+     */
+    public void finishCheckpoint(Checkpoint checkpoint) throws IOException {
+        final RecordBytes records = pendingRecords;
+        final int recordCount = pendingRecordCount;
+        pendingRecords = null;
+        if (!checkpoint.temp.renameTo(snapshotFile)) {
+            throw new IOException("Failed to rename " + checkpoint.temp + " to " + snapshotFile);
+        }
+        generation = checkpoint.generation;
+        startJournal();
+        if (recordCount > 0) {
+            journal.write(records.getBuffer(), 0, records.size());
+            journal.flush();
+            journalRecordCount = recordCount;
+        }
+    }
+
+    /**
+     * Abandons a checkpoint whose snapshot couldn't be written. The current journal remains valid.
+     */
+    public void abortCheckpoint(Checkpoint checkpoint) {
+        pendingRecords = null;
+        checkpoint.temp.delete();
+    }
+
+    /**
+     * Deletes the given files if they aren't in the index, aren't the snapshot or journal and aren't being written.
+     *
+     * <p>
+     *     The files can be listed without holding the lock that guards this index, but this method must be called
+     *     with it held so that files committed since they were listed aren't deleted.
+     * </p>
+     *
+     * @param files The files in the directory, or null if they couldn't be listed.
+     * @param namesToKeep The names of files that aren't in the index yet but that must not be deleted, for example
+     *                    because they are currently being written.
+     */
+    public void deleteUntrackedFiles(File[] files, Collection<String> namesToKeep) {
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (name.equals(SNAPSHOT_FILE_NAME) || name.equals(JOURNAL_FILE_NAME) || entries.containsKey(name)) {
+                continue;
+            }
+            String baseName = name.endsWith(TEMP_SUFFIX) ? name.substring(0, name.length() - TEMP_SUFFIX.length())
+                    : name;
+            if (namesToKeep.contains(baseName)) {
+                continue;
+            }
+            if (!file.isDirectory()) {
+                // Ignore failures, we will try again at the next checkpoint.
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Hands any buffered records to the OS so that they survive the process being killed.
+     */
+    public void flush() throws IOException {
+        if (journal != null) {
+            journal.flush();
+        }
+    }
+
+    /**
+     * Closes the journal.
+     */
+    public void close() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                // Do nothing.
+            }
+            journal = null;
+        }
+    }
+
+    private void applyPut(String name, long size) {
+        Long previous = entries.put(name, size);
+        if (previous != null) {
+            totalSize -= previous;
+        }
+        totalSize += size;
+    }
+
+    private boolean applyRemove(String name) {
+        Long previous = entries.remove(name);
+        if (previous != null) {
+            totalSize -= previous;
+            return true;
+        }
+        return false;
+    }
+
+    private void clear() {
+        entries.clear();
+        totalSize = 0;
+    }
+
+    private boolean readSnapshot() throws IOException {
+        CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(new FileInputStream(snapshotFile)), new CRC32());
+        DataInputStream in = new DataInputStream(checked);
+        try {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != VERSION) {
+                return false;
+            }
+            final long snapshotGeneration = in.readLong();
+            final int count = in.readInt();
+            if (count < 0) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                applyPut(name, in.readLong());
+            }
+            final long expectedChecksum = checked.getChecksum().getValue();
+            if (in.readLong() != expectedChecksum) {
+                return false;
+            }
+            generation = snapshotGeneration;
+            return true;
+        } catch (IOException e) {
+            // Truncated or otherwise unreadable.
+            return false;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private JournalReadResult readJournal() throws IOException {
+        JournalReadResult result = new JournalReadResult();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)));
+        try {
+            if (in.readInt() != JOURNAL_MAGIC || in.readInt() != VERSION || in.readLong() != generation) {
+                // Either the journal is from an unknown version, or it was already folded in to the snapshot before
+                // we were interrupted while starting a new journal.
+                return result;
+            }
+            result.validLength = JOURNAL_HEADER_SIZE;
+
+            int op;
+            while ((op = in.read()) != -1) {
+                String name = in.readUTF();
+                long size = op == OP_PUT ? in.readLong() : 0;
+                int recordLength = serializeRecord(op, name, size);
+                if (in.readInt() != (int) crc.getValue()) {
+                    result.truncated = true;
+                    break;
+                }
+                if (op == OP_PUT) {
+                    applyPut(name, size);
+                } else if (op == OP_REMOVE) {
+                    applyRemove(name);
+                } else if (op == OP_READ) {
+                    entries.get(name);
+                } else {
+                    result.truncated = true;
+                    break;
+                }
+                result.recordCount++;
+                result.validLength += recordLength + 4;
+            }
+        } catch (IOException e) {
+            // Either the header or the last record is incomplete or unreadable.
+            result.truncated = result.validLength > 0;
+        } finally {
+            closeQuietly(in);
+        }
+        return result;
+    }
+
+    private void openJournal(long validLength) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(journalFile, "rw");
+        try {
+            if (file.length() != validLength) {
+                file.setLength(validLength);
+            }
+        } finally {
+            file.close();
+        }
+        journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile, true /*append*/)));
+    }
+
+    private void startJournal() throws IOException {
+        close();
+        File temp = new File(directory, JOURNAL_FILE_NAME + TEMP_SUFFIX);
+        FileOutputStream fos = new FileOutputStream(temp);
+        try {
+            DataOutputStream out = new DataOutputStream(fos);
+            out.writeInt(JOURNAL_MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(generation);
+            out.flush();
+            fos.getFD().sync();
+        } finally {
+            closeQuietly(fos);
+        }
+        if (!temp.renameTo(journalFile)) {
+            throw new IOException("Failed to rename " + temp + " to " + journalFile);
+        }
+        journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile, true /*append*/)));
+        journalRecordCount = 0;
+    }
+
+    private void writeRecord(int op, String name, long size) throws IOException {
+        if (journal == null) {
+            throw new IOException("Journal is not open");
+        }
+        int length = serializeRecord(op, name, size);
+        journal.write(recordBytes.getBuffer(), 0, length);
+        journal.writeInt((int) crc.getValue());
+        if (op != OP_READ) {
+            // Hand the record, and any reads before it, to the OS so that it survives the process being killed.
+            journal.flush();
+        }
+        journalRecordCount++;
+        if (pendingRecords != null) {
+            pendingRecords.write(recordBytes.getBuffer(), 0, length);
+            writeInt(pendingRecords, (int) crc.getValue());
+            pendingRecordCount++;
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream os, int value) {
+        os.write(value >>> 24);
+        os.write(value >>> 16);
+        os.write(value >>> 8);
+        os.write(value);
+    }
+
+    private int serializeRecord(int op, String name, long size) throws IOException {
+        recordBytes.reset();
+        recordOutput.writeByte(op);
+        recordOutput.writeUTF(name);
+        if (op == OP_PUT) {
+            recordOutput.writeLong(size);
+        }
+        crc.reset();
+        crc.update(recordBytes.getBuffer(), 0, recordBytes.size());
+        return recordBytes.size();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Do nothing.
+        }
+    }
+
+    /**
+     * A copy of the contents of a {@link com.bumptech.glide.load.engine.cache.DiskCacheIndex} that is written as a new
+     * snapshot, see {@link DiskCacheIndex#startCheckpoint()}.
+     */
+    static final class Checkpoint {
+        private final File temp;
+        private final long generation;
+        private final String[] names;
+        private final long[] sizes;
+
+        Checkpoint(File temp, long generation, Map<String, Long> entries) {
+            this.temp = temp;
+            this.generation = generation;
+            this.names = new String[entries.size()];
+            this.sizes = new long[entries.size()];
+            int i = 0;
+            // Iterating doesn't change the access order, so entries are copied from least to most recently used.
+            for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                names[i] = entry.getKey();
+                sizes[i] = entry.getValue();
+                i++;
+            }
+        }
+
+        /**
+         * Writes and syncs the snapshot to a temporary file. Doesn't touch the index, so it may be called on any
+         * thread.
+         */
+        void writeSnapshot() throws IOException {
+            FileOutputStream fos = new FileOutputStream(temp);
+            try {
+                CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fos), new CRC32());
+                DataOutputStream out = new DataOutputStream(checked);
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(generation);
+                out.writeInt(names.length);
+                for (int i = 0; i < names.length; i++) {
+                    out.writeUTF(names[i]);
+                    out.writeLong(sizes[i]);
+                }
+                out.writeLong(checked.getChecksum().getValue());
+                out.flush();
+                fos.getFD().sync();
+            } finally {
+                closeQuietly(fos);
+            }
+        }
+    }
+
+    private static class JournalReadResult {
+        private int recordCount;
+        // -1 if the journal should be discarded.
+        private long validLength = -1;
+        private boolean truncated;
+    }
+
+    private static class RecordBytes extends ByteArrayOutputStream {
+        public RecordBytes() {
+            super(128);
+        }
+
+        public byte[] getBuffer() {
+            return buf;
+        }
+    }
+}
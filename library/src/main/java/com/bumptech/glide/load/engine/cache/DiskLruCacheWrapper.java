@@ -9,8 +9,17 @@ import android.util.Log;
 import com.bumptech.glide.disklrucache.DiskLruCache;
 import com.bumptech.glide.load.Key;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * The default DiskCache implementation. There must be no more than one active instance for a given
@@ -18,8 +27,13 @@ import java.io.IOException;
  *
  * @see #get(java.io.File, int)
  */
-public class DiskLruCacheWrapper implements DiskCache {
+public class DiskLruCacheWrapper implements DiskCache, DiskCache.EntryProvider {
     private static final String TAG = "DiskLruCacheWrapper";
+    // Written by DiskLruCache, see its class comment for the format.
+    private static final String JOURNAL_FILE = "journal";
+    private static final String CLEAN = "CLEAN";
+    private static final String REMOVE = "REMOVE";
+    private static final String READ = "READ";
 
     private static final int APP_VERSION = 1;
     private static final int VALUE_COUNT = 1;
@@ -105,13 +119,104 @@ public class DiskLruCacheWrapper implements DiskCache {
 
     @Override
     public void delete(Key key) {
-        String safeKey = safeKeyGenerator.getSafeKey(key);
+        delete(safeKeyGenerator.getSafeKey(key));
+    }
+
+    @Override
+    public String getId(Key key) {
+        return safeKeyGenerator.getSafeKey(key);
+    }
+
+    /**
+     * Returns the entries in the cache by replaying its journal.
+     *
+     * <p>
+     *     Each write and each read counts as a use. DiskLruCache drops reads from the journal when it compacts it, so
+     *     uses from before the last compaction count as a single use.
+     * </p>
+     */
+    @Override
+    public List<StoredEntry> getEntries() {
+        try {
+            // Opening the cache removes partially written entries and files it isn't tracking.
+            getDiskCache();
+            return readJournal(new File(directory, JOURNAL_FILE));
+        } catch (FileNotFoundException e) {
+            return Collections.emptyList();
+        } catch (IOException e) {
+            if (Log.isLoggable(TAG, Log.WARN)) {
+                Log.w(TAG, "Unable to read disk cache journal", e);
+            }
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public void delete(String id) {
         try {
-            getDiskCache().remove(safeKey);
+            getDiskCache().remove(id);
         } catch (IOException e) {
             if (Log.isLoggable(TAG, Log.WARN)) {
                 Log.w(TAG, "Unable to delete from disk cache", e);
             }
         }
     }
+
+    // Visible for testing.
+    static List<StoredEntry> readJournal(File journal) throws IOException {
+        // Ordered from the least recently used entry to the most recently used.
+        Map<String, JournalEntry> entries = new LinkedHashMap<String, JournalEntry>(16, 0.75f, true /*accessOrder*/);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(journal), "US-ASCII"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                if (parts.length < 2) {
+                    continue;
+                }
+                String op = parts[0];
+                String id = parts[1];
+                if (CLEAN.equals(op) && parts.length == 2 + VALUE_COUNT) {
+                    long size;
+                    try {
+                        size = Long.parseLong(parts[2]);
+                    } catch (NumberFormatException e) {
+                        // The line may have been partially written by a concurrent edit.
+                        continue;
+                    }
+                    JournalEntry entry = entries.get(id);
+                    if (entry == null) {
+                        entry = new JournalEntry();
+                        entries.put(id, entry);
+                    }
+                    entry.size = size;
+                    entry.hits++;
+                } else if (READ.equals(op)) {
+                    JournalEntry entry = entries.get(id);
+                    if (entry != null) {
+                        entry.hits++;
+                    }
+                } else if (REMOVE.equals(op)) {
+                    entries.remove(id);
+                }
+            }
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // Ignored.
+            }
+        }
+
+        List<StoredEntry> result = new ArrayList<StoredEntry>(entries.size());
+        for (Map.Entry<String, JournalEntry> entry : entries.entrySet()) {
+            result.add(new StoredEntry(entry.getKey(), entry.getValue().size, entry.getValue().hits));
+        }
+        return result;
+    }
+
+    private static class JournalEntry {
+        private long size;
+        private int hits;
+    }
 }
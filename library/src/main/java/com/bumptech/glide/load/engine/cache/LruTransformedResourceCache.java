@@ -0,0 +1,138 @@
+package com.bumptech.glide.load.engine.cache;
+
+import android.annotation.SuppressLint;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.util.LruCache;
+
+/**
+ * An LRU {@link com.bumptech.glide.load.engine.cache.TransformedResourceCache}.
+ *
+ * <p>
+ *     The cache holds a reference to each {@link com.bumptech.glide.load.engine.cache.SharedResource} it's given and
+ *     returns a new reference for each hit, so a hit costs no more than a lookup and cached resources are usually also
+ *     the resources in use by the loads that decoded them, rather than copies of them.
+ * </p>
+ */
+public class LruTransformedResourceCache implements TransformedResourceCache {
+    private final Cache cache;
+
+    /**
+     * Constructor for LruTransformedResourceCache.
+     *
+     * @param size The maximum size in bytes the cache can use.
+     */
+    public LruTransformedResourceCache(int size) {
+        this.cache = new Cache(size);
+    }
+
+    @Override
+    public Resource<?> get(Key key) {
+        return get(key, false /*requireStill*/);
+    }
+
+    @Override
+    public Resource<?> getStill(Key key) {
+        return get(key, true /*requireStill*/);
+    }
+
+    @Override
+    public boolean put(Key key, SharedResource<?> resource) {
+        return put(key, resource, false /*isStill*/);
+    }
+
+    @Override
+    public boolean putStill(Key key, SharedResource<?> resource) {
+        return put(key, resource, true /*isStill*/);
+    }
+
+    private synchronized Resource<?> get(Key key, boolean requireStill) {
+        final Entry entry = cache.get(key);
+        if (entry == null || (requireStill && !entry.isStill)) {
+            return null;
+        }
+        // The cache's own reference keeps the resource from being recycled until it's evicted.
+        return entry.shared.acquire();
+    }
+
+    private synchronized boolean put(Key key, SharedResource<?> resource, boolean isStill) {
+        if (resource.getSize() >= cache.getMaxSize()) {
+            return false;
+        }
+        final Entry existing = cache.get(key);
+        if (existing != null) {
+            // The cached resource is equivalent, so there's no need to replace it.
+            existing.isStill |= isStill;
+            return false;
+        }
+        cache.put(key, new Entry(resource, isStill));
+        return true;
+    }
+
+    @Override
+    public synchronized int getCurrentSize() {
+        return cache.getCurrentSize();
+    }
+
+    @Override
+    public synchronized int getMaxSize() {
+        return cache.getMaxSize();
+    }
+
+    @Override
+    public synchronized void setSizeMultiplier(float multiplier) {
+        cache.setSizeMultiplier(multiplier);
+    }
+
+    @Override
+    public synchronized void clearMemory() {
+        cache.clearMemory();
+    }
+
+    @SuppressLint("InlinedApi")
+    @Override
+    public synchronized void trimMemory(int level) {
+        if (level >= android.content.ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            // Transformed resources can be recreated from the memory and disk caches, so they're cleared first.
+            cache.clearMemory();
+        } else if (level >= android.content.ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            cache.trimToSize(cache.getCurrentSize() / 2);
+        }
+    }
+
+    private static final class Entry {
+        final SharedResource<?> shared;
+        final Resource<?> reference;
+        boolean isStill;
+
+        Entry(SharedResource<?> shared, boolean isStill) {
+            this.shared = shared;
+            this.reference = shared.acquire();
+            this.isStill = isStill;
+        }
+    }
+
+    // Only accessed while holding the lock on the enclosing cache.
+    private static class Cache extends LruCache<Key, Entry> {
+        Cache(int size) {
+            super(size);
+        }
+
+        @Override
+        protected int getSize(Entry item) {
+            return item.reference.getSize();
+        }
+
+        @Override
+        protected void onItemEvicted(Key key, Entry item) {
+            // Only recycles the resource if no load is still using it.
+            item.reference.recycle();
+        }
+
+        @Override
+        protected void trimToSize(int size) {
+            super.trimToSize(size);
+        }
+    }
+}
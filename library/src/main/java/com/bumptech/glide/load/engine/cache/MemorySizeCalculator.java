@@ -72,6 +72,14 @@ public class MemorySizeCalculator {
         return memoryCacheSize;
     }
 
+    /**
+     * Returns the recommended size in bytes for the in memory cache of transformed resources for the device it is
+     * run on, which is one screen's worth of the memory cache size.
+     */
+    public int getTransformedResourceCacheSize() {
+        return memoryCacheSize / MEMORY_CACHE_TARGET_SCREENS;
+    }
+
     /**
      * Returns the recommended bitmap pool size for the device it is run on in bytes.
      */
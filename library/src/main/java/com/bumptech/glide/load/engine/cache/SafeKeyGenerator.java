@@ -10,29 +10,72 @@ import java.security.NoSuchAlgorithmException;
 
 /**
  * A class that generates and caches safe and unique string file names from {@link com.bumptech.glide.load.Key}s.
+ *
+ * <p>
+ *     Digests are kept per thread so that generating a key on a cache miss does not require looking up a
+ *     {@link java.security.MessageDigest} provider. Generated keys are stored in a fixed number of independently
+ *     locked LRU segments so that concurrent lookups for different keys rarely contend.
+ * </p>
  */
 class SafeKeyGenerator {
-    private final LruCache<Key, String> loadIdToSafeHash = new LruCache<Key, String>(1000);
+    private static final int MAX_SIZE = 1000;
+    // Must be a power of two.
+    private static final int SEGMENT_COUNT = 8;
+    private static final ThreadLocal<MessageDigest> DIGEST = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    private final LruCache<Key, String>[] segments = new LruCache[SEGMENT_COUNT];
+
+    public SafeKeyGenerator() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new LruCache<Key, String>(MAX_SIZE / SEGMENT_COUNT);
+        }
+    }
 
     public String getSafeKey(Key key) {
+        final LruCache<Key, String> segment = getSegment(key);
         String safeKey;
-        synchronized (loadIdToSafeHash) {
-            safeKey = loadIdToSafeHash.get(key);
+        synchronized (segment) {
+            safeKey = segment.get(key);
         }
         if (safeKey == null) {
-            try {
-                MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
-                key.updateDiskCacheKey(messageDigest);
-                safeKey = Util.sha256BytesToHex(messageDigest.digest());
-            } catch (UnsupportedEncodingException e) {
-                e.printStackTrace();
-            } catch (NoSuchAlgorithmException e) {
-                e.printStackTrace();
-            }
-            synchronized (loadIdToSafeHash) {
-                loadIdToSafeHash.put(key, safeKey);
+            safeKey = calculateSafeKey(key);
+            if (safeKey != null) {
+                synchronized (segment) {
+                    segment.put(key, safeKey);
+                }
             }
         }
         return safeKey;
     }
+
+    private LruCache<Key, String> getSegment(Key key) {
+        int hash = key.hashCode();
+        // Spread the high bits so that keys with similar low bits don't all land in the same segment.
+        hash ^= (hash >>> 16);
+        return segments[hash & (SEGMENT_COUNT - 1)];
+    }
+
+    private static String calculateSafeKey(Key key) {
+        MessageDigest messageDigest = DIGEST.get();
+        try {
+            key.updateDiskCacheKey(messageDigest);
+            return Util.sha256BytesToHex(messageDigest.digest());
+        } catch (UnsupportedEncodingException e) {
+            e.printStackTrace();
+        } finally {
+            // Leave the digest in a clean state for the next key on this thread, even if the key threw.
+            messageDigest.reset();
+        }
+        return null;
+    }
 }
@@ -0,0 +1,92 @@
+package com.bumptech.glide.load.engine.cache;
+
+import com.bumptech.glide.load.engine.Resource;
+
+/**
+ * A reference counted {@link com.bumptech.glide.load.engine.Resource} that is shared by a
+ * {@link com.bumptech.glide.load.engine.cache.TransformedResourceCache} and the loads that use it, so that they can
+ * all use the same resource rather than copies of it.
+ *
+ * <p>
+ *     Each call to {@link #acquire()} returns a new reference. Recycling a reference releases it, and once every
+ *     reference has been released the owner given to the constructor is recycled. Recycling a reference more than once
+ *     has no further effect, so it's safe to give a reference to code that may recycle it itself.
+ * </p>
+ *
+ * @param <Z> The type of the shared resource.
+ */
+public final class SharedResource<Z> {
+    private final Resource<Z> resource;
+    private final Resource<?> owner;
+    private int acquired;
+    private boolean isRecycled;
+
+    /**
+     * Constructor for a SharedResource.
+     *
+     * @param resource The resource to share.
+     * @param owner The resource to recycle once every reference has been released, which may be the shared resource
+     *              itself or a resource that contains it.
+     */
+    public SharedResource(Resource<Z> resource, Resource<?> owner) {
+        this.resource = resource;
+        this.owner = owner;
+    }
+
+    /**
+     * Returns a new reference to the shared resource that must be recycled once it's no longer used.
+     *
+     * @throws java.lang.IllegalStateException if every previous reference has already been released.
+     */
+    public Resource<Z> acquire() {
+        synchronized (this) {
+            if (isRecycled) {
+                throw new IllegalStateException("Cannot acquire a recycled resource");
+            }
+            acquired++;
+        }
+        return new Reference();
+    }
+
+    /**
+     * Returns the size in bytes of the shared resource.
+     */
+    public int getSize() {
+        return resource.getSize();
+    }
+
+    private void release() {
+        synchronized (this) {
+            if (--acquired > 0) {
+                return;
+            }
+            isRecycled = true;
+        }
+        owner.recycle();
+    }
+
+    private class Reference implements Resource<Z> {
+        private boolean isReleased;
+
+        @Override
+        public Z get() {
+            return resource.get();
+        }
+
+        @Override
+        public int getSize() {
+            return resource.getSize();
+        }
+
+        @Override
+        public void recycle() {
+            synchronized (this) {
+                if (isReleased) {
+                    return;
+                }
+                isReleased = true;
+            }
+            release();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.bumptech.glide.load.engine.cache;
+
+import com.bumptech.glide.load.Key;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A {@link com.bumptech.glide.load.engine.cache.DiskCache} that wraps another disk cache and evicts entries based on
+ * both how often they are used and how large they are, rather than only how recently they were used.
+ *
+ * <p>
+ *     Uses the Greedy Dual Size Frequency policy. Each entry is assigned a priority of
+ *     {@code inflation + hits / size} and the entry with the lowest priority is evicted first. The inflation value is
+ *     raised to the priority of each evicted entry so that entries that were popular in the past, but aren't used any
+ *     more, eventually age out. As a result a single large entry that is used once is evicted before many small
+ *     entries that are each used a few times.
+ * </p>
+ *
+ * <p>
+ *     A new entry is weighed against the entries it would push out. Entries are only evicted to make room for a new
+ *     entry while they have a lower priority than it. Otherwise the new entry is kept, so that callers can read back
+ *     what they just wrote, and is evicted first by the next write if it still has the lowest priority.
+ * </p>
+ *
+ * <p>
+ *     If the wrapped cache is a {@link com.bumptech.glide.load.engine.cache.DiskCache.EntryProvider}, the entries it
+ *     already contains, along with their sizes and how often they were used, are tracked from the first access, so
+ *     the wrapped cache can be given the same maximum size as this cache. Otherwise entries are only tracked once they
+ *     are written or read through this cache. Tracked entries the wrapped cache evicts itself, for example while a new
+ *     entry keeps this cache above its maximum size, are no longer counted once a read finds them missing.
+ * </p>
+ */
+public class SizeAwareDiskCache implements DiskCache {
+    private final DiskCache wrapped;
+    private final EntryProvider entryProvider;
+    private final long maxSize;
+    // Keyed by the entry provider's ids if there is one, and by Keys otherwise.
+    private final Map<Object, Entry> entries = new HashMap<Object, Entry>();
+    // Ordered from the lowest priority to the highest.
+    private final TreeSet<Entry> byPriority = new TreeSet<Entry>();
+    private boolean isSeeded;
+    private long currentSize;
+    private double inflation;
+    private long accessOrder;
+
+    /**
+     * Constructor for a SizeAwareDiskCache.
+     *
+     * @param wrapped The cache to store entries in.
+     * @param maxSize The maximum size in bytes of all tracked entries.
+     */
+    public SizeAwareDiskCache(DiskCache wrapped, long maxSize) {
+        this.wrapped = wrapped;
+        this.entryProvider = wrapped instanceof EntryProvider ? (EntryProvider) wrapped : null;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public File get(Key key) {
+        List<Entry> toDelete = seedIfNeeded();
+        File result = wrapped.get(key);
+        Object id = getId(key);
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (result == null) {
+                if (entry != null) {
+                    // The wrapped cache evicted the entry itself.
+                    untrack(entry);
+                }
+            } else {
+                if (entry == null) {
+                    entry = track(id, result.length());
+                }
+                hit(entry);
+            }
+        }
+        delete(toDelete);
+        return result;
+    }
+
+    @Override
+    public void put(Key key, Writer writer) {
+        delete(seedIfNeeded());
+        SizeRecordingWriter sizeRecordingWriter = new SizeRecordingWriter(writer);
+        wrapped.put(key, sizeRecordingWriter);
+        if (sizeRecordingWriter.size < 0) {
+            return;
+        }
+
+        Object id = getId(key);
+        List<Entry> toDelete;
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                entry = track(id, sizeRecordingWriter.size);
+            } else {
+                long size = Math.max(1, sizeRecordingWriter.size);
+                currentSize += size - entry.size;
+                entry.size = size;
+            }
+            hit(entry);
+            toDelete = evict(entry);
+        }
+        delete(toDelete);
+    }
+
+    @Override
+    public void delete(Key key) {
+        List<Entry> toDelete = seedIfNeeded();
+        Object id = getId(key);
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                untrack(entry);
+            }
+        }
+        wrapped.delete(key);
+        delete(toDelete);
+    }
+
+    /**
+     * Returns the sum of the sizes in bytes of all entries currently tracked by this cache.
+     */
+    public synchronized long getCurrentSize() {
+        return currentSize;
+    }
+
+    private Object getId(Key key) {
+        return entryProvider != null ? entryProvider.getId(key) : key;
+    }
+
+    private synchronized List<Entry> seedIfNeeded() {
+        if (isSeeded) {
+            return Collections.emptyList();
+        }
+        isSeeded = true;
+        if (entryProvider == null) {
+            return Collections.emptyList();
+        }
+        for (EntryProvider.StoredEntry stored : entryProvider.getEntries()) {
+            Entry entry = track(stored.id, stored.size);
+            entry.hits = stored.hits - 1;
+            hit(entry);
+        }
+        // The maximum size may have been lowered since the entries were written.
+        return evict(null /*written*/);
+    }
+
+    private void delete(List<Entry> evicted) {
+        for (Entry entry : evicted) {
+            if (entryProvider != null) {
+                entryProvider.delete((String) entry.id);
+            } else {
+                wrapped.delete((Key) entry.id);
+            }
+        }
+    }
+
+    private Entry track(Object id, long size) {
+        Entry entry = new Entry(id, Math.max(1, size));
+        entries.put(id, entry);
+        currentSize += entry.size;
+        return entry;
+    }
+
+    private void untrack(Entry entry) {
+        entries.remove(entry.id);
+        byPriority.remove(entry);
+        currentSize -= entry.size;
+    }
+
+    private void hit(Entry entry) {
+        // The priority is part of the ordering, so the entry has to be removed before it's updated.
+        byPriority.remove(entry);
+        entry.hits++;
+        entry.priority = inflation + entry.hits / (double) entry.size;
+        entry.order = accessOrder++;
+        byPriority.add(entry);
+    }
+
+    private List<Entry> evict(Entry written) {
+        List<Entry> evicted = new ArrayList<Entry>();
+        while (currentSize > maxSize && !byPriority.isEmpty()) {
+            Entry lowest = byPriority.first();
+            if (lowest == written) {
+                // Everything else is worth more than the new entry, which is kept until the next write.
+                break;
+            }
+            inflation = lowest.priority;
+            untrack(lowest);
+            evicted.add(lowest);
+        }
+        return evicted;
+    }
+
+    private static class Entry implements Comparable<Entry> {
+        private final Object id;
+        private long size;
+        private int hits;
+        private double priority;
+        // Breaks ties in priority in favor of the most recently used entry.
+        private long order;
+
+        public Entry(Object id, long size) {
+            this.id = id;
+            this.size = size;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int result = Double.compare(priority, other.priority);
+            if (result == 0) {
+                result = order < other.order ? -1 : (order == other.order ? 0 : 1);
+            }
+            return result;
+        }
+    }
+
+    private static class SizeRecordingWriter implements Writer {
+        private final Writer writer;
+        private long size = -1;
+
+        public SizeRecordingWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public boolean write(File file) {
+            boolean result = writer.write(file);
+            if (result) {
+                size = file.length();
+            }
+            return result;
+        }
+    }
+}
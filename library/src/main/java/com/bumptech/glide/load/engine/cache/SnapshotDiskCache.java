@@ -0,0 +1,407 @@
+package com.bumptech.glide.load.engine.cache;
+
+import android.util.Log;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.executor.FifoPriorityThreadPoolExecutor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A size limited, least recently used {@link com.bumptech.glide.load.engine.cache.DiskCache} that can be opened
+ * quickly regardless of how long it has been in use.
+ *
+ * <p>
+ *     Unlike {@link com.bumptech.glide.disklrucache.DiskLruCache}, which replays a text journal of every operation
+ *     since the journal was last compacted when it is opened, this cache keeps its index in a binary snapshot plus a
+ *     short journal of recent changes, and periodically folds the journal in to a new snapshot. See
+ *     {@link com.bumptech.glide.load.engine.cache.DiskCacheIndex}. The time taken to open the cache is available
+ *     from {@link #getOpenStats()}.
+ * </p>
+ *
+ * <p>
+ *     Because the index is persisted in least recently used order, the entries used most recently in the previous
+ *     session are available from {@link #getHotFiles(long)} as soon as the cache is opened.
+ * </p>
+ *
+ * <p>
+ *     The cache starts opening on a background thread as soon as it's created. New snapshots are written, including
+ *     the one that follows recovering from a crash, and files that aren't in the index are deleted on the same
+ *     background thread, so reads and writes only wait for them briefly. Read records are buffered and flushed to the
+ *     journal on that thread too, so reads rarely wait on writes to the journal.
+ * </p>
+ *
+ * <p>
+ *     There must be no more than one active instance for a given directory at a time.
+ * </p>
+ */
+public class SnapshotDiskCache implements DiskCache, DiskCache.HotSetProvider {
+    private static final String TAG = "SnapshotDiskCache";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 2000;
+    private static Executor defaultExecutor;
+
+    private final File directory;
+    private final long maxSize;
+    private final SafeKeyGenerator safeKeyGenerator;
+    private final DiskCacheIndex index;
+    private final Executor executor;
+    private final Set<String> editing = new HashSet<String>();
+    private OpenStats openStats;
+    private boolean isCheckpointPending;
+    private boolean isFlushPending;
+
+    /**
+     * Statistics about the last time a {@link com.bumptech.glide.load.engine.cache.SnapshotDiskCache} was opened.
+     */
+    public static final class OpenStats {
+        private final double openTimeMillis;
+        private final int snapshotEntryCount;
+        private final int journalRecordCount;
+        private final boolean recovered;
+
+        OpenStats(double openTimeMillis, int snapshotEntryCount, int journalRecordCount, boolean recovered) {
+            this.openTimeMillis = openTimeMillis;
+            this.snapshotEntryCount = snapshotEntryCount;
+            this.journalRecordCount = journalRecordCount;
+            this.recovered = recovered;
+        }
+
+        /**
+         * Returns the time in milliseconds taken to read the snapshot and replay the journal.
+         */
+        public double getOpenTimeMillis() {
+            return openTimeMillis;
+        }
+
+        /**
+         * Returns the number of entries read from the snapshot.
+         */
+        public int getSnapshotEntryCount() {
+            return snapshotEntryCount;
+        }
+
+        /**
+         * Returns the number of records replayed from the journal.
+         */
+        public int getJournalRecordCount() {
+            return journalRecordCount;
+        }
+
+        /**
+         * Returns true if the snapshot was corrupt or the journal ended with an incomplete record, most likely because
+         * the process was killed while writing.
+         */
+        public boolean isRecovered() {
+            return recovered;
+        }
+
+        @Override
+        public String toString() {
+            return "OpenStats{openTimeMillis=" + openTimeMillis + ", snapshotEntryCount=" + snapshotEntryCount
+                    + ", journalRecordCount=" + journalRecordCount + ", recovered=" + recovered + "}";
+        }
+    }
+
+    /**
+     * Constructor for a SnapshotDiskCache.
+     *
+     * @param directory The directory for the disk cache.
+     * @param maxSize The max size in bytes of the disk cache.
+     */
+    public SnapshotDiskCache(File directory, long maxSize) {
+        this(directory, maxSize, DEFAULT_CHECKPOINT_INTERVAL, getDefaultExecutor());
+    }
+
+    // Visible for testing.
+    SnapshotDiskCache(File directory, long maxSize, int checkpointInterval, Executor executor) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.safeKeyGenerator = new SafeKeyGenerator();
+        this.index = new DiskCacheIndex(directory, checkpointInterval);
+        this.executor = executor;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                open();
+            }
+        });
+    }
+
+    private static synchronized Executor getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new FifoPriorityThreadPoolExecutor.DefaultThreadFactory());
+            // Checkpoints are rare, so don't keep the thread around between them.
+            executor.allowCoreThreadTimeOut(true);
+            defaultExecutor = executor;
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Returns statistics about opening the cache, or null if the cache hasn't been opened yet.
+     *
+     * <p>
+     *     The cache starts opening in the background when it's created, and is opened by the first read or write if
+     *     that happens sooner.
+     * </p>
+     */
+    public synchronized OpenStats getOpenStats() {
+        return openStats;
+    }
+
+    @Override
+    public File get(Key key) {
+        String safeKey = safeKeyGenerator.getSafeKey(key);
+        synchronized (this) {
+            try {
+                if (!getIndex().contains(safeKey)) {
+                    return null;
+                }
+            } catch (IOException e) {
+                if (Log.isLoggable(TAG, Log.WARN)) {
+                    Log.w(TAG, "Unable to get from disk cache", e);
+                }
+                return null;
+            }
+        }
+
+        // Stat the file without holding the lock so that concurrent reads don't wait on each other's file system calls.
+        File file = new File(directory, safeKey);
+        boolean exists = file.exists();
+        File result = null;
+        synchronized (this) {
+            try {
+                if (!index.contains(safeKey)) {
+                    // Removed or evicted in the meantime.
+                    return null;
+                }
+                if (exists) {
+                    index.recordRead(safeKey);
+                    flushReadsLater();
+                    result = file;
+                } else if (!file.exists()) {
+                    // Check again in case the file was committed in the meantime.
+                    index.recordRemove(safeKey);
+                }
+                checkpointIfNeeded();
+            } catch (IOException e) {
+                if (Log.isLoggable(TAG, Log.WARN)) {
+                    Log.w(TAG, "Unable to get from disk cache", e);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<File> getHotFiles(long maxBytes) {
+        List<String> names;
+        synchronized (this) {
+            try {
+                names = getIndex().getMostRecentNames(maxBytes);
+            } catch (IOException e) {
+                if (Log.isLoggable(TAG, Log.WARN)) {
+                    Log.w(TAG, "Unable to read hot files from disk cache", e);
+                }
+                return Collections.emptyList();
+            }
+        }
+        List<File> result = new ArrayList<File>(names.size());
+        for (String name : names) {
+            result.add(new File(directory, name));
+        }
+        return result;
+    }
+
+    @Override
+    public void put(Key key, Writer writer) {
+        String safeKey = safeKeyGenerator.getSafeKey(key);
+        synchronized (this) {
+            try {
+                getIndex();
+            } catch (IOException e) {
+                if (Log.isLoggable(TAG, Log.WARN)) {
+                    Log.w(TAG, "Unable to put to disk cache", e);
+                }
+                return;
+            }
+            // If there are two concurrent puts, in the worst case we will just silently fail.
+            if (!editing.add(safeKey)) {
+                return;
+            }
+        }
+
+        File temp = new File(directory, safeKey + TEMP_SUFFIX);
+        boolean committed = false;
+        try {
+            if (writer.write(temp)) {
+                committed = commit(safeKey, temp);
+            }
+        } finally {
+            if (!committed) {
+                temp.delete();
+            }
+            synchronized (this) {
+                editing.remove(safeKey);
+            }
+        }
+    }
+
+    @Override
+    public void delete(Key key) {
+        String safeKey = safeKeyGenerator.getSafeKey(key);
+        synchronized (this) {
+            try {
+                getIndex().recordRemove(safeKey);
+                new File(directory, safeKey).delete();
+                checkpointIfNeeded();
+            } catch (IOException e) {
+                if (Log.isLoggable(TAG, Log.WARN)) {
+                    Log.w(TAG, "Unable to delete from disk cache", e);
+                }
+            }
+        }
+    }
+
+    private synchronized boolean commit(String safeKey, File temp) {
+        File file = new File(directory, safeKey);
+        if (!temp.renameTo(file)) {
+            return false;
+        }
+        try {
+            index.recordPut(safeKey, file.length());
+            trimToSize();
+            checkpointIfNeeded();
+        } catch (IOException e) {
+            if (Log.isLoggable(TAG, Log.WARN)) {
+                Log.w(TAG, "Unable to put to disk cache", e);
+            }
+        }
+        return true;
+    }
+
+    private DiskCacheIndex getIndex() throws IOException {
+        if (openStats == null) {
+            if (!directory.mkdirs() && !directory.isDirectory()) {
+                throw new IOException("Unable to create disk cache directory: " + directory);
+            }
+            OpenStats stats = index.open();
+            if (Log.isLoggable(TAG, Log.DEBUG)) {
+                Log.d(TAG, "Opened disk cache with " + index.getEntryCount() + " entries " + stats);
+            }
+            openStats = stats;
+            if (stats.isRecovered()) {
+                // Clean up any files from incomplete writes or that were lost with a corrupt snapshot.
+                startCheckpoint();
+            }
+        }
+        return index;
+    }
+
+    private void trimToSize() throws IOException {
+        while (index.getTotalSize() > maxSize) {
+            String eldest = index.getEldestName();
+            if (eldest == null) {
+                break;
+            }
+            new File(directory, eldest).delete();
+            index.recordRemove(eldest);
+        }
+    }
+
+    private synchronized void open() {
+        try {
+            getIndex();
+        } catch (IOException e) {
+            if (Log.isLoggable(TAG, Log.WARN)) {
+                Log.w(TAG, "Unable to open disk cache", e);
+            }
+        }
+    }
+
+    private void flushReadsLater() {
+        if (!isFlushPending) {
+            isFlushPending = true;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    flushReads();
+                }
+            });
+        }
+    }
+
+    private synchronized void flushReads() {
+        isFlushPending = false;
+        try {
+            index.flush();
+        } catch (IOException e) {
+            if (Log.isLoggable(TAG, Log.WARN)) {
+                Log.w(TAG, "Unable to flush disk cache journal", e);
+            }
+        }
+    }
+
+    private void checkpointIfNeeded() {
+        if (index.needsCheckpoint()) {
+            startCheckpoint();
+        }
+    }
+
+    private void startCheckpoint() {
+        if (!isCheckpointPending) {
+            isCheckpointPending = true;
+            final DiskCacheIndex.Checkpoint checkpoint = index.startCheckpoint();
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    checkpoint(checkpoint);
+                }
+            });
+        }
+    }
+
+    private void checkpoint(DiskCacheIndex.Checkpoint checkpoint) {
+        // Writing and syncing the snapshot and listing the directory are slow, so neither holds the lock.
+        boolean isWritten = false;
+        try {
+            checkpoint.writeSnapshot();
+            isWritten = true;
+        } catch (IOException e) {
+            if (Log.isLoggable(TAG, Log.WARN)) {
+                Log.w(TAG, "Unable to write disk cache snapshot", e);
+            }
+        }
+        synchronized (this) {
+            isCheckpointPending = false;
+            if (!isWritten) {
+                index.abortCheckpoint(checkpoint);
+                return;
+            }
+            try {
+                index.finishCheckpoint(checkpoint);
+            } catch (IOException e) {
+                if (Log.isLoggable(TAG, Log.WARN)) {
+                    Log.w(TAG, "Unable to finish disk cache checkpoint", e);
+                }
+                return;
+            }
+        }
+        File[] files = directory.listFiles();
+        synchronized (this) {
+            index.deleteUntrackedFiles(files, editing);
+        }
+    }
+}
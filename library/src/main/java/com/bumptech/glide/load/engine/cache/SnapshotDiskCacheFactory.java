@@ -0,0 +1,41 @@
+package com.bumptech.glide.load.engine.cache;
+
+import android.content.Context;
+
+import com.bumptech.glide.Glide;
+
+import java.io.File;
+
+/**
+ * Creates a {@link com.bumptech.glide.load.engine.cache.SnapshotDiskCache} in the internal disk cache directory.
+ */
+public final class SnapshotDiskCacheFactory implements DiskCache.Factory {
+    private final Context context;
+    private final String diskCacheName;
+    private final int diskCacheSize;
+
+    public SnapshotDiskCacheFactory(Context context, int diskCacheSize) {
+        this(context, null /*diskCacheName*/, diskCacheSize);
+    }
+
+    public SnapshotDiskCacheFactory(Context context, String diskCacheName, int diskCacheSize) {
+        this.context = context;
+        this.diskCacheName = diskCacheName;
+        this.diskCacheSize = diskCacheSize;
+    }
+
+    @Override
+    public DiskCache build() {
+        final File cacheDir;
+        if (diskCacheName != null) {
+            cacheDir = Glide.getPhotoCacheDir(context, diskCacheName);
+        } else {
+            cacheDir = Glide.getPhotoCacheDir(context);
+        }
+
+        if (cacheDir != null) {
+            return new SnapshotDiskCache(cacheDir, diskCacheSize);
+        }
+        return new DiskCacheAdapter();
+    }
+}
@@ -0,0 +1,93 @@
+package com.bumptech.glide.load.engine.cache;
+
+import com.bumptech.glide.load.Key;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link com.bumptech.glide.load.engine.cache.DiskCache} that stores original source data and transformed results
+ * in two separate caches so that each has its own size limit and large source data can't evict small results, or
+ * vice versa.
+ *
+ * <p>
+ *     Keys that implement {@link com.bumptech.glide.load.engine.cache.TieredDiskCache.SourceKey} are routed to the
+ *     source cache, all other keys are routed to the result cache.
+ * </p>
+ *
+ * <p>
+ *     If either cache is a {@link com.bumptech.glide.load.engine.cache.DiskCache.HotSetProvider}, hot files from the
+ *     result cache are preferred because results can be displayed without being transformed again.
+ * </p>
+ *
+ * @see com.bumptech.glide.load.engine.cache.TieredDiskCacheFactory
+ */
+public class TieredDiskCache implements DiskCache, DiskCache.HotSetProvider {
+    private final DiskCache sourceCache;
+    private final DiskCache resultCache;
+
+    /**
+     * A marker interface for {@link com.bumptech.glide.load.Key}s that identify original source data rather than a
+     * decoded and transformed result.
+     */
+    public interface SourceKey {
+        // Marker interface.
+    }
+
+    /**
+     * Constructor for a TieredDiskCache.
+     *
+     * @param sourceCache The cache to use for keys implementing
+     *                    {@link com.bumptech.glide.load.engine.cache.TieredDiskCache.SourceKey}.
+     * @param resultCache The cache to use for all other keys.
+     */
+    public TieredDiskCache(DiskCache sourceCache, DiskCache resultCache) {
+        this.sourceCache = sourceCache;
+        this.resultCache = resultCache;
+    }
+
+    @Override
+    public File get(Key key) {
+        return getCacheForKey(key).get(key);
+    }
+
+    @Override
+    public void put(Key key, Writer writer) {
+        getCacheForKey(key).put(key, writer);
+    }
+
+    @Override
+    public void delete(Key key) {
+        getCacheForKey(key).delete(key);
+    }
+
+    @Override
+    public List<File> getHotFiles(long maxBytes) {
+        List<File> resultFiles = getHotFiles(resultCache, maxBytes);
+        long remaining = maxBytes;
+        for (File file : resultFiles) {
+            remaining -= file.length();
+        }
+        List<File> sourceFiles = getHotFiles(sourceCache, remaining);
+        if (sourceFiles.isEmpty()) {
+            return resultFiles;
+        }
+        List<File> result = new ArrayList<File>(resultFiles.size() + sourceFiles.size());
+        result.addAll(resultFiles);
+        result.addAll(sourceFiles);
+        return result;
+    }
+
+    private static List<File> getHotFiles(DiskCache cache, long maxBytes) {
+        if (maxBytes <= 0 || !(cache instanceof HotSetProvider)) {
+            return Collections.emptyList();
+        }
+        return ((HotSetProvider) cache).getHotFiles(maxBytes);
+    }
+
+    private DiskCache getCacheForKey(Key key) {
+        return key instanceof SourceKey ? sourceCache : resultCache;
+    }
+}
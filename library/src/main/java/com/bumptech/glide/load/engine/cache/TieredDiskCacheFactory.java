@@ -0,0 +1,75 @@
+package com.bumptech.glide.load.engine.cache;
+
+import android.content.Context;
+
+import com.bumptech.glide.Glide;
+
+import java.io.File;
+
+/**
+ * Creates a {@link com.bumptech.glide.load.engine.cache.TieredDiskCache} in the internal disk cache directory with
+ * separate {@link com.bumptech.glide.disklrucache.DiskLruCache} based caches and sizes for original source data and
+ * for transformed results.
+ */
+public final class TieredDiskCacheFactory implements DiskCache.Factory {
+    private static final String SOURCE_DIR = "source";
+    private static final String RESULT_DIR = "result";
+
+    private final Context context;
+    private final String diskCacheName;
+    private final int sourceCacheSize;
+    private final int resultCacheSize;
+    private final boolean sizeAwareEviction;
+
+    public TieredDiskCacheFactory(Context context, int sourceCacheSize, int resultCacheSize) {
+        this(context, null /*diskCacheName*/, sourceCacheSize, resultCacheSize, false /*sizeAwareEviction*/);
+    }
+
+    /**
+     * Constructor for a TieredDiskCacheFactory.
+     *
+     * @param context A context.
+     * @param diskCacheName The name of the directory in the internal cache directory, or null to use the default.
+     * @param sourceCacheSize The maximum size in bytes of original source data.
+     * @param resultCacheSize The maximum size in bytes of transformed results.
+     * @param sizeAwareEviction True to evict entries based on their size and how often they're used using
+     *                          {@link com.bumptech.glide.load.engine.cache.SizeAwareDiskCache}, false to evict the
+     *                          least recently used entries.
+     */
+    public TieredDiskCacheFactory(Context context, String diskCacheName, int sourceCacheSize, int resultCacheSize,
+            boolean sizeAwareEviction) {
+        this.context = context;
+        this.diskCacheName = diskCacheName;
+        this.sourceCacheSize = sourceCacheSize;
+        this.resultCacheSize = resultCacheSize;
+        this.sizeAwareEviction = sizeAwareEviction;
+    }
+
+    @Override
+    public DiskCache build() {
+        final File cacheDir;
+        if (diskCacheName != null) {
+            cacheDir = Glide.getPhotoCacheDir(context, diskCacheName);
+        } else {
+            cacheDir = Glide.getPhotoCacheDir(context);
+        }
+
+        DiskCache sourceCache = buildTier(cacheDir, SOURCE_DIR, sourceCacheSize);
+        DiskCache resultCache = buildTier(cacheDir, RESULT_DIR, resultCacheSize);
+        return new TieredDiskCache(sourceCache, resultCache);
+    }
+
+    private DiskCache buildTier(File cacheDir, String name, int size) {
+        File tierDir = cacheDir != null ? new File(cacheDir, name) : null;
+        if (tierDir == null || (!tierDir.mkdirs() && (!tierDir.exists() || !tierDir.isDirectory()))) {
+            return new DiskCacheAdapter();
+        }
+
+        if (!sizeAwareEviction) {
+            return new DiskLruCacheWrapper(tierDir, size);
+        }
+        // The size aware cache tracks the entries left by previous sessions too, so the wrapped cache only has to evict
+        // when a new entry the size aware cache keeps until the next write pushes it over its maximum size.
+        return new SizeAwareDiskCache(new DiskLruCacheWrapper(tierDir, size), size);
+    }
+}
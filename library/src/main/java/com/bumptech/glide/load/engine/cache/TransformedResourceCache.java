@@ -0,0 +1,128 @@
+package com.bumptech.glide.load.engine.cache;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+
+/**
+ * An interface for an in memory cache of decoded and transformed resources that have not yet been transcoded, so
+ * that loads that differ only in their transcoder or encoders, like {@code asBitmap()} and the default
+ * {@link com.bumptech.glide.load.resource.drawable.GlideDrawable} load for the same model, size and transformation,
+ * can share a single decode and transform.
+ *
+ * <p>
+ *     Cached resources are {@link com.bumptech.glide.load.engine.cache.SharedResource}s. The cache holds a reference to
+ *     each one until it's evicted, and each hit returns a new reference, so a cached resource is only recycled once the
+ *     cache and every load that used it are done with it.
+ * </p>
+ *
+ * <p>
+ *     Only loads with a {@link com.bumptech.glide.load.engine.cache.TransformedResourceCache.Converter} use the cache.
+ *     Loads whose converters share complete resources, like still images decoded by a decoder that can also decode
+ *     animations, only use resources cached with {@link #putStill(Key, SharedResource)}, because the resources cached
+ *     by other loads may be incomplete, like the first frame of an animation. Implementations must be thread safe.
+ * </p>
+ */
+public interface TransformedResourceCache {
+
+    /**
+     * Converts the resources of a load to and from the resources that are shared through a
+     * {@link com.bumptech.glide.load.engine.cache.TransformedResourceCache}, which may be simpler resources that other
+     * loads decode on their own.
+     *
+     * @see com.bumptech.glide.provider.DataLoadProvider#getTransformedResourceConverter()
+     *
+     * @param <T> The type of resource the load decodes.
+     */
+    interface Converter<T> {
+        /**
+         * Returns the id of the decoder that decodes the shared resources on its own, which is used in place of the id
+         * of the load's decoder in the keys of transformed resources.
+         */
+        String getSharedDecoderId();
+
+        /**
+         * Returns true if the shared resources of this load are always complete, so that loads that would otherwise
+         * decode more than the shared resource, like every frame of an animation, can use them, and this load only
+         * uses complete resources.
+         */
+        boolean isComplete();
+
+        /**
+         * Returns the given resource or the shared resource contained in it, which remains owned by the given
+         * resource, or null if the given resource can't be shared.
+         *
+         * @param resource A decoded and transformed resource.
+         */
+        Resource<?> getShared(Resource<T> resource);
+
+        /**
+         * Returns the given shared resource or a resource that contains and takes ownership of it.
+         *
+         * @param shared A resource returned by {@link #getShared(com.bumptech.glide.load.engine.Resource)} for this or
+         *               an equivalent load.
+         */
+        Resource<T> wrapShared(Resource<?> shared);
+    }
+
+    /**
+     * Returns a new reference to the resource cached for the given key, which the caller must recycle once it's no
+     * longer used, or null if there is no such resource.
+     *
+     * @param key The key of the transformed resource.
+     */
+    Resource<?> get(Key key);
+
+    /**
+     * Caches the given resource if possible and returns true if the cache acquired a reference to it.
+     *
+     * @param key The key of the transformed resource.
+     * @param resource The transformed resource.
+     */
+    boolean put(Key key, SharedResource<?> resource);
+
+    /**
+     * Returns a new reference to the resource cached for the given key with {@link #putStill(Key, SharedResource)},
+     * which the caller must recycle once it's no longer used, or null if there is no such resource.
+     *
+     * @param key The key of the transformed resource.
+     */
+    Resource<?> getStill(Key key);
+
+    /**
+     * Caches the given resource if possible, records that it's complete rather than, for example, the first frame of
+     * an animation, and returns true if the cache acquired a reference to it.
+     *
+     * @param key The key of the transformed resource.
+     * @param resource The transformed resource.
+     */
+    boolean putStill(Key key, SharedResource<?> resource);
+
+    /**
+     * Returns the sum of the sizes of all the contents of the cache in bytes.
+     */
+    int getCurrentSize();
+
+    /**
+     * Returns the current maximum size in bytes of the cache.
+     */
+    int getMaxSize();
+
+    /**
+     * Adjust the maximum size of the cache by multiplying the original size of the cache by the given multiplier.
+     *
+     * @param multiplier A size multiplier >= 0.
+     */
+    void setSizeMultiplier(float multiplier);
+
+    /**
+     * Evict all items from the cache.
+     */
+    void clearMemory();
+
+    /**
+     * Trim the cache to a size appropriate for the given level.
+     *
+     * @param level This integer represents a trim level as specified in {@link android.content.ComponentCallbacks2}.
+     */
+    void trimMemory(int level);
+}
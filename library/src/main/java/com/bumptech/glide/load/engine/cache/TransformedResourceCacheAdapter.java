@@ -0,0 +1,55 @@
+package com.bumptech.glide.load.engine.cache;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+
+/**
+ * A simple class that ignores all puts and returns null for all gets.
+ */
+public class TransformedResourceCacheAdapter implements TransformedResourceCache {
+
+    @Override
+    public Resource<?> get(Key key) {
+        return null;
+    }
+
+    @Override
+    public boolean put(Key key, SharedResource<?> resource) {
+        return false;
+    }
+
+    @Override
+    public Resource<?> getStill(Key key) {
+        return null;
+    }
+
+    @Override
+    public boolean putStill(Key key, SharedResource<?> resource) {
+        return false;
+    }
+
+    @Override
+    public int getCurrentSize() {
+        return 0;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return 0;
+    }
+
+    @Override
+    public void setSizeMultiplier(float multiplier) {
+        // Do nothing.
+    }
+
+    @Override
+    public void clearMemory() {
+        // Do nothing.
+    }
+
+    @Override
+    public void trimMemory(int level) {
+        // Do nothing.
+    }
+}
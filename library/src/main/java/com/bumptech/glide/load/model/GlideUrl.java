@@ -3,6 +3,8 @@ package com.bumptech.glide.load.model;
 import android.net.Uri;
 import android.text.TextUtils;
 
+import com.bumptech.glide.load.resource.bitmap.ImageHeader;
+
 import java.net.MalformedURLException;
 import java.net.URL;
 
@@ -18,28 +20,59 @@ import java.net.URL;
  *     To obtain a properly escaped URL, call {@link #toURL()}. To obtain a properly escaped string URL, call
  *     {@link #toURL()} and then {@link java.net.URL#toString()}.
  * </p>
+ *
+ * <p>
+ *     If the dimensions of the image at the URL are known in advance, for example because they're returned by an api
+ *     along with the URL, they can be given with an {@link com.bumptech.glide.load.resource.bitmap.ImageHeader} so that
+ *     the image can be decoded without first decoding its bounds. See
+ *     {@link com.bumptech.glide.load.resource.bitmap.ImageHeaderInputStream}. The header isn't part of the URL's
+ *     identity and is ignored by {@link #equals(Object)}.
+ * </p>
  */
 public class GlideUrl {
     private static final String ALLOWED_URI_CHARS = "@#&=*+-_.,:!?()/~'%";
 
     private final URL url;
+    private final ImageHeader imageHeader;
     private String stringUrl;
 
     private URL safeUrl;
 
     public GlideUrl(URL url) {
+        this(url, null /*imageHeader*/);
+    }
+
+    public GlideUrl(String url) {
+        this(url, null /*imageHeader*/);
+    }
+
+    /**
+     * Constructor for a GlideUrl for an image whose header is already known.
+     *
+     * @param url The URL.
+     * @param imageHeader The known header of the image, or null.
+     */
+    public GlideUrl(URL url, ImageHeader imageHeader) {
         if (url == null) {
             throw new IllegalArgumentException("URL must not be null!");
         }
         this.url = url;
+        this.imageHeader = imageHeader;
         stringUrl = null;
     }
 
-    public GlideUrl(String url) {
+    /**
+     * Constructor for a GlideUrl for an image whose header is already known.
+     *
+     * @param url The string URL.
+     * @param imageHeader The known header of the image, or null.
+     */
+    public GlideUrl(String url, ImageHeader imageHeader) {
         if (TextUtils.isEmpty(url)) {
             throw new IllegalArgumentException("String url must not be empty or null: " + url);
         }
         this.stringUrl = url;
+        this.imageHeader = imageHeader;
         this.url = null;
     }
 
@@ -48,6 +81,13 @@ public class GlideUrl {
         return getSafeUrl();
     }
 
+    /**
+     * Returns the known header of the image at this URL, or null if the header isn't known.
+     */
+    public ImageHeader getImageHeader() {
+        return imageHeader;
+    }
+
     // See http://stackoverflow.com/questions/3286067/url-encoding-in-android. Although the answer using URI would work,
     // using it would require both decoding and encoding each string which is more complicated, slower and generates
     // more objects than the solution below. See also issue #133.
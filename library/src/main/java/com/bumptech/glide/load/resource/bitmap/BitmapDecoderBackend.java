@@ -0,0 +1,30 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import java.io.InputStream;
+
+/**
+ * An alternative {@link com.bumptech.glide.load.resource.bitmap.BitmapDecoder} for {@link java.io.InputStream}s, for
+ * example a platform decoder that is faster for some formats or a native decoder built in to the application, that
+ * is used instead of {@link com.bumptech.glide.load.resource.bitmap.Downsampler} for the images it can decode.
+ *
+ * <p>
+ *     Backends are added with {@link com.bumptech.glide.GlideBuilder#addBitmapDecoderBackend(BitmapDecoderBackend)}
+ *     and are selected by {@link com.bumptech.glide.load.resource.bitmap.BitmapDecoderSelector}.
+ * </p>
+ */
+public interface BitmapDecoderBackend extends BitmapDecoder<InputStream> {
+
+    /**
+     * Returns true if this backend can decode an image with the given header at the given size on the current device.
+     *
+     * <p>
+     *     This method is called on a background thread before every decode and should be fast. Checks for the
+     *     device's api level or for the availability of native libraries belong here.
+     * </p>
+     *
+     * @param header The header of the image, which may be {@link ImageHeader#UNKNOWN}.
+     * @param outWidth The target width for the decoded bitmap.
+     * @param outHeight The target height for the decoded bitmap.
+     */
+    boolean canDecode(ImageHeader header, int outWidth, int outHeight);
+}
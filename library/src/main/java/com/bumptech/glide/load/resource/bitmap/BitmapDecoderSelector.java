@@ -0,0 +1,265 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.util.ByteArrayPool;
+import com.bumptech.glide.util.LogTime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Selects the {@link com.bumptech.glide.load.resource.bitmap.BitmapDecoderBackend} used to decode each image, based on
+ * the image's type and size and on the device, and falls back to the default decoder when no backend applies or when
+ * a backend fails.
+ *
+ * <p>
+ *     Backends are tried in the order they were added. A backend that throws or returns null is skipped, the stream is
+ *     reset and the next backend, or the default decoder, is used instead. A backend that fails
+ *     {@link #MAX_CONSECUTIVE_FAILURES} times in a row is disabled for the lifetime of the selector.
+ * </p>
+ *
+ * <p>
+ *     The number of decodes, failures and the total decode time of each backend are recorded and are available from
+ *     {@link #getStats(BitmapDecoderBackend)}.
+ * </p>
+ */
+public class BitmapDecoderSelector {
+    private static final String TAG = "DecoderSelector";
+    /**
+     * The number of consecutive failures after which a backend is no longer used.
+     */
+    public static final int MAX_CONSECUTIVE_FAILURES = 3;
+    // The same as Downsampler, the stream must be reset after a failed backend has read an arbitrary amount of data.
+    private static final int MARK_POSITION = 5 * 1024 * 1024;
+
+    private final List<Backend> backends;
+
+    /**
+     * The statistics recorded for a single backend.
+     */
+    public static final class BackendStats {
+        private final AtomicInteger decodes = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicLong totalDecodeMicros = new AtomicLong();
+
+        /**
+         * Returns the number of images the backend decoded successfully.
+         */
+        public int getDecodeCount() {
+            return decodes.get();
+        }
+
+        /**
+         * Returns the number of times the backend threw or returned null.
+         */
+        public int getFailureCount() {
+            return failures.get();
+        }
+
+        /**
+         * Returns the average time in milliseconds the backend took to decode an image successfully, or 0 if the
+         * backend hasn't decoded any images.
+         */
+        public double getAverageDecodeMillis() {
+            final int count = decodes.get();
+            return count == 0 ? 0 : totalDecodeMicros.get() / 1000d / count;
+        }
+
+        /**
+         * Returns true if the backend failed too many times in a row and is no longer used.
+         */
+        public boolean isDisabled() {
+            return consecutiveFailures.get() >= MAX_CONSECUTIVE_FAILURES;
+        }
+
+        void onSuccess(double elapsedMillis) {
+            decodes.incrementAndGet();
+            totalDecodeMicros.addAndGet((long) (elapsedMillis * 1000));
+            consecutiveFailures.set(0);
+        }
+
+        void onFailure() {
+            failures.incrementAndGet();
+            consecutiveFailures.incrementAndGet();
+        }
+    }
+
+    private static final class Backend {
+        private final BitmapDecoderBackend decoder;
+        private final BackendStats stats = new BackendStats();
+
+        Backend(BitmapDecoderBackend decoder) {
+            this.decoder = decoder;
+        }
+    }
+
+    public BitmapDecoderSelector() {
+        this(Collections.<BitmapDecoderBackend>emptyList());
+    }
+
+    public BitmapDecoderSelector(List<BitmapDecoderBackend> backends) {
+        List<Backend> wrapped = new ArrayList<Backend>(backends.size());
+        for (BitmapDecoderBackend backend : backends) {
+            wrapped.add(new Backend(backend));
+        }
+        this.backends = Collections.unmodifiableList(wrapped);
+    }
+
+    /**
+     * Returns a decoder that uses this selector's backends for the images they can decode and the given decoder for
+     * all other images, or the given decoder itself if this selector has no backends.
+     *
+     * @param defaultDecoder The decoder to use if no backend can decode an image, usually a
+     *                       {@link com.bumptech.glide.load.resource.bitmap.Downsampler}.
+     */
+    public BitmapDecoder<InputStream> select(BitmapDecoder<InputStream> defaultDecoder) {
+        if (backends.isEmpty()) {
+            return defaultDecoder;
+        }
+        return new SelectingBitmapDecoder(this, defaultDecoder);
+    }
+
+    /**
+     * Returns the statistics for the given backend, or null if the backend wasn't given to this selector.
+     */
+    public BackendStats getStats(BitmapDecoderBackend backend) {
+        for (Backend candidate : backends) {
+            if (candidate.decoder == backend) {
+                return candidate.stats;
+            }
+        }
+        return null;
+    }
+
+    Bitmap decode(BitmapDecoder<InputStream> defaultDecoder, InputStream is, ImageHeader hint, BitmapPool pool,
+            int outWidth, int outHeight, DecodeFormat decodeFormat) throws Exception {
+        final ImageHeader header = getImageHeader(is, hint);
+        for (Backend backend : backends) {
+            if (backend.stats.isDisabled() || !backend.decoder.canDecode(header, outWidth, outHeight)) {
+                continue;
+            }
+
+            is.mark(MARK_POSITION);
+            final long startTime = LogTime.getLogTime();
+            Bitmap result = null;
+            Exception exception = null;
+            try {
+                result = backend.decoder.decode(is, pool, outWidth, outHeight, decodeFormat);
+            } catch (Exception e) {
+                exception = e;
+            }
+            if (result != null) {
+                backend.stats.onSuccess(LogTime.getElapsedMillis(startTime));
+                return result;
+            }
+
+            backend.stats.onFailure();
+            if (Log.isLoggable(TAG, Log.DEBUG)) {
+                Log.d(TAG, "Backend " + backend.decoder.getId() + " failed to decode " + header + ", disabled: "
+                        + backend.stats.isDisabled(), exception);
+            }
+            try {
+                is.reset();
+            } catch (IOException e) {
+                // The backend read past the mark limit, so we can't fall back.
+                throw exception != null ? exception : e;
+            }
+        }
+        return defaultDecoder.decode(is, pool, outWidth, outHeight, decodeFormat);
+    }
+
+    private static ImageHeader getImageHeader(InputStream is, ImageHeader hint) throws IOException {
+        RecyclableBufferedInputStream bufferedStream = null;
+        if (is instanceof RecyclableBufferedInputStream) {
+            bufferedStream = (RecyclableBufferedInputStream) is;
+            ImageHeader header = bufferedStream.getImageHeader();
+            if (header != null && header.isComplete()) {
+                return header;
+            }
+            if (header != null) {
+                hint = header;
+            }
+        }
+
+        ImageHeader header = hint;
+        if (!ImageHeaderInputStream.canSkipParsing(hint)) {
+            header = parseImageHeader(is, hint);
+        }
+        if (bufferedStream != null) {
+            // Saves the default decoder from parsing the header again.
+            bufferedStream.setImageHeader(header);
+        }
+        return header;
+    }
+
+    private static ImageHeader parseImageHeader(InputStream is, ImageHeader hint) throws IOException {
+        is.mark(MARK_POSITION);
+        ImageHeader header = ImageHeader.UNKNOWN;
+        try {
+            header = new ImageHeaderParser(is).parseHeader(MARK_POSITION);
+        } catch (IOException e) {
+            if (Log.isLoggable(TAG, Log.WARN)) {
+                Log.w(TAG, "Cannot parse the image header", e);
+            }
+        } finally {
+            is.reset();
+        }
+        return ImageHeaderInputStream.merge(header, hint);
+    }
+
+    private static final class SelectingBitmapDecoder implements BitmapDecoder<InputStream> {
+        private final BitmapDecoderSelector selector;
+        private final BitmapDecoder<InputStream> defaultDecoder;
+        private String id;
+
+        SelectingBitmapDecoder(BitmapDecoderSelector selector, BitmapDecoder<InputStream> defaultDecoder) {
+            this.selector = selector;
+            this.defaultDecoder = defaultDecoder;
+        }
+
+        @Override
+        public Bitmap decode(InputStream resource, BitmapPool bitmapPool, int outWidth, int outHeight,
+                DecodeFormat decodeFormat) throws Exception {
+            // The hint is lost if the stream is buffered, so it's passed separately.
+            final ImageHeader hint = ImageHeaderInputStream.getHint(resource);
+            if (resource.markSupported()) {
+                return selector.decode(defaultDecoder, resource, hint, bitmapPool, outWidth, outHeight,
+                        decodeFormat);
+            }
+
+            final ByteArrayPool byteArrayPool = ByteArrayPool.get();
+            final byte[] bytes = byteArrayPool.getBytes();
+            final RecyclableBufferedInputStream bufferedStream = new RecyclableBufferedInputStream(resource, bytes);
+            try {
+                return selector.decode(defaultDecoder, bufferedStream, hint, bitmapPool, outWidth, outHeight,
+                        decodeFormat);
+            } finally {
+                bufferedStream.release();
+                byteArrayPool.releaseBytes(bytes);
+            }
+        }
+
+        @Override
+        public String getId() {
+            if (id == null) {
+                StringBuilder builder = new StringBuilder("SelectingBitmapDecoder.com.bumptech.glide.load.resource"
+                        + ".bitmap");
+                for (Backend backend : selector.backends) {
+                    builder.append(backend.decoder.getId());
+                }
+                id = builder.append(defaultDecoder.getId()).toString();
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.engine.executor.FifoPriorityThreadPoolExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes {@link android.graphics.Bitmap}s with a separable resampling filter by reading and writing their pixels
+ * directly, rather than by drawing them with a filtered {@link android.graphics.Paint}, which only samples the
+ * nearest four source pixels for each output pixel and so aliases when images are scaled down by more than half.
+ *
+ * <p>
+ *     Each output row is computed independently from the source rows under its filter, so large images are split
+ *     in to horizontal bands of output rows that are resampled in parallel on an
+ *     {@link java.util.concurrent.ExecutorService}. Results are identical to resampling on a single thread because
+ *     every row is computed with the same integer arithmetic regardless of the band it's in.
+ * </p>
+ */
+public final class BitmapResampler {
+    /**
+     * The resampling filter to use.
+     */
+    public enum Filter {
+        /**
+         * Averages all of the source pixels covered by each output pixel. Fast and free of ringing, but soft.
+         */
+        BOX(0.5) {
+            @Override
+            double weight(double x) {
+                return x >= -0.5 && x < 0.5 ? 1 : 0;
+            }
+        },
+        /**
+         * A windowed sinc filter with three lobes. Sharper than {@link #BOX}, but slower.
+         */
+        LANCZOS(3) {
+            @Override
+            double weight(double x) {
+                if (x <= -3 || x >= 3) {
+                    return 0;
+                }
+                return sinc(x) * sinc(x / 3);
+            }
+        };
+
+        private final double support;
+
+        Filter(double support) {
+            this.support = support;
+        }
+
+        abstract double weight(double x);
+
+        private static double sinc(double x) {
+            if (x == 0) {
+                return 1;
+            }
+            final double px = Math.PI * x;
+            return Math.sin(px) / px;
+        }
+    }
+
+    // Visible for testing.
+    static final int MIN_PARALLEL_PIXELS = 1024 * 1024;
+    private static final int MIN_BAND_ROWS = 32;
+    private static final int WEIGHT_BITS = 14;
+    private static final int WEIGHT_ONE = 1 << WEIGHT_BITS;
+    private static final int WEIGHT_ROUNDING = 1 << (WEIGHT_BITS - 1);
+
+    private static ExecutorService defaultExecutor;
+
+    private BitmapResampler() {
+        // Utility class.
+    }
+
+    /**
+     * Returns a lazily created {@link java.util.concurrent.ExecutorService} with one background thread per available
+     * core, less one for the thread that starts the resample.
+     */
+    public static synchronized ExecutorService getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            final int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new FifoPriorityThreadPoolExecutor.DefaultThreadFactory());
+            // Don't keep idle threads around between the rare large resamples.
+            executor.allowCoreThreadTimeOut(true);
+            defaultExecutor = executor;
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Resamples the given bitmap to the given dimensions in to a {@link android.graphics.Bitmap} obtained from the
+     * given pool if possible, splitting large bitmaps in to bands that are resampled in parallel on the given
+     * executor.
+     *
+     * @param toResample The bitmap to resample.
+     * @param pool The pool to obtain the resampled bitmap from.
+     * @param width The width of the resampled bitmap.
+     * @param height The height of the resampled bitmap.
+     * @param filter The filter to resample with.
+     * @param executor The executor to resample bands on, or null to resample on the calling thread.
+     * @return The resampled bitmap, toResample if it already has the given dimensions, or null if the calling thread
+     *         was interrupted while waiting for bands resampled on the executor.
+     */
+    public static Bitmap resample(Bitmap toResample, BitmapPool pool, int width, int height, Filter filter,
+            ExecutorService executor) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Cannot resample to width: " + width + " or height: " + height
+                    + " less than or equal to zero");
+        }
+        final int inWidth = toResample.getWidth();
+        final int inHeight = toResample.getHeight();
+        if (inWidth == width && inHeight == height) {
+            return toResample;
+        }
+
+        Bitmap.Config config = toResample.getConfig() != null ? toResample.getConfig() : Bitmap.Config.ARGB_8888;
+        Bitmap result = pool.get(width, height, config);
+        if (result == null) {
+            result = Bitmap.createBitmap(width, height, config);
+        }
+        TransformationUtils.setAlpha(toResample, result);
+
+        if (!resample(new BitmapRows(toResample), inWidth, inHeight, new BitmapRows(result), width, height,
+                toResample.hasAlpha(), filter, executor, getBandCount(inWidth, inHeight, height, executor))) {
+            if (!pool.put(result)) {
+                result.recycle();
+            }
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Resamples the given ARGB pixels to the given dimensions in the given number of bands, all but one of which are
+     * resampled on the given executor, or returns null if the calling thread is interrupted.
+     */
+    // Visible for testing.
+    static int[] resample(int[] pixels, int inWidth, int inHeight, int width, int height, boolean hasAlpha,
+            Filter filter, ExecutorService executor, int bandCount) {
+        final int[] result = new int[width * height];
+        if (!resample(new ArrayRows(pixels, inWidth), inWidth, inHeight, new ArrayRows(result, width), width, height,
+                hasAlpha, filter, executor, bandCount)) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Resamples the given rows in to the given destination and returns true, or returns false without finishing the
+     * destination if the calling thread is interrupted while waiting for a band.
+     */
+    private static boolean resample(Rows source, int inWidth, int inHeight, Rows destination, int width, int height,
+            boolean hasAlpha, Filter filter, ExecutorService executor, int bandCount) {
+        final Weights horizontal = new Weights(inWidth, width, filter);
+        final Weights vertical = new Weights(inHeight, height, filter);
+
+        final List<Band> bands = new ArrayList<Band>(bandCount);
+        for (int i = 0; i < bandCount; i++) {
+            bands.add(new Band(source, inWidth, horizontal, vertical, hasAlpha, height * i / bandCount,
+                    height * (i + 1) / bandCount));
+        }
+
+        final List<Future<int[]>> futures = new ArrayList<Future<int[]>>(bandCount);
+        for (int i = 1; i < bandCount; i++) {
+            futures.add(executor.submit(bands.get(i)));
+        }
+        try {
+            for (int i = 0; i < bandCount; i++) {
+                final Band band = bands.get(i);
+                final int[] pixels;
+                if (i == 0) {
+                    pixels = band.call();
+                } else {
+                    try {
+                        pixels = futures.get(i - 1).get();
+                    } catch (InterruptedException e) {
+                        // The load was cancelled, so there's no point in finishing the remaining bands.
+                        Thread.currentThread().interrupt();
+                        return false;
+                    } catch (ExecutionException e) {
+                        throw new RuntimeException(e.getCause());
+                    }
+                }
+                destination.write(pixels, band.startRow, band.endRow - band.startRow);
+            }
+            return true;
+        } finally {
+            // Only has an effect if resampling stopped early, in which case queued bands shouldn't run.
+            for (Future<int[]> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    // Visible for testing.
+    static int getBandCount(int inWidth, int inHeight, int outHeight, ExecutorService executor) {
+        if (executor == null || inWidth * (long) inHeight < MIN_PARALLEL_PIXELS) {
+            return 1;
+        }
+        final int cores = Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(cores, outHeight / MIN_BAND_ROWS));
+    }
+
+    /**
+     * The fixed point weights of the source pixels along one axis that contribute to each output pixel along that
+     * axis.
+     */
+    // Visible for testing.
+    static final class Weights {
+        final int[] starts;
+        final int[] counts;
+        final int[] weights;
+        final int stride;
+
+        Weights(int inSize, int outSize, Filter filter) {
+            final double scale = inSize / (double) outSize;
+            // Widen the filter when scaling down so that it covers every source pixel.
+            final double filterScale = Math.max(1, scale);
+            final double support = filter.support * filterScale;
+            stride = (int) Math.ceil(support) * 2 + 1;
+            starts = new int[outSize];
+            counts = new int[outSize];
+            weights = new int[outSize * stride];
+
+            final double[] values = new double[stride];
+            for (int i = 0; i < outSize; i++) {
+                final double center = (i + 0.5) * scale;
+                final int start = Math.max(0, (int) Math.floor(center - support));
+                final int end = Math.min(inSize, Math.min(start + stride, (int) Math.ceil(center + support)));
+                double total = 0;
+                for (int j = start; j < end; j++) {
+                    final double value = filter.weight((j + 0.5 - center) / filterScale);
+                    values[j - start] = value;
+                    total += value;
+                }
+                starts[i] = start;
+                counts[i] = end - start;
+                final int offset = i * stride;
+                if (total == 0) {
+                    // Fall back to the nearest source pixel.
+                    starts[i] = Math.min(inSize - 1, (int) center);
+                    counts[i] = 1;
+                    weights[offset] = WEIGHT_ONE;
+                    continue;
+                }
+                int fixedTotal = 0;
+                int largest = 0;
+                for (int j = 0; j < counts[i]; j++) {
+                    final int weight = (int) Math.round(values[j] / total * WEIGHT_ONE);
+                    weights[offset + j] = weight;
+                    fixedTotal += weight;
+                    if (weight > weights[offset + largest]) {
+                        largest = j;
+                    }
+                }
+                // Make the weights sum to exactly one so that flat areas keep their exact color.
+                weights[offset + largest] += WEIGHT_ONE - fixedTotal;
+            }
+        }
+    }
+
+    /**
+     * Resamples a range of output rows, reading source rows one at a time and keeping only as many horizontally
+     * resampled rows as the vertical filter needs.
+     */
+    private static final class Band implements Callable<int[]> {
+        private final Rows source;
+        private final int inWidth;
+        private final Weights horizontal;
+        private final Weights vertical;
+        private final boolean hasAlpha;
+        final int startRow;
+        final int endRow;
+
+        Band(Rows source, int inWidth, Weights horizontal, Weights vertical, boolean hasAlpha, int startRow,
+                int endRow) {
+            this.source = source;
+            this.inWidth = inWidth;
+            this.horizontal = horizontal;
+            this.vertical = vertical;
+            this.hasAlpha = hasAlpha;
+            this.startRow = startRow;
+            this.endRow = endRow;
+        }
+
+        @Override
+        public int[] call() {
+            final int outWidth = horizontal.starts.length;
+            final int ringSize = vertical.stride;
+            final int[] sourceRow = new int[inWidth];
+            final int[] ring = new int[ringSize * outWidth];
+            final int[] result = new int[(endRow - startRow) * outWidth];
+
+            int nextSourceRow = 0;
+            for (int y = startRow; y < endRow; y++) {
+                final int start = vertical.starts[y];
+                final int end = start + vertical.counts[y];
+                nextSourceRow = Math.max(nextSourceRow, start);
+                for (; nextSourceRow < end; nextSourceRow++) {
+                    source.read(sourceRow, nextSourceRow);
+                    if (hasAlpha) {
+                        premultiply(sourceRow);
+                    }
+                    resampleRow(sourceRow, ring, (nextSourceRow % ringSize) * outWidth);
+                }
+                resampleColumn(ring, y, result, (y - startRow) * outWidth);
+            }
+            return result;
+        }
+
+        private void resampleRow(int[] in, int[] out, int outOffset) {
+            final int[] weights = horizontal.weights;
+            final int stride = horizontal.stride;
+            for (int x = 0; x < horizontal.starts.length; x++) {
+                final int start = horizontal.starts[x];
+                final int count = horizontal.counts[x];
+                final int weightOffset = x * stride;
+                int a = WEIGHT_ROUNDING;
+                int r = WEIGHT_ROUNDING;
+                int g = WEIGHT_ROUNDING;
+                int b = WEIGHT_ROUNDING;
+                for (int i = 0; i < count; i++) {
+                    final int color = in[start + i];
+                    final int weight = weights[weightOffset + i];
+                    a += (color >>> 24) * weight;
+                    r += ((color >> 16) & 0xFF) * weight;
+                    g += ((color >> 8) & 0xFF) * weight;
+                    b += (color & 0xFF) * weight;
+                }
+                out[outOffset + x] = pack(a, r, g, b);
+            }
+        }
+
+        private void resampleColumn(int[] ring, int y, int[] out, int outOffset) {
+            final int outWidth = horizontal.starts.length;
+            final int ringSize = vertical.stride;
+            final int start = vertical.starts[y];
+            final int count = vertical.counts[y];
+            final int weightOffset = y * vertical.stride;
+            for (int x = 0; x < outWidth; x++) {
+                int a = WEIGHT_ROUNDING;
+                int r = WEIGHT_ROUNDING;
+                int g = WEIGHT_ROUNDING;
+                int b = WEIGHT_ROUNDING;
+                for (int i = 0; i < count; i++) {
+                    final int color = ring[((start + i) % ringSize) * outWidth + x];
+                    final int weight = vertical.weights[weightOffset + i];
+                    a += (color >>> 24) * weight;
+                    r += ((color >> 16) & 0xFF) * weight;
+                    g += ((color >> 8) & 0xFF) * weight;
+                    b += (color & 0xFF) * weight;
+                }
+                final int color = pack(a, r, g, b);
+                out[outOffset + x] = hasAlpha ? unpremultiply(color) : color;
+            }
+        }
+    }
+
+    /**
+     * Reads and writes whole rows of ARGB pixels.
+     */
+    private interface Rows {
+        void read(int[] row, int y);
+
+        void write(int[] rows, int y, int count);
+    }
+
+    private static final class BitmapRows implements Rows {
+        private final Bitmap bitmap;
+
+        BitmapRows(Bitmap bitmap) {
+            this.bitmap = bitmap;
+        }
+
+        @Override
+        public void read(int[] row, int y) {
+            bitmap.getPixels(row, 0, bitmap.getWidth(), 0, y, bitmap.getWidth(), 1);
+        }
+
+        @Override
+        public void write(int[] rows, int y, int count) {
+            bitmap.setPixels(rows, 0, bitmap.getWidth(), 0, y, bitmap.getWidth(), count);
+        }
+    }
+
+    private static final class ArrayRows implements Rows {
+        private final int[] pixels;
+        private final int width;
+
+        ArrayRows(int[] pixels, int width) {
+            this.pixels = pixels;
+            this.width = width;
+        }
+
+        @Override
+        public void read(int[] row, int y) {
+            System.arraycopy(pixels, y * width, row, 0, width);
+        }
+
+        @Override
+        public void write(int[] rows, int y, int count) {
+            System.arraycopy(rows, 0, pixels, y * width, count * width);
+        }
+    }
+
+    private static int pack(int a, int r, int g, int b) {
+        return clamp(a >> WEIGHT_BITS) << 24 | clamp(r >> WEIGHT_BITS) << 16 | clamp(g >> WEIGHT_BITS) << 8
+                | clamp(b >> WEIGHT_BITS);
+    }
+
+    private static int clamp(int value) {
+        return value < 0 ? 0 : (value > 0xFF ? 0xFF : value);
+    }
+
+    // Filtering colors that aren't premultiplied lets fully transparent pixels bleed their color in to their neighbors.
+    private static void premultiply(int[] colors) {
+        for (int i = 0; i < colors.length; i++) {
+            final int color = colors[i];
+            final int a = color >>> 24;
+            if (a == 0xFF) {
+                continue;
+            }
+            final int r = (((color >> 16) & 0xFF) * a + 127) / 255;
+            final int g = (((color >> 8) & 0xFF) * a + 127) / 255;
+            final int b = ((color & 0xFF) * a + 127) / 255;
+            colors[i] = a << 24 | r << 16 | g << 8 | b;
+        }
+    }
+
+    private static int unpremultiply(int color) {
+        final int a = color >>> 24;
+        if (a == 0xFF) {
+            return color;
+        } else if (a == 0) {
+            return 0;
+        }
+        final int half = a / 2;
+        final int r = Math.min(0xFF, (((color >> 16) & 0xFF) * 255 + half) / a);
+        final int g = Math.min(0xFF, (((color >> 8) & 0xFF) * 255 + half) / a);
+        final int b = Math.min(0xFF, ((color & 0xFF) * 255 + half) / a);
+        return a << 24 | r << 16 | g << 8 | b;
+    }
+}
@@ -0,0 +1,44 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.ResourceDecoder;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
+
+/**
+ * A {@link com.bumptech.glide.load.engine.cache.TransformedResourceCache.Converter} for loads that decode
+ * {@link android.graphics.Bitmap}s, which share their {@link android.graphics.Bitmap}s as they are.
+ *
+ * <p>
+ *     The {@link android.graphics.Bitmap}s may be the first frame of an animation, so they aren't complete.
+ * </p>
+ */
+class BitmapResourceConverter implements TransformedResourceCache.Converter<Bitmap> {
+    private final ResourceDecoder<?, Bitmap> decoder;
+
+    public BitmapResourceConverter(ResourceDecoder<?, Bitmap> decoder) {
+        this.decoder = decoder;
+    }
+
+    @Override
+    public String getSharedDecoderId() {
+        return decoder.getId();
+    }
+
+    @Override
+    public boolean isComplete() {
+        return false;
+    }
+
+    @Override
+    public Resource<?> getShared(Resource<Bitmap> resource) {
+        return resource;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Resource<Bitmap> wrapShared(Resource<?> shared) {
+        return (Resource<Bitmap>) shared;
+    }
+}
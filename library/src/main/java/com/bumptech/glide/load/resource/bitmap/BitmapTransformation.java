@@ -10,6 +10,8 @@ import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 import com.bumptech.glide.request.target.Target;
 import com.bumptech.glide.util.Util;
 
+import java.util.Collections;
+
 /**
  * A simple {@link com.bumptech.glide.load.Transformation} for transforming {@link android.graphics.Bitmap}s that
  * abstracts away dealing with {@link com.bumptech.glide.load.engine.Resource} objects for subclasses.
@@ -48,6 +50,10 @@ public abstract class BitmapTransformation implements Transformation<Bitmap> {
             throw new IllegalArgumentException("Cannot apply transformation on width: " + outWidth + " or height: "
                     + outHeight + " less than or equal to zero and not Target.SIZE_ORIGINAL");
         }
+        if (OrientedBitmapResource.hasPendingOrientation(resource)) {
+            // Rotates in the same draw as this transformation if it can be fused, or rotates first otherwise.
+            return FusedDraw.transform(Collections.singletonList(this), resource, outWidth, outHeight);
+        }
         Bitmap toTransform = resource.get();
         int targetWidth = outWidth == Target.SIZE_ORIGINAL ? toTransform.getWidth() : outWidth;
         int targetHeight = outHeight == Target.SIZE_ORIGINAL ? toTransform.getHeight() : outHeight;
@@ -82,4 +88,29 @@ public abstract class BitmapTransformation implements Transformation<Bitmap> {
      *                  exactly).
      */
     protected abstract Bitmap transform(BitmapPool pool, Bitmap toTransform, int outWidth, int outHeight);
+
+    /**
+     * Adds this transformation to the given draw so that it can be applied along with adjacent transformations in a
+     * single draw, see {@link com.bumptech.glide.load.resource.bitmap.MultiBitmapTransformation}, and returns true, or
+     * returns false without changing the given draw if this transformation can't be added to it.
+     *
+     * <p>
+     *     Transformations that override this method must produce the same result from this method as from
+     *     {@link #transform(BitmapPool, Bitmap, int, int)} and must always be able to add themselves to a draw that is
+     *     {@link FusedDraw#isIdentity()}. The default implementation returns false.
+     * </p>
+     *
+     * @param draw The draw to add this transformation to.
+     * @param outWidth The ideal width of the transformed content, never
+     *                 {@link com.bumptech.glide.request.target.Target#SIZE_ORIGINAL}.
+     * @param outHeight The ideal height of the transformed content, never
+     *                  {@link com.bumptech.glide.request.target.Target#SIZE_ORIGINAL}.
+     */
+    protected boolean fuse(FusedDraw draw, int outWidth, int outHeight) {
+        return false;
+    }
+
+    BitmapPool getBitmapPool() {
+        return bitmapPool;
+    }
 }
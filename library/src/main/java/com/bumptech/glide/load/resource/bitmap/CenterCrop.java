@@ -2,6 +2,7 @@ package com.bumptech.glide.load.resource.bitmap;
 
 import android.content.Context;
 import android.graphics.Bitmap;
+import android.graphics.Matrix;
 
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 
@@ -34,6 +35,16 @@ public class CenterCrop extends BitmapTransformation {
         return transformed;
     }
 
+    @Override
+    protected boolean fuse(FusedDraw draw, int outWidth, int outHeight) {
+        if (draw.getWidth() != outWidth || draw.getHeight() != outHeight) {
+            Matrix matrix = DrawingContext.get().getMatrix();
+            TransformationUtils.setCenterCropMatrix(matrix, draw.getWidth(), draw.getHeight(), outWidth, outHeight);
+            draw.postConcat(matrix, outWidth, outHeight);
+        }
+        return true;
+    }
+
     @Override
     public String getId() {
         return "CenterCrop.com.bumptech.glide.load.resource.bitmap";
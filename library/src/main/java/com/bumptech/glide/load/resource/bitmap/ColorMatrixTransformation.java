@@ -0,0 +1,49 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.ColorMatrix;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+
+import java.util.Arrays;
+
+/**
+ * Applies a {@link android.graphics.ColorMatrix} to every pixel of the image, for example to desaturate or tint it.
+ */
+public class ColorMatrixTransformation extends BitmapTransformation {
+    // A copy, so that changes to the given matrix don't change the transformation or its id.
+    private final ColorMatrix colorMatrix;
+    private String id;
+
+    public ColorMatrixTransformation(Context context, ColorMatrix colorMatrix) {
+        super(context);
+        this.colorMatrix = new ColorMatrix(colorMatrix);
+    }
+
+    public ColorMatrixTransformation(BitmapPool bitmapPool, ColorMatrix colorMatrix) {
+        super(bitmapPool);
+        this.colorMatrix = new ColorMatrix(colorMatrix);
+    }
+
+    @Override
+    protected Bitmap transform(BitmapPool pool, Bitmap toTransform, int outWidth, int outHeight) {
+        FusedDraw draw = new FusedDraw(toTransform);
+        fuse(draw, outWidth, outHeight);
+        return draw.draw(pool);
+    }
+
+    @Override
+    protected boolean fuse(FusedDraw draw, int outWidth, int outHeight) {
+        return draw.postColorMatrix(colorMatrix);
+    }
+
+    @Override
+    public String getId() {
+        if (id == null) {
+            id = "ColorMatrixTransformation.com.bumptech.glide.load.resource.bitmap"
+                    + Arrays.toString(colorMatrix.getArray());
+        }
+        return id;
+    }
+}
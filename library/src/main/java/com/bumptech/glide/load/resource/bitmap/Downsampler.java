@@ -1,12 +1,14 @@
 package com.bumptech.glide.load.resource.bitmap;
 
 import android.annotation.TargetApi;
+import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.os.Build;
 import android.util.Log;
 
 import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.Resource;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 import com.bumptech.glide.request.target.Target;
 import com.bumptech.glide.util.ByteArrayPool;
@@ -64,6 +66,62 @@ public abstract class Downsampler implements BitmapDecoder<InputStream> {
         }
     };
 
+    /**
+     * Load and scale the image uniformly (maintaining the image's aspect ratio) so that the dimensions of the image
+     * will be as close as possible to, but still greater than or equal to, the given width and height.
+     *
+     * <p>
+     *     On KitKat and above, the image is decoded with a power of two sample size and then scaled during the same
+     *     decode by the remaining non power of two factor, so that transformations like
+     *     {@link com.bumptech.glide.load.resource.bitmap.CenterCrop} don't need to scale the image again. On earlier
+     *     versions of Android this is equivalent to {@link #AT_LEAST}.
+     * </p>
+     */
+    public static final Downsampler AT_LEAST_EXACT = new Downsampler() {
+        @Override
+        protected int getSampleSize(int inWidth, int inHeight, int outWidth, int outHeight) {
+            return Math.min(inHeight / outHeight, inWidth / outWidth);
+        }
+
+        @Override
+        protected float getExactScaleFactor(int inWidth, int inHeight, int outWidth, int outHeight) {
+            return Math.max(outWidth / (float) inWidth, outHeight / (float) inHeight);
+        }
+
+        @Override
+        public String getId() {
+            return "AT_LEAST_EXACT.com.bumptech.glide.load.data.bitmap";
+        }
+    };
+
+    /**
+     * Load and scale the image uniformly (maintaining the image's aspect ratio) so that the dimensions of the image
+     * will be as close as possible to, but still less than or equal to, the given width and height.
+     *
+     * <p>
+     *     On KitKat and above, the image is decoded with a power of two sample size and then scaled during the same
+     *     decode by the remaining non power of two factor, so that transformations like
+     *     {@link com.bumptech.glide.load.resource.bitmap.FitCenter} can return the decoded image unchanged. On earlier
+     *     versions of Android this is equivalent to {@link #AT_MOST}.
+     * </p>
+     */
+    public static final Downsampler AT_MOST_EXACT = new Downsampler() {
+        @Override
+        protected int getSampleSize(int inWidth, int inHeight, int outWidth, int outHeight) {
+            return Math.max(inHeight / outHeight, inWidth / outWidth);
+        }
+
+        @Override
+        protected float getExactScaleFactor(int inWidth, int inHeight, int outWidth, int outHeight) {
+            return Math.min(outWidth / (float) inWidth, outHeight / (float) inHeight);
+        }
+
+        @Override
+        public String getId() {
+            return "AT_MOST_EXACT.com.bumptech.glide.load.data.bitmap";
+        }
+    };
+
     /**
      * Load the image at its original size.
      */
@@ -82,6 +140,9 @@ public abstract class Downsampler implements BitmapDecoder<InputStream> {
     // 5MB. This is the max image header size we can handle, we preallocate a much smaller buffer but will resize up to
     // this amount if necessary.
     private static final int MARK_POSITION = 5 * 1024 * 1024;
+    // The inDensity used to scale by non power of two factors. inTargetDensity / inDensity is the scale factor, so
+    // this determines the precision of the scale factor.
+    private static final int DENSITY_PRECISION = 1000000;
 
 
     /**
@@ -99,10 +160,32 @@ public abstract class Downsampler implements BitmapDecoder<InputStream> {
      * @param outHeight The height the final image should be close to.
      * @return A new bitmap containing the image from the given InputStream, or recycle if recycle is not null.
      */
-    @SuppressWarnings("resource")
-    // see BitmapDecoder.decode
     @Override
     public Bitmap decode(InputStream is, BitmapPool pool, int outWidth, int outHeight, DecodeFormat decodeFormat) {
+        final Resource<Bitmap> decoded = decodeResource(is, pool, outWidth, outHeight, decodeFormat);
+        return decoded != null ? decoded.get() : null;
+    }
+
+    /**
+     * Load the image for the given InputStream, like {@link #decode(InputStream, BitmapPool, int, int, DecodeFormat)},
+     * but without rotating the image to match its EXIF orientation.
+     *
+     * <p>
+     *     If the image must be rotated, an {@link com.bumptech.glide.load.resource.bitmap.OrientedBitmapResource} is
+     *     returned so that the rotation can be applied in the same draw as the next transformation, rather than with
+     *     a separate full size copy of the image.
+     * </p>
+     *
+     * @param is An {@link InputStream} to the data for the image.
+     * @param pool A pool of recycled bitmaps.
+     * @param outWidth The width the final image should be close to.
+     * @param outHeight The height the final image should be close to.
+     * @return A resource containing the image from the given InputStream, or null if the image couldn't be decoded.
+     */
+    @SuppressWarnings("resource")
+    // see BitmapDecoder.decode
+    public Resource<Bitmap> decodeResource(InputStream is, BitmapPool pool, int outWidth, int outHeight,
+            DecodeFormat decodeFormat) {
         final ByteArrayPool byteArrayPool = ByteArrayPool.get();
         final byte[] bytesForOptions = byteArrayPool.getBytes();
         final byte[] bytesForStream = byteArrayPool.getBytes();
@@ -121,36 +204,35 @@ public abstract class Downsampler implements BitmapDecoder<InputStream> {
         // full image even when the header decode fails and/or overflows our read buffer. See #283.
         MarkEnforcingInputStream invalidatingStream = new MarkEnforcingInputStream(exceptionStream);
         try {
-            exceptionStream.mark(MARK_POSITION);
-            int orientation = 0;
-            try {
-                orientation = new ImageHeaderParser(exceptionStream).getOrientation();
-            } catch (IOException e) {
-                if (Log.isLoggable(TAG, Log.WARN)) {
-                    Log.w(TAG, "Cannot determine the image orientation from header", e);
-                }
-            } finally {
-                try {
-                    exceptionStream.reset();
-                } catch (IOException e) {
-                    if (Log.isLoggable(TAG, Log.WARN)) {
-                        Log.w(TAG, "Cannot reset the input stream", e);
-                    }
-                }
-            }
+            final ImageHeader header = getImageHeader(is, exceptionStream);
+            final int orientation = header.getOrientation();
 
             options.inTempStorage = bytesForOptions;
 
-            final int[] inDimens = getDimensions(invalidatingStream, bufferedStream, options);
-            final int inWidth = inDimens[0];
-            final int inHeight = inDimens[1];
+            final int inWidth;
+            final int inHeight;
+            if (header.hasDimensions()) {
+                inWidth = header.getWidth();
+                inHeight = header.getHeight();
+            } else {
+                final int[] inDimens = getDimensions(invalidatingStream, bufferedStream, options);
+                inWidth = inDimens[0];
+                inHeight = inDimens[1];
+            }
 
             final int degreesToRotate = TransformationUtils.getExifOrientationDegrees(orientation);
             final int sampleSize = getRoundedSampleSize(degreesToRotate, inWidth, inHeight, outWidth, outHeight);
+            final float densityScale =
+                    getDensityScale(degreesToRotate, inWidth, inHeight, outWidth, outHeight, sampleSize);
 
             final Bitmap downsampled =
-                    downsampleWithSize(invalidatingStream, bufferedStream, options, pool, inWidth, inHeight, sampleSize,
-                            decodeFormat);
+                    downsampleWithSize(invalidatingStream, bufferedStream, options, pool, header, inWidth, inHeight,
+                            sampleSize, densityScale, decodeFormat);
+            if (downsampled != null && options.inScaled) {
+                // BitmapFactory sets the density of scaled Bitmaps to inTargetDensity, which would cause them to be
+                // scaled again when drawn. Match the density of Bitmaps decoded without scaling instead.
+                downsampled.setDensity(Resources.getSystem().getDisplayMetrics().densityDpi);
+            }
 
             // BitmapFactory swallows exceptions during decodes and in some cases when inBitmap is non null, may catch
             // and log a stack trace but still return a non null bitmap. To avoid displaying partially decoded bitmaps,
@@ -160,17 +242,9 @@ public abstract class Downsampler implements BitmapDecoder<InputStream> {
                 throw new RuntimeException(streamException);
             }
 
-            Bitmap rotated = null;
-            if (downsampled != null) {
-                rotated = TransformationUtils.rotateImageExif(downsampled, pool, orientation);
-
-                if (!downsampled.equals(rotated) && !pool.put(downsampled)) {
-                    downsampled.recycle();
-                }
-            }
-
-            return rotated;
+            return OrientedBitmapResource.obtain(downsampled, pool, orientation);
         } finally {
+            bufferedStream.release();
             byteArrayPool.releaseBytes(bytesForOptions);
             byteArrayPool.releaseBytes(bytesForStream);
             exceptionStream.release();
@@ -178,6 +252,45 @@ public abstract class Downsampler implements BitmapDecoder<InputStream> {
         }
     }
 
+    /**
+     * Returns the header attached to the given stream by an earlier decoder or the hint attached to the given stream
+     * if it's sufficient, or otherwise parses the header from the given marked stream, so that the type, orientation
+     * and dimensions are read in a single pass.
+     */
+    private static ImageHeader getImageHeader(InputStream original, InputStream is) {
+        ImageHeader hint = ImageHeaderInputStream.getHint(original);
+        if (original instanceof RecyclableBufferedInputStream) {
+            ImageHeader header = ((RecyclableBufferedInputStream) original).getImageHeader();
+            if (header != null && header.isComplete()) {
+                return header;
+            }
+            // An incomplete header may still have dimensions from a hint.
+            hint = header;
+        }
+        if (ImageHeaderInputStream.canSkipParsing(hint)) {
+            return hint;
+        }
+
+        ImageHeader header = ImageHeader.UNKNOWN;
+        is.mark(MARK_POSITION);
+        try {
+            header = new ImageHeaderParser(is).parseHeader(MARK_POSITION);
+        } catch (IOException e) {
+            if (Log.isLoggable(TAG, Log.WARN)) {
+                Log.w(TAG, "Cannot parse the image header", e);
+            }
+        } finally {
+            try {
+                is.reset();
+            } catch (IOException e) {
+                if (Log.isLoggable(TAG, Log.WARN)) {
+                    Log.w(TAG, "Cannot reset the input stream", e);
+                }
+            }
+        }
+        return ImageHeaderInputStream.merge(header, hint);
+    }
+
     private int getRoundedSampleSize(int degreesToRotate, int inWidth, int inHeight, int outWidth, int outHeight) {
         int targetHeight = outHeight == Target.SIZE_ORIGINAL ? inHeight : outHeight;
         int targetWidth = outWidth == Target.SIZE_ORIGINAL ? inWidth : outWidth;
@@ -201,76 +314,81 @@ public abstract class Downsampler implements BitmapDecoder<InputStream> {
         return Math.max(1, powerOfTwoSampleSize);
     }
 
+    /**
+     * Returns the factor, less than or equal to 1, by which to scale the image after the given power of two sample
+     * size has been applied so that the image matches {@link #getExactScaleFactor(int, int, int, int)}, or 1 if the
+     * image shouldn't be scaled further.
+     */
+    private float getDensityScale(int degreesToRotate, int inWidth, int inHeight, int outWidth, int outHeight,
+            int sampleSize) {
+        // Prior to KitKat, inBitmap can't be used when scaling.
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT || outWidth == Target.SIZE_ORIGINAL
+                || outHeight == Target.SIZE_ORIGINAL || inWidth <= 0 || inHeight <= 0) {
+            return 1f;
+        }
+
+        final float exactScaleFactor;
+        if (degreesToRotate == 90 || degreesToRotate == 270) {
+            exactScaleFactor = getExactScaleFactor(inHeight, inWidth, outWidth, outHeight);
+        } else {
+            exactScaleFactor = getExactScaleFactor(inWidth, inHeight, outWidth, outHeight);
+        }
+        if (exactScaleFactor <= 0f) {
+            return 1f;
+        }
+
+        // The sample size is never larger than the exact inverse scale factor, so the remaining scale is at most 1
+        // unless the image is smaller than the target, in which case we never scale up.
+        return Math.min(1f, exactScaleFactor * sampleSize);
+    }
+
     private Bitmap downsampleWithSize(MarkEnforcingInputStream is, RecyclableBufferedInputStream  bufferedStream,
-            BitmapFactory.Options options, BitmapPool pool, int inWidth, int inHeight, int sampleSize,
-            DecodeFormat decodeFormat) {
+            BitmapFactory.Options options, BitmapPool pool, ImageHeader header, int inWidth, int inHeight,
+            int sampleSize, float densityScale, DecodeFormat decodeFormat) {
         // Prior to KitKat, the inBitmap size must exactly match the size of the bitmap we're decoding.
-        Bitmap.Config config = getConfig(is, decodeFormat);
+        Bitmap.Config config = getConfig(header, decodeFormat);
         options.inSampleSize = sampleSize;
         options.inPreferredConfig = config;
-        if ((options.inSampleSize == 1 || Build.VERSION_CODES.KITKAT <= Build.VERSION.SDK_INT) && shouldUsePool(is)) {
+        float scale = 1f;
+        if (densityScale < 1f) {
+            options.inScaled = true;
+            options.inDensity = DENSITY_PRECISION;
+            options.inTargetDensity = Math.max(1, Math.round(densityScale * DENSITY_PRECISION));
+            // Mirror BitmapFactory's calculation so that we request a Bitmap of the size that will be decoded.
+            scale = options.inTargetDensity / (float) options.inDensity;
+        }
+        if ((options.inSampleSize == 1 || Build.VERSION_CODES.KITKAT <= Build.VERSION.SDK_INT)
+                && shouldUsePool(header)) {
             int targetWidth = (int) Math.ceil(inWidth / (double) sampleSize);
             int targetHeight = (int) Math.ceil(inHeight / (double) sampleSize);
+            if (options.inScaled) {
+                targetWidth = (int) (targetWidth * scale + 0.5f);
+                targetHeight = (int) (targetHeight * scale + 0.5f);
+            }
             // BitmapFactory will clear out the Bitmap before writing to it, so getDirty is safe.
             setInBitmap(options, pool.getDirty(targetWidth, targetHeight, config));
         }
         return decodeStream(is, bufferedStream, options);
     }
 
-    private static boolean shouldUsePool(InputStream is) {
+    private static boolean shouldUsePool(ImageHeader header) {
         // On KitKat+, any bitmap can be used to decode any other bitmap.
         if (Build.VERSION_CODES.KITKAT <= Build.VERSION.SDK_INT) {
             return true;
         }
 
-        is.mark(1024);
-        try {
-            final ImageHeaderParser.ImageType type = new ImageHeaderParser(is).getType();
-            // cannot reuse bitmaps when decoding images that are not PNG or JPG.
-            // look at : https://groups.google.com/forum/#!msg/android-developers/Mp0MFVFi1Fo/e8ZQ9FGdWdEJ
-            return TYPES_THAT_USE_POOL.contains(type);
-        } catch (IOException e) {
-            if (Log.isLoggable(TAG, Log.WARN)) {
-                Log.w(TAG, "Cannot determine the image type from header", e);
-            }
-        } finally {
-            try {
-                is.reset();
-            } catch (IOException e) {
-                if (Log.isLoggable(TAG, Log.WARN)) {
-                    Log.w(TAG, "Cannot reset the input stream", e);
-                }
-            }
-        }
-        return false;
+        // cannot reuse bitmaps when decoding images that are not PNG or JPG, including WebPs and HEIFs.
+        // look at : https://groups.google.com/forum/#!msg/android-developers/Mp0MFVFi1Fo/e8ZQ9FGdWdEJ
+        return TYPES_THAT_USE_POOL.contains(header.getType());
     }
 
-    private static Bitmap.Config getConfig(InputStream is, DecodeFormat format) {
+    private static Bitmap.Config getConfig(ImageHeader header, DecodeFormat format) {
         // Changing configs can cause skewing on 4.1, see issue #128.
         if (format == DecodeFormat.ALWAYS_ARGB_8888 || Build.VERSION.SDK_INT == Build.VERSION_CODES.JELLY_BEAN) {
             return Bitmap.Config.ARGB_8888;
         }
 
-        boolean hasAlpha = false;
-        // We probably only need 25, but this is safer (particularly since the buffer size is > 1024).
-        is.mark(1024);
-        try {
-            hasAlpha = new ImageHeaderParser(is).hasAlpha();
-        } catch (IOException e) {
-            if (Log.isLoggable(TAG, Log.WARN)) {
-                Log.w(TAG, "Cannot determine whether the image has alpha or not from header for format " + format, e);
-            }
-        } finally {
-            try {
-                is.reset();
-            } catch (IOException e) {
-                if (Log.isLoggable(TAG, Log.WARN)) {
-                    Log.w(TAG, "Cannot reset the input stream", e);
-                }
-            }
-        }
-
-        return hasAlpha ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565;
+        return header.hasAlpha() ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565;
     }
 
     /**
@@ -288,6 +406,24 @@ public abstract class Downsampler implements BitmapDecoder<InputStream> {
      */
     protected abstract int getSampleSize(int inWidth, int inHeight, int outWidth, int outHeight);
 
+    /**
+     * Returns the exact factor by which to scale the image so that it matches the dimensions of the view/target, or 0
+     * to only downsample by the power of two sample size derived from
+     * {@link #getSampleSize(int, int, int, int)}.
+     *
+     * <p>
+     *     Non power of two scale factors are only applied on KitKat and above, and images are never scaled up.
+     * </p>
+     *
+     * @param inWidth The width in pixels of the image to be downsampled.
+     * @param inHeight The height in pixels of the image to be downsampled.
+     * @param outWidth The width in pixels of the view/target the image will be displayed in.
+     * @param outHeight The height in pixels of the view/target the image will be displayed in.
+     */
+    protected float getExactScaleFactor(int inWidth, int inHeight, int outWidth, int outHeight) {
+        return 0f;
+    }
+
     /**
      * A method for getting the dimensions of an image from the given InputStream.
      *
@@ -371,6 +507,8 @@ public abstract class Downsampler implements BitmapDecoder<InputStream> {
         decodeBitmapOptions.inDither = false;
         decodeBitmapOptions.inScaled = false;
         decodeBitmapOptions.inSampleSize = 1;
+        decodeBitmapOptions.inDensity = 0;
+        decodeBitmapOptions.inTargetDensity = 0;
         decodeBitmapOptions.inPreferredConfig = null;
         decodeBitmapOptions.inJustDecodeBounds = false;
         decodeBitmapOptions.outWidth = 0;
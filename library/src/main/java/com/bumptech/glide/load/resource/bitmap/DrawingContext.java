@@ -0,0 +1,126 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorMatrix;
+import android.graphics.ColorMatrixColorFilter;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.os.Build;
+
+import java.util.Arrays;
+
+/**
+ * A per thread set of the objects needed to draw one {@link android.graphics.Bitmap} in to another so that
+ * transformations don't allocate a {@link android.graphics.Canvas}, {@link android.graphics.Matrix} and
+ * {@link android.graphics.Paint} for every {@link android.graphics.Bitmap} they transform.
+ *
+ * <p>
+ *     Objects obtained from a context must only be used on the thread that obtained the context and only until
+ *     {@link #finishDrawing()} is called. Draws must not be nested.
+ * </p>
+ */
+final class DrawingContext {
+    private static final ThreadLocal<DrawingContext> CONTEXTS = new ThreadLocal<DrawingContext>() {
+        @Override
+        protected DrawingContext initialValue() {
+            return new DrawingContext();
+        }
+    };
+
+    private final Matrix matrix = new Matrix();
+    private final Paint paint = new Paint(TransformationUtils.PAINT_FLAGS);
+    private final RectF rect = new RectF();
+    private final float[] colorFilterArray = new float[20];
+    private ColorMatrixColorFilter colorFilter;
+    private Canvas canvas;
+    private int saveCount = -1;
+
+    private DrawingContext() {
+        // Use get().
+    }
+
+    /**
+     * Returns the context for the current thread.
+     */
+    static DrawingContext get() {
+        return CONTEXTS.get();
+    }
+
+    /**
+     * Returns this context's matrix, reset to the identity matrix.
+     */
+    Matrix getMatrix() {
+        matrix.reset();
+        return matrix;
+    }
+
+    /**
+     * Returns this context's paint, which has {@link TransformationUtils#PAINT_FLAGS} set and no shader, color
+     * filter or transfer mode.
+     */
+    Paint getPaint() {
+        return paint;
+    }
+
+    /**
+     * Returns this context's rect, set to the given bounds.
+     */
+    RectF getRect(float left, float top, float right, float bottom) {
+        rect.set(left, top, right, bottom);
+        return rect;
+    }
+
+    /**
+     * Returns a color filter that applies the given color matrix, reusing the filter returned by the previous call if
+     * the color matrix hasn't changed.
+     */
+    ColorMatrixColorFilter getColorFilter(ColorMatrix colorMatrix) {
+        final float[] array = colorMatrix.getArray();
+        if (colorFilter == null || !Arrays.equals(array, colorFilterArray)) {
+            System.arraycopy(array, 0, colorFilterArray, 0, colorFilterArray.length);
+            colorFilter = new ColorMatrixColorFilter(colorFilterArray);
+        }
+        return colorFilter;
+    }
+
+    /**
+     * Returns a canvas that draws in to the given bitmap. Any matrix or clip set on the canvas is undone by
+     * {@link #finishDrawing()}.
+     */
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    Canvas getCanvas(Bitmap target) {
+        // Prior to Honeycomb setBitmap doesn't accept null to clear the bitmap.
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB) {
+            return new Canvas(target);
+        }
+        if (canvas == null) {
+            canvas = new Canvas();
+        }
+        // Prior to O setBitmap keeps the canvas' matrix and clip, so save them here and restore them in finishDrawing
+        // rather than letting one draw's state leak in to the next.
+        canvas.setBitmap(target);
+        saveCount = canvas.save();
+        return canvas;
+    }
+
+    /**
+     * Clears any state left by a draw, including the reference to the bitmap drawn in to so that it isn't held
+     * by this thread after it's returned to the pool.
+     */
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    void finishDrawing() {
+        paint.setShader(null);
+        paint.setColorFilter(null);
+        paint.setXfermode(null);
+        if (canvas != null) {
+            if (saveCount != -1) {
+                canvas.restoreToCount(saveCount);
+                saveCount = -1;
+            }
+            canvas.setBitmap(null);
+        }
+    }
+}
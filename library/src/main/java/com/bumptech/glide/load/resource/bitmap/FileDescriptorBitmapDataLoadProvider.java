@@ -8,6 +8,7 @@ import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.resource.NullEncoder;
 import com.bumptech.glide.load.resource.file.FileToStreamDecoder;
 import com.bumptech.glide.provider.DataLoadProvider;
@@ -23,12 +24,14 @@ public class FileDescriptorBitmapDataLoadProvider implements DataLoadProvider<Pa
     private final FileDescriptorBitmapDecoder sourceDecoder;
     private final BitmapEncoder encoder;
     private final Encoder<ParcelFileDescriptor> sourceEncoder;
+    private final BitmapResourceConverter converter;
 
     public FileDescriptorBitmapDataLoadProvider(BitmapPool bitmapPool, DecodeFormat decodeFormat) {
         cacheDecoder = new FileToStreamDecoder<Bitmap>(new StreamBitmapDecoder(bitmapPool, decodeFormat));
         sourceDecoder = new FileDescriptorBitmapDecoder(bitmapPool, decodeFormat);
         encoder = new BitmapEncoder();
         sourceEncoder = NullEncoder.get();
+        converter = new BitmapResourceConverter(sourceDecoder);
     }
 
     @Override
@@ -50,4 +53,9 @@ public class FileDescriptorBitmapDataLoadProvider implements DataLoadProvider<Pa
     public ResourceEncoder<Bitmap> getEncoder() {
         return encoder;
     }
+
+    @Override
+    public TransformedResourceCache.Converter<Bitmap> getTransformedResourceConverter() {
+        return converter;
+    }
 }
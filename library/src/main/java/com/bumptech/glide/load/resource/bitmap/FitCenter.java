@@ -2,6 +2,7 @@ package com.bumptech.glide.load.resource.bitmap;
 
 import android.content.Context;
 import android.graphics.Bitmap;
+import android.graphics.Matrix;
 
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 
@@ -24,6 +25,25 @@ public class FitCenter extends BitmapTransformation {
         return TransformationUtils.fitCenter(toTransform, pool, outWidth, outHeight);
     }
 
+    @Override
+    protected boolean fuse(FusedDraw draw, int outWidth, int outHeight) {
+        final int inWidth = draw.getWidth();
+        final int inHeight = draw.getHeight();
+        if (inWidth == outWidth && inHeight == outHeight) {
+            return true;
+        }
+        // The same as TransformationUtils.fitCenter.
+        final float minPercentage = Math.min(outWidth / (float) inWidth, outHeight / (float) inHeight);
+        final int targetWidth = (int) (minPercentage * inWidth);
+        final int targetHeight = (int) (minPercentage * inHeight);
+        if (inWidth != targetWidth || inHeight != targetHeight) {
+            Matrix matrix = DrawingContext.get().getMatrix();
+            matrix.setScale(minPercentage, minPercentage);
+            draw.postConcat(matrix, targetWidth, targetHeight);
+        }
+        return true;
+    }
+
     @Override
     public String getId() {
         return "FitCenter.com.bumptech.glide.load.resource.bitmap";
@@ -0,0 +1,285 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorMatrix;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.RectF;
+import android.os.Build;
+
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.util.Util;
+
+/**
+ * Accumulates the geometry and per pixel steps of a series of
+ * {@link com.bumptech.glide.load.resource.bitmap.BitmapTransformation}s so that they can be applied to a
+ * {@link android.graphics.Bitmap} with a single draw in to a single pooled {@link android.graphics.Bitmap}, rather than
+ * with one draw in to one intermediate {@link android.graphics.Bitmap} per transformation.
+ *
+ * <p>
+ *     The draw tracks the size of the content as each step is added. Geometry steps, like crops, scales and rotations,
+ *     are concatenated in to a single {@link android.graphics.Matrix}, rounded corners are kept as a
+ *     {@link android.graphics.Path} that masks the source and color matrices are concatenated in to a single
+ *     {@link android.graphics.ColorMatrixColorFilter}.
+ * </p>
+ *
+ * @see com.bumptech.glide.load.resource.bitmap.BitmapTransformation#fuse(FusedDraw, int, int)
+ */
+public final class FusedDraw {
+    // The index of the constant added to the alpha channel by a ColorMatrix.
+    private static final int ALPHA_TRANSLATE_INDEX = 19;
+    private static final PorterDuffXfermode SRC_IN = new PorterDuffXfermode(PorterDuff.Mode.SRC_IN);
+
+    private final Bitmap source;
+    // Maps from the source bitmap to the current content.
+    private final Matrix matrix = new Matrix();
+    // The area of the current content that hasn't been cropped away.
+    private final RectF clip;
+    private Path shape;
+    private ColorMatrix colorMatrix;
+    private int width;
+    private int height;
+    private boolean isIdentity = true;
+
+    public FusedDraw(Bitmap source) {
+        this.source = source;
+        this.width = source.getWidth();
+        this.height = source.getHeight();
+        this.clip = new RectF(0, 0, width, height);
+    }
+
+    /**
+     * Applies the given transformations in order to the given resource, fusing runs of adjacent transformations that
+     * support {@link com.bumptech.glide.load.resource.bitmap.BitmapTransformation#fuse(FusedDraw, int, int)} in to a
+     * single draw.
+     *
+     * <p>
+     *     Resources produced by intermediate transformations are recycled, the given resource is not.
+     * </p>
+     */
+    public static Resource<Bitmap> transform(Iterable<? extends Transformation<Bitmap>> transformations,
+            Resource<Bitmap> resource, int outWidth, int outHeight) {
+        if (!Util.isValidDimensions(outWidth, outHeight)) {
+            throw new IllegalArgumentException("Cannot apply transformation on width: " + outWidth + " or height: "
+                    + outHeight + " less than or equal to zero and not Target.SIZE_ORIGINAL");
+        }
+        Resource<Bitmap> previous = resource;
+        FusedDraw draw = null;
+        BitmapPool drawPool = null;
+        for (Transformation<Bitmap> transformation : transformations) {
+            if (transformation instanceof BitmapTransformation) {
+                BitmapTransformation bitmapTransformation = (BitmapTransformation) transformation;
+                if (draw == null && OrientedBitmapResource.hasPendingOrientation(previous)) {
+                    // Apply the orientation in the same draw as the transformations rather than rotating first.
+                    OrientedBitmapResource oriented = (OrientedBitmapResource) previous;
+                    draw = new FusedDraw(oriented.getUnoriented());
+                    draw.postExifOrientation(oriented.getExifOrientation());
+                    drawPool = oriented.getBitmapPool();
+                } else if (draw == null) {
+                    draw = new FusedDraw(previous.get());
+                }
+                if (draw.fuse(bitmapTransformation, outWidth, outHeight)) {
+                    drawPool = drawPool == null ? bitmapTransformation.getBitmapPool() : drawPool;
+                    continue;
+                }
+                // The transformation may only be unable to follow the steps already in the draw.
+                if (!draw.isIdentity()) {
+                    previous = draw.drawResource(drawPool, previous, resource);
+                    draw = new FusedDraw(previous.get());
+                    drawPool = null;
+                    if (draw.fuse(bitmapTransformation, outWidth, outHeight)) {
+                        drawPool = bitmapTransformation.getBitmapPool();
+                        continue;
+                    }
+                }
+            }
+            if (draw != null) {
+                previous = draw.drawResource(drawPool, previous, resource);
+                draw = null;
+                drawPool = null;
+            }
+
+            Resource<Bitmap> transformed = transformation.transform(previous, outWidth, outHeight);
+            if (previous != null && !previous.equals(resource) && !previous.equals(transformed)) {
+                previous.recycle();
+            }
+            previous = transformed;
+        }
+        if (draw != null) {
+            previous = draw.drawResource(drawPool, previous, resource);
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the width of the content after the steps added so far.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the content after the steps added so far.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns true if no steps that change the source have been added.
+     */
+    public boolean isIdentity() {
+        return isIdentity;
+    }
+
+    /**
+     * Maps the current content in to new content with the given dimensions using the given matrix. Any content mapped
+     * outside of the new dimensions is cropped.
+     *
+     * @param m A matrix that maps rectangles to rectangles, for example a scale, a translation, a rotation by a
+     *          multiple of 90 degrees or a combination of them.
+     * @param newWidth The width of the new content.
+     * @param newHeight The height of the new content.
+     */
+    public void postConcat(Matrix m, int newWidth, int newHeight) {
+        matrix.postConcat(m);
+        m.mapRect(clip);
+        if (!clip.intersect(0, 0, newWidth, newHeight)) {
+            clip.setEmpty();
+        }
+        if (shape != null) {
+            shape.transform(m);
+        }
+        width = newWidth;
+        height = newHeight;
+        isIdentity = false;
+    }
+
+    /**
+     * Rotates and/or flips the current content to match the given EXIF orientation.
+     *
+     * @param exifOrientation The EXIF orientation [1-8] of the current content.
+     */
+    public void postExifOrientation(int exifOrientation) {
+        final Matrix m = DrawingContext.get().getMatrix();
+        TransformationUtils.initializeMatrixForRotation(exifOrientation, m);
+        if (m.isIdentity()) {
+            return;
+        }
+        // Translate the oriented content back so that its top left corner is at the origin.
+        final RectF bounds = DrawingContext.get().getRect(0, 0, width, height);
+        m.mapRect(bounds);
+        m.postTranslate(-bounds.left, -bounds.top);
+        postConcat(m, Math.round(bounds.width()), Math.round(bounds.height()));
+    }
+
+    /**
+     * Applies the given color matrix to the current content and returns true, or returns false without changing this
+     * draw if the color matrix would make transparent areas introduced by earlier steps visible.
+     */
+    public boolean postColorMatrix(ColorMatrix cm) {
+        if (cm.getArray()[ALPHA_TRANSLATE_INDEX] != 0 && hasAddedTransparency()) {
+            return false;
+        }
+        if (colorMatrix == null) {
+            colorMatrix = new ColorMatrix(cm);
+        } else {
+            colorMatrix.postConcat(cm);
+        }
+        isIdentity = false;
+        return true;
+    }
+
+    /**
+     * Rounds the corners of the current content with the given radius and returns true, or returns false without
+     * changing this draw if the corners have already been rounded.
+     */
+    public boolean roundCorners(float radius) {
+        if (shape != null) {
+            return false;
+        }
+        shape = new Path();
+        shape.addRoundRect(new RectF(0, 0, width, height), radius, radius, Path.Direction.CW);
+        isIdentity = false;
+        return true;
+    }
+
+    /**
+     * Draws the source with all of the steps added so far in to a {@link android.graphics.Bitmap} obtained from the
+     * given pool if possible, or returns the source if no steps changed it.
+     */
+    public Bitmap draw(BitmapPool pool) {
+        if (isIdentity) {
+            return source;
+        }
+        final boolean hasAddedTransparency = hasAddedTransparency();
+        Bitmap.Config config = source.getConfig() != null ? source.getConfig() : Bitmap.Config.ARGB_8888;
+        if (hasAddedTransparency) {
+            // RGB_565 has no alpha channel.
+            config = Bitmap.Config.ARGB_8888;
+        }
+        Bitmap result = pool.get(width, height, config);
+        if (result == null) {
+            result = Bitmap.createBitmap(width, height, config);
+        }
+        setHasAlpha(result, hasAddedTransparency || source.hasAlpha());
+
+        final DrawingContext context = DrawingContext.get();
+        try {
+            final Canvas canvas = context.getCanvas(result);
+            canvas.clipRect(clip);
+            final Paint paint = context.getPaint();
+            if (shape != null) {
+                // Drawing the source only where the shape was filled anti-aliases the rounded corners, unlike
+                // clipping to them, without allocating a shader for every source.
+                canvas.drawPath(shape, paint);
+                paint.setXfermode(SRC_IN);
+            }
+            if (colorMatrix != null) {
+                paint.setColorFilter(context.getColorFilter(colorMatrix));
+            }
+            canvas.drawBitmap(source, matrix, paint);
+        } finally {
+            context.finishDrawing();
+        }
+        return result;
+    }
+
+    private boolean fuse(BitmapTransformation transformation, int outWidth, int outHeight) {
+        final int targetWidth = outWidth == Target.SIZE_ORIGINAL ? width : outWidth;
+        final int targetHeight = outHeight == Target.SIZE_ORIGINAL ? height : outHeight;
+        return transformation.fuse(this, targetWidth, targetHeight);
+    }
+
+    private Resource<Bitmap> drawResource(BitmapPool pool, Resource<Bitmap> previous, Resource<Bitmap> original) {
+        if (isIdentity) {
+            return previous;
+        }
+        final Bitmap drawn = draw(pool);
+        if (!previous.equals(original)) {
+            previous.recycle();
+        }
+        return BitmapResource.obtain(drawn, pool);
+    }
+
+    private boolean hasAddedTransparency() {
+        // Ignore partial pixels, like those left by the rounded translation in centerCrop.
+        return shape != null || Math.round(clip.left) > 0 || Math.round(clip.top) > 0
+                || Math.round(clip.right) < width || Math.round(clip.bottom) < height;
+    }
+
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB_MR1)
+    private static void setHasAlpha(Bitmap bitmap, boolean hasAlpha) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB_MR1) {
+            bitmap.setHasAlpha(hasAlpha);
+        }
+    }
+}
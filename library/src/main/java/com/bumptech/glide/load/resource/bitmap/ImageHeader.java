@@ -0,0 +1,111 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+/**
+ * The type, exif orientation and dimensions of an image, parsed in a single pass over the start of the image's data by
+ * {@link com.bumptech.glide.load.resource.bitmap.ImageHeaderParser#parseHeader(int)}.
+ */
+public final class ImageHeader {
+    /**
+     * A header for data whose header couldn't be read.
+     */
+    public static final ImageHeader UNKNOWN = new ImageHeader(ImageHeaderParser.ImageType.UNKNOWN, -1, -1, -1, true);
+
+    /**
+     * The orientation of a hint for an image whose exif orientation isn't known, as opposed to -1 for an image known
+     * to have no exif orientation.
+     */
+    public static final int UNKNOWN_ORIENTATION = -2;
+
+    private final ImageHeaderParser.ImageType type;
+    private final int orientation;
+    private final int width;
+    private final int height;
+    private final boolean complete;
+
+    /**
+     * Constructor for a complete ImageHeader for a hint whose exif orientation isn't known.
+     *
+     * @param type The type of the image.
+     * @param width The width of the image in pixels, or -1 if the width isn't known.
+     * @param height The height of the image in pixels, or -1 if the height isn't known.
+     */
+    public ImageHeader(ImageHeaderParser.ImageType type, int width, int height) {
+        this(type, UNKNOWN_ORIENTATION, width, height, true);
+    }
+
+    /**
+     * Constructor for an ImageHeader.
+     *
+     * @param type The type of the image.
+     * @param orientation The exif orientation of the image, -1 if the image has no exif orientation, or
+     *                    {@link #UNKNOWN_ORIENTATION} if the exif orientation isn't known.
+     * @param width The width of the image in pixels, or -1 if the width isn't known.
+     * @param height The height of the image in pixels, or -1 if the height isn't known.
+     * @param complete False if parsing stopped at a byte limit before all of the header was read.
+     */
+    public ImageHeader(ImageHeaderParser.ImageType type, int orientation, int width, int height, boolean complete) {
+        this.type = type;
+        this.orientation = orientation;
+        this.width = width;
+        this.height = height;
+        this.complete = complete;
+    }
+
+    public ImageHeaderParser.ImageType getType() {
+        return type;
+    }
+
+    public boolean hasAlpha() {
+        return type.hasAlpha();
+    }
+
+    /**
+     * Returns the exif orientation of the image, -1 if the image has no exif orientation, or
+     * {@link #UNKNOWN_ORIENTATION} if the exif orientation isn't known.
+     */
+    public int getOrientation() {
+        return orientation;
+    }
+
+    /**
+     * Returns the width of the image in pixels, or -1 if the width isn't known.
+     *
+     * <p>
+     *     Like {@link android.graphics.BitmapFactory.Options#outWidth}, the width does not take the exif orientation in
+     *     to account.
+     * </p>
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the image in pixels, or -1 if the height isn't known.
+     *
+     * @see #getWidth()
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns true if both the width and height of the image are known.
+     */
+    public boolean hasDimensions() {
+        return width > 0 && height > 0;
+    }
+
+    /**
+     * Returns false if parsing stopped at a byte limit before all of the header was read, in which case the
+     * orientation and dimensions may be missing even though they are present in the image.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public String toString() {
+        return "ImageHeader{type=" + type + ", orientation=" + orientation + ", width=" + width + ", height=" + height
+                + ", complete=" + complete + "}";
+    }
+}
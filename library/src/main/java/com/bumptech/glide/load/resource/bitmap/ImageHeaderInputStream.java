@@ -0,0 +1,100 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import java.io.FilterInputStream;
+import java.io.InputStream;
+
+/**
+ * An {@link java.io.InputStream} that carries a header for the image it contains that is known before any data is
+ * read, for example because the image's dimensions were returned along with its url.
+ *
+ * <p>
+ *     Decoders given a stream with a hint whose type and dimensions are both known, and for JPEGs whose exif
+ *     orientation is also known, use the hint instead of parsing the image's header and, in
+ *     {@link com.bumptech.glide.load.resource.bitmap.Downsampler}, instead of decoding the image's bounds. Otherwise
+ *     the header is parsed and the hint fills in any dimensions and orientation that couldn't be parsed. Hints must be
+ *     accurate, prior to KitKat a hint with the wrong dimensions will cause decodes in to pooled bitmaps to fail.
+ * </p>
+ *
+ * <p>
+ *     Hints only apply when the image is decoded from the stream that carries them, they're lost if the data is first
+ *     written to the disk cache with {@link com.bumptech.glide.load.engine.DiskCacheStrategy#SOURCE}.
+ * </p>
+ */
+public class ImageHeaderInputStream extends FilterInputStream {
+    private final ImageHeader hint;
+
+    /**
+     * Constructor for an ImageHeaderInputStream.
+     *
+     * @param in The stream to wrap.
+     * @param hint The known header of the image in the given stream. Use
+     *             {@link com.bumptech.glide.load.resource.bitmap.ImageHeaderParser.ImageType#UNKNOWN} if the type
+     *             isn't known, an orientation of -1 if the image doesn't have an exif orientation and
+     *             {@link com.bumptech.glide.load.resource.bitmap.ImageHeader#UNKNOWN_ORIENTATION} if it isn't known
+     *             whether the image has an exif orientation.
+     */
+    public ImageHeaderInputStream(InputStream in, ImageHeader hint) {
+        super(in);
+        this.hint = hint;
+    }
+
+    /**
+     * Returns the known header of the image in this stream.
+     */
+    public ImageHeader getImageHeader() {
+        return hint;
+    }
+
+    /**
+     * Returns the given stream wrapped in an ImageHeaderInputStream carrying the given hint, or the given stream if the
+     * stream or hint is null.
+     */
+    public static InputStream wrap(InputStream is, ImageHeader hint) {
+        if (is == null || hint == null) {
+            return is;
+        }
+        return new ImageHeaderInputStream(is, hint);
+    }
+
+    /**
+     * Returns the hint carried by the given stream or null if the given stream isn't an ImageHeaderInputStream.
+     */
+    public static ImageHeader getHint(InputStream is) {
+        return is instanceof ImageHeaderInputStream ? ((ImageHeaderInputStream) is).getImageHeader() : null;
+    }
+
+    /**
+     * Returns true if the given hint can be used instead of parsing the image's header.
+     *
+     * @param hint The hint, which may be null.
+     */
+    public static boolean canSkipParsing(ImageHeader hint) {
+        return hint != null && hint.isComplete() && hint.getType() != ImageHeaderParser.ImageType.UNKNOWN
+                && hint.hasDimensions()
+                // Only JPEGs have exif orientations.
+                && (hint.getType() != ImageHeaderParser.ImageType.JPEG
+                    || hint.getOrientation() != ImageHeader.UNKNOWN_ORIENTATION);
+    }
+
+    /**
+     * Returns the given parsed header with any type, dimensions and orientation that couldn't be parsed taken from
+     * the given hint.
+     *
+     * @param parsed The header parsed from the image.
+     * @param hint The hint, which may be null.
+     */
+    public static ImageHeader merge(ImageHeader parsed, ImageHeader hint) {
+        if (hint == null || hint == parsed) {
+            return parsed;
+        }
+        final ImageHeaderParser.ImageType type =
+                parsed.getType() != ImageHeaderParser.ImageType.UNKNOWN ? parsed.getType() : hint.getType();
+        final boolean useHintOrientation =
+                parsed.getOrientation() == -1 && hint.getOrientation() != ImageHeader.UNKNOWN_ORIENTATION;
+        final int orientation = useHintOrientation ? hint.getOrientation() : parsed.getOrientation();
+        final boolean useHintDimensions = !parsed.hasDimensions() && hint.hasDimensions();
+        final int width = useHintDimensions ? hint.getWidth() : parsed.getWidth();
+        final int height = useHintDimensions ? hint.getHeight() : parsed.getHeight();
+        return new ImageHeader(type, orientation, width, height, parsed.isComplete());
+    }
+}
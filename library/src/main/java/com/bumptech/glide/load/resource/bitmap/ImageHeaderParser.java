@@ -1,10 +1,14 @@
 package com.bumptech.glide.load.resource.bitmap;
 
+import static com.bumptech.glide.load.resource.bitmap.ImageHeaderParser.ImageType.ANIMATED_WEBP;
 import static com.bumptech.glide.load.resource.bitmap.ImageHeaderParser.ImageType.GIF;
+import static com.bumptech.glide.load.resource.bitmap.ImageHeaderParser.ImageType.HEIF;
 import static com.bumptech.glide.load.resource.bitmap.ImageHeaderParser.ImageType.JPEG;
 import static com.bumptech.glide.load.resource.bitmap.ImageHeaderParser.ImageType.PNG;
 import static com.bumptech.glide.load.resource.bitmap.ImageHeaderParser.ImageType.PNG_A;
 import static com.bumptech.glide.load.resource.bitmap.ImageHeaderParser.ImageType.UNKNOWN;
+import static com.bumptech.glide.load.resource.bitmap.ImageHeaderParser.ImageType.WEBP;
+import static com.bumptech.glide.load.resource.bitmap.ImageHeaderParser.ImageType.WEBP_A;
 
 import android.util.Log;
 
@@ -32,6 +36,17 @@ public class ImageHeaderParser {
         PNG_A(true),
         /** PNG type without alpha. */
         PNG(false),
+        /** WebP type, lossy or lossless, with alpha. */
+        WEBP_A(true),
+        /** WebP type, lossy or lossless, without alpha. */
+        WEBP(false),
+        /**
+         * Animated WebP type. {@link android.graphics.BitmapFactory} can't animate these, they're either decoded by a
+         * {@link com.bumptech.glide.load.resource.bitmap.BitmapDecoderBackend} that can or decoded as a still image.
+         */
+        ANIMATED_WEBP(true),
+        /** HEIF type, including HEIC. */
+        HEIF(false),
         /** Unrecognized type. */
         UNKNOWN(false);
         private final boolean hasAlpha;
@@ -47,6 +62,35 @@ public class ImageHeaderParser {
 
     private static final int GIF_HEADER = 0x474946;
     private static final int PNG_HEADER = 0x89504E47;
+    // "RIFF".
+    private static final int RIFF_HEADER = 0x52494646;
+    // "WEBP".
+    private static final int WEBP_HEADER = 0x57454250;
+    // "VP8" followed by " " for lossy, "L" for lossless or "X" for extended WebPs.
+    private static final int VP8_HEADER = 0x56503800;
+    private static final int VP8_HEADER_MASK = 0xFFFFFF00;
+    private static final int VP8_TYPE_LOSSY = ' ';
+    private static final int VP8_TYPE_LOSSLESS = 'L';
+    private static final int VP8_TYPE_EXTENDED = 'X';
+    // Bytes 4 to 29 of a WebP: the rest of the RIFF header, the first chunk's type and size and the first 10 bytes of
+    // the chunk, which contain the dimensions and, for lossless and extended WebPs, the alpha flag.
+    private static final int WEBP_HEADER_BYTES = 26;
+    // Offsets in to bytes 4 to 29.
+    private static final int WEBP_MAGIC_OFFSET = 4;
+    private static final int WEBP_CHUNK_TYPE_OFFSET = 8;
+    private static final int WEBP_CHUNK_DATA_OFFSET = 16;
+    private static final int WEBP_LOSSLESS_ALPHA_FLAG = 1 << 4;
+    private static final int WEBP_EXTENDED_ALPHA_FLAG = 1 << 4;
+    private static final int WEBP_EXTENDED_ANIMATION_FLAG = 1 << 1;
+    // "ftyp".
+    private static final int FTYP_HEADER = 0x66747970;
+    // The size of the ftyp box up to and including the minor version.
+    private static final int FTYP_HEADER_BYTES = 16;
+    // Limits the number of compatible brands read from a malformed ftyp box.
+    private static final int MAX_FTYP_BYTES = 256;
+    // "heic", "heix", "heim", "heis", "hevc", "hevx", "hevm" and "hevs", see ISO/IEC 23008-12.
+    private static final int[] HEIF_BRANDS = { 0x68656963, 0x68656978, 0x6865696D, 0x68656973, 0x68657663,
+            0x68657678, 0x6865766D, 0x68657673 };
     private static final int EXIF_MAGIC_NUMBER = 0xFFD8;
     // "MM".
     private static final int MOTOROLA_TIFF_MAGIC_NUMBER = 0x4D4D;
@@ -55,6 +99,14 @@ public class ImageHeaderParser {
     private static final String JPEG_EXIF_SEGMENT_PREAMBLE = "Exif\0\0";
     private static final byte[] JPEG_EXIF_SEGMENT_PREAMBLE_BYTES;
     private static final int SEGMENT_SOS = 0xDA;
+    private static final int SEGMENT_SOF0 = 0xC0;
+    private static final int SEGMENT_SOF15 = 0xCF;
+    private static final int SEGMENT_DHT = 0xC4;
+    private static final int SEGMENT_JPG = 0xC8;
+    private static final int SEGMENT_DAC = 0xCC;
+    // Bytes 4 to 25 of a PNG: the rest of the signature, the IHDR chunk's length and type, the width, height, bit
+    // depth and color type.
+    private static final int PNG_IHDR_BYTES = 22;
     private static final int MARKER_EOI = 0xD9;
     private static final int SEGMENT_START_ID = 0xFF;
     private static final int EXIF_SEGMENT_TYPE = 0xE1;
@@ -107,7 +159,247 @@ public class ImageHeaderParser {
             return GIF;
         }
 
-        return UNKNOWN;
+        // WebP.
+        if (firstFourBytes == RIFF_HEADER) {
+            return parseWebpHeader().getType();
+        }
+
+        // HEIF, whose first four bytes are the size of the ftyp box.
+        return isHeif(firstFourBytes) ? HEIF : UNKNOWN;
+    }
+
+    /**
+     * Parses the type, exif orientation and dimensions of the image in a single forward pass over the image header,
+     * reading no more than the given number of bytes.
+     *
+     * <p>
+     *     Dimensions are only parsed for JPEGs, PNGs and WebPs. For other types the returned dimensions are -1.
+     * </p>
+     *
+     * @param maxBytes The maximum number of bytes to read. If the orientation or dimensions of a JPEG are further
+     *                 in to the data, they will be -1 and {@link ImageHeader#isComplete()} will return false.
+     */
+    public ImageHeader parseHeader(int maxBytes) throws IOException {
+        final int firstTwoBytes = streamReader.getUInt16();
+
+        // JPEG.
+        if (firstTwoBytes >> 8 == EXIF_MAGIC_NUMBER >> 8) {
+            if (handles(firstTwoBytes)) {
+                return parseJpegHeader(maxBytes);
+            } else {
+                return new ImageHeader(JPEG, -1, -1, -1, true);
+            }
+        }
+
+        final int firstFourBytes = firstTwoBytes << 16 & 0xFFFF0000 | streamReader.getUInt16() & 0xFFFF;
+        // PNG.
+        if (firstFourBytes == PNG_HEADER) {
+            return parsePngHeader();
+        }
+
+        // GIF from first 3 bytes.
+        if (firstFourBytes >> 8 == GIF_HEADER) {
+            return new ImageHeader(GIF, -1, -1, -1, true);
+        }
+
+        // WebP.
+        if (firstFourBytes == RIFF_HEADER) {
+            return parseWebpHeader();
+        }
+
+        // HEIF, whose first four bytes are the size of the ftyp box.
+        final ImageType type = isHeif(firstFourBytes) ? HEIF : UNKNOWN;
+        return new ImageHeader(type, -1, -1, -1, true);
+    }
+
+    /**
+     * Parses the type and dimensions of a WebP from the first chunk, which follows the RIFF header.
+     *
+     * @see <a href="https://developers.google.com/speed/webp/docs/riff_container">WebP Container Specification</a>
+     */
+    private ImageHeader parseWebpHeader() throws IOException {
+        byte[] header = new byte[WEBP_HEADER_BYTES];
+        final int read = streamReader.readFully(header);
+        ByteBuffer buffer = ByteBuffer.wrap(header);
+        if (read < WEBP_CHUNK_TYPE_OFFSET || buffer.getInt(WEBP_MAGIC_OFFSET) != WEBP_HEADER) {
+            return ImageHeader.UNKNOWN;
+        }
+        final int chunkType = read < WEBP_CHUNK_DATA_OFFSET ? 0 : buffer.getInt(WEBP_CHUNK_TYPE_OFFSET);
+        if ((chunkType & VP8_HEADER_MASK) != VP8_HEADER) {
+            return ImageHeader.UNKNOWN;
+        }
+
+        final int dataOffset = WEBP_CHUNK_DATA_OFFSET;
+        final boolean hasData = read == WEBP_HEADER_BYTES;
+        int width = -1;
+        int height = -1;
+        ImageType type;
+        switch (chunkType & 0xFF) {
+            case VP8_TYPE_LOSSY:
+                // Lossy WebPs can only be opaque, alpha requires the extended format.
+                type = WEBP;
+                if (hasData) {
+                    // Skip the frame tag and start code, the top two bits of each dimension are the scale.
+                    width = getUInt16Le(header, dataOffset + 6) & 0x3FFF;
+                    height = getUInt16Le(header, dataOffset + 8) & 0x3FFF;
+                }
+                break;
+            case VP8_TYPE_LOSSLESS:
+                if (!hasData) {
+                    // We can't tell without the alpha flag, so better safe than sorry.
+                    type = WEBP_A;
+                    break;
+                }
+                // A one byte signature followed by 14 bits for each of the width and height minus one and the alpha
+                // flag.
+                final int bits = getUInt16Le(header, dataOffset + 1) | getUInt16Le(header, dataOffset + 3) << 16;
+                width = (bits & 0x3FFF) + 1;
+                height = (bits >> 14 & 0x3FFF) + 1;
+                type = (header[dataOffset + 4] & WEBP_LOSSLESS_ALPHA_FLAG) != 0 ? WEBP_A : WEBP;
+                break;
+            case VP8_TYPE_EXTENDED:
+                if (!hasData) {
+                    type = WEBP_A;
+                    break;
+                }
+                // One byte of flags and three reserved bytes followed by the canvas width and height minus one.
+                final int flags = header[dataOffset];
+                if ((flags & WEBP_EXTENDED_ANIMATION_FLAG) != 0) {
+                    type = ANIMATED_WEBP;
+                } else {
+                    type = (flags & WEBP_EXTENDED_ALPHA_FLAG) != 0 ? WEBP_A : WEBP;
+                }
+                width = getUInt24Le(header, dataOffset + 4) + 1;
+                height = getUInt24Le(header, dataOffset + 7) + 1;
+                break;
+            default:
+                return ImageHeader.UNKNOWN;
+        }
+        return new ImageHeader(type, -1, width > 0 ? width : -1, height > 0 ? height : -1, true);
+    }
+
+    /**
+     * Returns true if the image is a HEIF, based on the major and compatible brands in the ftyp box that starts
+     * every HEIF.
+     *
+     * @param boxSize The size of the ftyp box, the first four bytes of the image.
+     */
+    private boolean isHeif(int boxSize) throws IOException {
+        if (streamReader.getInt32() != FTYP_HEADER) {
+            return false;
+        }
+        final int majorBrand = streamReader.getInt32();
+        if (isHeifBrand(majorBrand)) {
+            return true;
+        }
+        // Generic brands like "mif1" are also used by other formats, like AVIF, so check the compatible brands.
+        streamReader.skip(4);
+        final int brandCount = (Math.min(boxSize, MAX_FTYP_BYTES) - FTYP_HEADER_BYTES) / 4;
+        for (int i = 0; i < brandCount; i++) {
+            if (isHeifBrand(streamReader.getInt32())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isHeifBrand(int brand) {
+        for (int heifBrand : HEIF_BRANDS) {
+            if (brand == heifBrand) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int getUInt16Le(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | (data[offset + 1] & 0xFF) << 8;
+    }
+
+    private static int getUInt24Le(byte[] data, int offset) {
+        return getUInt16Le(data, offset) | (data[offset + 2] & 0xFF) << 16;
+    }
+
+    private ImageHeader parsePngHeader() throws IOException {
+        byte[] ihdr = new byte[PNG_IHDR_BYTES];
+        if (streamReader.readFully(ihdr) != PNG_IHDR_BYTES) {
+            // Mirror getType(), which treats a truncated PNG as opaque.
+            return new ImageHeader(PNG, -1, -1, -1, true);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(ihdr);
+        // Skip the rest of the signature and the IHDR chunk length and type.
+        final int width = buffer.getInt(12);
+        final int height = buffer.getInt(16);
+        // See: http://stackoverflow.com/questions/2057923/how-to-check-a-png-for-grayscale-alpha-color-type
+        final int alpha = ihdr[PNG_IHDR_BYTES - 1] & 0xFF;
+        // A RGB indexed PNG can also have transparency. Better safe than sorry!
+        final ImageType type = alpha >= 3 ? PNG_A : PNG;
+        return new ImageHeader(type, -1, width > 0 ? width : -1, height > 0 ? height : -1, true);
+    }
+
+    private ImageHeader parseJpegHeader(int maxBytes) throws IOException {
+        int orientation = -1;
+        boolean complete = true;
+        while (true) {
+            // The segment id, type and length.
+            if (streamReader.getPosition() + 4 > maxBytes) {
+                complete = false;
+                break;
+            }
+            final short segmentId = streamReader.getUInt8();
+            if (segmentId != SEGMENT_START_ID) {
+                if (Log.isLoggable(TAG, Log.DEBUG)) {
+                    Log.d(TAG, "Unknown segmentId=" + segmentId);
+                }
+                break;
+            }
+
+            final short segmentType = streamReader.getUInt8();
+            if (segmentType == SEGMENT_SOS || segmentType == MARKER_EOI) {
+                break;
+            }
+
+            // Segment length includes bytes for segment length.
+            final int segmentLength = streamReader.getUInt16() - 2;
+            if (segmentLength < 0) {
+                break;
+            }
+            if (streamReader.getPosition() + segmentLength > maxBytes) {
+                complete = false;
+                break;
+            }
+
+            if (isStartOfFrame(segmentType)) {
+                // Sample precision, then height and width.
+                streamReader.getUInt8();
+                final int height = streamReader.getUInt16();
+                final int width = streamReader.getUInt16();
+                // A height of 0 means the height is defined later, in a DNL segment.
+                return new ImageHeader(JPEG, orientation, width > 0 ? width : -1, height > 0 ? height : -1, true);
+            } else if (segmentType == EXIF_SEGMENT_TYPE && orientation == -1) {
+                byte[] segmentData = new byte[segmentLength];
+                if (segmentLength != streamReader.readFully(segmentData)) {
+                    if (Log.isLoggable(TAG, Log.DEBUG)) {
+                        Log.d(TAG, "Unable to read segment data for type=" + segmentType + " length=" + segmentLength);
+                    }
+                    break;
+                }
+                if (hasJpegExifPreamble(segmentData)) {
+                    orientation = parseExifSegment(new RandomAccessReader(segmentData));
+                }
+            } else if (segmentLength != streamReader.skip(segmentLength)) {
+                if (Log.isLoggable(TAG, Log.DEBUG)) {
+                    Log.d(TAG, "Unable to skip enough data for type=" + segmentType);
+                }
+                break;
+            }
+        }
+        return new ImageHeader(JPEG, orientation, -1, -1, complete);
+    }
+
+    private static boolean isStartOfFrame(int segmentType) {
+        return segmentType >= SEGMENT_SOF0 && segmentType <= SEGMENT_SOF15 && segmentType != SEGMENT_DHT
+                && segmentType != SEGMENT_JPG && segmentType != SEGMENT_DAC;
     }
 
     /**
@@ -124,19 +416,7 @@ public class ImageHeaderParser {
             return -1;
         } else {
             byte[] exifData = getExifSegment();
-            boolean hasJpegExifPreamble = exifData != null
-                    && exifData.length > JPEG_EXIF_SEGMENT_PREAMBLE_BYTES.length;
-
-            if (hasJpegExifPreamble) {
-                for (int i = 0; i < JPEG_EXIF_SEGMENT_PREAMBLE_BYTES.length; i++) {
-                    if (exifData[i] != JPEG_EXIF_SEGMENT_PREAMBLE_BYTES[i]) {
-                        hasJpegExifPreamble = false;
-                        break;
-                    }
-                }
-            }
-
-            if (hasJpegExifPreamble) {
+            if (hasJpegExifPreamble(exifData)) {
                 return parseExifSegment(new RandomAccessReader(exifData));
             } else {
                 return -1;
@@ -144,6 +424,18 @@ public class ImageHeaderParser {
         }
     }
 
+    private static boolean hasJpegExifPreamble(byte[] exifData) {
+        if (exifData == null || exifData.length <= JPEG_EXIF_SEGMENT_PREAMBLE_BYTES.length) {
+            return false;
+        }
+        for (int i = 0; i < JPEG_EXIF_SEGMENT_PREAMBLE_BYTES.length; i++) {
+            if (exifData[i] != JPEG_EXIF_SEGMENT_PREAMBLE_BYTES[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private byte[] getExifSegment() throws IOException {
         short segmentId, segmentType;
         int segmentLength;
@@ -318,6 +610,8 @@ public class ImageHeaderParser {
 
     private static class StreamReader {
         private final InputStream is;
+        // The number of bytes read or skipped so far, approximate at the end of the stream.
+        private long position;
         //motorola / big endian byte order
 
         public StreamReader(InputStream is) {
@@ -325,24 +619,51 @@ public class ImageHeaderParser {
         }
 
         public int getUInt16() throws IOException {
+            position += 2;
             return  (is.read() << 8 & 0xFF00) | (is.read() & 0xFF);
         }
 
+        public int getInt32() throws IOException {
+            return getUInt16() << 16 | getUInt16();
+        }
+
         public short getUInt8() throws IOException {
+            position++;
             return (short) (is.read() & 0xFF);
         }
 
         public long skip(long total) throws IOException {
-            return is.skip(total);
+            long skipped = is.skip(total);
+            position += skipped;
+            return skipped;
         }
 
         public int read(byte[] buffer) throws IOException {
-            return is.read(buffer);
+            int read = is.read(buffer);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        public int readFully(byte[] buffer) throws IOException {
+            int total = 0;
+            int read;
+            while (total < buffer.length && (read = is.read(buffer, total, buffer.length - total)) != -1) {
+                total += read;
+            }
+            position += total;
+            return total;
         }
 
         public int getByte() throws IOException {
+            position++;
             return is.read();
         }
+
+        public long getPosition() {
+            return position;
+        }
     }
 }
 
@@ -6,6 +6,7 @@ import android.os.ParcelFileDescriptor;
 import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.model.ImageVideoWrapper;
 import com.bumptech.glide.load.model.ImageVideoWrapperEncoder;
 import com.bumptech.glide.provider.DataLoadProvider;
@@ -22,6 +23,7 @@ public class ImageVideoDataLoadProvider implements DataLoadProvider<ImageVideoWr
     private final ResourceDecoder<File, Bitmap> cacheDecoder;
     private final ResourceEncoder<Bitmap> encoder;
     private final ImageVideoWrapperEncoder sourceEncoder;
+    private final BitmapResourceConverter converter;
 
     public ImageVideoDataLoadProvider(DataLoadProvider<InputStream, Bitmap> streamBitmapProvider,
             DataLoadProvider<ParcelFileDescriptor, Bitmap> fileDescriptorBitmapProvider) {
@@ -31,6 +33,7 @@ public class ImageVideoDataLoadProvider implements DataLoadProvider<ImageVideoWr
         cacheDecoder = streamBitmapProvider.getCacheDecoder();
         sourceDecoder = new ImageVideoBitmapDecoder(streamBitmapProvider.getSourceDecoder(),
                 fileDescriptorBitmapProvider.getSourceDecoder());
+        converter = new BitmapResourceConverter(sourceDecoder);
     }
 
     @Override
@@ -52,4 +55,9 @@ public class ImageVideoDataLoadProvider implements DataLoadProvider<ImageVideoWr
     public ResourceEncoder<Bitmap> getEncoder() {
         return encoder;
     }
+
+    @Override
+    public TransformedResourceCache.Converter<Bitmap> getTransformedResourceConverter() {
+        return converter;
+    }
 }
@@ -0,0 +1,216 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A minimal compressor and decompressor for the LZ4 block format.
+ *
+ * <p>
+ *     LZ4 trades compression ratio for speed, decompression in particular is little more than a series of array
+ *     copies, which makes it suitable for data that is read back much more often than it is written.
+ * </p>
+ *
+ * @see <a href="https://github.com/lz4/lz4/blob/dev/doc/lz4_Block_format.md">LZ4 Block Format</a>
+ */
+final class Lz4BlockCodec {
+    private static final int MIN_MATCH = 4;
+    private static final int HASH_LOG = 12;
+    private static final int HASH_TABLE_SIZE = 1 << HASH_LOG;
+    private static final int MAX_DISTANCE = 65535;
+    // The format requires the last five bytes of a block to be literals.
+    private static final int LAST_LITERALS = 5;
+    // The format requires the last match to start at least twelve bytes before the end of a block.
+    private static final int MATCH_FIND_LIMIT = 12;
+    private static final int RUN_MASK = 15;
+
+    private static final ThreadLocal<int[]> HASH_TABLE = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[HASH_TABLE_SIZE];
+        }
+    };
+
+    private Lz4BlockCodec() {
+        // Utility class.
+    }
+
+    /**
+     * Returns the largest number of bytes {@link #compress(byte[], int, byte[])} can write for the given input length.
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses the first {@code length} bytes of {@code src} in to {@code dst} and returns the number of bytes
+     * written.
+     *
+     * @param dst An array at least {@link #maxCompressedLength(int)} bytes long.
+     */
+    public static int compress(byte[] src, int length, byte[] dst) {
+        final int[] hashTable = HASH_TABLE.get();
+        Arrays.fill(hashTable, -1);
+
+        final int matchFindLimit = length - MATCH_FIND_LIMIT;
+        final int matchLimit = length - LAST_LITERALS;
+        int anchor = 0;
+        int srcPos = 0;
+        int dstPos = 0;
+        while (srcPos < matchFindLimit) {
+            int sequence = readInt(src, srcPos);
+            int hash = hash(sequence);
+            int ref = hashTable[hash];
+            hashTable[hash] = srcPos;
+            if (ref < 0 || srcPos - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+                srcPos++;
+                continue;
+            }
+
+            int matchLength = MIN_MATCH;
+            while (srcPos + matchLength < matchLimit && src[ref + matchLength] == src[srcPos + matchLength]) {
+                matchLength++;
+            }
+            dstPos = writeSequence(src, anchor, srcPos - anchor, srcPos - ref, matchLength, dst, dstPos);
+            srcPos += matchLength;
+            anchor = srcPos;
+        }
+
+        int literalLength = length - anchor;
+        int tokenPos = dstPos++;
+        if (literalLength >= RUN_MASK) {
+            dst[tokenPos] = (byte) (RUN_MASK << 4);
+            dstPos = writeLength(literalLength - RUN_MASK, dst, dstPos);
+        } else {
+            dst[tokenPos] = (byte) (literalLength << 4);
+        }
+        System.arraycopy(src, anchor, dst, dstPos, literalLength);
+        return dstPos + literalLength;
+    }
+
+    /**
+     * Decompresses the first {@code length} bytes of {@code src} in to exactly {@code decompressedLength} bytes of
+     * {@code dst}.
+     *
+     * @throws IOException If the compressed data is malformed or doesn't decompress to exactly
+     * {@code decompressedLength} bytes.
+     */
+    public static void decompress(byte[] src, int length, byte[] dst, int decompressedLength) throws IOException {
+        int srcPos = 0;
+        int dstPos = 0;
+        while (true) {
+            if (srcPos >= length) {
+                throw new IOException("Unexpected end of LZ4 block");
+            }
+            final int token = src[srcPos++] & 0xFF;
+
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+                int next;
+                do {
+                    if (srcPos >= length) {
+                        throw new IOException("Unexpected end of LZ4 literal length");
+                    }
+                    next = src[srcPos++] & 0xFF;
+                    literalLength += next;
+                } while (next == 255);
+            }
+            if (srcPos + literalLength > length || dstPos + literalLength > decompressedLength) {
+                throw new IOException("LZ4 literals out of bounds");
+            }
+            System.arraycopy(src, srcPos, dst, dstPos, literalLength);
+            srcPos += literalLength;
+            dstPos += literalLength;
+
+            // The last sequence in a block consists only of literals.
+            if (srcPos == length) {
+                break;
+            }
+
+            if (srcPos + 2 > length) {
+                throw new IOException("Unexpected end of LZ4 match offset");
+            }
+            final int offset = (src[srcPos] & 0xFF) | ((src[srcPos + 1] & 0xFF) << 8);
+            srcPos += 2;
+            if (offset == 0 || offset > dstPos) {
+                throw new IOException("Invalid LZ4 match offset: " + offset);
+            }
+
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+                int next;
+                do {
+                    if (srcPos >= length) {
+                        throw new IOException("Unexpected end of LZ4 match length");
+                    }
+                    next = src[srcPos++] & 0xFF;
+                    matchLength += next;
+                } while (next == 255);
+            }
+            matchLength += MIN_MATCH;
+            if (dstPos + matchLength > decompressedLength) {
+                throw new IOException("LZ4 match out of bounds");
+            }
+
+            int ref = dstPos - offset;
+            if (offset >= matchLength) {
+                System.arraycopy(dst, ref, dst, dstPos, matchLength);
+                dstPos += matchLength;
+            } else {
+                // Overlapping matches repeat the most recent bytes and must be copied one byte at a time.
+                for (int i = 0; i < matchLength; i++) {
+                    dst[dstPos++] = dst[ref++];
+                }
+            }
+        }
+
+        if (dstPos != decompressedLength) {
+            throw new IOException("LZ4 block decompressed to " + dstPos + " bytes, expected " + decompressedLength);
+        }
+    }
+
+    private static int writeSequence(byte[] src, int literalStart, int literalLength, int offset, int matchLength,
+            byte[] dst, int dstPos) {
+        int tokenPos = dstPos++;
+        int token;
+        if (literalLength >= RUN_MASK) {
+            token = RUN_MASK << 4;
+            dstPos = writeLength(literalLength - RUN_MASK, dst, dstPos);
+        } else {
+            token = literalLength << 4;
+        }
+        System.arraycopy(src, literalStart, dst, dstPos, literalLength);
+        dstPos += literalLength;
+
+        dst[dstPos++] = (byte) offset;
+        dst[dstPos++] = (byte) (offset >>> 8);
+
+        int extraMatchLength = matchLength - MIN_MATCH;
+        if (extraMatchLength >= RUN_MASK) {
+            token |= RUN_MASK;
+            dstPos = writeLength(extraMatchLength - RUN_MASK, dst, dstPos);
+        } else {
+            token |= extraMatchLength;
+        }
+        dst[tokenPos] = (byte) token;
+        return dstPos;
+    }
+
+    private static int writeLength(int length, byte[] dst, int dstPos) {
+        while (length >= 255) {
+            dst[dstPos++] = (byte) 255;
+            length -= 255;
+        }
+        dst[dstPos++] = (byte) length;
+        return dstPos;
+    }
+
+    private static int readInt(byte[] src, int pos) {
+        return (src[pos] & 0xFF) | ((src[pos + 1] & 0xFF) << 8) | ((src[pos + 2] & 0xFF) << 16)
+                | ((src[pos + 3] & 0xFF) << 24);
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+}
@@ -0,0 +1,53 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.MultiTransformation;
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.Resource;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A {@link com.bumptech.glide.load.MultiTransformation} for {@link android.graphics.Bitmap}s that applies adjacent
+ * {@link com.bumptech.glide.load.resource.bitmap.BitmapTransformation}s that support fusion, like
+ * {@link com.bumptech.glide.load.resource.bitmap.CenterCrop} followed by
+ * {@link com.bumptech.glide.load.resource.bitmap.RoundedCorners}, with a single draw in to a single
+ * {@link android.graphics.Bitmap} rather than with one intermediate {@link android.graphics.Bitmap} each.
+ *
+ * @see com.bumptech.glide.load.resource.bitmap.FusedDraw
+ */
+public class MultiBitmapTransformation extends MultiTransformation<Bitmap> {
+    private final Collection<? extends Transformation<Bitmap>> transformations;
+    private final boolean canFuse;
+
+    @SafeVarargs
+    public MultiBitmapTransformation(Transformation<Bitmap>... transformations) {
+        this(Arrays.asList(transformations));
+    }
+
+    public MultiBitmapTransformation(Collection<? extends Transformation<Bitmap>> transformationList) {
+        super(transformationList);
+        this.transformations = transformationList;
+        this.canFuse = canFuse(transformationList);
+    }
+
+    @Override
+    public Resource<Bitmap> transform(Resource<Bitmap> resource, int outWidth, int outHeight) {
+        if (canFuse) {
+            return FusedDraw.transform(transformations, resource, outWidth, outHeight);
+        }
+        return super.transform(resource, outWidth, outHeight);
+    }
+
+    private static boolean canFuse(Collection<? extends Transformation<Bitmap>> transformations) {
+        int count = 0;
+        for (Transformation<Bitmap> transformation : transformations) {
+            if (transformation instanceof BitmapTransformation && ++count > 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
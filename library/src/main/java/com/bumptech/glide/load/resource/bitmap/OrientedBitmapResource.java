@@ -0,0 +1,120 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.util.Util;
+
+/**
+ * A resource wrapping a {@link android.graphics.Bitmap} that has been decoded but not yet rotated or flipped to match
+ * the EXIF orientation of the image it was decoded from.
+ *
+ * <p>
+ *     {@link com.bumptech.glide.load.resource.bitmap.BitmapTransformation}s that support
+ *     {@link com.bumptech.glide.load.resource.bitmap.BitmapTransformation#fuse(FusedDraw, int, int)}, like
+ *     {@link com.bumptech.glide.load.resource.bitmap.CenterCrop} and
+ *     {@link com.bumptech.glide.load.resource.bitmap.FitCenter}, apply the orientation in the same draw as the
+ *     transformation, so that the image is never copied just to rotate it. Anything else that calls {@link #get()}
+ *     receives a correctly oriented {@link android.graphics.Bitmap}, which is drawn the first time it's needed.
+ * </p>
+ */
+public class OrientedBitmapResource implements Resource<Bitmap> {
+    private final BitmapPool bitmapPool;
+    private final int exifOrientation;
+    private Bitmap bitmap;
+    private boolean isOriented;
+
+    /**
+     * Returns a new resource wrapping the given {@link android.graphics.Bitmap} that defers the rotation required by
+     * the given EXIF orientation, a {@link com.bumptech.glide.load.resource.bitmap.BitmapResource} if the orientation
+     * doesn't require any rotation, or null if the given {@link android.graphics.Bitmap} is null.
+     *
+     * @param bitmap A Bitmap that has not been rotated.
+     * @param bitmapPool A non-null {@link com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool}.
+     * @param exifOrientation The EXIF orientation [1-8] of the image the Bitmap was decoded from.
+     */
+    public static Resource<Bitmap> obtain(Bitmap bitmap, BitmapPool bitmapPool, int exifOrientation) {
+        if (bitmap == null) {
+            return null;
+        } else if (!TransformationUtils.isExifOrientationRequired(exifOrientation)) {
+            return new BitmapResource(bitmap, bitmapPool);
+        } else {
+            return new OrientedBitmapResource(bitmap, bitmapPool, exifOrientation);
+        }
+    }
+
+    /**
+     * Returns true if the given resource is an {@link OrientedBitmapResource} that hasn't been rotated yet.
+     */
+    static boolean hasPendingOrientation(Resource<Bitmap> resource) {
+        return resource instanceof OrientedBitmapResource && ((OrientedBitmapResource) resource).hasPendingOrientation();
+    }
+
+    OrientedBitmapResource(Bitmap bitmap, BitmapPool bitmapPool, int exifOrientation) {
+        if (bitmap == null) {
+            throw new NullPointerException("Bitmap must not be null");
+        }
+        if (bitmapPool == null) {
+            throw new NullPointerException("BitmapPool must not be null");
+        }
+        this.bitmap = bitmap;
+        this.bitmapPool = bitmapPool;
+        this.exifOrientation = exifOrientation;
+    }
+
+    /**
+     * Returns the {@link android.graphics.Bitmap} rotated and/or flipped to match the EXIF orientation, rotating it
+     * first if it hasn't already been rotated.
+     */
+    @Override
+    public synchronized Bitmap get() {
+        if (!isOriented) {
+            final Bitmap oriented = TransformationUtils.rotateImageExif(bitmap, bitmapPool, exifOrientation);
+            if (oriented != bitmap && !bitmapPool.put(bitmap)) {
+                bitmap.recycle();
+            }
+            bitmap = oriented;
+            isOriented = true;
+        }
+        return bitmap;
+    }
+
+    @Override
+    public synchronized int getSize() {
+        return Util.getBitmapByteSize(bitmap);
+    }
+
+    @Override
+    public synchronized void recycle() {
+        if (!bitmapPool.put(bitmap)) {
+            bitmap.recycle();
+        }
+    }
+
+    /**
+     * Returns the EXIF orientation [1-8] of the image the {@link android.graphics.Bitmap} was decoded from.
+     */
+    public int getExifOrientation() {
+        return exifOrientation;
+    }
+
+    synchronized boolean hasPendingOrientation() {
+        return !isOriented;
+    }
+
+    /**
+     * Returns the {@link android.graphics.Bitmap} as it was decoded, before it's rotated. Must only be called while
+     * {@link #hasPendingOrientation()} is true.
+     */
+    synchronized Bitmap getUnoriented() {
+        if (isOriented) {
+            throw new IllegalStateException("Bitmap has already been oriented");
+        }
+        return bitmap;
+    }
+
+    BitmapPool getBitmapPool() {
+        return bitmapPool;
+    }
+}
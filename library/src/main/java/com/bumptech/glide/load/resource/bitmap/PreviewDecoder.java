@@ -0,0 +1,110 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+import android.util.Log;
+
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.request.target.Target;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Decodes low quality previews of JPEG images from a prefix of their data.
+ *
+ * <p>
+ *     Android's JPEG decoder decodes as much of a truncated image as it can, so the prefix of a progressive JPEG
+ *     gives a blurry version of the whole image and the prefix of a baseline JPEG gives the top rows of the image.
+ *     Previews are decoded at twice the sample size used for the full image to keep them cheap.
+ * </p>
+ */
+public class PreviewDecoder {
+    private static final String TAG = "PreviewDecoder";
+    private static final int PREVIEW_SAMPLE_MULTIPLIER = 2;
+
+    private final BitmapPool bitmapPool;
+    private final DecodeFormat decodeFormat;
+
+    public PreviewDecoder(BitmapPool bitmapPool, DecodeFormat decodeFormat) {
+        this.bitmapPool = bitmapPool;
+        this.decodeFormat = decodeFormat;
+    }
+
+    /**
+     * Returns true if previews can be decoded from the given prefix of an image's data, or false if no preview will
+     * ever be decoded for the image.
+     */
+    public boolean canDecode(byte[] data, int length) {
+        try {
+            return new ImageHeaderParser(new ByteArrayInputStream(data, 0, length)).getType()
+                    == ImageHeaderParser.ImageType.JPEG;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a preview decoded from the given prefix of an image's data, or null if no preview could be decoded.
+     *
+     * @param data An array containing the prefix.
+     * @param length The length of the prefix.
+     * @param width The width of the target, or {@link Target#SIZE_ORIGINAL}.
+     * @param height The height of the target, or {@link Target#SIZE_ORIGINAL}.
+     */
+    public Resource<Bitmap> decode(byte[] data, int length, int width, int height) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, 0, length, options);
+        final int inWidth = options.outWidth;
+        final int inHeight = options.outHeight;
+        if (inWidth <= 0 || inHeight <= 0) {
+            return null;
+        }
+
+        final int targetWidth = width == Target.SIZE_ORIGINAL ? inWidth : width;
+        final int targetHeight = height == Target.SIZE_ORIGINAL ? inHeight : height;
+        final int sampleSize = PREVIEW_SAMPLE_MULTIPLIER
+                * Math.max(1, Downsampler.AT_LEAST.getSampleSize(inWidth, inHeight, targetWidth, targetHeight));
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = getConfig();
+        if (Build.VERSION_CODES.KITKAT <= Build.VERSION.SDK_INT) {
+            int previewWidth = (int) Math.ceil(inWidth / (double) sampleSize);
+            int previewHeight = (int) Math.ceil(inHeight / (double) sampleSize);
+            // BitmapFactory will clear out the Bitmap before writing to it, so getDirty is safe.
+            setInBitmap(options, bitmapPool.getDirty(previewWidth, previewHeight, options.inPreferredConfig));
+        }
+
+        Bitmap preview = null;
+        try {
+            preview = BitmapFactory.decodeByteArray(data, 0, length, options);
+        } catch (IllegalArgumentException e) {
+            if (Log.isLoggable(TAG, Log.DEBUG)) {
+                Log.d(TAG, "Failed to decode preview from " + length + " bytes", e);
+            }
+        }
+        if (preview == null && options.inBitmap != null && !bitmapPool.put(options.inBitmap)) {
+            options.inBitmap.recycle();
+        }
+        return BitmapResource.obtain(preview, bitmapPool);
+    }
+
+    private Bitmap.Config getConfig() {
+        // Changing configs can cause skewing on 4.1, see issue #128.
+        if (decodeFormat == DecodeFormat.ALWAYS_ARGB_8888 || Build.VERSION.SDK_INT == Build.VERSION_CODES.JELLY_BEAN) {
+            return Bitmap.Config.ARGB_8888;
+        }
+        // JPEGs never have alpha.
+        return Bitmap.Config.RGB_565;
+    }
+
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    private static void setInBitmap(BitmapFactory.Options options, Bitmap recycled) {
+        options.inBitmap = recycled;
+    }
+}
@@ -0,0 +1,137 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import com.bumptech.glide.util.ByteArrayPool;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An {@link java.io.InputStream} that keeps a copy of the bytes read from the wrapped stream so that a preview can be
+ * decoded from the prefix of the data that has arrived so far.
+ *
+ * <p>
+ *     The listener is called from within {@link #read()} on the thread reading the stream each time the number of
+ *     bytes read doubles, starting at {@link #FIRST_PREVIEW_BYTES}. Bytes are no longer copied once the listener asks
+ *     to stop or once {@link #MAX_PREVIEW_BYTES} have been read. The copy is kept in byte arrays obtained from
+ *     {@link com.bumptech.glide.util.ByteArrayPool}, which are returned once bytes are no longer copied, when the
+ *     stream is closed or when {@link #releasePrefix()} is called, so listeners that decode asynchronously must make
+ *     their own copy.
+ * </p>
+ */
+public class PreviewInputStream extends FilterInputStream {
+    // 16 KB, usually enough for the first scan of a progressive JPEG.
+    static final int FIRST_PREVIEW_BYTES = 16 * 1024;
+    // 2 MB.
+    static final int MAX_PREVIEW_BYTES = 2 * 1024 * 1024;
+
+    private final PrefixListener listener;
+    private byte[] prefix = ByteArrayPool.get().getBytes(FIRST_PREVIEW_BYTES);
+    private int count;
+    private int nextPreviewBytes = FIRST_PREVIEW_BYTES;
+
+    /**
+     * A listener that is called with the prefix of the data read so far.
+     */
+    public interface PrefixListener {
+        /**
+         * Called with the prefix of the data read so far.
+         *
+         * @param data An array containing the prefix, only valid for the duration of this call.
+         * @param length The length of the prefix.
+         * @return True to continue receiving longer prefixes, false to stop.
+         */
+        boolean onPrefixAvailable(byte[] data, int length);
+    }
+
+    public PreviewInputStream(InputStream in, PrefixListener listener) {
+        super(in);
+        this.listener = listener;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int result = super.read();
+        if (result != -1 && prefix != null) {
+            ensureCapacity(count + 1);
+            prefix[count++] = (byte) result;
+            maybeNotify();
+        }
+        return result;
+    }
+
+    @Override
+    public int read(byte[] buffer, int byteOffset, int byteCount) throws IOException {
+        int read = super.read(buffer, byteOffset, byteCount);
+        if (read > 0 && prefix != null) {
+            ensureCapacity(count + read);
+            System.arraycopy(buffer, byteOffset, prefix, count, read);
+            count += read;
+            maybeNotify();
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long byteCount) throws IOException {
+        // The prefix would have a gap, so skipped data can't be previewed.
+        releasePrefix();
+        return super.skip(byteCount);
+    }
+
+    @Override
+    public void close() throws IOException {
+        releasePrefix();
+        super.close();
+    }
+
+    /**
+     * Returns the buffered prefix to the pool without closing the wrapped stream, so that owners of the wrapped stream
+     * that close it themselves don't leak the prefix. No more previews are delivered afterwards.
+     */
+    public void releasePrefix() {
+        if (prefix != null) {
+            ByteArrayPool.get().releaseBytes(prefix);
+            prefix = null;
+        }
+    }
+
+    @Override
+    public boolean markSupported() {
+        // Re-read data would be duplicated in the prefix.
+        return false;
+    }
+
+    @Override
+    public void mark(int readLimit) {
+        // Do nothing.
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("Mark/reset not supported");
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > prefix.length) {
+            byte[] grown = ByteArrayPool.get()
+                    .getBytes(Math.max(capacity, Math.min(MAX_PREVIEW_BYTES, prefix.length * 2)));
+            System.arraycopy(prefix, 0, grown, 0, count);
+            ByteArrayPool.get().releaseBytes(prefix);
+            prefix = grown;
+        }
+    }
+
+    private void maybeNotify() {
+        if (count < nextPreviewBytes) {
+            return;
+        }
+        boolean shouldContinue = listener.onPrefixAvailable(prefix, count);
+        while (nextPreviewBytes <= count) {
+            nextPreviewBytes *= 2;
+        }
+        if (!shouldContinue || count >= MAX_PREVIEW_BYTES) {
+            releasePrefix();
+        }
+    }
+}
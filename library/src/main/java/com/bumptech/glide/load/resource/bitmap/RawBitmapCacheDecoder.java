@@ -0,0 +1,146 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.util.Log;
+
+import com.bumptech.glide.load.ResourceDecoder;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.util.ByteArrayPool;
+import com.bumptech.glide.util.LogTime;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link com.bumptech.glide.load.ResourceDecoder} for cache files that copies pixels written by
+ * {@link com.bumptech.glide.load.resource.bitmap.RawBitmapEncoder} directly in to a {@link android.graphics.Bitmap}
+ * from the {@link com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool}, and that decodes all other files with a
+ * fallback decoder.
+ *
+ * <p>
+ *     Loading raw pixels avoids the {@link android.graphics.BitmapFactory} decode, header parsing and exif handling
+ *     that the fallback decoder would otherwise do for every load from the result cache.
+ * </p>
+ */
+public class RawBitmapCacheDecoder implements ResourceDecoder<File, Bitmap> {
+    private static final String TAG = "RawBitmapCacheDecoder";
+
+    private final BitmapPool bitmapPool;
+    private final ResourceDecoder<File, Bitmap> fallbackDecoder;
+    private String id;
+
+    /**
+     * Constructor for a RawBitmapCacheDecoder.
+     *
+     * @param bitmapPool The pool to obtain Bitmaps from.
+     * @param fallbackDecoder The decoder to use for files that weren't written by
+     *                        {@link com.bumptech.glide.load.resource.bitmap.RawBitmapEncoder}, or that it wrote with
+     *                        its fallback encoder.
+     */
+    public RawBitmapCacheDecoder(BitmapPool bitmapPool, ResourceDecoder<File, Bitmap> fallbackDecoder) {
+        this.bitmapPool = bitmapPool;
+        this.fallbackDecoder = fallbackDecoder;
+    }
+
+    @Override
+    public Resource<Bitmap> decode(File source, int width, int height) throws IOException {
+        byte[] header = new byte[RawBitmapFormat.HEADER_SIZE];
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(source, "r");
+            if (file.length() >= RawBitmapFormat.HEADER_SIZE) {
+                file.readFully(header);
+                if (RawBitmapFormat.isRawBitmap(header)) {
+                    return BitmapResource.obtain(decodeRaw(file, header), bitmapPool);
+                }
+            }
+        } finally {
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    // Do nothing.
+                }
+            }
+        }
+        return fallbackDecoder.decode(source, width, height);
+    }
+
+    private Bitmap decodeRaw(RandomAccessFile file, byte[] header) throws IOException {
+        long start = LogTime.getLogTime();
+        final int pixelLength = RawBitmapFormat.getPixelLength(header);
+        final int storedLength = RawBitmapFormat.getStoredLength(header);
+        if (!RawBitmapFormat.hasValidLengths(header, file.length())) {
+            throw new IOException("Invalid raw bitmap header");
+        }
+
+        final ByteArrayPool byteArrayPool = ByteArrayPool.get();
+        final byte[] pixels = byteArrayPool.getBytes(pixelLength);
+        try {
+            final int compression = RawBitmapFormat.getCompression(header);
+            if (compression == RawBitmapFormat.COMPRESSION_NONE) {
+                file.readFully(pixels, 0, pixelLength);
+            } else if (compression == RawBitmapFormat.COMPRESSION_LZ4) {
+                byte[] stored = byteArrayPool.getBytes(storedLength);
+                try {
+                    file.readFully(stored, 0, storedLength);
+                    Lz4BlockCodec.decompress(stored, storedLength, pixels, pixelLength);
+                } finally {
+                    byteArrayPool.releaseBytes(stored);
+                }
+            } else {
+                throw new IOException("Unknown raw bitmap compression: " + compression);
+            }
+            return copyToBitmap(pixels, header, start);
+        } finally {
+            byteArrayPool.releaseBytes(pixels);
+        }
+    }
+
+    private Bitmap copyToBitmap(byte[] pixels, byte[] header, long start) {
+        final Bitmap.Config config = RawBitmapFormat.getConfig(RawBitmapFormat.getConfigId(header));
+        final int width = RawBitmapFormat.getWidth(header);
+        final int height = RawBitmapFormat.getHeight(header);
+        final int pixelLength = RawBitmapFormat.getPixelLength(header);
+
+        Bitmap result = bitmapPool.getDirty(width, height, config);
+        if (result == null) {
+            result = Bitmap.createBitmap(width, height, config);
+        }
+        if (result.getRowBytes() * result.getHeight() != pixelLength) {
+            // The stride of Bitmaps with the same dimensions and config can differ across devices and OS versions.
+            if (!bitmapPool.put(result)) {
+                result.recycle();
+            }
+            return null;
+        }
+        result.copyPixelsFromBuffer(ByteBuffer.wrap(pixels, 0, pixelLength));
+        setHasAlpha(result, RawBitmapFormat.hasAlpha(header));
+
+        if (Log.isLoggable(TAG, Log.VERBOSE)) {
+            Log.v(TAG, "Loaded raw bitmap [" + width + "x" + height + "] " + config + " in "
+                    + LogTime.getElapsedMillis(start));
+        }
+        return result;
+    }
+
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB_MR1)
+    private static void setHasAlpha(Bitmap bitmap, boolean hasAlpha) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB_MR1) {
+            bitmap.setHasAlpha(hasAlpha);
+        }
+    }
+
+    @Override
+    public String getId() {
+        if (id == null) {
+            id = "RawBitmapCacheDecoder.com.bumptech.glide.load.resource.bitmap" + fallbackDecoder.getId();
+        }
+        return id;
+    }
+}
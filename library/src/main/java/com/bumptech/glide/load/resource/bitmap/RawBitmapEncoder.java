@@ -0,0 +1,120 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import com.bumptech.glide.load.ResourceEncoder;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.util.ByteArrayPool;
+import com.bumptech.glide.util.LogTime;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link com.bumptech.glide.load.ResourceEncoder} that writes the pixels of small {@link android.graphics.Bitmap}s
+ * to {@link java.io.OutputStream}s as is, or compressed with LZ4, so that they can be read back by
+ * {@link com.bumptech.glide.load.resource.bitmap.RawBitmapCacheDecoder} without decoding a JPEG or PNG.
+ *
+ * <p>
+ *     Bitmaps larger than the given maximum size are written with a fallback encoder, a
+ *     {@link com.bumptech.glide.load.resource.bitmap.BitmapEncoder} by default. Raw pixels use more disk space than
+ *     JPEGs or PNGs, but are much cheaper to load, which makes this encoder a good fit for transformed thumbnails
+ *     that are loaded from the result cache often. Use it together with
+ *     {@link com.bumptech.glide.load.resource.bitmap.RawBitmapCacheDecoder}, for example:
+ *     {@code .encoder(new RawBitmapEncoder()).cacheDecoder(new RawBitmapCacheDecoder(pool, defaultCacheDecoder))}.
+ * </p>
+ */
+public class RawBitmapEncoder implements ResourceEncoder<Bitmap> {
+    private static final String TAG = "RawBitmapEncoder";
+    /** 512kb, a 256x256 ARGB_8888 Bitmap. */
+    private static final int DEFAULT_MAX_RAW_SIZE = 512 * 1024;
+
+    private final ResourceEncoder<Bitmap> fallbackEncoder;
+    private final int maxRawSize;
+    private final boolean compress;
+    private String id;
+
+    public RawBitmapEncoder() {
+        this(new BitmapEncoder(), DEFAULT_MAX_RAW_SIZE, false /*compress*/);
+    }
+
+    /**
+     * Constructor for a RawBitmapEncoder.
+     *
+     * @param fallbackEncoder The encoder to use for Bitmaps that are larger than {@code maxRawSize} or that have a
+     *                        {@link android.graphics.Bitmap.Config} that can't be written as is.
+     * @param maxRawSize The maximum size in bytes of the pixels of Bitmaps that will be written as is.
+     * @param compress True to compress pixels with LZ4, false to write them uncompressed.
+     */
+    public RawBitmapEncoder(ResourceEncoder<Bitmap> fallbackEncoder, int maxRawSize, boolean compress) {
+        this.fallbackEncoder = fallbackEncoder;
+        this.maxRawSize = maxRawSize;
+        this.compress = compress;
+    }
+
+    @Override
+    public boolean encode(Resource<Bitmap> resource, OutputStream os) {
+        final Bitmap bitmap = resource.get();
+        final int configId = RawBitmapFormat.getConfigId(bitmap.getConfig());
+        final int pixelLength = bitmap.getRowBytes() * bitmap.getHeight();
+        if (configId < 0 || pixelLength > maxRawSize) {
+            return fallbackEncoder.encode(resource, os);
+        }
+
+        long start = LogTime.getLogTime();
+        final ByteArrayPool byteArrayPool = ByteArrayPool.get();
+        final byte[] pixels = byteArrayPool.getBytes(pixelLength);
+        byte[] compressed = null;
+        try {
+            bitmap.copyPixelsToBuffer(ByteBuffer.wrap(pixels, 0, pixelLength));
+
+            final byte[] stored;
+            final int storedLength;
+            final int compression;
+            if (compress) {
+                compressed = byteArrayPool.getBytes(Lz4BlockCodec.maxCompressedLength(pixelLength));
+                stored = compressed;
+                storedLength = Lz4BlockCodec.compress(pixels, pixelLength, stored);
+                compression = RawBitmapFormat.COMPRESSION_LZ4;
+            } else {
+                stored = pixels;
+                storedLength = pixelLength;
+                compression = RawBitmapFormat.COMPRESSION_NONE;
+            }
+
+            byte[] header = new byte[RawBitmapFormat.HEADER_SIZE];
+            RawBitmapFormat.writeHeader(header, compression, configId, bitmap.hasAlpha(), bitmap.getWidth(),
+                    bitmap.getHeight(), pixelLength, storedLength);
+            try {
+                os.write(header);
+                os.write(stored, 0, storedLength);
+            } catch (IOException e) {
+                if (Log.isLoggable(TAG, Log.DEBUG)) {
+                    Log.d(TAG, "Failed to write raw bitmap", e);
+                }
+                return false;
+            }
+            if (Log.isLoggable(TAG, Log.VERBOSE)) {
+                Log.v(TAG, "Wrote raw bitmap of size " + pixelLength + " as " + storedLength + " bytes in "
+                        + LogTime.getElapsedMillis(start));
+            }
+            return true;
+        } finally {
+            byteArrayPool.releaseBytes(pixels);
+            if (compressed != null) {
+                byteArrayPool.releaseBytes(compressed);
+            }
+        }
+    }
+
+    @Override
+    public String getId() {
+        if (id == null) {
+            id = "RawBitmapEncoder.com.bumptech.glide.load.resource.bitmap" + maxRawSize + compress
+                    + fallbackEncoder.getId();
+        }
+        return id;
+    }
+}
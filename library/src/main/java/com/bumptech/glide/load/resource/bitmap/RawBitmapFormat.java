@@ -0,0 +1,143 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.graphics.Bitmap;
+
+/**
+ * Constants and helpers for the uncompressed pixel format written by
+ * {@link com.bumptech.glide.load.resource.bitmap.RawBitmapEncoder} and read by
+ * {@link com.bumptech.glide.load.resource.bitmap.RawBitmapCacheDecoder}.
+ *
+ * <p>
+ *     Files start with a fixed size big endian header: a magic number, the format version, the compression, the
+ *     {@link android.graphics.Bitmap.Config}, whether or not the Bitmap has alpha, the width, the height, the number
+ *     of pixel bytes and the number of stored bytes. The stored bytes follow the header.
+ * </p>
+ */
+final class RawBitmapFormat {
+    // "GRAW"
+    static final int MAGIC = 0x47524157;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+
+    static final int COMPRESSION_NONE = 0;
+    static final int COMPRESSION_LZ4 = 1;
+
+    private static final Bitmap.Config[] CONFIGS = new Bitmap.Config[] {
+        Bitmap.Config.ARGB_8888,
+        Bitmap.Config.RGB_565,
+        Bitmap.Config.ARGB_4444,
+        Bitmap.Config.ALPHA_8,
+    };
+
+    private RawBitmapFormat() {
+        // Utility class.
+    }
+
+    static int getConfigId(Bitmap.Config config) {
+        for (int i = 0; i < CONFIGS.length; i++) {
+            if (CONFIGS[i] == config) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static Bitmap.Config getConfig(int configId) {
+        return configId >= 0 && configId < CONFIGS.length ? CONFIGS[configId] : null;
+    }
+
+    /**
+     * Returns true if the lengths in the given header are consistent with its dimensions and config, and with the
+     * given length of the file that contains it.
+     *
+     * <p>
+     *     Rows may be padded, so the pixel length is allowed to exceed the unpadded length by up to three bytes per
+     *     row.
+     * </p>
+     */
+    static boolean hasValidLengths(byte[] header, long fileLength) {
+        final Bitmap.Config config = getConfig(getConfigId(header));
+        final int width = getWidth(header);
+        final int height = getHeight(header);
+        final int pixelLength = getPixelLength(header);
+        final int storedLength = getStoredLength(header);
+        if (config == null || width <= 0 || height <= 0 || pixelLength <= 0 || storedLength <= 0
+                || fileLength - HEADER_SIZE != storedLength) {
+            return false;
+        }
+        final long rowLength = (long) width * getBytesPerPixel(config);
+        if (pixelLength < rowLength * height || pixelLength > (rowLength + 3) * height) {
+            return false;
+        }
+        final int compression = getCompression(header);
+        return compression == COMPRESSION_NONE ? storedLength == pixelLength
+                : storedLength <= Lz4BlockCodec.maxCompressedLength(pixelLength);
+    }
+
+    private static int getBytesPerPixel(Bitmap.Config config) {
+        if (config == Bitmap.Config.ARGB_8888) {
+            return 4;
+        } else if (config == Bitmap.Config.ALPHA_8) {
+            return 1;
+        } else {
+            return 2;
+        }
+    }
+
+    static void writeHeader(byte[] header, int compression, int configId, boolean hasAlpha, int width, int height,
+            int pixelLength, int storedLength) {
+        writeInt(header, 0, MAGIC);
+        header[4] = (byte) VERSION;
+        header[5] = (byte) compression;
+        header[6] = (byte) configId;
+        header[7] = (byte) (hasAlpha ? 1 : 0);
+        writeInt(header, 8, width);
+        writeInt(header, 12, height);
+        writeInt(header, 16, pixelLength);
+        writeInt(header, 20, storedLength);
+    }
+
+    static boolean isRawBitmap(byte[] header) {
+        return readInt(header, 0) == MAGIC && header[4] == VERSION;
+    }
+
+    static int getCompression(byte[] header) {
+        return header[5];
+    }
+
+    static int getConfigId(byte[] header) {
+        return header[6];
+    }
+
+    static boolean hasAlpha(byte[] header) {
+        return header[7] != 0;
+    }
+
+    static int getWidth(byte[] header) {
+        return readInt(header, 8);
+    }
+
+    static int getHeight(byte[] header) {
+        return readInt(header, 12);
+    }
+
+    static int getPixelLength(byte[] header) {
+        return readInt(header, 16);
+    }
+
+    static int getStoredLength(byte[] header) {
+        return readInt(header, 20);
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8)
+                | (bytes[offset + 3] & 0xFF);
+    }
+}
@@ -19,6 +19,8 @@ package com.bumptech.glide.load.resource.bitmap;
 
 import android.util.Log;
 
+import com.bumptech.glide.util.ByteArrayPool;
+
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -45,6 +47,16 @@ public class RecyclableBufferedInputStream extends FilterInputStream {
      */
     private volatile byte[] buf;
 
+    /**
+     * The buffer given to the constructor, which is owned by the caller and is never returned to the pool.
+     */
+    private final byte[] initialBuf;
+
+    /**
+     * The pool that buffers are obtained from when the buffer grows to fit the mark limit.
+     */
+    private final ByteArrayPool byteArrayPool;
+
     /**
      * The total number of bytes inside the byte array {@code buf}.
      */
@@ -66,12 +78,19 @@ public class RecyclableBufferedInputStream extends FilterInputStream {
      */
     private int pos;
 
+    /**
+     * The header of the image at the start of this stream, if it has already been parsed.
+     */
+    private volatile ImageHeader imageHeader;
+
     public RecyclableBufferedInputStream(InputStream in, byte[] buffer) {
         super(in);
         if (buffer == null || buffer.length == 0) {
             throw new IllegalArgumentException("buffer is null or empty");
         }
         buf = buffer;
+        initialBuf = buffer;
+        byteArrayPool = ByteArrayPool.get();
     }
 
     /**
@@ -108,6 +127,21 @@ public class RecyclableBufferedInputStream extends FilterInputStream {
         marklimit = buf.length;
     }
 
+    /**
+     * Sets the header of the image at the start of this stream so that decoders that are given this stream don't need
+     * to parse it again.
+     */
+    public void setImageHeader(ImageHeader imageHeader) {
+        this.imageHeader = imageHeader;
+    }
+
+    /**
+     * Returns the header of the image at the start of this stream, or null if the header hasn't been parsed.
+     */
+    public ImageHeader getImageHeader() {
+        return imageHeader;
+    }
+
     /**
      * Closes this stream. The source stream is closed and any resources
      * associated with it are released.
@@ -125,6 +159,23 @@ public class RecyclableBufferedInputStream extends FilterInputStream {
         }
     }
 
+    /**
+     * Returns the buffer obtained to grow this stream past the length of the buffer given to the constructor, if any,
+     * to the {@link com.bumptech.glide.util.ByteArrayPool}.
+     *
+     * <p>
+     *     The buffer given to the constructor is not released, it is still owned by the caller. The stream is closed
+     *     for reading once it is released, but the wrapped stream is not closed.
+     * </p>
+     */
+    public synchronized void release() {
+        byte[] localBuf = buf;
+        buf = null;
+        if (localBuf != null && localBuf != initialBuf) {
+            byteArrayPool.releaseBytes(localBuf);
+        }
+    }
+
     private int fillbuf(InputStream localIn, byte[] localBuf)
             throws IOException {
         if (markpos == -1 || pos - markpos >= marklimit) {
@@ -149,10 +200,14 @@ public class RecyclableBufferedInputStream extends FilterInputStream {
                 newLength = marklimit;
             }
             if (Log.isLoggable(TAG, Log.DEBUG)) {
-                Log.d(TAG, "allocate buffer of length: " + newLength);
+                Log.d(TAG, "obtain buffer of length: " + newLength);
             }
-            byte[] newbuf = new byte[newLength];
+            // The pool may return a larger, dirty, buffer. Only the bytes up to count are ever read.
+            byte[] newbuf = byteArrayPool.getBytes(newLength);
             System.arraycopy(localBuf, 0, newbuf, 0, localBuf.length);
+            if (localBuf != initialBuf) {
+                byteArrayPool.releaseBytes(localBuf);
+            }
             // Reassign buf, which will invalidate any local references
             // FIXME: what if buf was null?
             localBuf = buf = newbuf;
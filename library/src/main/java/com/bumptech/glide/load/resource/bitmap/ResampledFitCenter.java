@@ -0,0 +1,76 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Scales the image uniformly (maintaining the image's aspect ratio) to the same size as
+ * {@link com.bumptech.glide.load.resource.bitmap.FitCenter}, but with a
+ * {@link com.bumptech.glide.load.resource.bitmap.BitmapResampler.Filter} that takes every source pixel in to account
+ * so that images scaled down by large factors don't alias.
+ *
+ * <p>
+ *     Large images are resampled in parallel bands on an {@link java.util.concurrent.ExecutorService}, see
+ *     {@link com.bumptech.glide.load.resource.bitmap.BitmapResampler}.
+ * </p>
+ */
+public class ResampledFitCenter extends BitmapTransformation {
+    private final BitmapResampler.Filter filter;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor for a ResampledFitCenter that uses {@link BitmapResampler.Filter#LANCZOS} and
+     * {@link BitmapResampler#getDefaultExecutor()}.
+     *
+     * @param context Any context.
+     */
+    public ResampledFitCenter(Context context) {
+        this(context, BitmapResampler.Filter.LANCZOS);
+    }
+
+    /**
+     * Constructor for a ResampledFitCenter that uses {@link BitmapResampler#getDefaultExecutor()}.
+     *
+     * @param context Any context.
+     * @param filter The filter to resample with.
+     */
+    public ResampledFitCenter(Context context, BitmapResampler.Filter filter) {
+        super(context);
+        this.filter = filter;
+        this.executor = BitmapResampler.getDefaultExecutor();
+    }
+
+    /**
+     * Constructor for a ResampledFitCenter.
+     *
+     * @param bitmapPool The pool to obtain the resampled bitmap from.
+     * @param filter The filter to resample with.
+     * @param executor The executor to resample bands of large images on, or null to always resample on the thread
+     *                 that applies the transformation.
+     */
+    public ResampledFitCenter(BitmapPool bitmapPool, BitmapResampler.Filter filter, ExecutorService executor) {
+        super(bitmapPool);
+        this.filter = filter;
+        this.executor = executor;
+    }
+
+    @Override
+    protected Bitmap transform(BitmapPool pool, Bitmap toTransform, int outWidth, int outHeight) {
+        final int inWidth = toTransform.getWidth();
+        final int inHeight = toTransform.getHeight();
+        // The same as TransformationUtils.fitCenter.
+        final float minPercentage = Math.min(outWidth / (float) inWidth, outHeight / (float) inHeight);
+        final int targetWidth = Math.max(1, (int) (minPercentage * inWidth));
+        final int targetHeight = Math.max(1, (int) (minPercentage * inHeight));
+        return BitmapResampler.resample(toTransform, pool, targetWidth, targetHeight, filter, executor);
+    }
+
+    @Override
+    public String getId() {
+        return "ResampledFitCenter.com.bumptech.glide.load.resource.bitmap" + filter.name();
+    }
+}
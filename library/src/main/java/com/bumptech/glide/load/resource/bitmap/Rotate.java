@@ -0,0 +1,71 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Matrix;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+
+/**
+ * Rotates the image clockwise by a multiple of 90 degrees.
+ */
+public class Rotate extends BitmapTransformation {
+    private final int degrees;
+
+    public Rotate(Context context, int degrees) {
+        super(context);
+        this.degrees = checkDegrees(degrees);
+    }
+
+    public Rotate(BitmapPool bitmapPool, int degrees) {
+        super(bitmapPool);
+        this.degrees = checkDegrees(degrees);
+    }
+
+    @Override
+    protected Bitmap transform(BitmapPool pool, Bitmap toTransform, int outWidth, int outHeight) {
+        FusedDraw draw = new FusedDraw(toTransform);
+        fuse(draw, outWidth, outHeight);
+        return draw.draw(pool);
+    }
+
+    @Override
+    protected boolean fuse(FusedDraw draw, int outWidth, int outHeight) {
+        final int width = draw.getWidth();
+        final int height = draw.getHeight();
+        final Matrix matrix = DrawingContext.get().getMatrix();
+        matrix.setRotate(degrees);
+        // Translate the rotated content back so that its top left corner is at the origin.
+        switch (degrees) {
+            case 90:
+                matrix.postTranslate(height, 0);
+                draw.postConcat(matrix, height, width);
+                break;
+            case 180:
+                matrix.postTranslate(width, height);
+                draw.postConcat(matrix, width, height);
+                break;
+            case 270:
+                matrix.postTranslate(0, width);
+                draw.postConcat(matrix, height, width);
+                break;
+            default:
+                // Nothing to do.
+                break;
+        }
+        return true;
+    }
+
+    @Override
+    public String getId() {
+        return "Rotate.com.bumptech.glide.load.resource.bitmap" + degrees;
+    }
+
+    private static int checkDegrees(int degrees) {
+        if (degrees % 90 != 0) {
+            throw new IllegalArgumentException("Degrees must be a multiple of 90, but was: " + degrees);
+        }
+        // Normalize to [0, 360).
+        return (degrees % 360 + 360) % 360;
+    }
+}
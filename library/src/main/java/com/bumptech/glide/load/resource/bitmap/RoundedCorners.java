@@ -0,0 +1,59 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+
+/**
+ * Rounds the corners of the image with the given radius, leaving the area outside of the corners transparent.
+ */
+public class RoundedCorners extends BitmapTransformation {
+    private final int radius;
+
+    /**
+     * Constructor for a RoundedCorners.
+     *
+     * @param context Any context.
+     * @param radius The radius of the corners in pixels.
+     */
+    public RoundedCorners(Context context, int radius) {
+        super(context);
+        this.radius = checkRadius(radius);
+    }
+
+    /**
+     * Constructor for a RoundedCorners.
+     *
+     * @param bitmapPool The pool to obtain the rounded bitmap from.
+     * @param radius The radius of the corners in pixels.
+     */
+    public RoundedCorners(BitmapPool bitmapPool, int radius) {
+        super(bitmapPool);
+        this.radius = checkRadius(radius);
+    }
+
+    @Override
+    protected Bitmap transform(BitmapPool pool, Bitmap toTransform, int outWidth, int outHeight) {
+        FusedDraw draw = new FusedDraw(toTransform);
+        fuse(draw, outWidth, outHeight);
+        return draw.draw(pool);
+    }
+
+    @Override
+    protected boolean fuse(FusedDraw draw, int outWidth, int outHeight) {
+        return draw.roundCorners(radius);
+    }
+
+    @Override
+    public String getId() {
+        return "RoundedCorners.com.bumptech.glide.load.resource.bitmap" + radius;
+    }
+
+    private static int checkRadius(int radius) {
+        if (radius <= 0) {
+            throw new IllegalArgumentException("Radius must be greater than 0, but was: " + radius);
+        }
+        return radius;
+    }
+}
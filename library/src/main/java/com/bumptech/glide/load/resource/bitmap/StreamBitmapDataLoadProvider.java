@@ -7,6 +7,7 @@ import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.model.StreamEncoder;
 import com.bumptech.glide.load.resource.file.FileToStreamDecoder;
 import com.bumptech.glide.provider.DataLoadProvider;
@@ -23,12 +24,19 @@ public class StreamBitmapDataLoadProvider implements DataLoadProvider<InputStrea
     private final BitmapEncoder encoder;
     private final StreamEncoder sourceEncoder;
     private final FileToStreamDecoder<Bitmap> cacheDecoder;
+    private final BitmapResourceConverter converter;
 
     public StreamBitmapDataLoadProvider(BitmapPool bitmapPool, DecodeFormat decodeFormat) {
+        this(bitmapPool, decodeFormat, new BitmapDecoderSelector());
+    }
+
+    public StreamBitmapDataLoadProvider(BitmapPool bitmapPool, DecodeFormat decodeFormat,
+            BitmapDecoderSelector decoderSelector) {
         sourceEncoder = new StreamEncoder();
-        decoder = new StreamBitmapDecoder(bitmapPool, decodeFormat);
+        decoder = new StreamBitmapDecoder(decoderSelector.select(Downsampler.AT_LEAST), bitmapPool, decodeFormat);
         encoder = new BitmapEncoder();
         cacheDecoder = new FileToStreamDecoder<Bitmap>(decoder);
+        converter = new BitmapResourceConverter(decoder);
     }
 
     @Override
@@ -50,4 +58,9 @@ public class StreamBitmapDataLoadProvider implements DataLoadProvider<InputStrea
     public ResourceEncoder<Bitmap> getEncoder() {
         return encoder;
     }
+
+    @Override
+    public TransformedResourceCache.Converter<Bitmap> getTransformedResourceConverter() {
+        return converter;
+    }
 }
@@ -9,16 +9,18 @@ import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.engine.Resource;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 
+import java.io.IOException;
 import java.io.InputStream;
 
 /**
  * An {@link com.bumptech.glide.load.ResourceDecoder} that uses an
- * {@link com.bumptech.glide.load.resource.bitmap.Downsampler} to decode an {@link android.graphics.Bitmap} from an
+ * {@link com.bumptech.glide.load.resource.bitmap.Downsampler}, or another
+ * {@link com.bumptech.glide.load.resource.bitmap.BitmapDecoder}, to decode an {@link android.graphics.Bitmap} from an
  * {@link java.io.InputStream}.
  */
 public class StreamBitmapDecoder implements ResourceDecoder<InputStream, Bitmap> {
     private static final String ID = "StreamBitmapDecoder.com.bumptech.glide.load.resource.bitmap";
-    private final Downsampler downsampler;
+    private final BitmapDecoder<InputStream> downsampler;
     private BitmapPool bitmapPool;
     private DecodeFormat decodeFormat;
     private String id;
@@ -39,15 +41,29 @@ public class StreamBitmapDecoder implements ResourceDecoder<InputStream, Bitmap>
         this(Downsampler.AT_LEAST, bitmapPool, decodeFormat);
     }
 
-    public StreamBitmapDecoder(Downsampler downsampler, BitmapPool bitmapPool, DecodeFormat decodeFormat) {
+    public StreamBitmapDecoder(BitmapDecoder<InputStream> downsampler, BitmapPool bitmapPool,
+            DecodeFormat decodeFormat) {
         this.downsampler = downsampler;
         this.bitmapPool = bitmapPool;
         this.decodeFormat = decodeFormat;
     }
 
     @Override
-    public Resource<Bitmap> decode(InputStream source, int width, int height) {
-        Bitmap bitmap = downsampler.decode(source, bitmapPool, width, height, decodeFormat);
+    public Resource<Bitmap> decode(InputStream source, int width, int height) throws IOException {
+        if (downsampler instanceof Downsampler) {
+            // Leaves the EXIF rotation to the transformation so that it's applied in the same draw.
+            return ((Downsampler) downsampler).decodeResource(source, bitmapPool, width, height, decodeFormat);
+        }
+        Bitmap bitmap;
+        try {
+            bitmap = downsampler.decode(source, bitmapPool, width, height, decodeFormat);
+        } catch (IOException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
         return BitmapResource.obtain(bitmap, bitmapPool);
     }
 
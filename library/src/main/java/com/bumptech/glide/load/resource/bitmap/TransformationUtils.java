@@ -2,7 +2,6 @@ package com.bumptech.glide.load.resource.bitmap;
 
 import android.annotation.TargetApi;
 import android.graphics.Bitmap;
-import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.RectF;
@@ -14,6 +13,12 @@ import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 
 /**
  * A class with methods to efficiently resize Bitmaps.
+ *
+ * <p>
+ *     The {@link android.graphics.Canvas}, {@link android.graphics.Matrix} and {@link android.graphics.Paint} used
+ *     to draw are reused on each thread, so transforming in to a {@link android.graphics.Bitmap} obtained from a
+ *     {@link com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool} doesn't allocate.
+ * </p>
  */
 public final class TransformationUtils {
     private static final String TAG = "TransformationUtils";
@@ -41,20 +46,9 @@ public final class TransformationUtils {
         } else if (toCrop.getWidth() == width && toCrop.getHeight() == height) {
             return toCrop;
         }
-        // From ImageView/Bitmap.createScaledBitmap.
-        final float scale;
-        float dx = 0, dy = 0;
-        Matrix m = new Matrix();
-        if (toCrop.getWidth() * height > width * toCrop.getHeight()) {
-            scale = (float) height / (float) toCrop.getHeight();
-            dx = (width - toCrop.getWidth() * scale) * 0.5f;
-        } else {
-            scale = (float) width / (float) toCrop.getWidth();
-            dy = (height - toCrop.getHeight() * scale) * 0.5f;
-        }
-
-        m.setScale(scale, scale);
-        m.postTranslate((int) (dx + 0.5f), (int) (dy + 0.5f));
+        final DrawingContext context = DrawingContext.get();
+        final Matrix m = context.getMatrix();
+        setCenterCropMatrix(m, toCrop.getWidth(), toCrop.getHeight(), width, height);
         final Bitmap result;
         if (recycled != null) {
             result = recycled;
@@ -65,12 +59,30 @@ public final class TransformationUtils {
         // We don't add or remove alpha, so keep the alpha setting of the Bitmap we were given.
         TransformationUtils.setAlpha(toCrop, result);
 
-        Canvas canvas = new Canvas(result);
-        Paint paint = new Paint(PAINT_FLAGS);
-        canvas.drawBitmap(toCrop, m, paint);
+        draw(context, toCrop, m, result);
         return result;
     }
 
+    /**
+     * Sets the given matrix to scale and translate an image with the given input dimensions so that it fills and is
+     * centered in the given output dimensions.
+     */
+    static void setCenterCropMatrix(Matrix m, int inWidth, int inHeight, int width, int height) {
+        // From ImageView/Bitmap.createScaledBitmap.
+        final float scale;
+        float dx = 0, dy = 0;
+        if (inWidth * height > width * inHeight) {
+            scale = (float) height / (float) inHeight;
+            dx = (width - inWidth * scale) * 0.5f;
+        } else {
+            scale = (float) width / (float) inWidth;
+            dy = (height - inHeight * scale) * 0.5f;
+        }
+
+        m.setScale(scale, scale);
+        m.postTranslate((int) (dx + 0.5f), (int) (dy + 0.5f));
+    }
+
     /**
      * An expensive operation to resize the given Bitmap down so that it fits within the given dimensions maintain
      * the original proportions.
@@ -121,15 +133,34 @@ public final class TransformationUtils {
             Log.v(TAG, "minPct:   " + minPercentage);
         }
 
-        Canvas canvas = new Canvas(toReuse);
-        Matrix matrix = new Matrix();
+        final DrawingContext context = DrawingContext.get();
+        final Matrix matrix = context.getMatrix();
         matrix.setScale(minPercentage, minPercentage);
-        Paint paint = new Paint(PAINT_FLAGS);
-        canvas.drawBitmap(toFit, matrix, paint);
+        draw(context, toFit, matrix, toReuse);
 
         return toReuse;
     }
 
+    /**
+     * Returns a copy of the given Bitmap with the same dimensions and config, obtained from the given pool if possible.
+     *
+     * @param toCopy The Bitmap to copy.
+     * @param pool A pool that may or may not contain a Bitmap of the necessary dimensions.
+     */
+    public static Bitmap copy(Bitmap toCopy, BitmapPool pool) {
+        final Bitmap.Config config = getSafeConfig(toCopy);
+        // Pooled Bitmaps are erased, so drawing with no matrix copies transparent pixels exactly.
+        Bitmap result = pool.get(toCopy.getWidth(), toCopy.getHeight(), config);
+        if (result == null) {
+            result = Bitmap.createBitmap(toCopy.getWidth(), toCopy.getHeight(), config);
+        }
+        setAlpha(toCopy, result);
+
+        final DrawingContext context = DrawingContext.get();
+        draw(context, toCopy, context.getMatrix(), result);
+        return result;
+    }
+
     /**
      * Sets the alpha of the Bitmap we're going to re-use to the alpha of the Bitmap we're going to transform. This
      * keeps {@link android.graphics.Bitmap#hasAlpha()}} consistent before and after the transformation for
@@ -197,7 +228,7 @@ public final class TransformationUtils {
         Bitmap result = imageToOrient;
         try {
             if (degreesToRotate != 0) {
-                Matrix matrix = new Matrix();
+                Matrix matrix = DrawingContext.get().getMatrix();
                 matrix.setRotate(degreesToRotate);
                 result = Bitmap.createBitmap(
                         imageToOrient,
@@ -216,6 +247,26 @@ public final class TransformationUtils {
         return result;
     }
 
+    /**
+     * Rotates the given image by the given number of degrees in to a {@link android.graphics.Bitmap} obtained from the
+     * given pool if possible.
+     *
+     * @param imageToOrient Image Bitmap to orient.
+     * @param pool A pool that may or may not contain an image of the necessary dimensions.
+     * @param degreesToRotate number of degrees to rotate the image by. If zero the original image is returned
+     *                        unmodified.
+     * @return The oriented bitmap. May be the imageToOrient without modification, or a new Bitmap.
+     */
+    public static Bitmap rotateImage(Bitmap imageToOrient, BitmapPool pool, int degreesToRotate) {
+        if (degreesToRotate % 360 == 0) {
+            return imageToOrient;
+        }
+        final DrawingContext context = DrawingContext.get();
+        final Matrix matrix = context.getMatrix();
+        matrix.setRotate(degreesToRotate);
+        return drawMapped(context, imageToOrient, pool, matrix);
+    }
+
     /**
      * Get the # of degrees an image must be rotated to match the given exif orientation.
      *
@@ -244,6 +295,27 @@ public final class TransformationUtils {
         return degreesToRotate;
     }
 
+    /**
+     * Returns true if an image with the given exif orientation must be rotated and/or flipped to be displayed
+     * correctly.
+     *
+     * @param exifOrientation The exif orientation [1-8]
+     */
+    public static boolean isExifOrientationRequired(int exifOrientation) {
+        switch (exifOrientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+            case ExifInterface.ORIENTATION_ROTATE_180:
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+            case ExifInterface.ORIENTATION_ROTATE_90:
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /**
      * Rotate and/or flip the image to match the given exif orientation.
      *
@@ -253,34 +325,61 @@ public final class TransformationUtils {
      * @return The rotated and/or flipped image or toOrient if no rotation or flip was necessary.
      */
     public static Bitmap rotateImageExif(Bitmap toOrient, BitmapPool pool, int exifOrientation) {
-        final Matrix matrix = new Matrix();
+        final DrawingContext context = DrawingContext.get();
+        final Matrix matrix = context.getMatrix();
         initializeMatrixForRotation(exifOrientation, matrix);
         if (matrix.isIdentity()) {
             return toOrient;
         }
+        return drawMapped(context, toOrient, pool, matrix);
+    }
 
+    /**
+     * Draws the given bitmap with the given matrix in to a bitmap from the given pool that exactly fits the mapped
+     * bitmap.
+     */
+    private static Bitmap drawMapped(DrawingContext context, Bitmap toTransform, BitmapPool pool, Matrix matrix) {
         // From Bitmap.createBitmap.
-        final RectF newRect = new RectF(0, 0, toOrient.getWidth(), toOrient.getHeight());
+        final RectF newRect = context.getRect(0, 0, toTransform.getWidth(), toTransform.getHeight());
         matrix.mapRect(newRect);
 
         final int newWidth = Math.round(newRect.width());
         final int newHeight = Math.round(newRect.height());
 
-        Bitmap.Config config = getSafeConfig(toOrient);
+        // Rotations that aren't a multiple of 90 degrees leave transparent corners.
+        final boolean addsTransparency = !matrix.rectStaysRect();
+        Bitmap.Config config = addsTransparency ? Bitmap.Config.ARGB_8888 : getSafeConfig(toTransform);
         Bitmap result = pool.get(newWidth, newHeight, config);
         if (result == null) {
             result = Bitmap.createBitmap(newWidth, newHeight, config);
         }
+        if (addsTransparency) {
+            setHasAlpha(result);
+        } else {
+            setAlpha(toTransform, result);
+        }
 
         matrix.postTranslate(-newRect.left, -newRect.top);
-
-        final Canvas canvas = new Canvas(result);
-        final Paint paint = new Paint(PAINT_FLAGS);
-        canvas.drawBitmap(toOrient, matrix, paint);
+        draw(context, toTransform, matrix, result);
 
         return result;
     }
 
+    private static void draw(DrawingContext context, Bitmap toDraw, Matrix matrix, Bitmap target) {
+        try {
+            context.getCanvas(target).drawBitmap(toDraw, matrix, context.getPaint());
+        } finally {
+            context.finishDrawing();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB_MR1)
+    private static void setHasAlpha(Bitmap bitmap) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB_MR1) {
+            bitmap.setHasAlpha(true);
+        }
+    }
+
     private static Bitmap.Config getSafeConfig(Bitmap bitmap) {
       return bitmap.getConfig() != null ? bitmap.getConfig() : Bitmap.Config.ARGB_8888;
     }
@@ -1,6 +1,7 @@
 package com.bumptech.glide.load.resource.bitmap;
 
 import android.graphics.Bitmap;
+import android.graphics.Matrix;
 import android.media.MediaMetadataRetriever;
 import android.os.ParcelFileDescriptor;
 
@@ -8,11 +9,23 @@ import com.bumptech.glide.load.DecodeFormat;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * An {@link com.bumptech.glide.load.resource.bitmap.BitmapDecoder} that can decode a thumbnail frame
  * {@link Bitmap} from a {@link android.os.ParcelFileDescriptor} containing a video.
  *
+ * <p>
+ *     {@link android.media.MediaMetadataRetriever} always extracts frames at the video's full resolution. Frames
+ *     larger than the requested size are scaled down in to a {@link android.graphics.Bitmap} obtained from the
+ *     {@link com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool} and the full size frame is returned to the pool,
+ *     so that only the scaled frame is held in memory.
+ * </p>
+ *
  * @see android.media.MediaMetadataRetriever
  */
 public class VideoBitmapDecoder implements BitmapDecoder<ParcelFileDescriptor> {
@@ -43,15 +56,68 @@ public class VideoBitmapDecoder implements BitmapDecoder<ParcelFileDescriptor> {
             DecodeFormat decodeFormat)
             throws IOException {
         MediaMetadataRetriever mediaMetadataRetriever = factory.build();
-        mediaMetadataRetriever.setDataSource(resource.getFileDescriptor());
-        Bitmap result;
-        if (frame >= 0) {
-          result = mediaMetadataRetriever.getFrameAtTime(frame);
-        } else {
-          result = mediaMetadataRetriever.getFrameAtTime();
+        try {
+            mediaMetadataRetriever.setDataSource(resource.getFileDescriptor());
+            Bitmap result;
+            if (frame >= 0) {
+              result = mediaMetadataRetriever.getFrameAtTime(frame);
+            } else {
+              result = mediaMetadataRetriever.getFrameAtTime();
+            }
+            return scaleFrame(result, bitmapPool, outWidth, outHeight, decodeFormat);
+        } finally {
+            mediaMetadataRetriever.release();
+            resource.close();
+        }
+    }
+
+    /**
+     * Decodes the frames at each of the given times from the given video, opening the video only once, for example to
+     * show previews while scrubbing.
+     *
+     * <p>
+     *     Frames are retrieved in increasing order of time so that the retriever only seeks forward, but are returned
+     *     in the order of the given times. Frames are scaled the same way as frames returned by
+     *     {@link #decode(android.os.ParcelFileDescriptor, BitmapPool, int, int, DecodeFormat)}. The given
+     *     {@link android.os.ParcelFileDescriptor} is closed when all frames have been decoded.
+     * </p>
+     *
+     * @param resource The video to decode frames from.
+     * @param timesUs The times of the frames to decode in microseconds.
+     * @param bitmapPool A pool used to obtain the scaled frames and to recycle the full size frames.
+     * @param outWidth The target width for the returned frames.
+     * @param outHeight The target height for the returned frames.
+     * @param decodeFormat The desired configuration for the returned frames.
+     * @return A list with one frame for each of the given times, containing null for any frame that couldn't be
+     * retrieved.
+     */
+    public List<Bitmap> decodeFrames(ParcelFileDescriptor resource, final long[] timesUs, BitmapPool bitmapPool,
+            int outWidth, int outHeight, DecodeFormat decodeFormat) throws IOException {
+        Integer[] order = new Integer[timesUs.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer lhs, Integer rhs) {
+                final long lhsTime = timesUs[lhs];
+                final long rhsTime = timesUs[rhs];
+                return lhsTime < rhsTime ? -1 : (lhsTime == rhsTime ? 0 : 1);
+            }
+        });
+
+        List<Bitmap> result = new ArrayList<Bitmap>(Collections.<Bitmap>nCopies(timesUs.length, null));
+        MediaMetadataRetriever mediaMetadataRetriever = factory.build();
+        try {
+            mediaMetadataRetriever.setDataSource(resource.getFileDescriptor());
+            for (Integer index : order) {
+                Bitmap frameBitmap = mediaMetadataRetriever.getFrameAtTime(timesUs[index]);
+                result.set(index, scaleFrame(frameBitmap, bitmapPool, outWidth, outHeight, decodeFormat));
+            }
+        } finally {
+            mediaMetadataRetriever.release();
+            resource.close();
         }
-        mediaMetadataRetriever.release();
-        resource.close();
         return result;
     }
 
@@ -60,6 +126,55 @@ public class VideoBitmapDecoder implements BitmapDecoder<ParcelFileDescriptor> {
         return "VideoBitmapDecoder.com.bumptech.glide.load.resource.bitmap";
     }
 
+    /**
+     * Scales the given frame down so that it is only as large as necessary for both dimensions to be at least the
+     * requested dimensions, the same as {@link com.bumptech.glide.load.resource.bitmap.Downsampler#AT_LEAST}.
+     */
+    private static Bitmap scaleFrame(Bitmap frameBitmap, BitmapPool pool, int outWidth, int outHeight,
+            DecodeFormat decodeFormat) {
+        if (frameBitmap == null || outWidth <= 0 || outHeight <= 0) {
+            return frameBitmap;
+        }
+        final int inWidth = frameBitmap.getWidth();
+        final int inHeight = frameBitmap.getHeight();
+        final float scale = Math.max(outWidth / (float) inWidth, outHeight / (float) inHeight);
+        if (scale >= 1f) {
+            return frameBitmap;
+        }
+
+        // Round up so that the scaled frame is never smaller than requested.
+        final int width = Math.min(inWidth, (int) Math.ceil(scale * inWidth));
+        final int height = Math.min(inHeight, (int) Math.ceil(scale * inHeight));
+        final Bitmap.Config config = getConfig(decodeFormat);
+        Bitmap scaled = pool.get(width, height, config);
+        if (scaled == null) {
+            scaled = Bitmap.createBitmap(width, height, config);
+        }
+
+        // Scale each axis separately so the frame exactly covers the scaled Bitmap, which may be a dirty pooled Bitmap.
+        final DrawingContext context = DrawingContext.get();
+        final Matrix matrix = context.getMatrix();
+        matrix.setScale(width / (float) inWidth, height / (float) inHeight);
+        try {
+            context.getCanvas(scaled).drawBitmap(frameBitmap, matrix, context.getPaint());
+        } finally {
+            context.finishDrawing();
+        }
+
+        if (!pool.put(frameBitmap)) {
+            frameBitmap.recycle();
+        }
+        return scaled;
+    }
+
+    private static Bitmap.Config getConfig(DecodeFormat decodeFormat) {
+        // Video frames are opaque.
+        if (decodeFormat == DecodeFormat.ALWAYS_ARGB_8888 || DecodeFormat.REQUIRE_ARGB_8888) {
+            return Bitmap.Config.ARGB_8888;
+        }
+        return Bitmap.Config.RGB_565;
+    }
+
     // Visible for testing.
     static class MediaMetadataRetrieverFactory {
         public MediaMetadataRetriever build() {
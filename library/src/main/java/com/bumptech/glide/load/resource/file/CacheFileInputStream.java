@@ -0,0 +1,22 @@
+package com.bumptech.glide.load.resource.file;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+
+/**
+ * A {@link java.io.FileInputStream} for a file in Glide's disk cache.
+ *
+ * <p>
+ *     Files in the disk cache are written to a temporary file and renamed in to place, so they're never truncated or
+ *     modified while they're read. Decoders can therefore safely memory map these streams' files, which isn't safe
+ *     for arbitrary files because accessing a mapping past the end of a file that has been truncated crashes the
+ *     process with SIGBUS.
+ * </p>
+ */
+public final class CacheFileInputStream extends FileInputStream {
+
+    public CacheFileInputStream(File file) throws FileNotFoundException {
+        super(file);
+    }
+}
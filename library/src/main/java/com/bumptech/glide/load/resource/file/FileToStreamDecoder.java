@@ -4,7 +4,6 @@ import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.engine.Resource;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -12,6 +11,11 @@ import java.io.InputStream;
 /**
  * A decoder that wraps an {@link InputStream} decoder to allow it to decode from a file.
  *
+ * <p>
+ *     This decoder is used to decode files in Glide's disk cache, so files are opened as
+ *     {@link com.bumptech.glide.load.resource.file.CacheFileInputStream}s.
+ * </p>
+ *
  * @param <T> The type of resource that the wrapped InputStream decoder decodes.
  */
 public class FileToStreamDecoder<T> implements ResourceDecoder<File, T> {
@@ -57,7 +61,7 @@ public class FileToStreamDecoder<T> implements ResourceDecoder<File, T> {
     // Visible for testing.
     static class FileOpener {
         public InputStream open(File file) throws FileNotFoundException {
-            return new FileInputStream(file);
+            return new CacheFileInputStream(file);
         }
     }
 }
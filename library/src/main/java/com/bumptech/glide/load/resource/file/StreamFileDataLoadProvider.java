@@ -4,6 +4,7 @@ import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
 import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.model.StreamEncoder;
 import com.bumptech.glide.load.resource.NullResourceEncoder;
 import com.bumptech.glide.provider.DataLoadProvider;
@@ -46,6 +47,11 @@ public class StreamFileDataLoadProvider implements DataLoadProvider<InputStream,
         return NullResourceEncoder.get();
     }
 
+    @Override
+    public TransformedResourceCache.Converter<File> getTransformedResourceConverter() {
+        return null;
+    }
+
     private static class ErrorSourceDecoder implements ResourceDecoder<InputStream, File> {
         @Override
         public Resource<File> decode(InputStream source, int width, int height) {
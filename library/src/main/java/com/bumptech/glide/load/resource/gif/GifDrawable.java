@@ -18,6 +18,9 @@ import com.bumptech.glide.gifdecoder.GifHeader;
 import com.bumptech.glide.load.Transformation;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 import com.bumptech.glide.load.resource.drawable.GlideDrawable;
+import com.bumptech.glide.util.ByteBufferUtil;
+
+import java.nio.ByteBuffer;
 
 /**
  * An animated {@link android.graphics.drawable.Drawable} that plays the frames of an animated GIF.
@@ -70,6 +73,24 @@ public class GifDrawable extends GlideDrawable implements GifFrameLoader.FrameCa
     public GifDrawable(Context context, GifDecoder.BitmapProvider bitmapProvider, BitmapPool bitmapPool,
             Transformation<Bitmap> frameTransformation, int targetFrameWidth, int targetFrameHeight,
             GifHeader gifHeader, byte[] data, Bitmap firstFrame) {
+        this(context, bitmapProvider, bitmapPool, frameTransformation, targetFrameWidth, targetFrameHeight, gifHeader,
+                ByteBuffer.wrap(data), firstFrame);
+    }
+
+    /**
+     * Constructor for GifDrawable that reads frames on demand from the given buffer, which may be backed by a memory
+     * mapped file so that the gif's data is never held on the heap.
+     *
+     * @see #GifDrawable(android.content.Context, com.bumptech.glide.gifdecoder.GifDecoder.BitmapProvider,
+     * com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool, com.bumptech.glide.load.Transformation, int, int,
+     * com.bumptech.glide.gifdecoder.GifHeader, byte[], android.graphics.Bitmap)
+     *
+     * @param data A buffer containing the full bytes of the gif from its position to its limit. The buffer must not
+     *             be modified afterwards.
+     */
+    public GifDrawable(Context context, GifDecoder.BitmapProvider bitmapProvider, BitmapPool bitmapPool,
+            Transformation<Bitmap> frameTransformation, int targetFrameWidth, int targetFrameHeight,
+            GifHeader gifHeader, ByteBuffer data, Bitmap firstFrame) {
         this(new GifState(gifHeader, data, context, frameTransformation, targetFrameWidth, targetFrameHeight,
                 bitmapProvider, bitmapPool, firstFrame));
     }
@@ -82,8 +103,14 @@ public class GifDrawable extends GlideDrawable implements GifFrameLoader.FrameCa
         this.state = state;
         this.decoder = new GifDecoder(state.bitmapProvider);
         this.paint = new Paint();
-        decoder.setData(state.gifHeader, state.data);
+        // Decode frames no larger than they need to be for the size they're displayed at.
+        decoder.setData(state.gifHeader, state.data,
+                GifResourceDecoder.getSampleSize(state.gifHeader, state.targetWidth, state.targetHeight));
         frameLoader = new GifFrameLoader(state.context, this, decoder, state.targetWidth, state.targetHeight);
+        if (state.frameCacheMaxSize > 0) {
+            frameLoader.setFrameCache(new GifFrameCache(state.bitmapPool, decoder.getFrameCount(),
+                    state.frameCacheMaxSize));
+        }
     }
 
     // Visible for testing.
@@ -112,6 +139,26 @@ public class GifDrawable extends GlideDrawable implements GifFrameLoader.FrameCa
         frameLoader.setFrameTransformation(frameTransformation);
     }
 
+    /**
+     * Sets the maximum size in bytes of the decoded and transformed frames this drawable keeps so that, once every
+     * frame has been shown, playback doesn't decode or transform any more frames.
+     *
+     * <p>
+     *     Frames are only kept if all of them fit, so the size should be at least the number of frames times the size
+     *     of a transformed frame. Short looping GIFs benefit most. The default is 0, which keeps no frames.
+     * </p>
+     *
+     * @param maxSize The maximum size in bytes, or 0 to disable the cache.
+     */
+    public void setFrameCacheMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Max size must be >= 0, but was: " + maxSize);
+        }
+        state.frameCacheMaxSize = maxSize;
+        frameLoader.setFrameCache(maxSize > 0
+                ? new GifFrameCache(state.bitmapPool, decoder.getFrameCount(), maxSize) : null);
+    }
+
     public GifDecoder getDecoder() {
         return decoder;
     }
@@ -120,8 +167,20 @@ public class GifDrawable extends GlideDrawable implements GifFrameLoader.FrameCa
         return state.frameTransformation;
     }
 
+    /**
+     * Returns the full bytes of the gif, which are copied on to the heap if they aren't already held in an array.
+     *
+     * @see #getBuffer()
+     */
     public byte[] getData() {
-        return state.data;
+        return state.data != null ? ByteBufferUtil.toBytes(state.data) : null;
+    }
+
+    /**
+     * Returns a read only view of the full bytes of the gif, which may be backed by a memory mapped file.
+     */
+    public ByteBuffer getBuffer() {
+        return state.data != null ? state.data.asReadOnlyBuffer() : null;
     }
 
     public int getFrameCount() {
@@ -281,6 +340,7 @@ public class GifDrawable extends GlideDrawable implements GifFrameLoader.FrameCa
         state.bitmapPool.put(state.firstFrame);
         frameLoader.clear();
         frameLoader.stop();
+        frameLoader.setFrameCache(null);
     }
 
     // For testing.
@@ -310,7 +370,7 @@ public class GifDrawable extends GlideDrawable implements GifFrameLoader.FrameCa
     static class GifState extends ConstantState {
         private static final int GRAVITY = Gravity.FILL;
         GifHeader gifHeader;
-        byte[] data;
+        ByteBuffer data;
         Context context;
         Transformation<Bitmap> frameTransformation;
         int targetWidth;
@@ -318,8 +378,9 @@ public class GifDrawable extends GlideDrawable implements GifFrameLoader.FrameCa
         GifDecoder.BitmapProvider bitmapProvider;
         BitmapPool bitmapPool;
         Bitmap firstFrame;
+        int frameCacheMaxSize;
 
-        public GifState(GifHeader header, byte[] data, Context context,
+        public GifState(GifHeader header, ByteBuffer data, Context context,
                 Transformation<Bitmap> frameTransformation, int targetWidth, int targetHeight,
                 GifDecoder.BitmapProvider provider, BitmapPool bitmapPool, Bitmap firstFrame) {
             if (firstFrame == null) {
@@ -347,6 +408,7 @@ public class GifDrawable extends GlideDrawable implements GifFrameLoader.FrameCa
                 bitmapProvider = original.bitmapProvider;
                 bitmapPool = original.bitmapPool;
                 firstFrame = original.firstFrame;
+                frameCacheMaxSize = original.frameCacheMaxSize;
             }
         }
 
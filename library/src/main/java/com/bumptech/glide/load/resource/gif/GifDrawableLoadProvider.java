@@ -6,6 +6,7 @@ import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.model.StreamEncoder;
 import com.bumptech.glide.load.resource.file.FileToStreamDecoder;
 import com.bumptech.glide.provider.DataLoadProvider;
@@ -49,4 +50,9 @@ public class GifDrawableLoadProvider implements DataLoadProvider<InputStream, Gi
     public ResourceEncoder<GifDrawable> getEncoder() {
         return encoder;
     }
+
+    @Override
+    public TransformedResourceCache.Converter<GifDrawable> getTransformedResourceConverter() {
+        return null;
+    }
 }
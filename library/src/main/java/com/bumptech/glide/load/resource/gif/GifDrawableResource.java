@@ -3,6 +3,8 @@ package com.bumptech.glide.load.resource.gif;
 import com.bumptech.glide.load.resource.drawable.DrawableResource;
 import com.bumptech.glide.util.Util;
 
+import java.nio.ByteBuffer;
+
 /**
  * A resource wrapping an {@link com.bumptech.glide.load.resource.gif.GifDrawable}.
  */
@@ -13,7 +15,10 @@ public class GifDrawableResource extends DrawableResource<GifDrawable> {
 
     @Override
     public int getSize() {
-        return drawable.getData().length + Util.getBitmapByteSize(drawable.getFirstFrame());
+        ByteBuffer data = drawable.getBuffer();
+        // Memory mapped data is paged in and out by the OS and isn't held on the heap.
+        int dataSize = data.isDirect() ? 0 : data.remaining();
+        return dataSize + Util.getBitmapByteSize(drawable.getFirstFrame());
     }
 
     @Override
@@ -0,0 +1,144 @@
+package com.bumptech.glide.load.resource.gif;
+
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.resource.bitmap.TransformationUtils;
+import com.bumptech.glide.util.Util;
+
+/**
+ * A bounded cache of the decoded and transformed frames of a single GIF so that, once every frame has been seen,
+ * playback no longer decodes or transforms any frames.
+ *
+ * <p>
+ *     Frames are only served once every frame is cached, because {@link com.bumptech.glide.gifdecoder.GifDecoder}
+ *     composes each frame from the frames before it and so can't resume decoding part way through a loop. If the
+ *     frames don't fit within the maximum size, the cache gives up, returns the frames it holds to the pool and
+ *     ignores any further frames.
+ * </p>
+ *
+ * <p>
+ *     The cache stores pooled copies of the frames it's given, because the frames themselves are returned to the pool
+ *     when the next frame is ready. Must only be used on the main thread.
+ * </p>
+ */
+class GifFrameCache {
+    private static final String TAG = "GifFrameCache";
+
+    private final BitmapPool bitmapPool;
+    private final int maxSize;
+    private final Bitmap[] frames;
+    private int currentSize;
+    private int cachedCount;
+    private boolean isDisabled;
+
+    /**
+     * Constructor for GifFrameCache.
+     *
+     * @param bitmapPool The pool to obtain copies from and to return copies to.
+     * @param frameCount The number of frames in the GIF.
+     * @param maxSize The maximum size in bytes of all of the cached frames.
+     */
+    public GifFrameCache(BitmapPool bitmapPool, int frameCount, int maxSize) {
+        this.bitmapPool = bitmapPool;
+        this.maxSize = maxSize;
+        this.frames = new Bitmap[frameCount];
+    }
+
+    /**
+     * Returns true if every frame is cached and frames can be obtained from {@link #get(int)}.
+     */
+    public boolean isComplete() {
+        return !isDisabled && cachedCount == frames.length;
+    }
+
+    /**
+     * Returns the cached frame at the given index, or null if the cache isn't {@link #isComplete() complete}. The
+     * returned frame is owned by the cache and must not be recycled or returned to the pool.
+     */
+    public Bitmap get(int index) {
+        if (!isComplete() || index < 0 || index >= frames.length) {
+            return null;
+        }
+        return frames[index];
+    }
+
+    /**
+     * Caches a copy of the given frame if the frame isn't already cached and if it fits, or otherwise clears and
+     * disables the cache.
+     *
+     * @param index The index of the frame.
+     * @param frame The decoded and transformed frame, which isn't retained.
+     */
+    public void put(int index, Bitmap frame) {
+        if (isDisabled || frame == null || index < 0 || index >= frames.length || frames[index] != null) {
+            return;
+        }
+        final int size = Util.getBitmapByteSize(frame);
+        if (currentSize + size > maxSize) {
+            if (Log.isLoggable(TAG, Log.DEBUG)) {
+                Log.d(TAG, "Frames exceed max size: " + maxSize + ", disabling cache after " + cachedCount + " of "
+                        + frames.length + " frames");
+            }
+            clear();
+            isDisabled = true;
+            return;
+        }
+        frames[index] = TransformationUtils.copy(frame, bitmapPool);
+        currentSize += size;
+        cachedCount++;
+    }
+
+    /**
+     * Returns every cached frame to the pool. Frames may be cached again afterwards, unless the cache has been
+     * disabled.
+     */
+    public void clear() {
+        for (int i = 0; i < frames.length; i++) {
+            Bitmap frame = frames[i];
+            if (frame != null) {
+                release(frame);
+            }
+            frames[i] = null;
+        }
+        currentSize = 0;
+        cachedCount = 0;
+    }
+
+    /**
+     * Removes the given frame from the cache without returning it to the pool, so that a frame that's still being
+     * drawn survives {@link #clear()}. Returns true if the frame was cached, in which case the caller owns it and must
+     * pass it to {@link #release(android.graphics.Bitmap)} once it's no longer drawn.
+     */
+    public boolean detach(Bitmap frame) {
+        if (frame == null) {
+            return false;
+        }
+        for (int i = 0; i < frames.length; i++) {
+            if (frames[i] == frame) {
+                frames[i] = null;
+                currentSize -= Util.getBitmapByteSize(frame);
+                cachedCount--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a frame that was {@link #detach(android.graphics.Bitmap) detached} from the cache to the pool.
+     */
+    public void release(Bitmap frame) {
+        if (!bitmapPool.put(frame)) {
+            frame.recycle();
+        }
+    }
+
+    /**
+     * Returns the total size in bytes of the cached frames.
+     */
+    public int getCurrentSize() {
+        return currentSize;
+    }
+}
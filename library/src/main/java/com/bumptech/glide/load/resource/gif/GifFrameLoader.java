@@ -33,7 +33,14 @@ class GifFrameLoader {
     private boolean isLoadPending = false;
     private GenericRequestBuilder<GifDecoder, GifDecoder, Bitmap, Bitmap> requestBuilder;
     private DelayTarget current;
+    // A frame obtained from the frame cache that's waiting to be shown.
+    private DelayTarget pending;
     private boolean isCleared;
+    private GifFrameCache frameCache;
+    // A cache that's been replaced or invalidated, but whose frames are still shown until the decoder can resume.
+    private GifFrameCache drainingCache;
+    // The index of the frame the decoder decoded last, which it must decode the frame after next.
+    private int lastDecodedIndex = -1;
 
     public interface FrameCallback {
         void onFrameReady(int index);
@@ -61,6 +68,76 @@ class GifFrameLoader {
             throw new NullPointerException("Transformation must not be null");
         }
         requestBuilder = requestBuilder.transform(transformation);
+        if (frameCache != null) {
+            // Frames cached with the previous transformation are no longer valid.
+            retireFrameCache(frameCache);
+        }
+    }
+
+    /**
+     * Sets the cache to store each frame in once it's ready and to obtain frames from once every frame is cached, or
+     * null to always load frames and to release every cached frame.
+     */
+    public void setFrameCache(GifFrameCache frameCache) {
+        if (frameCache == null) {
+            if (drainingCache != null) {
+                clearFrameCache(drainingCache);
+            }
+            if (this.frameCache != null && this.frameCache != drainingCache) {
+                clearFrameCache(this.frameCache);
+            }
+            drainingCache = null;
+        } else if (this.frameCache != null && this.frameCache != frameCache) {
+            retireFrameCache(this.frameCache);
+        }
+        this.frameCache = frameCache;
+    }
+
+    /**
+     * Clears the given cache, or, if its frames are being shown instead of decoded, keeps showing them until the
+     * decoder can resume.
+     *
+     * <p>
+     *     The decoder composes each frame from the frames before it, but doesn't decode the frames obtained from the
+     *     cache, so it can only resume with the frame after the one it decoded last, typically the first frame of a
+     *     loop.
+     * </p>
+     */
+    private void retireFrameCache(GifFrameCache cache) {
+        if (drainingCache == null && cache.isComplete()) {
+            drainingCache = cache;
+        } else if (drainingCache != cache) {
+            clearFrameCache(cache);
+        }
+    }
+
+    private void clearFrameCache(GifFrameCache cache) {
+        // The frame being shown and the frame about to be shown may be owned by the cache and still be drawn, so they
+        // are only released once they're replaced.
+        detachCachedFrame(cache, current);
+        detachCachedFrame(cache, pending);
+        cache.clear();
+    }
+
+    private static void detachCachedFrame(GifFrameCache cache, DelayTarget target) {
+        if (target != null && target.isCached && cache.detach(target.getResource())) {
+            target.detachedFrom = cache;
+        }
+    }
+
+    /**
+     * Returns the cache to obtain the frame at the given index from, or null if the frame must be decoded.
+     */
+    private GifFrameCache getCacheForFrame(int index) {
+        if (drainingCache != null) {
+            final int resumeIndex = lastDecodedIndex + 1 < gifDecoder.getFrameCount() ? lastDecodedIndex + 1 : 0;
+            if (index != resumeIndex) {
+                return drainingCache;
+            }
+            clearFrameCache(drainingCache);
+            drainingCache = null;
+        }
+        return frameCache != null && frameCache.isComplete() ? frameCache : null;
     }
 
     public void start() {
@@ -80,7 +157,7 @@ class GifFrameLoader {
     public void clear() {
         stop();
         if (current != null) {
-            Glide.clear(current);
+            releaseTarget(current);
             current = null;
         }
         isCleared = true;
@@ -99,7 +176,17 @@ class GifFrameLoader {
 
         gifDecoder.advance();
         long targetTime = SystemClock.uptimeMillis() + gifDecoder.getNextDelay();
-        DelayTarget next = new DelayTarget(handler, gifDecoder.getCurrentFrameIndex(), targetTime);
+        final int index = gifDecoder.getCurrentFrameIndex();
+        final GifFrameCache cache = getCacheForFrame(index);
+        if (cache != null) {
+            // Frames from the cache are already decoded and transformed, so there's nothing to load.
+            DelayTarget next = new DelayTarget(handler, index, targetTime, true /*isCached*/);
+            pending = next;
+            next.onResourceReady(cache.get(index), null);
+            return;
+        }
+        lastDecodedIndex = index;
+        DelayTarget next = new DelayTarget(handler, index, targetTime);
         requestBuilder
                 .signature(new FrameSignature())
                 .into(next);
@@ -107,11 +194,18 @@ class GifFrameLoader {
 
     // Visible for testing.
     void onFrameReady(DelayTarget delayTarget) {
+        if (delayTarget == pending) {
+            pending = null;
+        }
         if (isCleared) {
             handler.obtainMessage(FrameLoaderCallback.MSG_CLEAR, delayTarget).sendToTarget();
             return;
         }
 
+        if (frameCache != null && frameCache != drainingCache && !delayTarget.isCached) {
+            frameCache.put(delayTarget.index, delayTarget.getResource());
+        }
+
         DelayTarget previous = current;
         current = delayTarget;
         callback.onFrameReady(delayTarget.index);
@@ -136,23 +230,36 @@ class GifFrameLoader {
                 return true;
             } else if (msg.what == MSG_CLEAR) {
                 GifFrameLoader.DelayTarget target = (DelayTarget) msg.obj;
-                Glide.clear(target);
+                releaseTarget(target);
             }
             return false;
         }
     }
 
+    private static void releaseTarget(DelayTarget target) {
+        Glide.clear(target);
+        target.releaseDetachedFrame();
+    }
+
     // Visible for testing.
     static class DelayTarget extends SimpleTarget<Bitmap> {
         private final Handler handler;
         private final int index;
         private final long targetTime;
+        private final boolean isCached;
         private Bitmap resource;
+        // The cache the cached frame was detached from, which the frame is returned through once it's replaced.
+        private GifFrameCache detachedFrom;
 
         public DelayTarget(Handler handler, int index, long targetTime) {
+            this(handler, index, targetTime, false /*isCached*/);
+        }
+
+        DelayTarget(Handler handler, int index, long targetTime, boolean isCached) {
             this.handler = handler;
             this.index = index;
             this.targetTime = targetTime;
+            this.isCached = isCached;
         }
 
         public Bitmap getResource() {
@@ -165,6 +272,14 @@ class GifFrameLoader {
             Message msg = handler.obtainMessage(FrameLoaderCallback.MSG_DELAY, this);
             handler.sendMessageAtTime(msg, targetTime);
         }
+
+        void releaseDetachedFrame() {
+            if (detachedFrom != null) {
+                detachedFrom.release(resource);
+                detachedFrom = null;
+                resource = null;
+            }
+        }
     }
 
     private static GenericRequestBuilder<GifDecoder, GifDecoder, Bitmap, Bitmap> getRequestBuilder(Context context,
@@ -12,11 +12,14 @@ import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.Transformation;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 import com.bumptech.glide.load.resource.UnitTransformation;
+import com.bumptech.glide.load.resource.file.CacheFileInputStream;
+import com.bumptech.glide.util.ByteBufferUtil;
 import com.bumptech.glide.util.Util;
 
-import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Queue;
 
 /**
@@ -52,9 +55,42 @@ public class GifResourceDecoder implements ResourceDecoder<InputStream, GifDrawa
         this.parserPool = parserPool;
     }
 
+    /**
+     * Decodes a {@link com.bumptech.glide.load.resource.gif.GifDrawable} from the given stream.
+     *
+     * <p>
+     *     If the stream is a {@link com.bumptech.glide.load.resource.file.CacheFileInputStream} for a file in the disk
+     *     cache, the rest of its file is memory mapped so that frame data is read on demand and never held on the heap.
+     *     Other streams, including streams for files that may be truncated while they're mapped, are read once in to a
+     *     single buffer.
+     * </p>
+     */
     @Override
     public GifDrawableResource decode(InputStream source, int width, int height) {
-        byte[] data = inputStreamToBytes(source);
+        ByteBuffer data = null;
+        if (source instanceof CacheFileInputStream) {
+            FileInputStream fileStream = (FileInputStream) source;
+            data = ByteBufferUtil.map(fileStream, ByteBufferUtil.getPosition(fileStream));
+        }
+        if (data == null) {
+            try {
+                data = ByteBufferUtil.fromStream(source);
+            } catch (IOException e) {
+                Log.w(TAG, "Error reading data from stream", e);
+                return null;
+            }
+        }
+        return decode(data, width, height);
+    }
+
+    /**
+     * Decodes a {@link com.bumptech.glide.load.resource.gif.GifDrawable} from the bytes between the given buffer's
+     * position and limit. The buffer isn't modified and is retained by the returned drawable, so it must not be
+     * modified afterwards.
+     *
+     * @param data The GIF's data, which may be backed by a memory mapped file.
+     */
+    public GifDrawableResource decode(ByteBuffer data, int width, int height) {
         final GifHeaderParser parser = parserPool.obtain(data);
         final GifDecoder decoder = decoderPool.obtain(provider);
         try {
@@ -65,14 +101,15 @@ public class GifResourceDecoder implements ResourceDecoder<InputStream, GifDrawa
         }
     }
 
-    private GifDrawableResource decode(byte[] data, int width, int height, GifHeaderParser parser, GifDecoder decoder) {
+    private GifDrawableResource decode(ByteBuffer data, int width, int height, GifHeaderParser parser,
+            GifDecoder decoder) {
         final GifHeader header = parser.parseHeader();
         if (header.getNumFrames() <= 0 || header.getStatus() != GifDecoder.STATUS_OK) {
             // If we couldn't decode the GIF, we will end up with a frame count of 0.
             return null;
         }
 
-        Bitmap firstFrame = decodeFirstFrame(decoder, header, data);
+        Bitmap firstFrame = decodeFirstFrame(decoder, header, data, getSampleSize(header, width, height));
         if (firstFrame == null) {
             return null;
         }
@@ -85,34 +122,34 @@ public class GifResourceDecoder implements ResourceDecoder<InputStream, GifDrawa
         return new GifDrawableResource(gifDrawable);
     }
 
-    private Bitmap decodeFirstFrame(GifDecoder decoder, GifHeader header, byte[] data) {
-        decoder.setData(header, data);
+    private Bitmap decodeFirstFrame(GifDecoder decoder, GifHeader header, ByteBuffer data, int sampleSize) {
+        decoder.setData(header, data, sampleSize);
         decoder.advance();
         return decoder.getNextFrame();
     }
 
+    /**
+     * Returns the largest power of two that the frames of the given GIF can be subsampled by while remaining at least
+     * as large as the given target size, or 1 if the target size isn't known.
+     *
+     * <p>
+     *     Powers of two limit the number of different frame sizes, which makes it more likely that frame Bitmaps can
+     *     be reused.
+     * </p>
+     */
+    static int getSampleSize(GifHeader header, int targetWidth, int targetHeight) {
+        if (targetWidth <= 0 || targetHeight <= 0) {
+            return 1;
+        }
+        final int factor = Math.min(header.getWidth() / targetWidth, header.getHeight() / targetHeight);
+        return factor <= 1 ? 1 : Integer.highestOneBit(factor);
+    }
+
     @Override
     public String getId() {
         return "";
     }
 
-    private static byte[] inputStreamToBytes(InputStream is) {
-        final int bufferSize = 16384;
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bufferSize);
-        try {
-            int nRead;
-            byte[] data = new byte[bufferSize];
-            while ((nRead = is.read(data)) != -1) {
-                buffer.write(data, 0, nRead);
-            }
-            buffer.flush();
-        } catch (IOException e) {
-            Log.w(TAG, "Error reading data from stream", e);
-        }
-        //TODO the returned byte[] may be partial if an IOException was thrown from read
-        return buffer.toByteArray();
-    }
-
     // Visible for testing.
     static class GifDecoderPool {
         private final Queue<GifDecoder> pool = Util.createQueue(0);
@@ -135,7 +172,7 @@ public class GifResourceDecoder implements ResourceDecoder<InputStream, GifDrawa
     static class GifHeaderParserPool {
         private final Queue<GifHeaderParser> pool = Util.createQueue(0);
 
-        public synchronized GifHeaderParser obtain(byte[] data) {
+        public synchronized GifHeaderParser obtain(ByteBuffer data) {
             GifHeaderParser result = pool.poll();
             if (result == null) {
                 result = new GifHeaderParser();
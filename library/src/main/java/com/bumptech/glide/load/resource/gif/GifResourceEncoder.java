@@ -13,10 +13,12 @@ import com.bumptech.glide.load.engine.Resource;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 import com.bumptech.glide.load.resource.UnitTransformation;
 import com.bumptech.glide.load.resource.bitmap.BitmapResource;
+import com.bumptech.glide.util.ByteBufferUtil;
 import com.bumptech.glide.util.LogTime;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * An {@link com.bumptech.glide.load.ResourceEncoder} that can write
@@ -47,10 +49,10 @@ public class GifResourceEncoder implements ResourceEncoder<GifDrawable> {
         GifDrawable drawable = resource.get();
         Transformation<Bitmap> transformation = drawable.getFrameTransformation();
         if (transformation instanceof UnitTransformation) {
-            return writeDataDirect(drawable.getData(), os);
+            return writeDataDirect(drawable.getBuffer(), os);
         }
 
-        GifDecoder decoder = decodeHeaders(drawable.getData());
+        GifDecoder decoder = decodeHeaders(drawable.getBuffer());
 
         AnimatedGifEncoder encoder = factory.buildEncoder();
         if (!encoder.start(os)) {
@@ -77,17 +79,17 @@ public class GifResourceEncoder implements ResourceEncoder<GifDrawable> {
         boolean result = encoder.finish();
 
         if (Log.isLoggable(TAG, Log.VERBOSE)) {
-            Log.v(TAG, "Encoded gif with " + decoder.getFrameCount() + " frames and " + drawable.getData().length
+            Log.v(TAG, "Encoded gif with " + decoder.getFrameCount() + " frames and " + drawable.getBuffer().remaining()
                     + " bytes in " + LogTime.getElapsedMillis(startTime) + " ms");
         }
 
         return result;
     }
 
-    private boolean writeDataDirect(byte[] data, OutputStream os) {
+    private boolean writeDataDirect(ByteBuffer data, OutputStream os) {
         boolean success = true;
         try {
-            os.write(data);
+            ByteBufferUtil.write(data, os);
         } catch (IOException e) {
             if (Log.isLoggable(TAG, Log.DEBUG)) {
                 Log.d(TAG, "Failed to write data to output stream in GifResourceEncoder", e);
@@ -97,7 +99,7 @@ public class GifResourceEncoder implements ResourceEncoder<GifDrawable> {
         return success;
     }
 
-    private GifDecoder decodeHeaders(byte[] data) {
+    private GifDecoder decodeHeaders(ByteBuffer data) {
         GifHeaderParser parser = factory.buildParser();
         parser.setData(data);
         GifHeader header = parser.parseHeader();
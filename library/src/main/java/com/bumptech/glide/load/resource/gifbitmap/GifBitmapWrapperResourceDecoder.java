@@ -5,26 +5,43 @@ import android.graphics.Bitmap;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.engine.Resource;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.model.ImageVideoWrapper;
 import com.bumptech.glide.load.resource.bitmap.BitmapResource;
+import com.bumptech.glide.load.resource.bitmap.ImageHeader;
+import com.bumptech.glide.load.resource.bitmap.ImageHeaderInputStream;
 import com.bumptech.glide.load.resource.bitmap.ImageHeaderParser;
 import com.bumptech.glide.load.resource.bitmap.RecyclableBufferedInputStream;
+import com.bumptech.glide.load.resource.file.CacheFileInputStream;
 import com.bumptech.glide.load.resource.gif.GifDrawable;
+import com.bumptech.glide.load.resource.gif.GifResourceDecoder;
 import com.bumptech.glide.util.ByteArrayPool;
+import com.bumptech.glide.util.ByteBufferUtil;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * An {@link ResourceDecoder} that can decode either an {@link Bitmap} or an {@link GifDrawable}
  * from an {@link InputStream} or a {@link android.os.ParcelFileDescriptor ParcelFileDescriptor}.
+ *
+ * <p>
+ *     Also shares the {@link Bitmap}s of still images through the
+ *     {@link com.bumptech.glide.load.engine.cache.TransformedResourceCache} with loads that use the wrapped
+ *     {@link Bitmap} decoder directly.
+ * </p>
  */
-public class GifBitmapWrapperResourceDecoder implements ResourceDecoder<ImageVideoWrapper, GifBitmapWrapper> {
+public class GifBitmapWrapperResourceDecoder implements ResourceDecoder<ImageVideoWrapper, GifBitmapWrapper>,
+        TransformedResourceCache.Converter<GifBitmapWrapper> {
     private static final ImageTypeParser DEFAULT_PARSER = new ImageTypeParser();
     private static final BufferedStreamFactory DEFAULT_STREAM_FACTORY = new BufferedStreamFactory();
-    // 2048 is rather arbitrary, for most well formatted image types we only need 32 bytes.
+    // Enough for the exif segment and frame header of most JPEGs, which are parsed here along with the type so that the
+    // bitmap decoder doesn't have to parse the header again. No larger than the pooled buffer so that parsing the
+    // header never causes the buffer to grow.
     // Visible for testing.
-    static final int MARK_LIMIT_BYTES = 2048;
+    static final int MARK_LIMIT_BYTES = 64 * 1024;
 
     private final ResourceDecoder<ImageVideoWrapper, Bitmap> bitmapDecoder;
     private final ResourceDecoder<InputStream, GifDrawable> gifDecoder;
@@ -77,28 +94,51 @@ public class GifBitmapWrapperResourceDecoder implements ResourceDecoder<ImageVid
 
     private GifBitmapWrapper decodeStream(ImageVideoWrapper source, int width, int height, byte[] bytes)
             throws IOException {
-        InputStream bis = streamFactory.build(source.getStream(), bytes);
-        bis.mark(MARK_LIMIT_BYTES);
-        ImageHeaderParser.ImageType type = parser.parse(bis);
-        bis.reset();
+        final ImageHeader hint = ImageHeaderInputStream.getHint(source.getStream());
+        // Record where the data starts in a disk cache file before anything is read so that gifs can be mapped from
+        // there.
+        final long filePosition = source.getStream() instanceof CacheFileInputStream
+                ? ByteBufferUtil.getPosition((FileInputStream) source.getStream()) : -1;
+        RecyclableBufferedInputStream bis = streamFactory.build(source.getStream(), bytes);
+        try {
+            ImageHeader header = hint;
+            if (!ImageHeaderInputStream.canSkipParsing(hint)) {
+                bis.mark(MARK_LIMIT_BYTES);
+                header = ImageHeaderInputStream.merge(parser.parse(bis), hint);
+                bis.reset();
+            }
+            bis.setImageHeader(header);
 
-        GifBitmapWrapper result = null;
-        if (type == ImageHeaderParser.ImageType.GIF) {
-            result = decodeGifWrapper(bis, width, height);
-        }
-        // Decoding the gif may fail even if the type matches.
-        if (result == null) {
-            // We can only reset the buffered InputStream, so to start from the beginning of the stream, we need to
-            // pass in a new source containing the buffered stream rather than the original stream.
-            ImageVideoWrapper forBitmapDecoder = new ImageVideoWrapper(bis, source.getFileDescriptor());
-            result = decodeBitmapWrapper(forBitmapDecoder, width, height);
+            GifBitmapWrapper result = null;
+            if (header.getType() == ImageHeaderParser.ImageType.GIF) {
+                result = decodeGifWrapper(source.getStream(), filePosition, bis, width, height);
+            }
+            // Decoding the gif may fail even if the type matches.
+            if (result == null) {
+                // We can only reset the buffered InputStream, so to start from the beginning of the stream, we need
+                // to pass in a new source containing the buffered stream rather than the original stream.
+                ImageVideoWrapper forBitmapDecoder = new ImageVideoWrapper(bis, source.getFileDescriptor());
+                result = decodeBitmapWrapper(forBitmapDecoder, width, height);
+            }
+            return result;
+        } finally {
+            bis.release();
         }
-        return result;
     }
 
-    private GifBitmapWrapper decodeGifWrapper(InputStream bis, int width, int height) throws IOException {
+    private GifBitmapWrapper decodeGifWrapper(InputStream original, long filePosition, InputStream bis, int width,
+            int height) throws IOException {
         GifBitmapWrapper result = null;
-        Resource<GifDrawable> gifResource = gifDecoder.decode(bis, width, height);
+        ByteBuffer mapped = null;
+        if (filePosition >= 0 && gifDecoder instanceof GifResourceDecoder) {
+            mapped = ByteBufferUtil.map((FileInputStream) original, filePosition);
+        }
+        final Resource<GifDrawable> gifResource;
+        if (mapped != null) {
+            gifResource = ((GifResourceDecoder) gifDecoder).decode(mapped, width, height);
+        } else {
+            gifResource = gifDecoder.decode(bis, width, height);
+        }
         if (gifResource != null) {
             GifDrawable drawable = gifResource.get();
             // We can more efficiently hold Bitmaps in memory, so for static GIFs, try to return Bitmaps
@@ -134,17 +174,40 @@ public class GifBitmapWrapperResourceDecoder implements ResourceDecoder<ImageVid
         return id;
     }
 
+    @Override
+    public String getSharedDecoderId() {
+        return bitmapDecoder.getId();
+    }
+
+    @Override
+    public boolean isComplete() {
+        // Bitmaps are only decoded if the data isn't an animated GIF.
+        return true;
+    }
+
+    @Override
+    public Resource<?> getShared(Resource<GifBitmapWrapper> resource) {
+        // Null for animations.
+        return resource.get().getBitmapResource();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Resource<GifBitmapWrapper> wrapShared(Resource<?> shared) {
+        return new GifBitmapWrapperResource(new GifBitmapWrapper((Resource<Bitmap>) shared, null /*gifResource*/));
+    }
+
     // Visible for testing.
     static class BufferedStreamFactory {
-        public InputStream build(InputStream is, byte[] buffer) {
+        public RecyclableBufferedInputStream build(InputStream is, byte[] buffer) {
             return new RecyclableBufferedInputStream(is, buffer);
         }
     }
 
     // Visible for testing.
     static class ImageTypeParser {
-        public ImageHeaderParser.ImageType parse(InputStream is) throws IOException {
-            return new ImageHeaderParser(is).getType();
+        public ImageHeader parse(InputStream is) throws IOException {
+            return new ImageHeaderParser(is).parseHeader(MARK_LIMIT_BYTES);
         }
     }
 }
@@ -6,6 +6,7 @@ import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.model.ImageVideoWrapper;
 import com.bumptech.glide.load.resource.file.FileToStreamDecoder;
 import com.bumptech.glide.load.resource.gif.GifDrawable;
@@ -24,6 +25,7 @@ public class ImageVideoGifDrawableLoadProvider implements DataLoadProvider<Image
     private final ResourceDecoder<ImageVideoWrapper, GifBitmapWrapper> sourceDecoder;
     private final ResourceEncoder<GifBitmapWrapper> encoder;
     private final Encoder<ImageVideoWrapper> sourceEncoder;
+    private final TransformedResourceCache.Converter<GifBitmapWrapper> converter;
 
     public ImageVideoGifDrawableLoadProvider(DataLoadProvider<ImageVideoWrapper, Bitmap> bitmapProvider,
             DataLoadProvider<InputStream, GifDrawable> gifProvider, BitmapPool bitmapPool) {
@@ -35,6 +37,7 @@ public class ImageVideoGifDrawableLoadProvider implements DataLoadProvider<Image
         );
         cacheDecoder = new FileToStreamDecoder<GifBitmapWrapper>(new GifBitmapWrapperStreamResourceDecoder(decoder));
         sourceDecoder = decoder;
+        converter = decoder;
         encoder = new GifBitmapWrapperResourceEncoder(bitmapProvider.getEncoder(), gifProvider.getEncoder());
 
         //TODO: what about the gif provider?
@@ -60,4 +63,9 @@ public class ImageVideoGifDrawableLoadProvider implements DataLoadProvider<Image
     public ResourceEncoder<GifBitmapWrapper> getEncoder() {
         return encoder;
     }
+
+    @Override
+    public TransformedResourceCache.Converter<GifBitmapWrapper> getTransformedResourceConverter() {
+        return converter;
+    }
 }
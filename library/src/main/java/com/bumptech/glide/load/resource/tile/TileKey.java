@@ -0,0 +1,98 @@
+package com.bumptech.glide.load.resource.tile;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.util.Util;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+
+/**
+ * A memory cache key for a single tile of a {@link com.bumptech.glide.load.resource.tile.TiledImage}.
+ */
+class TileKey implements Key {
+    private final Key imageKey;
+    private final int tileSize;
+    private final int sampleSize;
+    private final int column;
+    private final int row;
+    private int hashCode;
+
+    public TileKey(Key imageKey, int tileSize, int sampleSize, int column, int row) {
+        this.imageKey = imageKey;
+        this.tileSize = tileSize;
+        this.sampleSize = sampleSize;
+        this.column = column;
+        this.row = row;
+    }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        TileKey tileKey = (TileKey) o;
+
+        if (tileSize != tileKey.tileSize) {
+            return false;
+        }
+        if (sampleSize != tileKey.sampleSize) {
+            return false;
+        }
+        if (column != tileKey.column) {
+            return false;
+        }
+        if (row != tileKey.row) {
+            return false;
+        }
+        if (imageKey != null ? !imageKey.equals(tileKey.imageKey) : tileKey.imageKey != null) {
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        if (hashCode == 0) {
+            hashCode = imageKey != null ? imageKey.hashCode() : 0;
+            hashCode = 31 * hashCode + tileSize;
+            hashCode = 31 * hashCode + sampleSize;
+            hashCode = 31 * hashCode + column;
+            hashCode = 31 * hashCode + row;
+        }
+        return hashCode;
+    }
+
+    @Override
+    public void updateDiskCacheKey(MessageDigest messageDigest) throws UnsupportedEncodingException {
+        if (imageKey != null) {
+            imageKey.updateDiskCacheKey(messageDigest);
+        }
+        Util.updateDigestWithInt(messageDigest, tileSize);
+        Util.updateDigestWithInt(messageDigest, sampleSize);
+        Util.updateDigestWithInt(messageDigest, column);
+        Util.updateDigestWithInt(messageDigest, row);
+    }
+
+    @Override
+    public String toString() {
+        return "TileKey{imageKey=" + imageKey + ", tileSize=" + tileSize + ", sampleSize=" + sampleSize
+                + ", column=" + column + ", row=" + row + "}";
+    }
+}
@@ -0,0 +1,368 @@
+package com.bumptech.glide.load.resource.tile;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Rect;
+import android.os.Build;
+import android.util.Log;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.engine.cache.MemoryCache;
+import com.bumptech.glide.load.resource.bitmap.BitmapResource;
+
+/**
+ * An image that is too large to decode at once and is instead decoded in square tiles, only for the regions that
+ * are visible and only at the sample size needed for the current zoom level.
+ *
+ * <p>
+ *     Tiles are decoded with {@link android.graphics.BitmapRegionDecoder} into Bitmaps obtained from the
+ *     {@link com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool}. Released tiles are kept in Glide's memory cache
+ *     so that panning or zooming back to a region doesn't decode it again. Tile keys are derived from the source's
+ *     disk cache entry for images loaded with {@link com.bumptech.glide.load.engine.DiskCacheStrategy#SOURCE} or
+ *     {@link com.bumptech.glide.load.engine.DiskCacheStrategy#ALL}, and from the key of the load otherwise.
+ * </p>
+ *
+ * <p>
+ *     To load a TiledImage:
+ *     <pre>
+ *     Glide.with(context)
+ *         .using(Glide.buildStreamModelLoader(Uri.class, context), InputStream.class)
+ *         .load(uri)
+ *         .as(TiledImage.class)
+ *         .diskCacheStrategy(DiskCacheStrategy.SOURCE)
+ *         .into(target);
+ *     </pre>
+ * </p>
+ *
+ * <p>
+ *     {@link #getCachedTile(int, int, int)} and {@link #releaseTile(Tile)} must be called on the main thread.
+ *     {@link #decodeTile(int, int, int)} is expensive and must be called on a background thread.
+ * </p>
+ */
+public class TiledImage {
+    private static final String TAG = "TiledImage";
+    /**
+     * The default width and height in pixels of decoded tiles.
+     */
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    private final RegionDecoder regionDecoder;
+    private final BitmapPool bitmapPool;
+    private final MemoryCache memoryCache;
+    private final Key imageKey;
+    private final Bitmap.Config config;
+    private final int tileSize;
+    // BitmapRegionDecoder only decodes one region at a time, so one Rect and set of options are enough.
+    private final Object decodeLock = new Object();
+    private final Rect region = new Rect();
+    private final BitmapFactory.Options options = new BitmapFactory.Options();
+    // Guarded by this.
+    private int activeDecodes;
+    private boolean isRecycled;
+
+    /**
+     * A decoded tile.
+     */
+    public static final class Tile {
+        private final TileKey key;
+        private final Bitmap bitmap;
+
+        Tile(TileKey key, Bitmap bitmap) {
+            this.key = key;
+            this.bitmap = bitmap;
+        }
+
+        /**
+         * Returns the column of the tile at its sample size.
+         */
+        public int getColumn() {
+            return key.getColumn();
+        }
+
+        /**
+         * Returns the row of the tile at its sample size.
+         */
+        public int getRow() {
+            return key.getRow();
+        }
+
+        /**
+         * Returns the power of two sample size the tile was decoded at.
+         */
+        public int getSampleSize() {
+            return key.getSampleSize();
+        }
+
+        /**
+         * Returns the decoded tile, which is {@link TiledImage#getTileSize()} pixels square unless the tile is at the
+         * right or bottom edge of the image.
+         */
+        public Bitmap getBitmap() {
+            return bitmap;
+        }
+    }
+
+    // Visible for testing.
+    interface RegionDecoder {
+        int getWidth();
+
+        int getHeight();
+
+        Bitmap decodeRegion(Rect region, BitmapFactory.Options options);
+
+        void recycle();
+    }
+
+    TiledImage(BitmapRegionDecoder regionDecoder, BitmapPool bitmapPool, MemoryCache memoryCache, Key imageKey,
+            Bitmap.Config config, int tileSize) {
+        this(new AndroidRegionDecoder(regionDecoder), bitmapPool, memoryCache, imageKey, config, tileSize);
+    }
+
+    // Visible for testing.
+    TiledImage(RegionDecoder regionDecoder, BitmapPool bitmapPool, MemoryCache memoryCache, Key imageKey,
+            Bitmap.Config config, int tileSize) {
+        this.regionDecoder = regionDecoder;
+        this.bitmapPool = bitmapPool;
+        this.memoryCache = memoryCache;
+        this.imageKey = imageKey;
+        this.config = config;
+        this.tileSize = tileSize;
+        options.inPreferredConfig = config;
+    }
+
+    /**
+     * Returns the width of the full image in pixels.
+     */
+    public int getWidth() {
+        return regionDecoder.getWidth();
+    }
+
+    /**
+     * Returns the height of the full image in pixels.
+     */
+    public int getHeight() {
+        return regionDecoder.getHeight();
+    }
+
+    /**
+     * Returns the width and height in pixels of decoded tiles.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Returns the largest power of two sample size that still shows the image at at least the given scale, where a
+     * scale of 1 displays one image pixel per screen pixel.
+     *
+     * @param scale The ratio of displayed size to full image size.
+     */
+    public static int getSampleSize(float scale) {
+        if (scale >= 1f || scale <= 0f) {
+            return 1;
+        }
+        return Math.max(1, Integer.highestOneBit((int) (1f / scale)));
+    }
+
+    /**
+     * Returns the number of columns of tiles at the given sample size.
+     */
+    public int getColumnCount(int sampleSize) {
+        return divideRoundingUp(getWidth(), tileSize * sampleSize);
+    }
+
+    /**
+     * Returns the number of rows of tiles at the given sample size.
+     */
+    public int getRowCount(int sampleSize) {
+        return divideRoundingUp(getHeight(), tileSize * sampleSize);
+    }
+
+    /**
+     * Sets the given Rect to the region of the full image covered by the given tile.
+     */
+    public void getTileRegion(int column, int row, int sampleSize, Rect outRegion) {
+        final int sourceTileSize = tileSize * sampleSize;
+        final int left = column * sourceTileSize;
+        final int top = row * sourceTileSize;
+        outRegion.set(left, top, Math.min(getWidth(), left + sourceTileSize),
+                Math.min(getHeight(), top + sourceTileSize));
+    }
+
+    /**
+     * Sets the given Rect to the range of tiles at the given sample size that overlap the given region of the full
+     * image. Left and top are the first column and row, right and bottom are exclusive. The range is empty if the
+     * region doesn't overlap the image.
+     *
+     * @param visibleRegion The visible region in full image coordinates.
+     * @param sampleSize The power of two sample size, see {@link #getSampleSize(float)}.
+     * @param outTiles The Rect to set to the range of visible tiles.
+     */
+    public void getVisibleTiles(Rect visibleRegion, int sampleSize, Rect outTiles) {
+        final int sourceTileSize = tileSize * sampleSize;
+        final int left = Math.max(0, visibleRegion.left);
+        final int top = Math.max(0, visibleRegion.top);
+        final int right = Math.min(getWidth(), visibleRegion.right);
+        final int bottom = Math.min(getHeight(), visibleRegion.bottom);
+        if (right <= left || bottom <= top) {
+            outTiles.setEmpty();
+            return;
+        }
+        outTiles.set(left / sourceTileSize, top / sourceTileSize, divideRoundingUp(right, sourceTileSize),
+                divideRoundingUp(bottom, sourceTileSize));
+    }
+
+    /**
+     * Returns the given tile from the memory cache, or null if the tile isn't cached. The returned tile is removed
+     * from the cache until it is released. Must be called on the main thread.
+     */
+    public Tile getCachedTile(int column, int row, int sampleSize) {
+        if (imageKey == null) {
+            return null;
+        }
+        TileKey key = new TileKey(imageKey, tileSize, sampleSize, column, row);
+        Resource<?> cached = memoryCache.remove(key);
+        if (cached == null) {
+            return null;
+        }
+        return new Tile(key, (Bitmap) cached.get());
+    }
+
+    /**
+     * Decodes the given tile, or returns null if the tile couldn't be decoded. Must be called on a background thread.
+     */
+    public Tile decodeTile(int column, int row, int sampleSize) {
+        if (!acquireDecoder()) {
+            return null;
+        }
+        Bitmap bitmap = null;
+        Bitmap inBitmap = null;
+        try {
+            synchronized (decodeLock) {
+                getTileRegion(column, row, sampleSize, region);
+                if (region.isEmpty()) {
+                    return null;
+                }
+                options.inSampleSize = sampleSize;
+                inBitmap = getInBitmap(divideRoundingUp(region.width(), sampleSize),
+                        divideRoundingUp(region.height(), sampleSize));
+                options.inBitmap = inBitmap;
+                try {
+                    bitmap = regionDecoder.decodeRegion(region, options);
+                } catch (IllegalArgumentException e) {
+                    // Thrown if the pooled Bitmap can't be reused.
+                    logDecodeFailure(column, row, sampleSize, e);
+                } finally {
+                    options.inBitmap = null;
+                }
+            }
+        } finally {
+            releaseDecoder();
+        }
+        if (bitmap == null) {
+            if (inBitmap != null && !bitmapPool.put(inBitmap)) {
+                inBitmap.recycle();
+            }
+            return null;
+        }
+        return new Tile(new TileKey(imageKey, tileSize, sampleSize, column, row), bitmap);
+    }
+
+    /**
+     * Releases a tile that is no longer displayed, putting it in the memory cache if possible, or otherwise in the
+     * {@link com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool}. Must be called on the main thread.
+     */
+    public void releaseTile(Tile tile) {
+        if (imageKey != null) {
+            memoryCache.put(tile.key, new BitmapResource(tile.bitmap, bitmapPool));
+        } else if (!bitmapPool.put(tile.bitmap)) {
+            tile.bitmap.recycle();
+        }
+    }
+
+    /**
+     * Recycles the region decoder now if no tile is being decoded, or otherwise once the last decode finishes, so that
+     * the main thread never waits for a decode.
+     */
+    synchronized void recycle() {
+        if (isRecycled) {
+            return;
+        }
+        isRecycled = true;
+        if (activeDecodes == 0) {
+            regionDecoder.recycle();
+        }
+    }
+
+    private synchronized boolean acquireDecoder() {
+        if (isRecycled) {
+            return false;
+        }
+        activeDecodes++;
+        return true;
+    }
+
+    private synchronized void releaseDecoder() {
+        activeDecodes--;
+        if (isRecycled && activeDecodes == 0) {
+            regionDecoder.recycle();
+        }
+    }
+
+    private static void logDecodeFailure(int column, int row, int sampleSize, RuntimeException e) {
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, "Failed to decode tile column=" + column + " row=" + row + " sample=" + sampleSize, e);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    private Bitmap getInBitmap(int width, int height) {
+        // BitmapRegionDecoder supports inBitmap since Jelly Bean.
+        if (Build.VERSION_CODES.JELLY_BEAN <= Build.VERSION.SDK_INT) {
+            // BitmapRegionDecoder clears the Bitmap before writing to it, so getDirty is safe.
+            return bitmapPool.getDirty(width, height, config);
+        }
+        return null;
+    }
+
+    private static int divideRoundingUp(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    private static final class AndroidRegionDecoder implements RegionDecoder {
+        private final BitmapRegionDecoder decoder;
+        // BitmapRegionDecoder throws if asked for its dimensions once it's recycled.
+        private final int width;
+        private final int height;
+
+        AndroidRegionDecoder(BitmapRegionDecoder decoder) {
+            this.decoder = decoder;
+            this.width = decoder.getWidth();
+            this.height = decoder.getHeight();
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public Bitmap decodeRegion(Rect region, BitmapFactory.Options options) {
+            return decoder.decodeRegion(region, options);
+        }
+
+        @Override
+        public void recycle() {
+            decoder.recycle();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.bumptech.glide.load.resource.tile;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapRegionDecoder;
+import android.util.Log;
+
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.KeyedResourceDecoder;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.engine.cache.MemoryCache;
+import com.bumptech.glide.load.resource.bitmap.ImageHeader;
+import com.bumptech.glide.load.resource.bitmap.ImageHeaderParser;
+import com.bumptech.glide.util.Util;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An {@link com.bumptech.glide.load.ResourceDecoder} that creates a
+ * {@link com.bumptech.glide.load.resource.tile.TiledImage} from an {@link java.io.InputStream}.
+ *
+ * <p>
+ *     The stream has no stable identity, so tiles are put in the memory cache under keys derived from the key of the
+ *     load that decodes the stream, see {@link #decode(InputStream, Key, int, int)}. Tiles of images decoded with
+ *     {@link #decode(InputStream, int, int)} are never put in the memory cache.
+ * </p>
+ */
+public class TiledImageDecoder implements KeyedResourceDecoder<InputStream, TiledImage> {
+    private static final String TAG = "TiledImageDecoder";
+    private static final String ID = "TiledImageDecoder.com.bumptech.glide.load.resource.tile";
+    // 64 KB, enough for the headers of almost all images, see ImageHeaderParser.
+    private static final int MARK_LIMIT_BYTES = 64 * 1024;
+
+    private final BitmapPool bitmapPool;
+    private final MemoryCache memoryCache;
+    private final DecodeFormat decodeFormat;
+    private final int tileSize;
+    private String id;
+
+    public TiledImageDecoder(BitmapPool bitmapPool, MemoryCache memoryCache, DecodeFormat decodeFormat,
+            int tileSize) {
+        this.bitmapPool = bitmapPool;
+        this.memoryCache = memoryCache;
+        this.decodeFormat = decodeFormat;
+        this.tileSize = tileSize;
+    }
+
+    @Override
+    public Resource<TiledImage> decode(InputStream source, int width, int height) throws IOException {
+        return decode(source, null /*key*/, width, height);
+    }
+
+    @Override
+    public Resource<TiledImage> decode(InputStream source, Key key, int width, int height) throws IOException {
+        InputStream is = source.markSupported() ? source : new BufferedInputStream(source, MARK_LIMIT_BYTES);
+        is.mark(MARK_LIMIT_BYTES);
+        Bitmap.Config config;
+        try {
+            config = getConfig(is, decodeFormat);
+        } finally {
+            is.reset();
+        }
+        return obtain(BitmapRegionDecoder.newInstance(is, false /*isShareable*/), key, config);
+    }
+
+    Resource<TiledImage> obtain(BitmapRegionDecoder regionDecoder, Key imageKey, Bitmap.Config config) {
+        if (regionDecoder == null) {
+            return null;
+        }
+        TiledImage tiledImage = new TiledImage(regionDecoder, bitmapPool, memoryCache, imageKey, config, tileSize);
+        return new TiledImageResource(tiledImage, Util.getBitmapByteSize(tileSize, tileSize, config));
+    }
+
+    static Bitmap.Config getConfig(InputStream is, DecodeFormat decodeFormat) {
+        if (decodeFormat == DecodeFormat.ALWAYS_ARGB_8888) {
+            return Bitmap.Config.ARGB_8888;
+        }
+        ImageHeader header = ImageHeader.UNKNOWN;
+        try {
+            header = new ImageHeaderParser(is).parseHeader(MARK_LIMIT_BYTES);
+        } catch (IOException e) {
+            if (Log.isLoggable(TAG, Log.DEBUG)) {
+                Log.d(TAG, "Cannot determine whether the image has alpha or not from header", e);
+            }
+        }
+        return header.hasAlpha() ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565;
+    }
+
+    @Override
+    public String getId() {
+        if (id == null) {
+            id = ID + tileSize + decodeFormat.name();
+        }
+        return id;
+    }
+}
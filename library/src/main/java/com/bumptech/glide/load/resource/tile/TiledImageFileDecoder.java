@@ -0,0 +1,59 @@
+package com.bumptech.glide.load.resource.tile;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapRegionDecoder;
+
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.ResourceDecoder;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.signature.StringSignature;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An {@link com.bumptech.glide.load.ResourceDecoder} that creates a
+ * {@link com.bumptech.glide.load.resource.tile.TiledImage} from a source file in the disk cache.
+ *
+ * <p>
+ *     The disk cache names source files after the original key of the load, so the file's path and modification
+ *     time identify the image and are used to key its tiles in the memory cache.
+ * </p>
+ */
+public class TiledImageFileDecoder implements ResourceDecoder<File, TiledImage> {
+    private final TiledImageDecoder streamDecoder;
+    private final DecodeFormat decodeFormat;
+
+    public TiledImageFileDecoder(TiledImageDecoder streamDecoder, DecodeFormat decodeFormat) {
+        this.streamDecoder = streamDecoder;
+        this.decodeFormat = decodeFormat;
+    }
+
+    @Override
+    public Resource<TiledImage> decode(File source, int width, int height) throws IOException {
+        Bitmap.Config config;
+        InputStream is = null;
+        try {
+            is = new FileInputStream(source);
+            config = TiledImageDecoder.getConfig(is, decodeFormat);
+        } finally {
+            if (is != null) {
+                try {
+                    is.close();
+                } catch (IOException e) {
+                    // Do nothing.
+                }
+            }
+        }
+        String path = source.getAbsolutePath();
+        StringSignature imageKey = new StringSignature(path + source.lastModified());
+        return streamDecoder.obtain(BitmapRegionDecoder.newInstance(path, false /*isShareable*/), imageKey, config);
+    }
+
+    @Override
+    public String getId() {
+        return streamDecoder.getId();
+    }
+}
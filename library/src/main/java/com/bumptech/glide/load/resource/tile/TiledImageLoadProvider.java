@@ -0,0 +1,62 @@
+package com.bumptech.glide.load.resource.tile;
+
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.Encoder;
+import com.bumptech.glide.load.ResourceDecoder;
+import com.bumptech.glide.load.ResourceEncoder;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.engine.cache.MemoryCache;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
+import com.bumptech.glide.load.model.StreamEncoder;
+import com.bumptech.glide.load.resource.NullResourceEncoder;
+import com.bumptech.glide.provider.DataLoadProvider;
+
+import java.io.File;
+import java.io.InputStream;
+
+/**
+ * An {@link com.bumptech.glide.provider.DataLoadProvider} that provides decoders and encoders for decoding
+ * {@link com.bumptech.glide.load.resource.tile.TiledImage}s from {@link java.io.InputStream} data.
+ *
+ * <p>
+ *     TiledImages can't be written to the result cache, only the source data is cached.
+ * </p>
+ */
+public class TiledImageLoadProvider implements DataLoadProvider<InputStream, TiledImage> {
+    private final TiledImageDecoder decoder;
+    private final TiledImageFileDecoder cacheDecoder;
+    private final StreamEncoder sourceEncoder;
+    private final ResourceEncoder<TiledImage> encoder;
+
+    public TiledImageLoadProvider(BitmapPool bitmapPool, MemoryCache memoryCache, DecodeFormat decodeFormat) {
+        decoder = new TiledImageDecoder(bitmapPool, memoryCache, decodeFormat, TiledImage.DEFAULT_TILE_SIZE);
+        cacheDecoder = new TiledImageFileDecoder(decoder, decodeFormat);
+        sourceEncoder = new StreamEncoder();
+        encoder = NullResourceEncoder.get();
+    }
+
+    @Override
+    public ResourceDecoder<File, TiledImage> getCacheDecoder() {
+        return cacheDecoder;
+    }
+
+    @Override
+    public ResourceDecoder<InputStream, TiledImage> getSourceDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder<InputStream> getSourceEncoder() {
+        return sourceEncoder;
+    }
+
+    @Override
+    public ResourceEncoder<TiledImage> getEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public TransformedResourceCache.Converter<TiledImage> getTransformedResourceConverter() {
+        return null;
+    }
+}
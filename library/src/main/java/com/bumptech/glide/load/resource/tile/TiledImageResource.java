@@ -0,0 +1,39 @@
+package com.bumptech.glide.load.resource.tile;
+
+import com.bumptech.glide.load.engine.Resource;
+
+/**
+ * A resource wrapping a {@link com.bumptech.glide.load.resource.tile.TiledImage}.
+ *
+ * <p>
+ *     Decoded tiles are pooled and cached separately, so the size of this resource only accounts for a single tile
+ *     as an estimate of the memory used by the region decoder.
+ * </p>
+ */
+public class TiledImageResource implements Resource<TiledImage> {
+    private final TiledImage tiledImage;
+    private final int size;
+
+    public TiledImageResource(TiledImage tiledImage, int size) {
+        if (tiledImage == null) {
+            throw new NullPointerException("TiledImage must not be null");
+        }
+        this.tiledImage = tiledImage;
+        this.size = size;
+    }
+
+    @Override
+    public TiledImage get() {
+        return tiledImage;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void recycle() {
+        tiledImage.recycle();
+    }
+}
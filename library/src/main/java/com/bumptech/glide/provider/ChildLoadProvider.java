@@ -3,6 +3,7 @@ package com.bumptech.glide.provider;
 import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.model.ModelLoader;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 
@@ -142,6 +143,19 @@ public class ChildLoadProvider<A, T, Z, R> implements LoadProvider<A, T, Z, R>,
         }
     }
 
+    /**
+     * Returns the parent's {@link com.bumptech.glide.load.engine.cache.TransformedResourceCache.Converter} unless a
+     * source decoder was set, since the parent's converter may not be able to convert what that decoder decodes.
+     */
+    @Override
+    public TransformedResourceCache.Converter<Z> getTransformedResourceConverter() {
+        if (sourceDecoder != null) {
+            return null;
+        } else {
+            return parent.getTransformedResourceConverter();
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public ChildLoadProvider<A, T, Z, R> clone() {
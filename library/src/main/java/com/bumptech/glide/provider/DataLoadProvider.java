@@ -3,6 +3,7 @@ package com.bumptech.glide.provider;
 import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 
 import java.io.File;
 
@@ -35,4 +36,11 @@ public interface DataLoadProvider<T, Z> {
      * to the disk cache.
      */
     ResourceEncoder<Z> getEncoder();
+
+    /**
+     * Returns the {@link com.bumptech.glide.load.engine.cache.TransformedResourceCache.Converter} to use to share
+     * decoded and transformed resources with other loads through the
+     * {@link com.bumptech.glide.load.engine.cache.TransformedResourceCache}, or null if they can't be shared.
+     */
+    TransformedResourceCache.Converter<Z> getTransformedResourceConverter();
 }
@@ -3,6 +3,7 @@ package com.bumptech.glide.provider;
 import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 
 import java.io.File;
 
@@ -39,4 +40,9 @@ public class EmptyDataLoadProvider<T, Z> implements DataLoadProvider<T, Z> {
     public ResourceEncoder<Z> getEncoder() {
         return null;
     }
+
+    @Override
+    public TransformedResourceCache.Converter<Z> getTransformedResourceConverter() {
+        return null;
+    }
 }
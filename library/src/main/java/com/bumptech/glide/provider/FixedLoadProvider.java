@@ -3,6 +3,7 @@ package com.bumptech.glide.provider;
 import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.ResourceEncoder;
+import com.bumptech.glide.load.engine.cache.TransformedResourceCache;
 import com.bumptech.glide.load.model.ModelLoader;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 
@@ -87,4 +88,12 @@ public class FixedLoadProvider<A, T, Z, R> implements LoadProvider<A, T, Z, R>
     public ResourceEncoder<Z> getEncoder() {
         return dataLoadProvider.getEncoder();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TransformedResourceCache.Converter<Z> getTransformedResourceConverter() {
+        return dataLoadProvider.getTransformedResourceConverter();
+    }
 }
@@ -1,6 +1,7 @@
 package com.bumptech.glide.request;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.drawable.Drawable;
 import android.util.Log;
 
@@ -12,10 +13,12 @@ import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.bumptech.glide.load.engine.Engine;
 import com.bumptech.glide.load.engine.Resource;
 import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.resource.bitmap.PreviewDecoder;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 import com.bumptech.glide.provider.LoadProvider;
 import com.bumptech.glide.request.animation.GlideAnimation;
 import com.bumptech.glide.request.animation.GlideAnimationFactory;
+import com.bumptech.glide.request.target.PreviewTarget;
 import com.bumptech.glide.request.target.SizeReadyCallback;
 import com.bumptech.glide.request.target.Target;
 import com.bumptech.glide.util.LogTime;
@@ -32,7 +35,7 @@ import java.util.Queue;
  * @param <R> The type of the resource that will be transcoded from the loaded resource.
  */
 public final class GenericRequest<A, T, Z, R> implements Request, SizeReadyCallback,
-        ResourceCallback {
+        ResourceCallback, PreviewCallback {
     private static final String TAG = "GenericRequest";
     private static final Queue<GenericRequest<?, ?, ?, ?>> REQUEST_POOL = Util.createQueue(0);
     private static final double TO_MEGABYTE = 1d / (1024d * 1024d);
@@ -77,6 +80,7 @@ public final class GenericRequest<A, T, Z, R> implements Request, SizeReadyCallb
     private int overrideWidth;
     private int overrideHeight;
     private DiskCacheStrategy diskCacheStrategy;
+    private PreviewDecoder previewDecoder;
 
     private Drawable placeholderDrawable;
     private Drawable errorDrawable;
@@ -109,6 +113,53 @@ public final class GenericRequest<A, T, Z, R> implements Request, SizeReadyCallb
             int overrideWidth,
             int overrideHeight,
             DiskCacheStrategy diskCacheStrategy) {
+        return obtain(loadProvider,
+                model,
+                signature,
+                context,
+                priority,
+                target,
+                sizeMultiplier,
+                placeholderDrawable,
+                placeholderResourceId,
+                errorDrawable,
+                errorResourceId,
+                requestListener,
+                requestCoordinator,
+                engine,
+                transformation,
+                transcodeClass,
+                isMemoryCacheable,
+                animationFactory,
+                overrideWidth,
+                overrideHeight,
+                diskCacheStrategy,
+                null /*previewDecoder*/);
+    }
+
+    public static <A, T, Z, R> GenericRequest<A, T, Z, R> obtain(
+            LoadProvider<A, T, Z, R> loadProvider,
+            A model,
+            Key signature,
+            Context context,
+            Priority priority,
+            Target<R> target,
+            float sizeMultiplier,
+            Drawable placeholderDrawable,
+            int placeholderResourceId,
+            Drawable errorDrawable,
+            int errorResourceId,
+            RequestListener<? super A, R> requestListener,
+            RequestCoordinator requestCoordinator,
+            Engine engine,
+            Transformation<Z> transformation,
+            Class<R> transcodeClass,
+            boolean isMemoryCacheable,
+            GlideAnimationFactory<R> animationFactory,
+            int overrideWidth,
+            int overrideHeight,
+            DiskCacheStrategy diskCacheStrategy,
+            PreviewDecoder previewDecoder) {
         @SuppressWarnings("unchecked")
         GenericRequest<A, T, Z, R> request = (GenericRequest<A, T, Z, R>) REQUEST_POOL.poll();
         if (request == null) {
@@ -134,7 +185,8 @@ public final class GenericRequest<A, T, Z, R> implements Request, SizeReadyCallb
                 animationFactory,
                 overrideWidth,
                 overrideHeight,
-                diskCacheStrategy);
+                diskCacheStrategy,
+                previewDecoder);
         return request;
     }
 
@@ -154,6 +206,7 @@ public final class GenericRequest<A, T, Z, R> implements Request, SizeReadyCallb
         requestCoordinator = null;
         transformation = null;
         animationFactory = null;
+        previewDecoder = null;
         loadedFromMemoryCache = false;
         loadStatus = null;
         REQUEST_POOL.offer(this);
@@ -180,7 +233,8 @@ public final class GenericRequest<A, T, Z, R> implements Request, SizeReadyCallb
             GlideAnimationFactory<R> animationFactory,
             int overrideWidth,
             int overrideHeight,
-            DiskCacheStrategy diskCacheStrategy) {
+            DiskCacheStrategy diskCacheStrategy,
+            PreviewDecoder previewDecoder) {
         this.loadProvider = loadProvider;
         this.model = model;
         this.signature = signature;
@@ -202,6 +256,7 @@ public final class GenericRequest<A, T, Z, R> implements Request, SizeReadyCallb
         this.overrideWidth = overrideWidth;
         this.overrideHeight = overrideHeight;
         this.diskCacheStrategy = diskCacheStrategy;
+        this.previewDecoder = previewDecoder;
         status = Status.PENDING;
 
         // We allow null models by just setting an error drawable. Null models will always have empty providers, we
@@ -425,8 +480,9 @@ public final class GenericRequest<A, T, Z, R> implements Request, SizeReadyCallb
             logV("finished setup for calling load in " + LogTime.getElapsedMillis(startTime));
         }
         loadedFromMemoryCache = true;
+        PreviewDecoder targetPreviewDecoder = target instanceof PreviewTarget ? previewDecoder : null;
         loadStatus = engine.load(signature, width, height, dataFetcher, loadProvider, transformation, transcoder,
-                priority, isMemoryCacheable, diskCacheStrategy, this);
+                priority, isMemoryCacheable, diskCacheStrategy, targetPreviewDecoder, this);
         loadedFromMemoryCache = resource != null;
         if (Log.isLoggable(TAG, Log.VERBOSE)) {
             logV("finished onSizeReady in " + LogTime.getElapsedMillis(startTime));
@@ -509,6 +565,19 @@ public final class GenericRequest<A, T, Z, R> implements Request, SizeReadyCallb
         }
     }
 
+    /**
+     * A callback method that should never be invoked directly.
+     */
+    @Override
+    public void onPreviewReady(Resource<Bitmap> preview) {
+        // Don't replace a thumbnail that has already been set with a preview.
+        if (status != Status.RUNNING || !(target instanceof PreviewTarget) || !canSetResource()
+                || !isFirstReadyResource()) {
+            return;
+        }
+        ((PreviewTarget) target).onPreviewReady(preview.get());
+    }
+
     /**
      * A callback method that should never be invoked directly.
      */
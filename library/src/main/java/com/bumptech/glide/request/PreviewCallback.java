@@ -0,0 +1,19 @@
+package com.bumptech.glide.request;
+
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.engine.Resource;
+
+/**
+ * A callback that listens for low quality previews decoded while a resource is still loading.
+ */
+public interface PreviewCallback {
+
+    /**
+     * Called each time a more complete preview is decoded.
+     *
+     * @param preview The preview, which is only valid until the next preview, or until the load completes, fails or
+     *                is cancelled.
+     */
+    void onPreviewReady(Resource<Bitmap> preview);
+}
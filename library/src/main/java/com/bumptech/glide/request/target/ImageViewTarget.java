@@ -1,5 +1,6 @@
 package com.bumptech.glide.request.target;
 
+import android.graphics.Bitmap;
 import android.graphics.drawable.Drawable;
 import android.widget.ImageView;
 
@@ -11,7 +12,8 @@ import com.bumptech.glide.request.animation.GlideAnimation;
  *
  * @param <Z> The type of resource that this target will display in the wrapped {@link android.widget.ImageView}.
  */
-public abstract class ImageViewTarget<Z> extends ViewTarget<ImageView, Z> implements GlideAnimation.ViewAdapter {
+public abstract class ImageViewTarget<Z> extends ViewTarget<ImageView, Z> implements GlideAnimation.ViewAdapter,
+        PreviewTarget {
 
     public ImageViewTarget(ImageView view) {
         super(view);
@@ -70,6 +72,17 @@ public abstract class ImageViewTarget<Z> extends ViewTarget<ImageView, Z> implem
         view.setImageDrawable(placeholder);
     }
 
+    /**
+     * Sets the given preview on the view using
+     * {@link android.widget.ImageView#setImageBitmap(android.graphics.Bitmap)}.
+     *
+     * @param preview {@inheritDoc}
+     */
+    @Override
+    public void onPreviewReady(Bitmap preview) {
+        view.setImageBitmap(preview);
+    }
+
     @Override
     public void onResourceReady(Z resource, GlideAnimation<? super Z> glideAnimation) {
         if (glideAnimation == null || !glideAnimation.animate(resource, this)) {
@@ -0,0 +1,29 @@
+package com.bumptech.glide.request.target;
+
+import android.graphics.Bitmap;
+
+/**
+ * An optional interface for {@link com.bumptech.glide.request.target.Target}s that can display low quality previews
+ * of a resource before it has finished loading.
+ *
+ * <p>
+ *     Previews are only decoded for requests started with
+ *     {@link com.bumptech.glide.GenericRequestBuilder#progressive()}, and only for JPEG images loaded from
+ *     {@link java.io.InputStream}s.
+ * </p>
+ */
+public interface PreviewTarget {
+
+    /**
+     * A callback called on the main thread each time a more complete preview has been decoded.
+     *
+     * <p>
+     *     The preview may be returned to the {@link com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool} when the
+     *     next preview is available or when the load is cleared, so targets must replace it with the next preview,
+     *     the loaded resource or the placeholder drawable and must not keep a reference to it.
+     * </p>
+     *
+     * @param preview The preview.
+     */
+    void onPreviewReady(Bitmap preview);
+}
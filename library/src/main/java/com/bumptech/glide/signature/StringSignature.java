@@ -1,6 +1,7 @@
 package com.bumptech.glide.signature;
 
 import com.bumptech.glide.load.Key;
+import com.bumptech.glide.util.Util;
 
 import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
@@ -39,6 +40,6 @@ public class StringSignature implements Key {
 
     @Override
     public void updateDiskCacheKey(MessageDigest messageDigest) throws UnsupportedEncodingException {
-        messageDigest.update(signature.getBytes(STRING_CHARSET_NAME));
+        Util.updateDigestWithUtf8(messageDigest, signature);
     }
 }
@@ -1,23 +1,67 @@
 package com.bumptech.glide.util;
 
+import android.content.ComponentCallbacks2;
 import android.util.Log;
 
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * A pool for reusing byte arrays that produces and contains byte arrays of a fixed size.
+ * A pool for reusing byte arrays that produces and contains byte arrays of a fixed size, as well as larger byte arrays
+ * whose sizes are powers of two.
+ *
+ * <p>
+ *     Byte arrays are kept in one size class per power of two size, starting at the fixed size. No size class may
+ *     use more than half of the pool's total byte budget, so a few large arrays can't push out the fixed size arrays
+ *     used by every decode. The pool doesn't lock, each size class is a concurrent queue and the sizes are tracked with
+ *     atomic counters.
+ * </p>
+ *
+ * <p>
+ *     Each thread also caches a small number of fixed size arrays so that threads that repeatedly obtain and release
+ *     arrays, like Glide's decode threads, usually don't touch the shared queues at all. Arrays in the thread caches
+ *     count towards the pool's budget and are removed by {@link #clear()} and {@link #trimMemory(int)}. Arrays left in
+ *     the caches of threads that have finished are given to other threads when the shared queues are empty.
+ * </p>
  */
 public final class ByteArrayPool {
     private static final String TAG = "ByteArrayPool";
     // 64 KB.
     private static final int TEMP_BYTES_SIZE = 64 * 1024;
-    // 512 KB.
-    private static final int MAX_SIZE = 2 * 1048 * 1024;
-    private static final int MAX_BYTE_ARRAY_COUNT = MAX_SIZE / TEMP_BYTES_SIZE;
+    // 8 MB.
+    private static final int MAX_SIZE = 8 * 1024 * 1024;
+    // Large enough to pool the 4 MB buffers RecyclableBufferedInputStream grows in to for large headers.
+    private static final int MAX_SIZE_CLASS_SIZE = MAX_SIZE / 2;
+    private static final int TEMP_BYTES_SIZE_SHIFT = Integer.numberOfTrailingZeros(TEMP_BYTES_SIZE);
+    private static final int SIZE_CLASS_COUNT =
+            Integer.numberOfTrailingZeros(MAX_SIZE_CLASS_SIZE) - TEMP_BYTES_SIZE_SHIFT + 1;
+    // Downsampler obtains two fixed size arrays per decode.
+    private static final int THREAD_CACHE_SIZE = 2;
 
-    private final Queue<byte[]> tempQueue = Util.createQueue(0);
     private static final ByteArrayPool BYTE_ARRAY_POOL = new ByteArrayPool();
 
+    private final Queue<byte[]>[] queues;
+    private final AtomicIntegerArray sizeClassSizes = new AtomicIntegerArray(SIZE_CLASS_COUNT);
+    private final AtomicInteger currentSize = new AtomicInteger();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicInteger evictions = new AtomicInteger();
+    // Strongly referenced so that arrays in the caches of finished threads stay reachable while they're counted.
+    private final Queue<ThreadCache> threadCaches = new ConcurrentLinkedQueue<ThreadCache>();
+    private final ThreadLocal<ThreadCache> threadCache = new ThreadLocal<ThreadCache>() {
+        @Override
+        protected ThreadCache initialValue() {
+            ThreadCache cache = new ThreadCache(Thread.currentThread());
+            threadCaches.add(cache);
+            return cache;
+        }
+    };
+
     /**
      * Returns a constant singleton byte array pool.
      */
@@ -25,14 +69,31 @@ public final class ByteArrayPool {
         return BYTE_ARRAY_POOL;
     }
 
-    private ByteArrayPool() {  }
+    @SuppressWarnings("unchecked")
+    private ByteArrayPool() {
+        queues = new Queue[SIZE_CLASS_COUNT];
+        for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+            queues[i] = new ConcurrentLinkedQueue<byte[]>();
+        }
+    }
 
     /**
      * Removes all byte arrays from the pool.
      */
     public void clear() {
-        synchronized (tempQueue) {
-            tempQueue.clear();
+        trimToSize(0);
+    }
+
+    /**
+     * Removes some or all of the byte arrays from the pool, depending on the given level.
+     *
+     * @see android.content.ComponentCallbacks2#onTrimMemory(int)
+     */
+    public void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            clear();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            trimToSize(MAX_SIZE / 2);
         }
     }
 
@@ -41,14 +102,46 @@ public final class ByteArrayPool {
      * byte array.
      */
     public byte[] getBytes() {
-        byte[] result;
-        synchronized (tempQueue) {
-            result = tempQueue.poll();
+        return getBytes(TEMP_BYTES_SIZE);
+    }
+
+    /**
+     * Returns a byte array with a length of at least the given length, by retrieving one from the pool if the pool
+     * contains one of the right size or otherwise by creating a new byte array.
+     *
+     * <p>
+     *     Byte arrays no larger than the fixed size are the fixed size. Larger byte arrays are rounded up to the next
+     *     power of two so that they can be returned to the pool, unless they are too large to ever be pooled.
+     * </p>
+     *
+     * @param minLength The minimum length of the byte array.
+     */
+    public byte[] getBytes(int minLength) {
+        if (minLength > MAX_SIZE_CLASS_SIZE) {
+            return new byte[minLength];
+        }
+
+        final int length = minLength <= TEMP_BYTES_SIZE ? TEMP_BYTES_SIZE : Integer.highestOneBit(minLength - 1) << 1;
+        final int sizeClass = getSizeClass(length);
+        byte[] result = null;
+        if (length == TEMP_BYTES_SIZE) {
+            result = threadCache.get().poll();
         }
         if (result == null) {
-            result = new byte[TEMP_BYTES_SIZE];
+            result = queues[sizeClass].poll();
+        }
+        if (result == null && length == TEMP_BYTES_SIZE) {
+            result = pollFinishedThreadCaches();
+        }
+
+        if (result != null) {
+            hits.incrementAndGet();
+            unreserve(sizeClass, length);
+        } else {
+            misses.incrementAndGet();
+            result = new byte[length];
             if (Log.isLoggable(TAG, Log.DEBUG)) {
-                Log.d(TAG, "Created temp bytes");
+                Log.d(TAG, "Created bytes of length: " + length);
             }
         }
         return result;
@@ -58,20 +151,197 @@ public final class ByteArrayPool {
      * Adds the given byte array to the pool if it is the correct size and the pool is not full and returns true if
      * the byte array was added and false otherwise.
      *
+     * <p>
+     *     Byte arrays are the correct size if they are either the fixed size or a power of two larger than the fixed
+     *     size that fits in the pool.
+     * </p>
+     *
      * @param bytes The bytes to try to add to the pool.
      */
     public boolean releaseBytes(byte[] bytes) {
-        if (bytes.length != TEMP_BYTES_SIZE) {
+        final int length = bytes.length;
+        if (length < TEMP_BYTES_SIZE || length > MAX_SIZE_CLASS_SIZE || Integer.bitCount(length) != 1) {
+            return false;
+        }
+
+        final int sizeClass = getSizeClass(length);
+        if (!reserve(sizeClass, length)) {
+            return false;
+        }
+        if (length != TEMP_BYTES_SIZE || !threadCache.get().offer(bytes)) {
+            queues[sizeClass].offer(bytes);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of times a byte array was obtained from the pool.
+     */
+    public int getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of times a poolable byte array had to be allocated because the pool didn't contain one.
+     */
+    public int getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of byte arrays removed from the pool by {@link #clear()} or {@link #trimMemory(int)}.
+     */
+    public int getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the total size in bytes of the byte arrays in the pool.
+     */
+    public int getCurrentSize() {
+        return currentSize.get();
+    }
+
+    /**
+     * Returns the maximum total size in bytes of the byte arrays in the pool.
+     */
+    public int getMaxSize() {
+        return MAX_SIZE;
+    }
+
+    private boolean reserve(int sizeClass, int length) {
+        if (!addIfAtMost(sizeClassSizes, sizeClass, length, MAX_SIZE_CLASS_SIZE)) {
             return false;
         }
+        int size;
+        do {
+            size = currentSize.get();
+            if (size + length > MAX_SIZE) {
+                sizeClassSizes.addAndGet(sizeClass, -length);
+                return false;
+            }
+        } while (!currentSize.compareAndSet(size, size + length));
+        return true;
+    }
 
-        boolean accepted = false;
-        synchronized (tempQueue) {
-            if (tempQueue.size() < MAX_BYTE_ARRAY_COUNT) {
-                accepted = true;
-                tempQueue.offer(bytes);
+    private void unreserve(int sizeClass, int length) {
+        sizeClassSizes.addAndGet(sizeClass, -length);
+        currentSize.addAndGet(-length);
+    }
+
+    private void trimToSize(int size) {
+        // Evict the largest arrays first, they're the least likely to be needed again.
+        for (int sizeClass = SIZE_CLASS_COUNT - 1; sizeClass >= 0 && currentSize.get() > size; sizeClass--) {
+            final int length = TEMP_BYTES_SIZE << sizeClass;
+            Queue<byte[]> queue = queues[sizeClass];
+            while (currentSize.get() > size && queue.poll() != null) {
+                evict(sizeClass, length);
             }
         }
-        return accepted;
+        if (currentSize.get() > size) {
+            trimThreadCaches(size);
+        }
+        if (Log.isLoggable(TAG, Log.VERBOSE)) {
+            Log.v(TAG, "Hits=" + hits + " misses=" + misses + " evictions=" + evictions + " currentSize="
+                    + currentSize + " maxSize=" + MAX_SIZE);
+        }
+    }
+
+    private void trimThreadCaches(int size) {
+        Iterator<ThreadCache> iterator = threadCaches.iterator();
+        while (iterator.hasNext() && currentSize.get() > size) {
+            ThreadCache cache = iterator.next();
+            while (currentSize.get() > size && cache.poll() != null) {
+                evict(0, TEMP_BYTES_SIZE);
+            }
+            if (cache.isOwnerFinished() && cache.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private byte[] pollFinishedThreadCaches() {
+        Iterator<ThreadCache> iterator = threadCaches.iterator();
+        while (iterator.hasNext()) {
+            ThreadCache cache = iterator.next();
+            if (!cache.isOwnerFinished()) {
+                continue;
+            }
+            byte[] result = cache.poll();
+            if (result != null) {
+                return result;
+            }
+            // Finished threads never add to their caches again.
+            iterator.remove();
+        }
+        return null;
+    }
+
+    private void evict(int sizeClass, int length) {
+        evictions.incrementAndGet();
+        unreserve(sizeClass, length);
+    }
+
+    private static int getSizeClass(int length) {
+        return Integer.numberOfTrailingZeros(length) - TEMP_BYTES_SIZE_SHIFT;
+    }
+
+    private static boolean addIfAtMost(AtomicIntegerArray array, int index, int delta, int max) {
+        int value;
+        do {
+            value = array.get(index);
+            if (value + delta > max) {
+                return false;
+            }
+        } while (!array.compareAndSet(index, value, value + delta));
+        return true;
+    }
+
+    /**
+     * A few fixed size arrays used by a single thread. Arrays are only ever added by the owning thread, but may be
+     * removed by any thread that trims the pool or, once the owning thread has finished, by any thread.
+     */
+    private static final class ThreadCache {
+        private final AtomicReferenceArray<byte[]> slots = new AtomicReferenceArray<byte[]>(THREAD_CACHE_SIZE);
+        private final WeakReference<Thread> owner;
+
+        ThreadCache(Thread owner) {
+            this.owner = new WeakReference<Thread>(owner);
+        }
+
+        public boolean isOwnerFinished() {
+            final Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+
+        public boolean isEmpty() {
+            for (int i = 0; i < THREAD_CACHE_SIZE; i++) {
+                if (slots.get(i) != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public byte[] poll() {
+            for (int i = 0; i < THREAD_CACHE_SIZE; i++) {
+                if (slots.get(i) != null) {
+                    byte[] result = slots.getAndSet(i, null);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+            }
+            return null;
+        }
+
+        public boolean offer(byte[] bytes) {
+            for (int i = 0; i < THREAD_CACHE_SIZE; i++) {
+                if (slots.compareAndSet(i, null, bytes)) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
@@ -0,0 +1,147 @@
+package com.bumptech.glide.util;
+
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Utilities for reading data in to {@link java.nio.ByteBuffer}s without keeping more than one copy of it on the heap.
+ */
+public final class ByteBufferUtil {
+    private static final String TAG = "ByteBufferUtil";
+    private static final int BUFFER_SIZE = 16384;
+
+    private ByteBufferUtil() {
+        // Utility class.
+    }
+
+    /**
+     * Returns the current position of the given stream's file, or -1 if it can't be determined.
+     */
+    public static long getPosition(FileInputStream is) {
+        try {
+            return is.getChannel().position();
+        } catch (IOException e) {
+            if (Log.isLoggable(TAG, Log.DEBUG)) {
+                Log.d(TAG, "Cannot get the position of the file", e);
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Returns a read only buffer that maps the given stream's file from the given position to its end, or null if the
+     * file can't be mapped.
+     *
+     * <p>
+     *     Mapped data is paged in by the operating system as it's read and isn't held on the Java heap. Mapping doesn't
+     *     change the position of the stream.
+     * </p>
+     *
+     * @param is The stream to map the file of.
+     * @param position The position in the file at which the data starts, usually obtained from
+     *                 {@link #getPosition(java.io.FileInputStream)} before anything was read from the stream.
+     */
+    public static ByteBuffer map(FileInputStream is, long position) {
+        if (position < 0) {
+            return null;
+        }
+        try {
+            final FileChannel channel = is.getChannel();
+            final long size = channel.size() - position;
+            if (size <= 0 || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } catch (IOException e) {
+            if (Log.isLoggable(TAG, Log.DEBUG)) {
+                Log.d(TAG, "Cannot map file", e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Reads the given stream to its end in to a buffer that wraps an array of exactly the length of the data, so that
+     * the buffer's remaining bytes are all the memory it holds.
+     *
+     * <p>
+     *     The data is read directly in to an array of the right length when the stream knows how many bytes remain,
+     *     and is otherwise copied once in to an array of the right length after it's read.
+     * </p>
+     *
+     * @throws IOException If the stream can't be read.
+     */
+    public static ByteBuffer fromStream(InputStream is) throws IOException {
+        final int available = is.available();
+        ExposedByteArrayOutputStream outputStream =
+                new ExposedByteArrayOutputStream(available > 0 ? available : BUFFER_SIZE);
+        final ByteArrayPool byteArrayPool = ByteArrayPool.get();
+        final byte[] buffer = byteArrayPool.getBytes();
+        try {
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        } finally {
+            byteArrayPool.releaseBytes(buffer);
+        }
+        return outputStream.toByteBuffer();
+    }
+
+    /**
+     * Writes the remaining bytes in the given buffer to the given stream without changing the buffer's position.
+     *
+     * @throws IOException If the stream can't be written to.
+     */
+    public static void write(ByteBuffer data, OutputStream os) throws IOException {
+        if (data.hasArray()) {
+            os.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+            return;
+        }
+        final ByteBuffer toWrite = data.duplicate();
+        final ByteArrayPool byteArrayPool = ByteArrayPool.get();
+        final byte[] buffer = byteArrayPool.getBytes();
+        try {
+            while (toWrite.hasRemaining()) {
+                final int length = Math.min(buffer.length, toWrite.remaining());
+                toWrite.get(buffer, 0, length);
+                os.write(buffer, 0, length);
+            }
+        } finally {
+            byteArrayPool.releaseBytes(buffer);
+        }
+    }
+
+    /**
+     * Returns the remaining bytes in the given buffer as an array, which is the buffer's own array if the buffer wraps
+     * exactly the whole of an array, or a copy otherwise.
+     */
+    public static byte[] toBytes(ByteBuffer data) {
+        if (data.hasArray() && data.arrayOffset() == 0 && data.position() == 0
+                && data.remaining() == data.array().length) {
+            return data.array();
+        }
+        final byte[] result = new byte[data.remaining()];
+        data.duplicate().get(result);
+        return result;
+    }
+
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        ExposedByteArrayOutputStream(int size) {
+            super(size);
+        }
+
+        // Avoids the copy made by toByteArray if the data fills the buffer.
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(count == buf.length ? buf : Arrays.copyOf(buf, count));
+        }
+    }
+}
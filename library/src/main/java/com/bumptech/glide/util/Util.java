@@ -7,6 +7,7 @@ import android.os.Looper;
 
 import com.bumptech.glide.request.target.Target;
 
+import java.security.MessageDigest;
 import java.util.ArrayDeque;
 import java.util.Queue;
 
@@ -16,9 +17,19 @@ import java.util.Queue;
 public final class Util {
     private static final char[] HEX_CHAR_ARRAY = "0123456789abcdef".toCharArray();
     // 32 bytes from sha-256 -> 64 hex chars.
-    private static final char[] SHA_256_CHARS = new char[64];
+    private static final int SHA_256_CHAR_COUNT = 64;
     // 20 bytes from sha-1 -> 40 chars.
-    private static final char[] SHA_1_CHARS = new char[40];
+    private static final int SHA_1_CHAR_COUNT = 40;
+    // Large enough to amortize MessageDigest.update calls, small enough to be cheap to keep per thread.
+    private static final int DIGEST_SCRATCH_SIZE = 256;
+    // The largest number of bytes a single call to appendUtf8 can write.
+    private static final int MAX_UTF8_BYTES_PER_CHAR = 4;
+    private static final ThreadLocal<byte[]> DIGEST_SCRATCH = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[DIGEST_SCRATCH_SIZE];
+        }
+    };
 
     private Util() {
         // Utility class.
@@ -28,14 +39,15 @@ public final class Util {
      * Returns the hex string of the given byte array representing a SHA256 hash.
      */
     public static String sha256BytesToHex(byte[] bytes) {
-        return bytesToHex(bytes, SHA_256_CHARS);
+        // A new buffer per call, rather than a shared buffer and a lock, since the String copies it anyway.
+        return bytesToHex(bytes, new char[SHA_256_CHAR_COUNT]);
     }
 
     /**
      * Returns the hex string of the given byte array representing a SHA1 hash.
      */
     public static String sha1BytesToHex(byte[] bytes) {
-        return bytesToHex(bytes, SHA_1_CHARS);
+        return bytesToHex(bytes, new char[SHA_1_CHAR_COUNT]);
     }
 
     // Taken from:
@@ -50,6 +62,65 @@ public final class Util {
         return new String(hexChars);
     }
 
+    /**
+     * Updates the given digest with the UTF-8 encoded bytes of the given String without allocating.
+     *
+     * <p>
+     *     The bytes passed to the digest are identical to those returned by {@code value.getBytes("UTF-8")}, including
+     *     the replacement of unpaired surrogates with {@code '?'}, so disk cache keys are unchanged.
+     * </p>
+     */
+    public static void updateDigestWithUtf8(MessageDigest messageDigest, String value) {
+        final byte[] scratch = DIGEST_SCRATCH.get();
+        final int length = value.length();
+        int position = 0;
+        for (int i = 0; i < length; i++) {
+            if (position > scratch.length - MAX_UTF8_BYTES_PER_CHAR) {
+                messageDigest.update(scratch, 0, position);
+                position = 0;
+            }
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                scratch[position++] = (byte) c;
+            } else if (c < 0x800) {
+                scratch[position++] = (byte) (0xC0 | (c >> 6));
+                scratch[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                scratch[position++] = (byte) (0xF0 | (codePoint >> 18));
+                scratch[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                scratch[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                scratch[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isHighSurrogate(c) || Character.isLowSurrogate(c)) {
+                scratch[position++] = (byte) '?';
+            } else {
+                scratch[position++] = (byte) (0xE0 | (c >> 12));
+                scratch[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                scratch[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        if (position > 0) {
+            messageDigest.update(scratch, 0, position);
+        }
+    }
+
+    /**
+     * Updates the given digest with the four big endian bytes of the given int without allocating.
+     *
+     * <p>
+     *     Equivalent to {@code messageDigest.update(ByteBuffer.allocate(4).putInt(value).array())}.
+     * </p>
+     */
+    public static void updateDigestWithInt(MessageDigest messageDigest, int value) {
+        final byte[] scratch = DIGEST_SCRATCH.get();
+        scratch[0] = (byte) (value >>> 24);
+        scratch[1] = (byte) (value >>> 16);
+        scratch[2] = (byte) (value >>> 8);
+        scratch[3] = (byte) value;
+        messageDigest.update(scratch, 0, 4);
+    }
+
     /**
      * Returns the allocated byte size of the given bitmap.
      *
@@ -0,0 +1,94 @@
+package com.bumptech.glide.gifdecoder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, emulateSdk = 18)
+public class DirtyRectTest {
+    private DirtyRect rect;
+
+    @Before
+    public void setUp() {
+        rect = new DirtyRect();
+    }
+
+    @Test
+    public void testIsInitiallyEmpty() {
+        assertTrue(rect.isEmpty());
+    }
+
+    @Test
+    public void testUnionWithEmptyRectSetsOtherRect() {
+        DirtyRect other = new DirtyRect();
+        other.set(1, 2, 3, 4);
+
+        rect.union(other);
+
+        assertRect(1, 2, 3, 4);
+    }
+
+    @Test
+    public void testUnionIgnoresEmptyRect() {
+        rect.set(1, 2, 3, 4);
+
+        rect.union(new DirtyRect());
+
+        assertRect(1, 2, 3, 4);
+    }
+
+    @Test
+    public void testUnionContainsBothRects() {
+        rect.set(1, 2, 3, 4);
+        DirtyRect other = new DirtyRect();
+        other.set(5, 0, 6, 3);
+
+        rect.union(other);
+
+        assertRect(1, 0, 6, 4);
+    }
+
+    @Test
+    public void testClipLimitsRectToCanvas() {
+        rect.set(-1, -2, 30, 40);
+
+        rect.clip(10, 20);
+
+        assertRect(0, 0, 10, 20);
+    }
+
+    @Test
+    public void testRectOutsideCanvasIsEmptyAfterClip() {
+        rect.set(20, 20, 30, 30);
+
+        rect.clip(10, 10);
+
+        assertTrue(rect.isEmpty());
+    }
+
+    @Test
+    public void testSetEmptyEmptiesRect() {
+        rect.set(1, 2, 3, 4);
+        assertFalse(rect.isEmpty());
+
+        rect.setEmpty();
+
+        assertTrue(rect.isEmpty());
+    }
+
+    private void assertRect(int left, int top, int right, int bottom) {
+        assertEquals(left, rect.left);
+        assertEquals(top, rect.top);
+        assertEquals(right, rect.right);
+        assertEquals(bottom, rect.bottom);
+        assertEquals(right - left, rect.width());
+        assertEquals(bottom - top, rect.height());
+    }
+}
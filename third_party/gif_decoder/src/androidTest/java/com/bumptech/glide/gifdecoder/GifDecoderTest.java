@@ -1,10 +1,13 @@
 package com.bumptech.glide.gifdecoder;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 import android.graphics.Bitmap;
 
+import com.bumptech.glide.gifdecoder.test.GifBytesTestUtil;
 import com.bumptech.glide.testutil.TestUtil;
 
 import org.junit.Before;
@@ -13,15 +16,24 @@ import org.junit.runner.RunWith;
 import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowBitmap;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 
 /**
  * Tests for {@link com.bumptech.glide.gifdecoder.GifDecoder}.
  */
 @RunWith(RobolectricTestRunner.class)
-@Config(manifest = Config.NONE, emulateSdk = 18)
+@Config(manifest = Config.NONE, emulateSdk = 18, shadows = { GifDecoderTest.PixelShadowBitmap.class })
 public class GifDecoderTest {
+    private static final int DISPOSAL_NONE = 1;
+    private static final int DISPOSAL_BACKGROUND = 2;
+    private static final int DISPOSAL_PREVIOUS = 3;
 
     private MockProvider provider;
 
@@ -44,6 +56,57 @@ public class GifDecoderTest {
         assertEquals(GifDecoder.STATUS_OK, decoder.getStatus());
     }
 
+    @Test
+    public void testCanDecodeEveryFrameFromTestGif() throws IOException {
+        byte[] data = TestUtil.resourceToBytes(getClass(), "partial_gif_decode.gif");
+        GifHeader header = new GifHeaderParser().setData(data).parseHeader();
+        GifDecoder decoder = new GifDecoder(provider);
+        decoder.setData(header, data);
+        for (int i = 0; i < decoder.getFrameCount(); i++) {
+            decoder.advance();
+            assertNotNull(decoder.getNextFrame());
+            assertEquals(GifDecoder.STATUS_OK, decoder.getStatus());
+        }
+    }
+
+    @Test
+    public void testCanDecodeFramesFromTestGifInBuffer() throws IOException {
+        byte[] data = TestUtil.resourceToBytes(getClass(), "gif_without_graphical_control_extension.gif");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data);
+        buffer.rewind();
+        GifHeader header = new GifHeaderParser().setData(buffer).parseHeader();
+        GifDecoder decoder = new GifDecoder(provider);
+        decoder.setData(header, buffer);
+        decoder.advance();
+        assertNotNull(decoder.getNextFrame());
+        assertEquals(GifDecoder.STATUS_OK, decoder.getStatus());
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testDecodesFramesDividedBySampleSizeRoundingUp() throws IOException {
+        byte[] data = TestUtil.resourceToBytes(getClass(), "partial_gif_decode.gif");
+        GifHeader header = new GifHeaderParser().setData(data).parseHeader();
+        GifDecoder decoder = new GifDecoder(provider);
+        decoder.setData(header, ByteBuffer.wrap(data), 3);
+        decoder.advance();
+
+        Bitmap bitmap = decoder.getNextFrame();
+
+        assertNotNull(bitmap);
+        assertEquals((header.width + 2) / 3, bitmap.getWidth());
+        assertEquals((header.height + 2) / 3, bitmap.getHeight());
+        assertEquals(header.width, decoder.getWidth());
+        assertEquals(header.height, decoder.getHeight());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsIfSampleSizeIsLessThanOne() {
+        GifDecoder decoder = new GifDecoder(provider);
+        decoder.setData(new GifHeader(), ByteBuffer.allocate(0), 0);
+    }
+
     @Test
     public void testFrameIndexStartsAtNegativeOne() {
         GifHeader gifheader = new GifHeader();
@@ -93,10 +156,166 @@ public class GifDecoderTest {
         assertEquals(-1, decoder.getCurrentFrameIndex());
     }
 
+    @Test
+    public void testDisposesSubRectangleToBackground() {
+        GifDecoder decoder = getDecoder(buildGif(
+                new TestFrame(0, 0, 4, 4, 1, DISPOSAL_NONE),
+                new TestFrame(1, 1, 2, 2, 2, DISPOSAL_BACKGROUND),
+                new TestFrame(0, 0, 1, 1, 3, DISPOSAL_NONE)));
+
+        decoder.advance();
+        decoder.getNextFrame();
+        decoder.advance();
+        assertPixels(new int[] {
+                1, 1, 1, 1,
+                1, 2, 2, 1,
+                1, 2, 2, 1,
+                1, 1, 1, 1,
+        }, decoder.getNextFrame());
+        decoder.advance();
+        assertPixels(new int[] {
+                3, 1, 1, 1,
+                1, 0, 0, 1,
+                1, 0, 0, 1,
+                1, 1, 1, 1,
+        }, decoder.getNextFrame());
+    }
+
+    @Test
+    public void testRestoresSubRectangleToPreviousFrame() {
+        GifDecoder decoder = getDecoder(buildGif(
+                new TestFrame(0, 0, 4, 4, 1, DISPOSAL_NONE),
+                new TestFrame(1, 1, 2, 2, 2, DISPOSAL_PREVIOUS),
+                new TestFrame(0, 0, 1, 1, 3, DISPOSAL_NONE)));
+
+        decoder.advance();
+        decoder.getNextFrame();
+        decoder.advance();
+        assertPixels(new int[] {
+                1, 1, 1, 1,
+                1, 2, 2, 1,
+                1, 2, 2, 1,
+                1, 1, 1, 1,
+        }, decoder.getNextFrame());
+        decoder.advance();
+        assertPixels(new int[] {
+                3, 1, 1, 1,
+                1, 1, 1, 1,
+                1, 1, 1, 1,
+                1, 1, 1, 1,
+        }, decoder.getNextFrame());
+    }
+
+    @Test
+    public void testRewritesWholeFrameIfReusedBitmapWasModified() {
+        GifDecoder decoder = getDecoder(buildGif(
+                new TestFrame(0, 0, 4, 4, 1, DISPOSAL_NONE),
+                new TestFrame(0, 0, 1, 1, 2, DISPOSAL_NONE)));
+        decoder.advance();
+        Bitmap first = decoder.getNextFrame();
+
+        // Someone else obtained the Bitmap from the pool and drew in to it before it was returned to the decoder.
+        first.eraseColor(0xFFFF0000);
+        provider.reused = first;
+        decoder.advance();
+        Bitmap second = decoder.getNextFrame();
+
+        assertSame(first, second);
+        assertPixels(new int[] {
+                2, 1, 1, 1,
+                1, 1, 1, 1,
+                1, 1, 1, 1,
+                1, 1, 1, 1,
+        }, second);
+    }
+
+    @Test
+    public void testResetsStringTableAtClearCodeInMiddleOfFrame() throws IOException {
+        byte[] data = TestUtil.resourceToBytes(getClass(), "gif_with_clear_code_mid_stream.gif");
+        GifDecoder decoder = getDecoder(data);
+        decoder.advance();
+
+        Bitmap bitmap = decoder.getNextFrame();
+
+        assertEquals(GifDecoder.STATUS_OK, decoder.getStatus());
+        // The first two rows are encoded before the clear code, and code 6 means 1, 2. The last two rows are encoded
+        // after it, and code 6 means 2, 1.
+        assertPixels(new int[] {
+                1, 2, 1, 2,
+                1, 2, 1, 2,
+                2, 1, 2, 1,
+                3, 3, 3, 3,
+        }, bitmap);
+    }
+
+    private GifDecoder getDecoder(byte[] data) {
+        GifHeader header = new GifHeaderParser().setData(data).parseHeader();
+        GifDecoder decoder = new GifDecoder(provider);
+        decoder.setData(header, data);
+        return decoder;
+    }
+
+    /**
+     * Returns a 4x4 GIF with a four color global color table in which each frame fills its rectangle with a single
+     * color.
+     */
+    private static byte[] buildGif(TestFrame... frames) {
+        ByteBuffer buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        // Four colors.
+        GifBytesTestUtil.writeHeaderAndLsd(buffer, 4, 4, true, 1);
+        GifBytesTestUtil.writeColorTable(buffer, 4);
+        for (TestFrame frame : frames) {
+            GifBytesTestUtil.writeGraphicsControlExtension(buffer, 10, frame.disposal);
+            GifBytesTestUtil.writeImageDescriptor(buffer, frame.left, frame.top, frame.width, frame.height,
+                    false /*hasLct*/, 0 /*numColors*/);
+            int[] indices = new int[frame.width * frame.height];
+            Arrays.fill(indices, frame.colorIndex);
+            GifBytesTestUtil.writeImageData(buffer, 2, indices);
+        }
+        // Trailer.
+        buffer.put((byte) 0x3B);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static void assertPixels(int[] expectedIndices, Bitmap bitmap) {
+        int[] expected = new int[expectedIndices.length];
+        for (int i = 0; i < expected.length; i++) {
+            // The colors written by GifBytesTestUtil are opaque, with a blue value equal to their index.
+            expected[i] = 0xFF000000 | expectedIndices[i];
+        }
+        int[] actual = new int[bitmap.getWidth() * bitmap.getHeight()];
+        bitmap.getPixels(actual, 0, bitmap.getWidth(), 0, 0, bitmap.getWidth(), bitmap.getHeight());
+        assertArrayEquals("expected=" + Arrays.toString(expected) + " actual=" + Arrays.toString(actual), expected,
+                actual);
+    }
+
+    private static class TestFrame {
+        final int left;
+        final int top;
+        final int width;
+        final int height;
+        final int colorIndex;
+        final int disposal;
+
+        TestFrame(int left, int top, int width, int height, int colorIndex, int disposal) {
+            this.left = left;
+            this.top = top;
+            this.width = width;
+            this.height = height;
+            this.colorIndex = colorIndex;
+            this.disposal = disposal;
+        }
+    }
+
     private static class MockProvider implements GifDecoder.BitmapProvider {
+        // If set, returned by every call to obtain instead of a new Bitmap.
+        Bitmap reused;
 
         @Override
         public Bitmap obtain(int width, int height, Bitmap.Config config) {
+            if (reused != null) {
+                return reused;
+            }
             Bitmap result = Bitmap.createBitmap(width, height, config);
             Robolectric.shadowOf(result).setMutable(true);
             return result;
@@ -107,4 +326,46 @@ public class GifDecoderTest {
             // Do nothing.
         }
     }
+
+    /**
+     * Keeps the pixels of Bitmaps and changes their generation id each time they are modified, like the framework.
+     */
+    @Implements(Bitmap.class)
+    public static class PixelShadowBitmap extends ShadowBitmap {
+        private int[] pixels;
+        private int generationId;
+
+        @Implementation
+        public void setPixels(int[] colors, int offset, int stride, int x, int y, int width, int height) {
+            for (int row = 0; row < height; row++) {
+                System.arraycopy(colors, offset + row * stride, getPixelArray(), (y + row) * getWidth() + x, width);
+            }
+            generationId++;
+        }
+
+        @Implementation
+        public void getPixels(int[] colors, int offset, int stride, int x, int y, int width, int height) {
+            for (int row = 0; row < height; row++) {
+                System.arraycopy(getPixelArray(), (y + row) * getWidth() + x, colors, offset + row * stride, width);
+            }
+        }
+
+        @Implementation
+        public void eraseColor(int color) {
+            Arrays.fill(getPixelArray(), color);
+            generationId++;
+        }
+
+        @Implementation
+        public int getGenerationId() {
+            return generationId;
+        }
+
+        private int[] getPixelArray() {
+            if (pixels == null) {
+                pixels = new int[getWidth() * getHeight()];
+            }
+            return pixels;
+        }
+    }
 }
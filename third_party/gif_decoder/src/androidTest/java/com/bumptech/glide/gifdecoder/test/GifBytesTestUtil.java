@@ -36,6 +36,45 @@ public class GifBytesTestUtil {
         out.put((byte) 0x00);
     }
 
+    /**
+     * Writes LZW image data that encodes the given color indices, with a clear code before each index so that the
+     * decoder never adds to its string table and the code size never changes.
+     */
+    public static void writeImageData(ByteBuffer out, int lzwMinCodeSize, int[] indices) {
+        verifyShortValues(lzwMinCodeSize);
+        final int clear = 1 << lzwMinCodeSize;
+        final int endOfInformation = clear + 1;
+        final int codeSize = lzwMinCodeSize + 1;
+
+        // Pack the codes least significant bit first.
+        byte[] packed = new byte[((2 * indices.length + 1) * codeSize + 7) / 8];
+        int bitPosition = 0;
+        for (int index : indices) {
+            bitPosition = writeCode(packed, bitPosition, clear, codeSize);
+            bitPosition = writeCode(packed, bitPosition, index, codeSize);
+        }
+        writeCode(packed, bitPosition, endOfInformation, codeSize);
+
+        verifyRemaining(out, 1 + packed.length + (packed.length + 254) / 255 + 1);
+        out.put((byte) lzwMinCodeSize);
+        for (int start = 0; start < packed.length; start += 255) {
+            int blockSize = Math.min(255, packed.length - start);
+            out.put((byte) blockSize);
+            out.put(packed, start, blockSize);
+        }
+        // End of block.
+        out.put((byte) 0x00);
+    }
+
+    private static int writeCode(byte[] packed, int bitPosition, int code, int codeSize) {
+        for (int i = 0; i < codeSize; i++) {
+            if ((code & (1 << i)) != 0) {
+                packed[(bitPosition + i) / 8] |= 1 << ((bitPosition + i) % 8);
+            }
+        }
+        return bitPosition + codeSize;
+    }
+
     public static void writeColorTable(ByteBuffer out, int numColors) {
         verifyRemaining(out, getColorTableLength(numColors));
         for (int i = 0; i < numColors; i++) {
@@ -107,6 +146,10 @@ public class GifBytesTestUtil {
     }
 
     public static void writeGraphicsControlExtension(ByteBuffer out, int delayTime) {
+        writeGraphicsControlExtension(out, delayTime, 0 /*disposal*/);
+    }
+
+    public static void writeGraphicsControlExtension(ByteBuffer out, int delayTime, int disposal) {
         verifyRemaining(out, GRAPHICS_CONTROL_EXTENSION_LENGTH);
         verifyShortValues(delayTime);
 
@@ -117,7 +160,7 @@ public class GifBytesTestUtil {
         // Block size (constant).
         out.put((byte) 0x04);
         // Packed (disposal method, user input, transparent color flag)
-        out.put((byte) 0x00);
+        out.put((byte) ((disposal & 0x07) << 2));
 
         // Frame delay in 100ths of a second.
         out.putShort((short) delayTime);
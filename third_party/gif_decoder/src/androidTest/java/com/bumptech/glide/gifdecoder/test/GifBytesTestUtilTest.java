@@ -144,6 +144,42 @@ public class GifBytesTestUtilTest {
         assertEquals(expected, buffer);
     }
 
+    @Test
+    public void testWritesGraphicsControlExtensionWithDisposal() {
+        ByteBuffer buffer = ByteBuffer.allocate(GifBytesTestUtil.GRAPHICS_CONTROL_EXTENSION_LENGTH);
+        byte[] expected = new byte[] {
+                // Extension inducer.
+                0x21,
+                // Graphic control label.
+                (byte) 0xF9,
+                // Block size.
+                0x04,
+                // Packed byte, restore to previous.
+                0x0C,
+                // Frame delay.
+                0x00,
+                0x14,
+                // Transparent color index.
+                0x00,
+                // block terminator.
+                0x00
+        };
+
+        GifBytesTestUtil.writeGraphicsControlExtension(buffer, 20, 3 /*disposal*/);
+        assertEquals(expected, buffer);
+    }
+
+    @Test
+    public void testWriteImageData() {
+        ByteBuffer buffer = ByteBuffer.allocate(5);
+        GifBytesTestUtil.writeImageData(buffer, 2, new int[] { 1, 3 });
+
+        // Clear (4), 1, clear (4), 3, end of information (5) in 3 bit codes, least significant bit first.
+        byte[] expected = new byte[] { 0x02, 0x02, 0x0C, 0x57, 0x00 };
+
+        assertEquals(expected, buffer);
+    }
+
     private static void assertEquals(byte[] expected, ByteBuffer buffer) {
         assertArrayEquals("expected=" + Arrays.toString(expected) + " received=" + Arrays.toString(buffer.array()),
                 expected, buffer.array());
@@ -0,0 +1,61 @@
+package com.bumptech.glide.gifdecoder;
+
+/**
+ * A mutable rectangle used to track the region of a GIF's canvas that has changed. Right and bottom are exclusive.
+ */
+final class DirtyRect {
+    int left;
+    int top;
+    int right;
+    int bottom;
+
+    void set(int left, int top, int right, int bottom) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    void setEmpty() {
+        set(0, 0, 0, 0);
+    }
+
+    boolean isEmpty() {
+        return left >= right || top >= bottom;
+    }
+
+    int width() {
+        return right - left;
+    }
+
+    int height() {
+        return bottom - top;
+    }
+
+    /**
+     * Limits this rectangle to a canvas of the given size.
+     */
+    void clip(int width, int height) {
+        left = Math.max(left, 0);
+        top = Math.max(top, 0);
+        right = Math.min(right, width);
+        bottom = Math.min(bottom, height);
+    }
+
+    /**
+     * Expands this rectangle to contain the given rectangle, ignoring empty rectangles.
+     */
+    void union(DirtyRect other) {
+        if (other.isEmpty()) {
+            return;
+        }
+        if (isEmpty()) {
+            set(other.left, other.top, other.right, other.bottom);
+        } else {
+            left = Math.min(left, other.left);
+            top = Math.min(top, other.top);
+            right = Math.max(right, other.right);
+            bottom = Math.max(bottom, other.bottom);
+        }
+    }
+}
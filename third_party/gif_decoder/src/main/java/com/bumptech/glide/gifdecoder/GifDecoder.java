@@ -76,6 +76,19 @@ public class GifDecoder {
      * max decoder pixel stack size.
      */
     private static final int MAX_STACK_SIZE = 4096;
+    /**
+     * The largest LZW code size, in bits.
+     */
+    private static final int MAX_CODE_SIZE = 12;
+    /**
+     * The initial size of the array that each frame's data sub-blocks are read in to.
+     */
+    private static final int MIN_BLOCK_DATA_SIZE = 8192;
+    /**
+     * The number of recently written output Bitmaps to track, enough for one to be displayed while the next is
+     * decoded.
+     */
+    private static final int MAX_WRITTEN_FRAMES = 2;
 
     /**
      * GIF Disposal Method meaning take no action.
@@ -110,19 +123,34 @@ public class GifDecoder {
     // Raw GIF data from input source.
     private ByteBuffer rawData;
 
-    // Raw data read working array.
-    private final byte[] block = new byte[256];
+    // Concatenated data sub-blocks of the current frame.
+    private byte[] blockData;
 
     private GifHeaderParser parser;
 
     // LZW decoder working arrays.
     private short[] prefix;
     private byte[] suffix;
-    private byte[] pixelStack;
+    private byte[] firstPixel;
+    private short[] codeLength;
     private byte[] mainPixels;
     private int[] mainScratch;
 
+    // Regions of the canvas that changed in the current frame, and since the Bitmaps that hold earlier canvases were
+    // written.
+    private final DirtyRect frameDirty = new DirtyRect();
+    private final DirtyRect frameRect = new DirtyRect();
+    private final DirtyRect previousImageDirty = new DirtyRect();
+    // Output Bitmaps recently written by this decoder, which the BitmapProvider may return again unmodified.
+    private final Bitmap[] writtenFrames = new Bitmap[MAX_WRITTEN_FRAMES];
+    private final int[] writtenGenerationIds = new int[MAX_WRITTEN_FRAMES];
+    private final DirtyRect[] writtenFramesDirty = new DirtyRect[MAX_WRITTEN_FRAMES];
+    private int nextWrittenFrame;
+
     private int framePointer;
+    private int sampleSize;
+    private int downsampledWidth;
+    private int downsampledHeight;
     private byte[] data;
     private GifHeader header;
     private BitmapProvider bitmapProvider;
@@ -154,6 +182,9 @@ public class GifDecoder {
     public GifDecoder(BitmapProvider provider) {
         this.bitmapProvider = provider;
         header = new GifHeader();
+        for (int i = 0; i < MAX_WRITTEN_FRAMES; i++) {
+            writtenFramesDirty[i] = new DirtyRect();
+        }
     }
 
     public int getWidth() {
@@ -165,6 +196,13 @@ public class GifDecoder {
     }
 
     public byte[] getData() {
+        if (data == null && rawData != null) {
+            // Only copy data that was given as a buffer if the caller actually needs an array.
+            ByteBuffer copy = rawData.duplicate();
+            copy.rewind();
+            data = new byte[copy.remaining()];
+            copy.get(data);
+        }
         return data;
     }
 
@@ -346,25 +384,54 @@ public class GifDecoder {
     public void clear() {
         header = null;
         data = null;
+        rawData = null;
         mainPixels = null;
         mainScratch = null;
         if (previousImage != null) {
             bitmapProvider.release(previousImage);
         }
         previousImage = null;
+        Arrays.fill(writtenFrames, null);
     }
 
     public void setData(GifHeader header, byte[] data) {
-        this.header = header;
+        setData(header, ByteBuffer.wrap(data));
         this.data = data;
+    }
+
+    /**
+     * Sets the header and the data to decode frames from, starting at the buffer's current position. The buffer
+     * itself is not modified, so it may be shared between decoders or backed by a memory mapped file, in which case
+     * frame data is only read as each frame is decoded.
+     */
+    public void setData(GifHeader header, ByteBuffer buffer) {
+        setData(header, buffer, 1);
+    }
+
+    /**
+     * Sets the header and the data to decode frames from, like {@link #setData(GifHeader, java.nio.ByteBuffer)}, and
+     * the factor by which to subsample frames.
+     *
+     * <p>
+     *     Frames are composed and returned at {@link #getWidth()} and {@link #getHeight()} divided by the sample size
+     *     and rounded up, taking the nearest pixel from every sampleSize-th row and column of the canvas, so that
+     *     GIFs displayed smaller than their original size never need full sized Bitmaps.
+     * </p>
+     *
+     * @param sampleSize The factor to subsample by, which must be at least 1.
+     */
+    public void setData(GifHeader header, ByteBuffer buffer, int sampleSize) {
+        if (sampleSize <= 0) {
+            throw new IllegalArgumentException("Sample size must be >=1, not: " + sampleSize);
+        }
+        this.header = header;
+        this.data = null;
         this.status = STATUS_OK;
         framePointer = INITIAL_FRAME_POINTER;
         // Initialize the raw data buffer.
-        rawData = ByteBuffer.wrap(data);
-        rawData.rewind();
+        rawData = buffer.slice().asReadOnlyBuffer();
         rawData.order(ByteOrder.LITTLE_ENDIAN);
 
-
         // No point in specially saving an old frame if we're never going to use it.
         savePrevious = false;
         for (GifFrame frame : header.frames) {
@@ -374,9 +441,32 @@ public class GifDecoder {
             }
         }
 
+        setSampleSize(sampleSize);
+
         // Now that we know the size, init scratch arrays.
         mainPixels = new byte[header.width * header.height];
-        mainScratch = new int[header.width * header.height];
+        mainScratch = new int[downsampledWidth * downsampledHeight];
+        resetDirtyRegions();
+    }
+
+    private void setSampleSize(int sampleSize) {
+        this.sampleSize = sampleSize;
+        downsampledWidth = divideRoundingUp(header.width, sampleSize);
+        downsampledHeight = divideRoundingUp(header.height, sampleSize);
+    }
+
+    private static int divideRoundingUp(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * Sets the given rectangle to the region of the downsampled canvas that samples the given region of the full
+     * sized canvas.
+     */
+    private void setDownsampledRect(DirtyRect rect, int left, int top, int right, int bottom) {
+        rect.set(divideRoundingUp(left, sampleSize), divideRoundingUp(top, sampleSize),
+                divideRoundingUp(right, sampleSize), divideRoundingUp(bottom, sampleSize));
+        rect.clip(downsampledWidth, downsampledHeight);
     }
 
     private GifHeaderParser getHeaderParser() {
@@ -402,8 +492,10 @@ public class GifDecoder {
             rawData.order(ByteOrder.LITTLE_ENDIAN);
 
             // Now that we know the size, init scratch arrays.
+            setSampleSize(1);
             mainPixels = new byte[header.width * header.height];
-            mainScratch = new int[header.width * header.height];
+            mainScratch = new int[downsampledWidth * downsampledHeight];
+            resetDirtyRegions();
 
             // No point in specially saving an old frame if we're never going to use it.
             savePrevious = false;
@@ -420,114 +512,138 @@ public class GifDecoder {
 
     /**
      * Creates new frame image from current data (and previous frames as specified by their disposition codes).
+     *
+     * <p>
+     *     Only the region disposed of by the previous frame and the region drawn by the current frame are composed,
+     *     and only the region of the canvas that changed since a Bitmap was last written by this decoder is copied in
+     *     to it, so the cost of each frame scales with the area it changes rather than with the size of the canvas.
+     * </p>
      */
     private Bitmap setPixels(GifFrame currentFrame, GifFrame previousFrame) {
 
-        int width = header.width;
-        int height = header.height;
+        int width = downsampledWidth;
+        int height = downsampledHeight;
 
         // Final location of blended pixels.
         final int[] dest = mainScratch;
+        frameDirty.setEmpty();
 
         // fill in starting image contents based on last image's dispose code
         if (previousFrame != null && previousFrame.dispose > DISPOSAL_UNSPECIFIED) {
             // We don't need to do anything for DISPOSAL_NONE, if it has the correct pixels so will our mainScratch
-            // and therefore so will our dest array.
-            if (previousFrame.dispose == DISPOSAL_BACKGROUND) {
-                // Start with a canvas filled with the background color
+            // and therefore so will our dest array. Other disposal methods only apply to the previous frame's area.
+            final DirtyRect disposed = frameRect;
+            setDownsampledRect(disposed, previousFrame.ix, previousFrame.iy, previousFrame.ix + previousFrame.iw,
+                    previousFrame.iy + previousFrame.ih);
+            if (disposed.isEmpty()) {
+                // Nothing to dispose.
+            } else if (previousFrame.dispose == DISPOSAL_BACKGROUND) {
+                // Start with the previous frame's area filled with the background color
                 int c = 0;
                 if (!currentFrame.transparency) {
                     c = header.bgColor;
                 }
-                Arrays.fill(dest, c);
+                for (int line = disposed.top; line < disposed.bottom; line++) {
+                    final int k = line * width;
+                    Arrays.fill(dest, k + disposed.left, k + disposed.right, c);
+                }
+                frameDirty.union(disposed);
             } else if (previousFrame.dispose == DISPOSAL_PREVIOUS && previousImage != null) {
-                // Start with the previous frame
-                previousImage.getPixels(dest, 0, width, 0, 0, width, height);
+                // Start with the previous frame's area restored from the frame before it
+                previousImage.getPixels(dest, disposed.top * width + disposed.left, width, disposed.left, disposed.top,
+                        disposed.width(), disposed.height());
+                frameDirty.union(disposed);
             }
         }
 
-        // Decode pixels for this frame  into the global pixels[] scratch.
-        decodeBitmapData(currentFrame);
-
-        // Copy each source line to the appropriate place in the destination.
-        int pass = 1;
-        int inc = 8;
-        int iline = 0;
-        for (int i = 0; i < currentFrame.ih; i++) {
-            int line = i;
-            if (currentFrame.interlace) {
-                if (iline >= currentFrame.ih) {
-                    pass++;
-                    switch (pass) {
-                        case 2:
-                            iline = 4;
-                            break;
-                        case 3:
-                            iline = 2;
-                            inc = 4;
-                            break;
-                        case 4:
-                            iline = 1;
-                            inc = 2;
-                            break;
-                        default:
-                            break;
-                    }
-                }
-                line = iline;
-                iline += inc;
-            }
-            line += currentFrame.iy;
-            if (line < header.height) {
-                int k = line * header.width;
-                // Start of line in dest.
-                int dx = k + currentFrame.ix;
-                // End of dest line.
-                int dlim = dx + currentFrame.iw;
-                if ((k + header.width) < dlim) {
-                    // Past dest edge.
-                    dlim = k + header.width;
-                }
-                // Start of line in source.
-                int sx = i * currentFrame.iw;
-                while (dx < dlim) {
-                    // Map color and insert in destination.
-                    int index = ((int) mainPixels[sx++]) & 0xff;
-                    int c = act[index];
-                    if (c != 0) {
-                        dest[dx] = c;
-                    }
-                    dx++;
-                }
-            }
+        // Decode pixels for this frame into the global pixels[] scratch, copying each row into dest as it completes.
+        decodeBitmapData(currentFrame, dest);
+
+        final DirtyRect drawn = frameRect;
+        setDownsampledRect(drawn, currentFrame.ix, currentFrame.iy, currentFrame.ix + currentFrame.iw,
+                currentFrame.iy + currentFrame.ih);
+        frameDirty.union(drawn);
+        previousImageDirty.union(frameDirty);
+        for (DirtyRect dirty : writtenFramesDirty) {
+            dirty.union(frameDirty);
         }
 
         // Copy pixels into previous image
         if (savePrevious && currentFrame.dispose == DISPOSAL_UNSPECIFIED || currentFrame.dispose == DISPOSAL_NONE) {
             if (previousImage == null) {
                 previousImage = getNextBitmap();
+                previousImageDirty.set(0, 0, width, height);
             }
-            previousImage.setPixels(dest, 0, width, 0, 0, width, height);
+            copyToBitmap(previousImage, previousImageDirty);
+            previousImageDirty.setEmpty();
         }
 
         // Set pixels for current image.
-        Bitmap result = getNextBitmap();
-        result.setPixels(dest, 0, width, 0, 0, width, height);
+        Bitmap result = bitmapProvider.obtain(width, height, BITMAP_CONFIG);
+        if (result == null) {
+            result = Bitmap.createBitmap(width, height, BITMAP_CONFIG);
+        }
+        final int written = getWrittenFrameIndex(result);
+        setAlpha(result);
+        copyToBitmap(result, writtenFramesDirty[written]);
+        writtenFramesDirty[written].setEmpty();
+        writtenFrames[written] = result;
+        writtenGenerationIds[written] = getGenerationId(result);
         return result;
     }
 
     /**
-     * Decodes LZW image data into pixel array. Adapted from John Cristy's BitmapMagick.
+     * Returns the index in {@link #writtenFrames} that the given Bitmap is or will be tracked at. If the Bitmap was
+     * written by this decoder and hasn't been modified since, its dirty region is left as is. Otherwise the whole
+     * canvas is marked as dirty.
      */
-    private void decodeBitmapData(GifFrame frame) {
+    private int getWrittenFrameIndex(Bitmap bitmap) {
+        for (int i = 0; i < MAX_WRITTEN_FRAMES; i++) {
+            if (writtenFrames[i] == bitmap) {
+                if (bitmap.isRecycled() || !canTrackGenerationId()
+                        || getGenerationId(bitmap) != writtenGenerationIds[i]) {
+                    writtenFramesDirty[i].set(0, 0, downsampledWidth, downsampledHeight);
+                }
+                return i;
+            }
+        }
+        final int index = nextWrittenFrame;
+        nextWrittenFrame = (nextWrittenFrame + 1) % MAX_WRITTEN_FRAMES;
+        writtenFramesDirty[index].set(0, 0, downsampledWidth, downsampledHeight);
+        return index;
+    }
+
+    private void resetDirtyRegions() {
+        Arrays.fill(writtenFrames, null);
+        previousImageDirty.set(0, 0, downsampledWidth, downsampledHeight);
+    }
+
+    private void copyToBitmap(Bitmap bitmap, DirtyRect region) {
+        if (!region.isEmpty()) {
+            final int width = downsampledWidth;
+            bitmap.setPixels(mainScratch, region.top * width + region.left, width, region.left, region.top,
+                    region.width(), region.height());
+        }
+    }
+
+    /**
+     * Decodes LZW image data into pixel array and copies the colors of each row into the destination as soon as the
+     * row is complete. Adapted from John Cristy's BitmapMagick.
+     *
+     * <p>
+     *     All of the frame's data sub-blocks are read in bulk before decoding starts. The string table records the
+     *     length and first pixel of every code, so that each code is written backwards directly into its place in the
+     *     pixel array without going through a stack.
+     * </p>
+     */
+    private void decodeBitmapData(GifFrame frame, int[] dest) {
         if (frame != null) {
             // Jump to the frame start position.
             rawData.position(frame.bufferFrameStart);
         }
 
-        int npix = (frame == null) ? header.width * header.height : frame.iw * frame.ih;
-        int available, clear, codeMask, codeSize, endOfInformation, inCode, oldCode, bits, code, count, i, datum,
-                dataSize, first, top, bi, pi;
+        final int npix = (frame == null) ? header.width * header.height : frame.iw * frame.ih;
+        final int rowWidth = (frame == null) ? header.width : frame.iw;
 
         if (mainPixels == null || mainPixels.length < npix) {
             // Allocate new pixel array.
@@ -539,46 +655,59 @@ public class GifDecoder {
         if (suffix == null) {
             suffix = new byte[MAX_STACK_SIZE];
         }
-        if (pixelStack == null) {
-            pixelStack = new byte[MAX_STACK_SIZE + 1];
+        if (firstPixel == null) {
+            firstPixel = new byte[MAX_STACK_SIZE];
+        }
+        if (codeLength == null) {
+            codeLength = new short[MAX_STACK_SIZE];
         }
+        final short[] prefix = this.prefix;
+        final byte[] suffix = this.suffix;
+        final byte[] firstPixel = this.firstPixel;
+        final short[] codeLength = this.codeLength;
+        final byte[] pixels = mainPixels;
 
         // Initialize GIF data stream decoder.
-        dataSize = read();
-        clear = 1 << dataSize;
-        endOfInformation = clear + 1;
-        available = clear + 2;
-        oldCode = NULL_CODE;
-        codeSize = dataSize + 1;
-        codeMask = (1 << codeSize) - 1;
-        for (code = 0; code < clear; code++) {
-            // XXX ArrayIndexOutOfBoundsException.
-            prefix[code] = 0;
-            suffix[code] = (byte) code;
-        }
-
-        // Decode GIF pixel stream.
-        datum = bits = count = first = top = pi = bi = 0;
-        for (i = 0; i < npix; ) {
-            // Load bytes until there are enough bits for a code.
-            if (count == 0) {
-                // Read a new data block.
-                count = readBlock();
-                if (count <= 0) {
-                    status = STATUS_PARTIAL_DECODE;
-                    break;
-                }
-                bi = 0;
+        final int dataSize = read();
+        final int dataLength = readBlocks();
+        final byte[] data = blockData;
+
+        int pi = 0;
+        int rowsCopied = 0;
+        int nextRowEnd = rowWidth;
+        // Codes are at most 12 bits, so larger initial code sizes can't be valid.
+        if (dataSize < MAX_CODE_SIZE) {
+            final int clear = 1 << dataSize;
+            final int endOfInformation = clear + 1;
+            int available = clear + 2;
+            int oldCode = NULL_CODE;
+            int codeSize = dataSize + 1;
+            int codeMask = (1 << codeSize) - 1;
+            for (int code = 0; code < clear; code++) {
+                prefix[code] = 0;
+                suffix[code] = (byte) code;
+                firstPixel[code] = (byte) code;
+                codeLength[code] = 1;
             }
 
-            datum += (((int) block[bi]) & 0xff) << bits;
-            bits += 8;
-            bi++;
-            count--;
+            // Decode GIF pixel stream.
+            int datum = 0;
+            int bits = 0;
+            int bi = 0;
+            while (pi < npix) {
+                // Load bytes until there are enough bits for a code.
+                if (bits < codeSize) {
+                    if (bi >= dataLength) {
+                        status = STATUS_PARTIAL_DECODE;
+                        break;
+                    }
+                    datum |= (((int) data[bi++]) & 0xff) << bits;
+                    bits += 8;
+                    continue;
+                }
 
-            while (bits >= codeSize) {
                 // Get the next code.
-                code = datum & codeMask;
+                int code = datum & codeMask;
                 datum >>= codeSize;
                 bits -= codeSize;
 
@@ -590,60 +719,158 @@ public class GifDecoder {
                     available = clear + 2;
                     oldCode = NULL_CODE;
                     continue;
-                }
-
-                if (code > available) {
-                    status = STATUS_PARTIAL_DECODE;
+                } else if (code == endOfInformation) {
+                    if (pi < npix) {
+                        status = STATUS_PARTIAL_DECODE;
+                    }
                     break;
-                }
-
-                if (code == endOfInformation) {
+                } else if (code > available || (oldCode == NULL_CODE && code >= clear)) {
+                    status = STATUS_PARTIAL_DECODE;
                     break;
                 }
 
-                if (oldCode == NULL_CODE) {
-                    pixelStack[top++] = suffix[code];
-                    oldCode = code;
-                    first = code;
-                    continue;
-                }
-                inCode = code;
-                if (code >= available) {
-                    pixelStack[top++] = (byte) first;
-                    code = oldCode;
-                }
-                while (code >= clear) {
-                    pixelStack[top++] = suffix[code];
-                    code = prefix[code];
-                }
-                first = ((int) suffix[code]) & 0xff;
-                pixelStack[top++] = (byte) first;
-
-                // Add a new string to the string table.
-                if (available < MAX_STACK_SIZE) {
+                if (oldCode != NULL_CODE && available < MAX_STACK_SIZE) {
+                    // Add a new string to the string table, which, if the code is the one being added, is the string
+                    // being written.
+                    final int first = code < available ? firstPixel[code] : firstPixel[oldCode];
                     prefix[available] = (short) oldCode;
                     suffix[available] = (byte) first;
+                    firstPixel[available] = firstPixel[oldCode];
+                    codeLength[available] = (short) (codeLength[oldCode] + 1);
                     available++;
                     if (((available & codeMask) == 0) && (available < MAX_STACK_SIZE)) {
                         codeSize++;
                         codeMask += available;
                     }
                 }
-                oldCode = inCode;
+                oldCode = code;
+
+                // Write the code's string backwards from its last pixel, dropping any pixels past the frame's end.
+                final int length = codeLength[code];
+                int end = pi + length;
+                while (end > npix) {
+                    code = prefix[code];
+                    end--;
+                }
+                for (int p = end - 1; p > pi; p--) {
+                    pixels[p] = suffix[code];
+                    code = prefix[code];
+                }
+                pixels[pi] = suffix[code];
+                pi = end;
 
-                while (top > 0) {
-                    // Pop a pixel off the pixel stack.
-                    top--;
-                    mainPixels[pi++] = pixelStack[top];
-                    i++;
+                if (pi >= nextRowEnd) {
+                    rowsCopied = copyRows(frame, pixels, dest, rowsCopied, pi / rowWidth);
+                    nextRowEnd = (rowsCopied + 1) * rowWidth;
                 }
             }
+        } else {
+            status = STATUS_FORMAT_ERROR;
         }
 
         // Clear missing pixels.
-        for (i = pi; i < npix; i++) {
-            mainPixels[i] = 0;
+        Arrays.fill(pixels, pi, npix, (byte) 0);
+        if (rowWidth > 0) {
+            copyRows(frame, pixels, dest, rowsCopied, npix / rowWidth);
+        }
+    }
+
+    /**
+     * Maps the color indices of the given rows of the frame's pixels to colors and copies them to the appropriate
+     * place in the destination, skipping transparent pixels and any pixels that aren't sampled.
+     *
+     * @return The index of the row after the last row copied.
+     */
+    private int copyRows(GifFrame frame, byte[] pixels, int[] dest, int fromRow, int toRow) {
+        final int[] act = this.act;
+        final int sampleSize = this.sampleSize;
+        final int width = downsampledWidth;
+        final int height = downsampledHeight;
+        final int ix = frame == null ? 0 : frame.ix;
+        final int iy = frame == null ? 0 : frame.iy;
+        final int iw = frame == null ? header.width : frame.iw;
+        final int ih = frame == null ? header.height : frame.ih;
+        final boolean interlace = frame != null && frame.interlace;
+        // The first sampled column in the frame, and the sampled columns clipped to the dest edge.
+        final int firstColumn = divideRoundingUp(ix, sampleSize);
+        final int lastColumn = Math.min(divideRoundingUp(ix + iw, sampleSize), width);
+        final int firstSx = firstColumn * sampleSize - ix;
+        for (int i = fromRow; i < toRow; i++) {
+            final int line = (interlace ? getInterlacedLine(i, ih) : i) + iy;
+            if (line % sampleSize != 0 || line / sampleSize >= height || firstColumn >= lastColumn) {
+                continue;
+            }
+            final int k = (line / sampleSize) * width;
+            // Start of line in dest.
+            int dx = k + firstColumn;
+            final int dlim = k + lastColumn;
+            // Start of line in source.
+            int sx = i * iw + firstSx;
+            while (dx < dlim) {
+                // Map color and insert in destination.
+                final int c = act[((int) pixels[sx]) & 0xff];
+                if (c != 0) {
+                    dest[dx] = c;
+                }
+                sx += sampleSize;
+                dx++;
+            }
+        }
+        return toRow;
+    }
+
+    /**
+     * Returns the line in the frame that the given row of an interlaced frame is drawn on. Interlaced frames store
+     * every 8th line starting from 0, then every 8th line starting from 4, then every 4th line starting from 2 and
+     * finally every other line starting from 1.
+     */
+    private static int getInterlacedLine(int row, int height) {
+        int remaining = row;
+        final int firstPassRows = (height + 7) / 8;
+        if (remaining < firstPassRows) {
+            return remaining * 8;
+        }
+        remaining -= firstPassRows;
+        final int secondPassRows = (height + 3) / 8;
+        if (remaining < secondPassRows) {
+            return remaining * 8 + 4;
+        }
+        remaining -= secondPassRows;
+        final int thirdPassRows = (height + 1) / 4;
+        if (remaining < thirdPassRows) {
+            return remaining * 4 + 2;
+        }
+        remaining -= thirdPassRows;
+        return remaining * 2 + 1;
+    }
+
+    /**
+     * Reads every data sub-block up to and including the block terminator, concatenating their contents in to
+     * {@link #blockData}.
+     *
+     * @return The number of bytes read in to {@link #blockData}.
+     */
+    private int readBlocks() {
+        if (blockData == null) {
+            blockData = new byte[MIN_BLOCK_DATA_SIZE];
         }
+        int length = 0;
+        try {
+            int blockSize;
+            while ((blockSize = rawData.get() & 0xFF) > 0) {
+                if (length + blockSize > blockData.length) {
+                    blockData = Arrays.copyOf(blockData, Math.max(blockData.length * 2, length + blockSize));
+                }
+                rawData.get(blockData, length, blockSize);
+                length += blockSize;
+            }
+        } catch (Exception e) {
+            // Decode as much of a truncated frame as we can.
+            if (Log.isLoggable(TAG, Log.DEBUG)) {
+                Log.d(TAG, "Error reading data blocks", e);
+            }
+        }
+        return length;
     }
 
     /**
@@ -659,35 +886,19 @@ public class GifDecoder {
         return curByte;
     }
 
-    /**
-     * Reads next variable length block from input.
-     *
-     * @return number of bytes stored in "buffer".
-     */
-    private int readBlock() {
-        int blockSize = read();
-        int n = 0;
-        if (blockSize > 0) {
-            try {
-                int count;
-                while (n < blockSize) {
-                    count = blockSize - n;
-                    rawData.get(block, n, count);
+    private static boolean canTrackGenerationId() {
+        return Build.VERSION.SDK_INT >= 12;
+    }
 
-                    n += count;
-                }
-            } catch (Exception e) {
-                Log.w(TAG, "Error Reading Block", e);
-                status = STATUS_FORMAT_ERROR;
-            }
-        }
-        return n;
+    @TargetApi(12)
+    private static int getGenerationId(Bitmap bitmap) {
+        return canTrackGenerationId() ? bitmap.getGenerationId() : 0;
     }
 
     private Bitmap getNextBitmap() {
-        Bitmap result = bitmapProvider.obtain(header.width, header.height, BITMAP_CONFIG);
+        Bitmap result = bitmapProvider.obtain(downsampledWidth, downsampledHeight, BITMAP_CONFIG);
         if (result == null) {
-            result = Bitmap.createBitmap(header.width, header.height, BITMAP_CONFIG);
+            result = Bitmap.createBitmap(downsampledWidth, downsampledHeight, BITMAP_CONFIG);
         }
         setAlpha(result);
         return result;
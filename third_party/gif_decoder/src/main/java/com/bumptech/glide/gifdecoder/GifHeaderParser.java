@@ -30,10 +30,17 @@ public class GifHeaderParser {
     private int blockSize = 0;
 
     public GifHeaderParser setData(byte[] data) {
+        return setData(data != null ? ByteBuffer.wrap(data) : null);
+    }
+
+    /**
+     * Sets the data to parse, starting at the buffer's current position. The buffer itself is not modified, so it
+     * may be shared or backed by a memory mapped file.
+     */
+    public GifHeaderParser setData(ByteBuffer data) {
         reset();
         if (data != null) {
-            rawData = ByteBuffer.wrap(data);
-            rawData.rewind();
+            rawData = data.slice().asReadOnlyBuffer();
             rawData.order(ByteOrder.LITTLE_ENDIAN);
         } else {
             rawData = null;